@@ -14,14 +14,19 @@ package org.eclipse.che.api.deploy;
 import com.google.inject.AbstractModule;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.util.Map;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionForwarder;
 import org.eclipse.che.api.core.notification.RemoteSubscriptionStorage;
 import org.eclipse.che.api.system.server.ServiceTermination;
 import org.eclipse.che.api.workspace.server.WorkspaceLockService;
 import org.eclipse.che.api.workspace.server.WorkspaceStatusCache;
 import org.eclipse.che.multiuser.api.distributed.JGroupsServiceTermination;
 import org.eclipse.che.multiuser.api.distributed.WorkspaceStopPropagator;
-import org.eclipse.che.multiuser.api.distributed.subscription.DistributedRemoteSubscriptionStorage;
+import org.eclipse.che.multiuser.api.distributed.cache.KubernetesRuntimeCacheInvalidationPropagator;
+import org.eclipse.che.multiuser.api.distributed.cache.PermissionsCacheInvalidationPropagator;
+import org.eclipse.che.multiuser.api.distributed.lock.WorkspaceLockMeterBinder;
+import org.eclipse.che.multiuser.api.distributed.subscription.NodeLocalRemoteSubscriptionStorage;
 import org.eclipse.persistence.config.CacheCoordinationProtocol;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 
@@ -45,7 +50,8 @@ public class ReplicationModule extends AbstractModule {
         PersistenceUnitProperties.COORDINATION_JGROUPS_CONFIG, JGROUPS_CONF_FILE);
     bindConstant().annotatedWith(Names.named("jgroups.config.file")).to(JGROUPS_CONF_FILE);
 
-    bind(RemoteSubscriptionStorage.class).to(DistributedRemoteSubscriptionStorage.class);
+    bind(RemoteSubscriptionStorage.class).to(NodeLocalRemoteSubscriptionStorage.class);
+    bind(RemoteSubscriptionForwarder.class).to(NodeLocalRemoteSubscriptionStorage.class);
 
     bind(WorkspaceLockService.class)
         .to(org.eclipse.che.multiuser.api.distributed.lock.JGroupsWorkspaceLockService.class);
@@ -57,5 +63,13 @@ public class ReplicationModule extends AbstractModule {
         .to(JGroupsServiceTermination.class);
 
     bind(WorkspaceStopPropagator.class).asEagerSingleton();
+    bind(KubernetesRuntimeCacheInvalidationPropagator.class).asEagerSingleton();
+    bind(PermissionsCacheInvalidationPropagator.class).asEagerSingleton();
+
+    if (Boolean.valueOf(System.getenv("CHE_METRICS_ENABLED"))) {
+      Multibinder.newSetBinder(binder(), MeterBinder.class)
+          .addBinding()
+          .to(WorkspaceLockMeterBinder.class);
+    }
   }
 }
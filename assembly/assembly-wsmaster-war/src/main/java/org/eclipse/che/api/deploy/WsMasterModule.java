@@ -21,6 +21,7 @@ import com.google.inject.assistedinject.FactoryModuleBuilder;
 import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -78,12 +79,14 @@ import org.eclipse.che.commons.auth.token.ChainedTokenExtractor;
 import org.eclipse.che.commons.auth.token.RequestTokenExtractor;
 import org.eclipse.che.core.db.DBTermination;
 import org.eclipse.che.core.db.schema.SchemaInitializer;
+import org.eclipse.che.infrastructure.docker.client.connection.DockerConnectionPoolMeterBinder;
 import org.eclipse.che.inject.DynaModule;
 import org.eclipse.che.mail.template.ST.STTemplateProcessorImpl;
 import org.eclipse.che.mail.template.TemplateProcessor;
 import org.eclipse.che.multiuser.api.permission.server.AdminPermissionInitializer;
 import org.eclipse.che.multiuser.api.permission.server.PermissionChecker;
 import org.eclipse.che.multiuser.api.permission.server.PermissionCheckerImpl;
+import org.eclipse.che.multiuser.api.permission.server.PermissionCheckerMeterBinder;
 import org.eclipse.che.multiuser.api.workspace.activity.MultiUserWorkspaceActivityModule;
 import org.eclipse.che.multiuser.keycloak.server.deploy.KeycloakModule;
 import org.eclipse.che.multiuser.machine.authentication.server.MachineAuthModule;
@@ -96,6 +99,7 @@ import org.eclipse.che.security.PBKDF2PasswordEncryptor;
 import org.eclipse.che.security.PasswordEncryptor;
 import org.eclipse.che.security.oauth.EmbeddedOAuthAPI;
 import org.eclipse.che.security.oauth.OAuthAPI;
+import org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildMeterBinder;
 import org.eclipse.che.workspace.infrastructure.docker.DockerInfraModule;
 import org.eclipse.che.workspace.infrastructure.docker.local.LocalDockerModule;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfraModule;
@@ -110,6 +114,7 @@ import org.eclipse.che.workspace.infrastructure.openshift.OpenShiftInfraModule;
 import org.eclipse.che.workspace.infrastructure.openshift.OpenShiftInfrastructure;
 import org.eclipse.che.workspace.infrastructure.openshift.environment.OpenShiftEnvironment;
 import org.eclipse.che.workspace.infrastructure.openshift.multiuser.oauth.IdentityProviderConfigFactory;
+import org.eclipse.persistence.config.BatchWriting;
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.flywaydb.core.internal.util.PlaceholderReplacer;
 
@@ -258,6 +263,8 @@ public class WsMasterModule extends AbstractModule {
     persistenceProperties.put(PersistenceUnitProperties.TARGET_SERVER, "None");
     persistenceProperties.put(PersistenceUnitProperties.LOGGING_LOGGER, "DefaultLogger");
     persistenceProperties.put(PersistenceUnitProperties.LOGGING_LEVEL, "SEVERE");
+    persistenceProperties.put(PersistenceUnitProperties.BATCH_WRITING, BatchWriting.JDBC);
+    persistenceProperties.put(PersistenceUnitProperties.BATCH_WRITING_SIZE, "100");
     persistenceProperties.put(
         PersistenceUnitProperties.NON_JTA_DATASOURCE, "java:/comp/env/jdbc/che");
     bindConstant().annotatedWith(Names.named("jndi.datasource.name")).to("java:/comp/env/jdbc/che");
@@ -280,6 +287,12 @@ public class WsMasterModule extends AbstractModule {
     } else {
       install(new LocalDockerModule());
       install(new DockerInfraModule());
+      if (Boolean.valueOf(System.getenv("CHE_METRICS_ENABLED"))) {
+        Multibinder<MeterBinder> meterBinders =
+            Multibinder.newSetBinder(binder(), MeterBinder.class);
+        meterBinders.addBinding().to(DockerConnectionPoolMeterBinder.class);
+        meterBinders.addBinding().to(DockerImagesBuildMeterBinder.class);
+      }
     }
 
     bind(org.eclipse.che.api.user.server.AppStatesPreferenceCleaner.class);
@@ -403,6 +416,11 @@ public class WsMasterModule extends AbstractModule {
     bind(UserDao.class).to(JpaUserDao.class);
     bind(PreferenceDao.class).to(JpaPreferenceDao.class);
     bind(PermissionChecker.class).to(PermissionCheckerImpl.class);
+    if (Boolean.valueOf(System.getenv("CHE_METRICS_ENABLED"))) {
+      Multibinder.newSetBinder(binder(), MeterBinder.class)
+          .addBinding()
+          .to(PermissionCheckerMeterBinder.class);
+    }
 
     bindConstant().annotatedWith(Names.named("che.agents.auth_enabled")).to(true);
   }
@@ -91,21 +91,45 @@ public class JsonRpcMessageReceiver implements WebSocketMessageReceiver {
     responseDispatcher.dispatch(endpointId, response);
   }
 
-  private class ProcessRequestTask implements Runnable {
+  private class ProcessRequestTask implements JsonRpcRequestTask {
 
     private final String endpointId;
     private final String innerMessage;
 
+    private JsonRpcRequest request;
+
     public ProcessRequestTask(String endpointId, String innerMessage) {
       this.endpointId = endpointId;
       this.innerMessage = innerMessage;
     }
 
+    @Override
+    public String getEndpointId() {
+      return endpointId;
+    }
+
+    @Override
+    public JsonRpcRequest getRequest() {
+      if (request == null) {
+        request = jsonRpcUnmarshaller.unmarshalRequest(innerMessage);
+      }
+      return request;
+    }
+
+    @Override
+    public void reject(JsonRpcException e) {
+      JsonRpcRequest request = getRequest();
+      if (request.hasId()) {
+        errorTransmitter.transmit(
+            endpointId, new JsonRpcException(e.getCode(), e.getMessage(), request.getId()));
+      }
+    }
+
     @Override
     public void run() {
       JsonRpcRequest request = null;
       try {
-        request = jsonRpcUnmarshaller.unmarshalRequest(innerMessage);
+        request = getRequest();
         requestDispatcher.dispatch(endpointId, request);
       } catch (JsonRpcException e) {
         if (request == null || request.getId() == null) {
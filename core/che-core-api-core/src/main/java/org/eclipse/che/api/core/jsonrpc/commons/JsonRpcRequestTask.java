@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.commons;
+
+/**
+ * Runnable that processes a JSON RPC request received from an endpoint. Passed to {@link
+ * RequestProcessor} so implementations may schedule processing depending on the endpoint and the
+ * request.
+ */
+public interface JsonRpcRequestTask extends Runnable {
+
+  /** Returns identifier of the endpoint the request is received from. */
+  String getEndpointId();
+
+  /** Returns the request processed by this task, request is unmarshalled on the first call. */
+  JsonRpcRequest getRequest();
+
+  /**
+   * Skips processing of the request and transmits the error to the endpoint instead. Errors are
+   * transmitted only for requests, notifications are skipped silently.
+   *
+   * @param e error to transmit
+   */
+  void reject(JsonRpcException e);
+}
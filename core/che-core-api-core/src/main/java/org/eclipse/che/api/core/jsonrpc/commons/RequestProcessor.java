@@ -11,7 +11,10 @@
  */
 package org.eclipse.che.api.core.jsonrpc.commons;
 
-/** Platfrom dependent implementation of of request handler processing algorithm. */
+/**
+ * Platfrom dependent implementation of of request handler processing algorithm. Requests received
+ * from endpoints are passed as {@link JsonRpcRequestTask} instances.
+ */
 public interface RequestProcessor {
   /**
    * Process a runnable interface
@@ -72,7 +72,21 @@ public class SendConfiguratorFromMany<P> {
             + "params list value"
             + pListValue);
 
-    transmitNotification();
+    transmitNotification(false);
+  }
+
+  /**
+   * Sends the notification which may be combined with other notifications addressed to the same
+   * endpoint into a single JSON RPC batch, must be used only for endpoints which are able to
+   * process batches.
+   *
+   * @see WebSocketMessageTransmitter#transmitBatched(String, String)
+   */
+  public void sendAndSkipResultBatched() {
+    LOGGER.debug(
+        "Transmitting batched request: endpoint ID: " + endpointId + ", method: " + method);
+
+    transmitNotification(true);
   }
 
   public <R> JsonRpcPromise<R> sendAndReceiveResultAsDto(Class<R> rClass) {
@@ -328,11 +342,15 @@ public class SendConfiguratorFromMany<P> {
         endpointId, requestId, Double.class, timeoutInMillis);
   }
 
-  private void transmitNotification() {
+  private void transmitNotification(boolean batched) {
     JsonRpcParams params = new JsonRpcParams(pListValue);
     JsonRpcRequest request = new JsonRpcRequest(null, method, params);
     String message = marshaller.marshall(request);
-    transmitter.transmit(endpointId, message);
+    if (batched) {
+      transmitter.transmitBatched(endpointId, message);
+    } else {
+      transmitter.transmit(endpointId, message);
+    }
   }
 
   private String transmitRequest() {
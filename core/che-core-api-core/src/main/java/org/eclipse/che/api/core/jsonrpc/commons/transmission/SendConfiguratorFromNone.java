@@ -55,7 +55,21 @@ public class SendConfiguratorFromNone {
     LOGGER.debug(
         "Transmitting request: " + "endpoint ID: " + endpointId + ", " + "method: " + method);
 
-    transmitNotification();
+    transmitNotification(false);
+  }
+
+  /**
+   * Sends the notification which may be combined with other notifications addressed to the same
+   * endpoint into a single JSON RPC batch, must be used only for endpoints which are able to
+   * process batches.
+   *
+   * @see WebSocketMessageTransmitter#transmitBatched(String, String)
+   */
+  public void sendAndSkipResultBatched() {
+    LOGGER.debug(
+        "Transmitting batched request: endpoint ID: " + endpointId + ", method: " + method);
+
+    transmitNotification(true);
   }
 
   public <R> JsonRpcPromise<R> sendAndReceiveResultAsDto(final Class<R> rClass) {
@@ -261,10 +275,14 @@ public class SendConfiguratorFromNone {
         endpointId, requestId, Double.class, timeInMillis);
   }
 
-  private void transmitNotification() {
+  private void transmitNotification(boolean batched) {
     JsonRpcRequest request = new JsonRpcRequest(null, method, null);
     String message = marshaller.marshall(request);
-    transmitter.transmit(endpointId, message);
+    if (batched) {
+      transmitter.transmitBatched(endpointId, message);
+    } else {
+      transmitter.transmit(endpointId, message);
+    }
   }
 
   private String transmitRequest() {
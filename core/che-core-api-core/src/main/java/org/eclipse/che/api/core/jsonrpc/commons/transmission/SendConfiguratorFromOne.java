@@ -70,7 +70,21 @@ public class SendConfiguratorFromOne<P> {
             + "params list value"
             + pValue);
 
-    transmitNotification();
+    transmitNotification(false);
+  }
+
+  /**
+   * Sends the notification which may be combined with other notifications addressed to the same
+   * endpoint into a single JSON RPC batch, must be used only for endpoints which are able to
+   * process batches.
+   *
+   * @see WebSocketMessageTransmitter#transmitBatched(String, String)
+   */
+  public void sendAndSkipResultBatched() {
+    LOGGER.debug(
+        "Transmitting batched request: endpoint ID: " + endpointId + ", method: " + method);
+
+    transmitNotification(true);
   }
 
   public <R> JsonRpcPromise<R> sendAndReceiveResultAsDto(final Class<R> rClass) {
@@ -311,11 +325,15 @@ public class SendConfiguratorFromOne<P> {
         endpointId, requestId, Double.class, timeoutInMillis);
   }
 
-  private void transmitNotification() {
+  private void transmitNotification(boolean batched) {
     JsonRpcParams params = new JsonRpcParams(pValue);
     JsonRpcRequest request = new JsonRpcRequest(null, method, params);
     String message = marshaller.marshall(request);
-    transmitter.transmit(endpointId, message);
+    if (batched) {
+      transmitter.transmitBatched(endpointId, message);
+    } else {
+      transmitter.transmit(endpointId, message);
+    }
   }
 
   private String transmitRequest() {
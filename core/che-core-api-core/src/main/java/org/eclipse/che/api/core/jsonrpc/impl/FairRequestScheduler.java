@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequestTask;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules JSON RPC requests processing with bounded queues.
+ *
+ * <p>Requests are queued per endpoint and endpoints are served in round-robin order, so a single
+ * endpoint which sends a burst of requests can't starve the others. High priority requests
+ * (notifications and configured methods) are always served before the rest of requests. When
+ * either the endpoint queue or the whole queue is full, the request is rejected with the JSON RPC
+ * error instead of being dropped silently.
+ *
+ * <p>Worker threads are started on demand up to the configured maximum and stop after being idle
+ * for the keep alive time.
+ */
+class FairRequestScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FairRequestScheduler.class);
+
+  /** JSON RPC implementation-defined server error code. */
+  static final int SERVER_OVERLOADED_ERROR_CODE = -32000;
+
+  private static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+  private final ExecutorService workersExecutor;
+  private final int maxWorkers;
+  private final int queueCapacity;
+  private final int endpointQueueCapacity;
+  private final Set<String> priorityMethods;
+  private final Set<RequestProcessingListener> listeners;
+
+  private final ReentrantLock lock;
+  private final Condition notEmpty;
+  private final PriorityLevel high;
+  private final PriorityLevel normal;
+
+  private int size;
+  private int workers;
+  private int idleWorkers;
+  private boolean shutdown;
+
+  FairRequestScheduler(
+      ExecutorService workersExecutor,
+      int maxWorkers,
+      int queueCapacity,
+      int endpointQueueCapacity,
+      Set<String> priorityMethods,
+      Set<RequestProcessingListener> listeners) {
+    this.workersExecutor = workersExecutor;
+    this.maxWorkers = maxWorkers;
+    this.queueCapacity = queueCapacity;
+    this.endpointQueueCapacity = endpointQueueCapacity;
+    this.priorityMethods = priorityMethods;
+    this.listeners = listeners;
+    this.lock = new ReentrantLock();
+    this.notEmpty = lock.newCondition();
+    this.high = new PriorityLevel();
+    this.normal = new PriorityLevel();
+  }
+
+  /**
+   * Queues the task for processing or rejects it with the JSON RPC error if there is no room for
+   * it in the queue.
+   */
+  void schedule(JsonRpcRequestTask task) {
+    final boolean highPriority = isHighPriority(task);
+    final PriorityLevel level = highPriority ? high : normal;
+    final Entry entry =
+        new Entry(ThreadLocalPropagateContext.wrap(task), highPriority, System.nanoTime());
+    boolean queued = false;
+    boolean startWorker = false;
+    lock.lock();
+    try {
+      if (shutdown) {
+        LOG.warn("{} is skipped since processor is shut down", task);
+        return;
+      }
+      if (size < queueCapacity && level.offer(task.getEndpointId(), entry)) {
+        queued = true;
+        size++;
+        if (idleWorkers > 0) {
+          notEmpty.signal();
+        }
+        if (size > idleWorkers && workers < maxWorkers) {
+          workers++;
+          startWorker = true;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (!queued) {
+      reject(task, highPriority);
+    } else if (startWorker) {
+      workersExecutor.execute(this::work);
+    }
+  }
+
+  /** Returns the number of requests waiting for processing. */
+  int getQueueSize() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Stops workers, requests which are still in the queue are discarded. */
+  void shutdown() {
+    lock.lock();
+    try {
+      shutdown = true;
+      notEmpty.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean isHighPriority(JsonRpcRequestTask task) {
+    try {
+      return !task.getRequest().hasId() || priorityMethods.contains(task.getRequest().getMethod());
+    } catch (RuntimeException e) {
+      // request will fail during processing, no matter what is the priority
+      return false;
+    }
+  }
+
+  private void reject(JsonRpcRequestTask task, boolean highPriority) {
+    LOG.warn("{} is rejected since the requests queue is full", task);
+    for (RequestProcessingListener listener : listeners) {
+      listener.onRejected(highPriority);
+    }
+    try {
+      task.reject(
+          new JsonRpcException(
+              SERVER_OVERLOADED_ERROR_CODE,
+              "Server is overloaded, request is rejected. Please try again later"));
+    } catch (RuntimeException e) {
+      LOG.error(e.getMessage(), e);
+    }
+  }
+
+  private void work() {
+    Entry entry;
+    while ((entry = take()) != null) {
+      final long startedAt = System.nanoTime();
+      try {
+        entry.runnable.run();
+      } catch (RuntimeException e) {
+        LOG.error(e.getMessage(), e);
+      }
+      final long executionNanos = System.nanoTime() - startedAt;
+      final long queueWaitNanos = startedAt - entry.queuedAt;
+      for (RequestProcessingListener listener : listeners) {
+        listener.onProcessed(entry.highPriority, queueWaitNanos, executionNanos);
+      }
+    }
+  }
+
+  /** Returns the next entry to process or null if the worker must stop. */
+  private Entry take() {
+    lock.lock();
+    try {
+      long nanos = KEEP_ALIVE_NANOS;
+      while (size == 0 && !shutdown) {
+        if (nanos <= 0) {
+          workers--;
+          return null;
+        }
+        idleWorkers++;
+        try {
+          nanos = notEmpty.awaitNanos(nanos);
+        } catch (InterruptedException x) {
+          Thread.currentThread().interrupt();
+          workers--;
+          return null;
+        } finally {
+          idleWorkers--;
+        }
+      }
+      if (shutdown) {
+        workers--;
+        return null;
+      }
+      size--;
+      final Entry entry = high.poll();
+      return entry != null ? entry : normal.poll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Queues of the requests with the same priority, endpoints are served in round-robin order. */
+  private class PriorityLevel {
+    final Map<String, ArrayDeque<Entry>> queues = new HashMap<>();
+    final ArrayDeque<String> endpoints = new ArrayDeque<>();
+
+    boolean offer(String endpointId, Entry entry) {
+      ArrayDeque<Entry> queue = queues.get(endpointId);
+      if (queue == null) {
+        queue = new ArrayDeque<>();
+        queues.put(endpointId, queue);
+        endpoints.add(endpointId);
+      } else if (queue.size() >= endpointQueueCapacity) {
+        return false;
+      }
+      queue.add(entry);
+      return true;
+    }
+
+    Entry poll() {
+      final String endpointId = endpoints.poll();
+      if (endpointId == null) {
+        return null;
+      }
+      final ArrayDeque<Entry> queue = queues.get(endpointId);
+      final Entry entry = queue.poll();
+      if (queue.isEmpty()) {
+        queues.remove(endpointId);
+      } else {
+        endpoints.add(endpointId);
+      }
+      return entry;
+    }
+  }
+
+  private static class Entry {
+    final Runnable runnable;
+    final boolean highPriority;
+    final long queuedAt;
+
+    Entry(Runnable runnable, boolean highPriority, long queuedAt) {
+      this.runnable = runnable;
+      this.highPriority = highPriority;
+      this.queuedAt = queuedAt;
+    }
+  }
+}
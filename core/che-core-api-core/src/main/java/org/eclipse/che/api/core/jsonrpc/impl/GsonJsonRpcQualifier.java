@@ -15,26 +15,30 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import com.google.gson.JsonObject;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonParser;
-import com.google.inject.Inject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import com.google.inject.Singleton;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.StringReader;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcQualifier;
 import org.slf4j.Logger;
 
+/**
+ * Qualifies JSON RPC messages with the streaming {@link JsonReader}, only the names of the top
+ * level message properties are read, their values are skipped without building a {@code
+ * JsonElement} tree.
+ */
 @Singleton
 public class GsonJsonRpcQualifier implements JsonRpcQualifier {
   private static final Logger LOGGER = getLogger(GsonJsonRpcQualifier.class);
 
-  private final JsonParser jsonParser;
-
-  @Inject
-  public GsonJsonRpcQualifier(JsonParser jsonParser) {
-    this.jsonParser = jsonParser;
-  }
+  private static final int METHOD = 1;
+  private static final int RESULT = 1 << 1;
+  private static final int ERROR = 1 << 2;
 
   @Override
   public boolean isValidJson(String message) {
@@ -43,12 +47,15 @@ public class GsonJsonRpcQualifier implements JsonRpcQualifier {
 
     LOGGER.debug("Validating message: {}", message);
 
-    try {
-      jsonParser.parse(message);
+    try (JsonReader reader = newReader(message)) {
+      reader.skipValue();
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonSyntaxException("Did not consume the entire document.");
+      }
 
       LOGGER.debug("Validation successful");
       return true;
-    } catch (JsonParseException e) {
+    } catch (IOException | JsonParseException | IllegalStateException e) {
       LOGGER.debug("Validation failed: {}", e.getMessage(), e);
       return false;
     }
@@ -58,14 +65,9 @@ public class GsonJsonRpcQualifier implements JsonRpcQualifier {
   public boolean isJsonRpcRequest(String message) {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
-    LOGGER.debug("Qualifying message: " + message);
+    LOGGER.debug("Qualifying message: {}", message);
 
-    JsonObject jsonObject = jsonParser.parse(message).getAsJsonObject();
-    LOGGER.debug(
-        "Json keys: "
-            + jsonObject.entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
-
-    if (jsonObject.has("method")) {
+    if ((scanProperties(message) & METHOD) != 0) {
       LOGGER.debug("Qualified to request");
       return true;
     } else {
@@ -78,17 +80,48 @@ public class GsonJsonRpcQualifier implements JsonRpcQualifier {
   public boolean isJsonRpcResponse(String message) {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
-    LOGGER.debug("Qualifying message: " + message);
-
-    JsonObject jsonObject = jsonParser.parse(message).getAsJsonObject();
-    LOGGER.debug(
-        "Json keys: "
-            + jsonObject.entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toSet()));
+    LOGGER.debug("Qualifying message: {}", message);
 
-    if (jsonObject.has("error") != jsonObject.has("result")) {
+    int properties = scanProperties(message);
+    if (((properties & ERROR) != 0) != ((properties & RESULT) != 0)) {
       LOGGER.debug("Qualified to response");
       return true;
     }
     return false;
   }
+
+  /** Returns the flags of JSON RPC properties the message object contains. */
+  private int scanProperties(String message) {
+    int properties = 0;
+    try (JsonReader reader = newReader(message)) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        switch (reader.nextName()) {
+          case "method":
+            properties |= METHOD;
+            break;
+          case "result":
+            properties |= RESULT;
+            break;
+          case "error":
+            properties |= ERROR;
+            break;
+          default:
+            // other properties don't affect qualification
+        }
+        reader.skipValue();
+      }
+    } catch (MalformedJsonException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+    return properties;
+  }
+
+  private JsonReader newReader(String message) {
+    JsonReader reader = new JsonReader(new StringReader(message));
+    reader.setLenient(true);
+    return reader;
+  }
 }
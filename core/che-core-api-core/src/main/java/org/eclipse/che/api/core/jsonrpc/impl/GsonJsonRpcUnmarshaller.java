@@ -15,13 +15,18 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Collections.singletonList;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcError;
@@ -30,19 +35,36 @@ import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResult;
 import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcUnmarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerManager;
+import org.eclipse.che.dto.server.DtoFactory;
 
+/**
+ * Unmarshals JSON RPC messages with the streaming {@link JsonReader}, so no intermediate {@code
+ * JsonElement} tree is built for the message itself. If the request method is already known when
+ * its params are read (the method goes before the params, as {@link GsonJsonRpcMarshaller} writes
+ * it) and the method is registered in {@link RequestHandlerManager} with a DTO params class, the
+ * params are bound straight to the DTO. Otherwise object params and results are represented as
+ * {@code JsonObject}s and are converted later by {@link GsonJsonRpcComposer}.
+ */
 @Singleton
 public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
   private final JsonParser jsonParser;
+  private final RequestHandlerManager requestHandlerManager;
 
   @Inject
-  public GsonJsonRpcUnmarshaller(JsonParser jsonParser) {
+  public GsonJsonRpcUnmarshaller(
+      JsonParser jsonParser, RequestHandlerManager requestHandlerManager) {
     this.jsonParser = jsonParser;
+    this.requestHandlerManager = requestHandlerManager;
   }
 
   @Override
   public List<String> unmarshalArray(String message) {
-    return getArray(message, jsonParser.parse(message).isJsonArray());
+    int start = firstNonWhitespace(message);
+    if (start == message.length() || message.charAt(start) != '[') {
+      return singletonList(message);
+    }
+    return splitArray(message, start);
   }
 
   @Override
@@ -50,12 +72,34 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
 
-    JsonObject request = jsonParser.parse(message).getAsJsonObject();
-
-    String method = getMethod(request);
-    String id = getId(request);
-    JsonRpcParams params = getParams(request);
+    String method = null;
+    String id = null;
+    JsonRpcParams params = null;
+    try (JsonReader reader = newReader(message)) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        switch (reader.nextName()) {
+          case "method":
+            method = reader.nextString();
+            break;
+          case "id":
+            id = readId(reader);
+            break;
+          case "params":
+            params = readParams(reader, method);
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endObject();
+    } catch (IOException e) {
+      throw toParseException(e);
+    }
 
+    if (method == null) {
+      throw new JsonParseException("JSON RPC request method is not set");
+    }
     return new JsonRpcRequest(id, method, params);
   }
 
@@ -64,110 +108,192 @@ public class GsonJsonRpcUnmarshaller implements JsonRpcUnmarshaller {
     checkNotNull(message, "Message must not be null");
     checkArgument(!message.isEmpty(), "Message must not be empty");
 
-    JsonObject response = jsonParser.parse(message).getAsJsonObject();
-
-    String id = getId(response);
-    JsonRpcResult result = getResult(response);
-    JsonRpcError error = getError(response);
+    String id = null;
+    JsonRpcResult result = null;
+    JsonRpcError error = null;
+    try (JsonReader reader = newReader(message)) {
+      reader.beginObject();
+      while (reader.hasNext()) {
+        switch (reader.nextName()) {
+          case "id":
+            id = readId(reader);
+            break;
+          case "result":
+            result = readResult(reader);
+            break;
+          case "error":
+            error = readError(reader);
+            break;
+          default:
+            reader.skipValue();
+        }
+      }
+      reader.endObject();
+    } catch (IOException e) {
+      throw toParseException(e);
+    }
 
     return new JsonRpcResponse(id, result, error);
   }
 
-  private JsonRpcError getError(JsonObject response) {
-    if (!response.has("error")) {
-      return null;
-    }
-
-    int code = response.get("error").getAsJsonObject().get("code").getAsInt();
-    String errorMessage = response.get("error").getAsJsonObject().get("message").getAsString();
-    return new JsonRpcError(code, errorMessage);
+  private JsonReader newReader(String message) {
+    JsonReader reader = new JsonReader(new StringReader(message));
+    reader.setLenient(true);
+    return reader;
   }
 
-  private JsonRpcResult getResult(JsonObject response) {
-    if (!response.has("result")) {
+  private String readId(JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
       return null;
     }
-
-    JsonElement jsonElement = response.get("result");
-    if (!jsonElement.isJsonArray()) {
-      return new JsonRpcResult(getInnerItem(jsonElement));
-    }
-
-    JsonArray jsonArray = jsonElement.getAsJsonArray();
-    int size = jsonArray.size();
-    List<Object> innerResults = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      JsonElement innerJsonElement = jsonArray.get(i);
-      innerResults.add(getInnerItem(innerJsonElement));
-    }
-
-    return new JsonRpcResult(innerResults);
+    return reader.nextString();
   }
 
-  private JsonRpcParams getParams(JsonObject jsonObject) {
-    if (!jsonObject.has("params")) {
-      return null;
+  private JsonRpcParams readParams(JsonReader reader, String method) throws IOException {
+    TypeAdapter<?> adapter = null;
+    if (method != null) {
+      Class<?> paramsClass = requestHandlerManager.getParamsClass(method);
+      if (paramsClass != null && DtoFactory.getInstance().hasProvider(paramsClass)) {
+        adapter = DtoFactory.getInstance().getGson().getAdapter(paramsClass);
+      }
     }
 
-    JsonElement jsonElement = jsonObject.get("params");
-    if (!jsonElement.isJsonArray()) {
-      return new JsonRpcParams(getInnerItem(jsonElement));
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      return new JsonRpcParams(readItem(reader, adapter));
     }
 
-    JsonArray jsonArray = jsonElement.getAsJsonArray();
-    int size = jsonArray.size();
-    List<Object> innerParameters = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      JsonElement innerJsonElement = jsonArray.get(i);
-      innerParameters.add(getInnerItem(innerJsonElement));
+    List<Object> innerParameters = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      innerParameters.add(readItem(reader, adapter));
     }
-
+    reader.endArray();
     return new JsonRpcParams(innerParameters);
   }
 
-  private String getId(JsonObject jsonObject) {
-    return jsonObject.has("id") ? jsonObject.get("id").getAsString() : null;
-  }
+  private JsonRpcResult readResult(JsonReader reader) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      return new JsonRpcResult(readItem(reader, null));
+    }
 
-  private String getMethod(JsonObject jsonObject) {
-    return jsonObject.get("method").getAsString();
+    List<Object> innerResults = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      innerResults.add(readItem(reader, null));
+    }
+    reader.endArray();
+    return new JsonRpcResult(innerResults);
   }
 
-  private List<String> getArray(String message, boolean isArray) {
-    if (!isArray) {
-      return singletonList(message);
+  private JsonRpcError readError(JsonReader reader) throws IOException {
+    int code = 0;
+    String errorMessage = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "code":
+          code = reader.nextInt();
+          break;
+        case "message":
+          errorMessage = reader.nextString();
+          break;
+        default:
+          reader.skipValue();
+      }
     }
+    reader.endObject();
+    return new JsonRpcError(code, errorMessage);
+  }
 
-    JsonArray jsonArray = jsonParser.parse(message).getAsJsonArray();
-    int size = jsonArray.size();
-    List<String> result = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      JsonElement jsonElement = jsonArray.get(i);
-      result.add(jsonElement.toString());
+  private Object readItem(JsonReader reader, TypeAdapter<?> adapter) throws IOException {
+    switch (reader.peek()) {
+      case NULL:
+        reader.nextNull();
+        return null;
+      case BEGIN_OBJECT:
+        return adapter != null ? adapter.read(reader) : jsonParser.parse(reader);
+      case NUMBER:
+        return reader.nextDouble();
+      case STRING:
+        return reader.nextString();
+      case BOOLEAN:
+        return reader.nextBoolean();
+      default:
+        throw new IllegalStateException("Unexpected json element type");
     }
-    return result;
   }
 
-  private Object getInnerItem(JsonElement jsonElement) {
-    if (jsonElement.isJsonNull()) {
-      return null;
+  /**
+   * Splits the top level JSON array into the strings of its elements scanning the message once,
+   * without parsing the elements.
+   */
+  private List<String> splitArray(String message, int arrayStart) {
+    List<String> result = new ArrayList<>();
+    int depth = 0;
+    int elementStart = -1;
+    boolean inString = false;
+    for (int i = arrayStart; i < message.length(); i++) {
+      char c = message.charAt(i);
+      if (inString) {
+        if (c == '\\') {
+          i++;
+        } else if (c == '"') {
+          inString = false;
+        }
+        continue;
+      }
+      switch (c) {
+        case '"':
+          inString = true;
+          elementStart = depth == 1 && elementStart < 0 ? i : elementStart;
+          break;
+        case '{':
+        case '[':
+          elementStart = depth == 1 && elementStart < 0 ? i : elementStart;
+          depth++;
+          break;
+        case '}':
+        case ']':
+          depth--;
+          if (depth == 0) {
+            addElement(result, message, elementStart, i);
+            return result;
+          }
+          break;
+        case ',':
+          if (depth == 1) {
+            addElement(result, message, elementStart, i);
+            elementStart = -1;
+          }
+          break;
+        default:
+          if (depth == 1 && elementStart < 0 && !Character.isWhitespace(c)) {
+            elementStart = i;
+          }
+      }
     }
+    throw new JsonSyntaxException("Unterminated JSON array");
+  }
 
-    if (jsonElement.isJsonObject()) {
-      return jsonElement.getAsJsonObject();
+  private void addElement(List<String> elements, String message, int start, int end) {
+    if (start >= 0) {
+      elements.add(message.substring(start, end).trim());
     }
+  }
 
-    if (jsonElement.isJsonPrimitive()) {
-      JsonPrimitive jsonPrimitive = jsonElement.getAsJsonPrimitive();
-      if (jsonPrimitive.isNumber()) {
-        return jsonPrimitive.getAsDouble();
-      } else if (jsonPrimitive.isString()) {
-        return jsonPrimitive.getAsString();
-      } else {
-        return jsonPrimitive.getAsBoolean();
-      }
+  private int firstNonWhitespace(String message) {
+    int i = 0;
+    while (i < message.length() && Character.isWhitespace(message.charAt(i))) {
+      i++;
     }
+    return i;
+  }
 
-    throw new IllegalStateException("Unexpected json element type");
+  private JsonParseException toParseException(IOException e) {
+    if (e instanceof MalformedJsonException) {
+      return new JsonSyntaxException(e);
+    }
+    return new JsonIOException(e);
   }
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+/**
+ * Receives notifications about JSON RPC requests processed by {@link ServerSideRequestProcessor}
+ * in the bounded queue mode, e.g. for collecting metrics. Listeners are bound with {@link
+ * com.google.inject.multibindings.Multibinder} and must not block.
+ */
+public interface RequestProcessingListener {
+
+  /**
+   * Called when a request is processed.
+   *
+   * @param highPriority whether the request was processed with the high priority
+   * @param queueWaitNanos time the request spent in the queue
+   * @param executionNanos time spent on the request processing
+   */
+  void onProcessed(boolean highPriority, long queueWaitNanos, long executionNanos);
+
+  /**
+   * Called when a request is rejected because the queue is full.
+   *
+   * @param highPriority whether the request has the high priority
+   */
+  void onRejected(boolean highPriority);
+}
@@ -13,10 +13,13 @@ package org.eclipse.che.api.core.jsonrpc.impl;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -24,25 +27,52 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Named;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequestTask;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestProcessor;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Processes JSON RPC requests in a thread pool.
+ *
+ * <p>By default requests are passed to the pool directly and rejected with a log message when
+ * all the pool threads are busy. When {@code che.core.jsonrpc.processor_queue_capacity} is
+ * positive, requests are queued in bounded per endpoint queues and processed fairly, with the
+ * priority for notifications and {@code che.core.jsonrpc.processor_priority_methods}, see {@link
+ * FairRequestScheduler}.
+ */
 @Singleton
 public class ServerSideRequestProcessor implements RequestProcessor {
 
   private static final Logger LOG = LoggerFactory.getLogger(ServerSideRequestProcessor.class);
 
   private ExecutorService executorService;
+  private FairRequestScheduler scheduler;
   private final int maxPoolSize;
+  private final int queueCapacity;
+  private final int endpointQueueCapacity;
+  private final Set<String> priorityMethods;
+  private final Set<RequestProcessingListener> listeners;
 
   @Inject
   public ServerSideRequestProcessor(
-      @Named("che.core.jsonrpc.processor_max_pool_size") int maxPoolSize) {
+      @Named("che.core.jsonrpc.processor_max_pool_size") int maxPoolSize,
+      @Named("che.core.jsonrpc.processor_queue_capacity") int queueCapacity,
+      @Named("che.core.jsonrpc.processor_endpoint_queue_capacity") int endpointQueueCapacity,
+      @Nullable @Named("che.core.jsonrpc.processor_priority_methods") String[] priorityMethods,
+      Set<RequestProcessingListener> listeners) {
     this.maxPoolSize = maxPoolSize;
+    this.queueCapacity = queueCapacity;
+    this.endpointQueueCapacity =
+        endpointQueueCapacity > 0 ? endpointQueueCapacity : Math.max(queueCapacity, 1);
+    this.priorityMethods =
+        priorityMethods == null ? ImmutableSet.of() : ImmutableSet.copyOf(priorityMethods);
+    this.listeners = listeners;
     LOG.debug("che.core.jsonrpc.processor_max_pool_size {}  ", maxPoolSize);
+    LOG.debug("che.core.jsonrpc.processor_queue_capacity {}  ", queueCapacity);
   }
 
   @PostConstruct
@@ -54,16 +84,31 @@ public class ServerSideRequestProcessor implements RequestProcessor {
             .setDaemon(true)
             .build();
 
-    executorService =
-        new ThreadPoolExecutor(
-            0, maxPoolSize, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
-    ((ThreadPoolExecutor) executorService)
-        .setRejectedExecutionHandler(
-            (r, executor) -> LOG.warn("Message {} rejected for execution", r));
+    if (queueCapacity > 0) {
+      executorService = Executors.newCachedThreadPool(factory);
+      scheduler =
+          new FairRequestScheduler(
+              executorService,
+              maxPoolSize,
+              queueCapacity,
+              endpointQueueCapacity,
+              priorityMethods,
+              listeners);
+    } else {
+      executorService =
+          new ThreadPoolExecutor(
+              0, maxPoolSize, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+      ((ThreadPoolExecutor) executorService)
+          .setRejectedExecutionHandler(
+              (r, executor) -> LOG.warn("Message {} rejected for execution", r));
+    }
   }
 
   @PreDestroy
   private void preDestroy() {
+    if (scheduler != null) {
+      scheduler.shutdown();
+    }
     executorService.shutdown();
     try {
       if (executorService.awaitTermination(5, SECONDS)) {
@@ -78,6 +123,18 @@ public class ServerSideRequestProcessor implements RequestProcessor {
 
   @Override
   public void process(Runnable runnable) {
-    executorService.execute(ThreadLocalPropagateContext.wrap(runnable));
+    if (scheduler != null && runnable instanceof JsonRpcRequestTask) {
+      scheduler.schedule((JsonRpcRequestTask) runnable);
+    } else {
+      executorService.execute(ThreadLocalPropagateContext.wrap(runnable));
+    }
+  }
+
+  /**
+   * Returns the number of requests waiting for processing, it is always zero when requests are not
+   * queued.
+   */
+  public int getQueueSize() {
+    return scheduler != null ? scheduler.getQueueSize() : 0;
   }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+/**
+ * Describes how events are delivered to a subscriber registered with {@link
+ * EventService#subscribeAsync(EventSubscriber, Class, AsyncDeliveryOptions)}.
+ *
+ * <p>Events are distributed between {@link #getPartitions() partitions} by the key produced by
+ * {@link #getPartitionKey() partition key function}, each partition has its own bounded queue and
+ * a single worker thread, so events with equal keys (e.g. events of the same workspace) are
+ * delivered in the order they were published. Usage example:
+ *
+ * <pre>
+ *   eventService.subscribeAsync(
+ *       subscriber,
+ *       WorkspaceStatusEvent.class,
+ *       AsyncDeliveryOptions.partitionedBy(WorkspaceStatusEvent::getWorkspaceId)
+ *           .withQueueCapacity(1000)
+ *           .withOverflowPolicy(OverflowPolicy.DROP_OLDEST));
+ * </pre>
+ */
+public final class AsyncDeliveryOptions<T> {
+
+  /** Defines what happens with the published event when the partition queue is full. */
+  public enum OverflowPolicy {
+    /** Publisher waits until there is a free space in the queue. */
+    BLOCK,
+    /** Published event is dropped. */
+    DROP_NEWEST,
+    /** The oldest event from the queue is dropped to make a room for the published one. */
+    DROP_OLDEST
+  }
+
+  public static final int DEFAULT_PARTITIONS = 1;
+  public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+  /**
+   * Creates options where all the events are delivered through the single partition, so the
+   * publishing order is preserved for all the events.
+   */
+  public static <T> AsyncDeliveryOptions<T> ordered() {
+    return new AsyncDeliveryOptions<>(
+        e -> null, DEFAULT_PARTITIONS, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.BLOCK);
+  }
+
+  /**
+   * Creates options where events are distributed between partitions by the key produced by the
+   * given function. Events with {@code null} key may be delivered by any partition.
+   */
+  public static <T> AsyncDeliveryOptions<T> partitionedBy(
+      Function<? super T, ?> partitionKeyFunction) {
+    return new AsyncDeliveryOptions<>(
+        partitionKeyFunction,
+        Runtime.getRuntime().availableProcessors(),
+        DEFAULT_QUEUE_CAPACITY,
+        OverflowPolicy.BLOCK);
+  }
+
+  private final Function<? super T, ?> partitionKey;
+  private final int partitions;
+  private final int queueCapacity;
+  private final OverflowPolicy overflowPolicy;
+
+  private AsyncDeliveryOptions(
+      Function<? super T, ?> partitionKey,
+      int partitions,
+      int queueCapacity,
+      OverflowPolicy overflowPolicy) {
+    this.partitionKey = requireNonNull(partitionKey, "Required non-null partition key function");
+    this.overflowPolicy = requireNonNull(overflowPolicy, "Required non-null overflow policy");
+    if (partitions < 1) {
+      throw new IllegalArgumentException("Partitions number must be positive");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive");
+    }
+    this.partitions = partitions;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /** Returns function that produces the key which is used for choosing the event partition. */
+  public Function<? super T, ?> getPartitionKey() {
+    return partitionKey;
+  }
+
+  /** Returns number of partitions, each partition is served by a separate thread. */
+  public int getPartitions() {
+    return partitions;
+  }
+
+  /** Returns the maximum number of events that may wait for delivery in a single partition. */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /** Returns the policy which is applied when the partition queue is full. */
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public AsyncDeliveryOptions<T> withPartitions(int partitions) {
+    return new AsyncDeliveryOptions<>(partitionKey, partitions, queueCapacity, overflowPolicy);
+  }
+
+  public AsyncDeliveryOptions<T> withQueueCapacity(int queueCapacity) {
+    return new AsyncDeliveryOptions<>(partitionKey, partitions, queueCapacity, overflowPolicy);
+  }
+
+  public AsyncDeliveryOptions<T> withOverflowPolicy(OverflowPolicy overflowPolicy) {
+    return new AsyncDeliveryOptions<>(partitionKey, partitions, queueCapacity, overflowPolicy);
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncDeliveryOptions{"
+        + "partitions="
+        + partitions
+        + ", queueCapacity="
+        + queueCapacity
+        + ", overflowPolicy="
+        + overflowPolicy
+        + '}';
+  }
+}
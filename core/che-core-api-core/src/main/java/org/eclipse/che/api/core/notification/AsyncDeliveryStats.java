@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated statistics of asynchronous event delivery of {@link EventService}, used for exposing
+ * the delivery metrics.
+ */
+public class AsyncDeliveryStats {
+
+  private final Collection<AsyncEventDispatcher<?>> dispatchers;
+  private final LongAdder dispatched;
+  private final LongAdder dispatchNanos;
+  private final LongAdder dropped;
+
+  AsyncDeliveryStats(Collection<AsyncEventDispatcher<?>> dispatchers) {
+    this.dispatchers = dispatchers;
+    this.dispatched = new LongAdder();
+    this.dispatchNanos = new LongAdder();
+    this.dropped = new LongAdder();
+  }
+
+  /** Returns the number of events waiting for delivery to all the asynchronous subscribers. */
+  public long getQueueSize() {
+    long size = 0;
+    for (AsyncEventDispatcher<?> dispatcher : dispatchers) {
+      size += dispatcher.getQueueSize();
+    }
+    return size;
+  }
+
+  /** Returns the number of events delivered to the asynchronous subscribers. */
+  public long getDispatchedCount() {
+    return dispatched.sum();
+  }
+
+  /**
+   * Returns the total time between publishing of events and completion of their processing by the
+   * asynchronous subscribers.
+   */
+  public double getTotalDispatchTime(TimeUnit unit) {
+    return (double) dispatchNanos.sum() / unit.toNanos(1);
+  }
+
+  /** Returns the number of events dropped because of subscriber queue overflow. */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  void onDispatched(long nanos) {
+    dispatched.increment();
+    dispatchNanos.add(nanos);
+  }
+
+  void onDropped() {
+    dropped.increment();
+  }
+}
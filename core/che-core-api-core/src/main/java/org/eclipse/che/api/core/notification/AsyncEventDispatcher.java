@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers events to the wrapped subscriber asynchronously. Each partition has its own bounded
+ * queue drained by a single worker thread, so the events which have the same partition key are
+ * delivered in the publishing order.
+ *
+ * @see AsyncDeliveryOptions
+ */
+class AsyncEventDispatcher<T> implements EventSubscriber<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncEventDispatcher.class);
+
+  private final EventSubscriber<T> delegate;
+  private final Function<? super T, ?> partitionKey;
+  private final AsyncDeliveryOptions.OverflowPolicy overflowPolicy;
+  private final AsyncDeliveryStats stats;
+  private final BlockingQueue<Envelope<T>>[] queues;
+  private final ExecutorService executor;
+
+  @SuppressWarnings("unchecked")
+  AsyncEventDispatcher(
+      EventSubscriber<T> delegate, AsyncDeliveryOptions<T> options, AsyncDeliveryStats stats) {
+    this.delegate = delegate;
+    this.partitionKey = options.getPartitionKey();
+    this.overflowPolicy = options.getOverflowPolicy();
+    this.stats = stats;
+    this.queues = new BlockingQueue[options.getPartitions()];
+    this.executor =
+        Executors.newFixedThreadPool(
+            options.getPartitions(),
+            new ThreadFactoryBuilder()
+                .setNameFormat("EventService-" + delegate.getClass().getSimpleName() + "-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new ArrayBlockingQueue<>(options.getQueueCapacity());
+      final BlockingQueue<Envelope<T>> queue = queues[i];
+      executor.execute(() -> drain(queue));
+    }
+  }
+
+  @Override
+  public void onEvent(T event) {
+    final BlockingQueue<Envelope<T>> queue = queues[partition(event)];
+    final Envelope<T> envelope = new Envelope<>(event, System.nanoTime());
+    switch (overflowPolicy) {
+      case BLOCK:
+        try {
+          queue.put(envelope);
+        } catch (InterruptedException x) {
+          Thread.currentThread().interrupt();
+          drop(event);
+        }
+        break;
+      case DROP_NEWEST:
+        if (!queue.offer(envelope)) {
+          drop(event);
+        }
+        break;
+      case DROP_OLDEST:
+        while (!queue.offer(envelope)) {
+          final Envelope<T> oldest = queue.poll();
+          if (oldest != null) {
+            drop(oldest.event);
+          }
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unsupported overflow policy " + overflowPolicy);
+    }
+  }
+
+  /** Returns the subscriber events are delivered to. */
+  EventSubscriber<T> getDelegate() {
+    return delegate;
+  }
+
+  /** Returns the number of events waiting for delivery. */
+  long getQueueSize() {
+    long size = 0;
+    for (BlockingQueue<Envelope<T>> queue : queues) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /** Stops delivery, events which are still in queues are discarded. */
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private int partition(T event) {
+    if (queues.length == 1) {
+      return 0;
+    }
+    final Object key = partitionKey.apply(event);
+    if (key == null) {
+      return ThreadLocalRandom.current().nextInt(queues.length);
+    }
+    return (key.hashCode() & Integer.MAX_VALUE) % queues.length;
+  }
+
+  private void drain(BlockingQueue<Envelope<T>> queue) {
+    while (!Thread.currentThread().isInterrupted()) {
+      final Envelope<T> envelope;
+      try {
+        envelope = queue.take();
+      } catch (InterruptedException x) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      try {
+        delegate.onEvent(envelope.event);
+      } catch (RuntimeException e) {
+        LOG.error(e.getMessage(), e);
+      }
+      stats.onDispatched(System.nanoTime() - envelope.publishedNanos);
+    }
+  }
+
+  private void drop(T event) {
+    stats.onDropped();
+    LOG.warn("Event {} is dropped for {} as its queue is full", event, delegate);
+  }
+
+  private static class Envelope<T> {
+    final T event;
+    final long publishedNanos;
+
+    Envelope(T event, long publishedNanos) {
+      this.event = event;
+      this.publishedNanos = publishedNanos;
+    }
+  }
+}
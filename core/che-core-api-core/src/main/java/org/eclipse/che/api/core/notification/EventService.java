@@ -11,18 +11,20 @@
  */
 package org.eclipse.che.api.core.notification;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,50 +43,52 @@ import org.slf4j.LoggerFactory;
  *     bus.publish(new MyEvent());
  * </pre>
  *
+ * <p>Subscribers are called on the publisher's thread unless they are registered with {@link
+ * #subscribeAsync(EventSubscriber, Class, AsyncDeliveryOptions)}.
+ *
  * @author andrew00x
  */
 @Singleton
 public class EventService {
   private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
-  private static final int CACHE_NUM = 1 << 2;
-  private static final int CACHE_MASK = CACHE_NUM - 1;
-  private static final int SEG_SIZE = 32;
+  private static final EventSubscriber[] NO_SUBSCRIBERS = new EventSubscriber[0];
 
-  private final LoadingCache<Class<?>, Set<Class<?>>>[] typeCache;
-  private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+  /** Event class hierarchy: the class itself followed by its superclasses and interfaces. */
+  private static final ClassValue<Class<?>[]> EVENT_TYPES =
+      new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> eventClass) {
+          LinkedList<Class<?>> parents = new LinkedList<>();
+          Set<Class<?>> classes = new LinkedHashSet<>();
+          parents.add(eventClass);
+          while (!parents.isEmpty()) {
+            Class<?> clazz = parents.pop();
+            classes.add(clazz);
+            Class<?> parent = clazz.getSuperclass();
+            if (parent != null) {
+              parents.add(parent);
+            }
+            Class<?>[] interfaces = clazz.getInterfaces();
+            if (interfaces.length > 0) {
+              Collections.addAll(parents, interfaces);
+            }
+          }
+          return classes.toArray(new Class<?>[0]);
+        }
+      };
+
+  private final Object subscriptionsLock = new Object();
+  private final ConcurrentMap<EventSubscriber<?>, AsyncEventDispatcher<?>> asyncDispatchers;
+  private final AsyncDeliveryStats asyncDeliveryStats;
+
+  /** Immutable snapshot of subscriptions, replaced each time subscriptions are changed. */
+  private volatile DispatchTable dispatchTable;
 
-  @SuppressWarnings("unchecked")
   public EventService() {
-    subscribersByEventType = new ConcurrentHashMap<>();
-    typeCache = new LoadingCache[CACHE_NUM];
-    for (int i = 0; i < CACHE_NUM; i++) {
-      typeCache[i] =
-          CacheBuilder.newBuilder()
-              .concurrencyLevel(SEG_SIZE)
-              .build(
-                  new CacheLoader<Class<?>, Set<Class<?>>>() {
-                    @Override
-                    public Set<Class<?>> load(Class<?> eventClass) {
-                      LinkedList<Class<?>> parents = new LinkedList<>();
-                      Set<Class<?>> classes = new HashSet<>();
-                      parents.add(eventClass);
-                      while (!parents.isEmpty()) {
-                        Class<?> clazz = parents.pop();
-                        classes.add(clazz);
-                        Class<?> parent = clazz.getSuperclass();
-                        if (parent != null) {
-                          parents.add(parent);
-                        }
-                        Class<?>[] interfaces = clazz.getInterfaces();
-                        if (interfaces.length > 0) {
-                          Collections.addAll(parents, interfaces);
-                        }
-                      }
-                      return classes;
-                    }
-                  });
-    }
+    asyncDispatchers = new ConcurrentHashMap<>();
+    asyncDeliveryStats = new AsyncDeliveryStats(asyncDispatchers.values());
+    dispatchTable = new DispatchTable(Collections.emptyMap(), Collections.emptySet());
   }
 
   /**
@@ -98,18 +102,12 @@ public class EventService {
     if (event == null) {
       throw new IllegalArgumentException("Null event.");
     }
-    final Class<?> eventClass = event.getClass();
-    for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].getUnchecked(eventClass)) {
-      final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
-      if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
-        for (EventSubscriber eventSubscriber : eventSubscribers) {
-          try {
-            LOG.debug("Publish event {} for {}", event, eventSubscriber);
-            eventSubscriber.onEvent(event);
-          } catch (RuntimeException e) {
-            LOG.error(e.getMessage(), e);
-          }
-        }
+    for (EventSubscriber eventSubscriber : dispatchTable.getSubscribers(event.getClass())) {
+      try {
+        LOG.debug("Publish event {} for {}", event, eventSubscriber);
+        eventSubscriber.onEvent(event);
+      } catch (RuntimeException e) {
+        LOG.error(e.getMessage(), e);
       }
     }
     return event;
@@ -137,16 +135,56 @@ public class EventService {
     doSubscribe(subscriber, eventType);
   }
 
+  /**
+   * Subscribe to an event with asynchronous delivery. The given subscriber is called on the
+   * dedicated worker threads, so slow subscriber doesn't hold the publisher's thread.
+   *
+   * @param subscriber The subscriber to call when an event is published.
+   * @param eventType The event to subscribe to.
+   * @param options The options which define partitioning, queue capacity and overflow policy.
+   * @throws IllegalStateException when the subscriber is already subscribed asynchronously
+   */
+  public <T> void subscribeAsync(
+      EventSubscriber<T> subscriber, Class<T> eventType, AsyncDeliveryOptions<T> options) {
+    final AsyncEventDispatcher<T> dispatcher =
+        new AsyncEventDispatcher<>(subscriber, options, asyncDeliveryStats);
+    if (asyncDispatchers.putIfAbsent(subscriber, dispatcher) != null) {
+      dispatcher.shutdown();
+      throw new IllegalStateException(
+          String.format("Subscriber %s is already subscribed asynchronously", subscriber));
+    }
+    LOG.debug("Subscribe {} to events {} asynchronously with {}", subscriber, eventType, options);
+    doSubscribe(dispatcher, eventType);
+  }
+
+  /** Returns statistics of asynchronous delivery to subscribers. */
+  public AsyncDeliveryStats getAsyncDeliveryStats() {
+    return asyncDeliveryStats;
+  }
+
+  /** Stops asynchronous delivery, events which are not delivered yet are discarded. */
+  @PreDestroy
+  public void shutdown() {
+    for (AsyncEventDispatcher<?> dispatcher : asyncDispatchers.values()) {
+      dispatcher.shutdown();
+    }
+  }
+
   private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-    Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
-    if (entries == null) {
-      Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
-      entries = subscribersByEventType.putIfAbsent(eventType, newEntries);
-      if (entries == null) {
-        entries = newEntries;
+    synchronized (subscriptionsLock) {
+      final DispatchTable current = dispatchTable;
+      final EventSubscriber[] entries =
+          current.subscribersByEventType.getOrDefault(eventType, NO_SUBSCRIBERS);
+      if (indexOf(entries, subscriber) != -1) {
+        return;
       }
+      final EventSubscriber[] newEntries = Arrays.copyOf(entries, entries.length + 1);
+      newEntries[entries.length] = subscriber;
+      final Map<Class<?>, EventSubscriber[]> subscriptions =
+          new HashMap<>(current.subscribersByEventType);
+      subscriptions.put(eventType, newEntries);
+      dispatchTable = new DispatchTable(subscriptions, current.getKnownEventClasses());
     }
-    entries.add(subscriber);
   }
 
   /**
@@ -164,15 +202,40 @@ public class EventService {
   }
 
   private void doUnsubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
-    final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
-    if (entries != null && !entries.isEmpty()) {
-      boolean changed = entries.remove(subscriber);
-      if (changed) {
-        if (entries.isEmpty()) {
-          subscribersByEventType.remove(eventType);
-        }
+    synchronized (subscriptionsLock) {
+      final AsyncEventDispatcher<?> dispatcher = asyncDispatchers.get(subscriber);
+      final EventSubscriber<?> entry = dispatcher != null ? dispatcher : subscriber;
+      final DispatchTable current = dispatchTable;
+      final EventSubscriber[] entries = current.subscribersByEventType.get(eventType);
+      final int idx = entries == null ? -1 : indexOf(entries, entry);
+      if (idx == -1) {
+        return;
+      }
+      if (dispatcher != null) {
+        asyncDispatchers.remove(subscriber, dispatcher);
+        dispatcher.shutdown();
+      }
+      final Map<Class<?>, EventSubscriber[]> subscriptions =
+          new HashMap<>(current.subscribersByEventType);
+      if (entries.length == 1) {
+        subscriptions.remove(eventType);
+      } else {
+        final EventSubscriber[] newEntries = new EventSubscriber[entries.length - 1];
+        System.arraycopy(entries, 0, newEntries, 0, idx);
+        System.arraycopy(entries, idx + 1, newEntries, idx, entries.length - idx - 1);
+        subscriptions.put(eventType, newEntries);
+      }
+      dispatchTable = new DispatchTable(subscriptions, current.getKnownEventClasses());
+    }
+  }
+
+  private static int indexOf(EventSubscriber[] subscribers, EventSubscriber<?> subscriber) {
+    for (int i = 0; i < subscribers.length; i++) {
+      if (subscribers[i].equals(subscriber)) {
+        return i;
       }
     }
+    return -1;
   }
 
   private Class<?> getEventType(EventSubscriber<?> subscriber) {
@@ -201,4 +264,48 @@ public class EventService {
     }
     return eventType;
   }
+
+  /**
+   * Subscriptions snapshot which maps concrete event classes to the flattened arrays of their
+   * subscribers, including subscribers of the event supertypes. Arrays for the event classes which
+   * were published before are computed eagerly when the table is built, arrays for the new event
+   * classes are computed on the first publishing.
+   */
+  private static final class DispatchTable {
+    final Map<Class<?>, EventSubscriber[]> subscribersByEventType;
+    final ConcurrentMap<Class<?>, EventSubscriber[]> subscribersByEventClass;
+
+    DispatchTable(
+        Map<Class<?>, EventSubscriber[]> subscribersByEventType,
+        Set<Class<?>> knownEventClasses) {
+      this.subscribersByEventType = subscribersByEventType;
+      this.subscribersByEventClass = new ConcurrentHashMap<>();
+      for (Class<?> eventClass : knownEventClasses) {
+        subscribersByEventClass.put(eventClass, resolve(eventClass));
+      }
+    }
+
+    EventSubscriber[] getSubscribers(Class<?> eventClass) {
+      final EventSubscriber[] subscribers = subscribersByEventClass.get(eventClass);
+      if (subscribers != null) {
+        return subscribers;
+      }
+      return subscribersByEventClass.computeIfAbsent(eventClass, this::resolve);
+    }
+
+    Set<Class<?>> getKnownEventClasses() {
+      return subscribersByEventClass.keySet();
+    }
+
+    private EventSubscriber[] resolve(Class<?> eventClass) {
+      final List<EventSubscriber> subscribers = new ArrayList<>();
+      for (Class<?> eventType : EVENT_TYPES.get(eventClass)) {
+        final EventSubscriber[] entries = subscribersByEventType.get(eventType);
+        if (entries != null) {
+          Collections.addAll(subscribers, entries);
+        }
+      }
+      return subscribers.isEmpty() ? NO_SUBSCRIBERS : subscribers.toArray(NO_SUBSCRIBERS);
+    }
+  }
 }
@@ -12,6 +12,7 @@
 package org.eclipse.che.api.core.notification;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -21,6 +22,9 @@ import javax.inject.Singleton;
 /**
  * Imnemory implementation of {@link RemoteSubscriptionStorage}
  *
+ * <p>Subscriptions are also indexed by their scope entries, so {@link #getByScope(String, String,
+ * String)} doesn't depend on the number of subscriptions to the method.
+ *
  * @author Max Shaposhnik (mshaposh@redhat.com)
  */
 @Singleton
@@ -28,25 +32,102 @@ public class InmemoryRemoteSubscriptionStorage implements RemoteSubscriptionStor
 
   private final Map<String, Set<RemoteSubscriptionContext>> subscriptions =
       new ConcurrentHashMap<>();
+  private final Map<ScopeEntry, Set<RemoteSubscriptionContext>> scopeIndex =
+      new ConcurrentHashMap<>();
 
   @Override
   public Set<RemoteSubscriptionContext> getByMethod(String method) {
     return subscriptions.getOrDefault(method, Collections.emptySet());
   }
 
+  @Override
+  public Set<RemoteSubscriptionContext> getByScope(
+      String method, String scopeKey, String scopeValue) {
+    return scopeIndex.getOrDefault(
+        new ScopeEntry(method, scopeKey, scopeValue), Collections.emptySet());
+  }
+
   @Override
   public void addSubscription(String method, RemoteSubscriptionContext remoteSubscriptionContext) {
     subscriptions
         .computeIfAbsent(method, k -> ConcurrentHashMap.newKeySet(1))
         .add(remoteSubscriptionContext);
+    if (remoteSubscriptionContext.getScope() == null) {
+      return;
+    }
+    for (Map.Entry<String, String> entry : remoteSubscriptionContext.getScope().entrySet()) {
+      scopeIndex.compute(
+          new ScopeEntry(method, entry.getKey(), entry.getValue()),
+          (k, indexed) -> {
+            if (indexed == null) {
+              indexed = ConcurrentHashMap.newKeySet(1);
+            }
+            indexed.add(remoteSubscriptionContext);
+            return indexed;
+          });
+    }
   }
 
   @Override
   public void removeSubscription(String method, String endpointId) {
+    Set<RemoteSubscriptionContext> removed = new HashSet<>();
     subscriptions
         .getOrDefault(method, Collections.emptySet())
         .removeIf(
-            remoteSubscriptionContext ->
-                Objects.equals(remoteSubscriptionContext.getEndpointId(), endpointId));
+            remoteSubscriptionContext -> {
+              if (Objects.equals(remoteSubscriptionContext.getEndpointId(), endpointId)) {
+                removed.add(remoteSubscriptionContext);
+                return true;
+              }
+              return false;
+            });
+    for (RemoteSubscriptionContext context : removed) {
+      if (context.getScope() == null) {
+        continue;
+      }
+      for (Map.Entry<String, String> entry : context.getScope().entrySet()) {
+        scopeIndex.computeIfPresent(
+            new ScopeEntry(method, entry.getKey(), entry.getValue()),
+            (k, indexed) -> {
+              indexed.remove(context);
+              return indexed.isEmpty() ? null : indexed;
+            });
+      }
+    }
+  }
+
+  private static final class ScopeEntry {
+    private final String method;
+    private final String key;
+    private final String value;
+
+    private ScopeEntry(String method, String key, String value) {
+      this.method = method;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ScopeEntry)) {
+        return false;
+      }
+      final ScopeEntry other = (ScopeEntry) obj;
+      return Objects.equals(method, other.method)
+          && Objects.equals(key, other.key)
+          && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = 7;
+      hash = hash * 31 + Objects.hashCode(method);
+      hash = hash * 31 + Objects.hashCode(key);
+      hash = hash * 31 + Objects.hashCode(value);
+      return hash;
+    }
   }
 }
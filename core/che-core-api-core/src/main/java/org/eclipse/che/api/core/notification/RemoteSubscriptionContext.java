@@ -24,7 +24,7 @@ public class RemoteSubscriptionContext implements Serializable {
   private final String endpointId;
   private final Map<String, String> scope;
 
-  RemoteSubscriptionContext(String endpointId, Map<String, String> scope) {
+  public RemoteSubscriptionContext(String endpointId, Map<String, String> scope) {
     this.endpointId = endpointId;
     this.scope = scope;
   }
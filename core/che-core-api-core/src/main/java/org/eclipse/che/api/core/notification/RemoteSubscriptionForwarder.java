@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Forwards events to the other nodes of the cluster, for the case when remote subscriptions are
+ * kept only on the node which holds the subscriber's websocket connection.
+ *
+ * <p>Nodes which receive the forwarded events are supposed to transmit them to their own
+ * subscribers with {@link RemoteSubscriptionManager#transmitForwarded(String, Object)}.
+ */
+public interface RemoteSubscriptionForwarder {
+
+  /**
+   * Forwards the event which is published on this node to the other nodes that have subscribers of
+   * the given method.
+   *
+   * <p>If the event is addressed to a single scope, only the nodes which have subscribers with the
+   * given scope entry are interested in it, otherwise the event is forwarded to all the nodes which
+   * have subscribers of the method.
+   *
+   * @param method method name
+   * @param event published event
+   * @param scopeKey key of the scope the event is addressed to, e.g. {@code workspaceId}, or {@code
+   *     null} if the recipients of the event are selected by its whole scope
+   * @param scopeValue value of the scope entry, {@code null} if the scope key is {@code null}
+   */
+  void forward(String method, Object event, String scopeKey, String scopeValue);
+}
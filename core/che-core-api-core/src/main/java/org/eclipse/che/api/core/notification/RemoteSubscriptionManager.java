@@ -11,14 +11,36 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.stream.Collectors.toList;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
 import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerConfigurator;
-import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
 import org.eclipse.che.api.core.notification.dto.EventSubscription;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
 
+/**
+ * Transmits events published on {@link EventService} to the remote subscribers as JSON RPC
+ * notifications.
+ *
+ * <p>Each event is serialized once and the same message is transmitted to all the recipients.
+ * Events addressed to a single scope should be registered with a scope key, so the recipients are
+ * looked up in the {@link RemoteSubscriptionStorage#getByScope(String, String, String) scope
+ * index} instead of testing the scope of each subscription.
+ *
+ * <p>If {@link RemoteSubscriptionForwarder} is bound, events are also forwarded to the other nodes
+ * of the cluster which have subscribers of their methods.
+ */
 @Singleton
 public class RemoteSubscriptionManager {
 
@@ -26,17 +48,29 @@ public class RemoteSubscriptionManager {
   public static final String UNSUBSCRIBE_JSON_RPC_METHOD = "unSubscribe";
 
   private final EventService eventService;
-  private final RequestTransmitter requestTransmitter;
+  private final JsonRpcMarshaller marshaller;
+  private final WebSocketMessageTransmitter transmitter;
   private final RemoteSubscriptionStorage remoteSubscriptionStorage;
+  private final Map<String, Consumer<Object>> localTransmitters;
+
+  private RemoteSubscriptionForwarder forwarder;
 
   @Inject
   public RemoteSubscriptionManager(
       EventService eventService,
-      RequestTransmitter requestTransmitter,
+      JsonRpcMarshaller marshaller,
+      WebSocketMessageTransmitter transmitter,
       RemoteSubscriptionStorage remoteSubscriptionStorage) {
     this.eventService = eventService;
-    this.requestTransmitter = requestTransmitter;
+    this.marshaller = marshaller;
+    this.transmitter = transmitter;
     this.remoteSubscriptionStorage = remoteSubscriptionStorage;
+    this.localTransmitters = new ConcurrentHashMap<>();
+  }
+
+  @Inject(optional = true)
+  void setForwarder(RemoteSubscriptionForwarder forwarder) {
+    this.forwarder = forwarder;
   }
 
   @Inject
@@ -58,16 +92,126 @@ public class RemoteSubscriptionManager {
 
   public <T> void register(
       String method, Class<T> eventType, BiPredicate<T, Map<String, String>> biPredicate) {
+    register(method, eventType, predicateRecipients(method, biPredicate), null, null, false);
+  }
+
+  /**
+   * Registers the events which are transmitted to the subscribers in JSON RPC batches, suitable for
+   * frequent events like logs.
+   *
+   * @see WebSocketMessageTransmitter#transmitBatched(String, String)
+   */
+  public <T> void registerBatched(
+      String method, Class<T> eventType, BiPredicate<T, Map<String, String>> biPredicate) {
+    register(method, eventType, predicateRecipients(method, biPredicate), null, null, true);
+  }
+
+  /**
+   * Registers the events which are transmitted to the subscribers which scope contains the given
+   * key with the value extracted from the event.
+   *
+   * @param method method name
+   * @param eventType type of the events
+   * @param scopeKey key of the subscription scope, e.g. {@code workspaceId}
+   * @param scopeValueExtractor extracts the scope value from the event, if {@code null} is returned
+   *     the event is not transmitted
+   */
+  public <T> void register(
+      String method, Class<T> eventType, String scopeKey, Function<T, String> scopeValueExtractor) {
+    register(
+        method,
+        eventType,
+        scopeRecipients(method, scopeKey, scopeValueExtractor),
+        scopeKey,
+        scopeValueExtractor,
+        false);
+  }
+
+  /**
+   * Same as {@link #register(String, Class, String, Function)}, but the events are transmitted in
+   * JSON RPC batches.
+   *
+   * @see #registerBatched(String, Class, BiPredicate)
+   */
+  public <T> void registerBatched(
+      String method, Class<T> eventType, String scopeKey, Function<T, String> scopeValueExtractor) {
+    register(
+        method,
+        eventType,
+        scopeRecipients(method, scopeKey, scopeValueExtractor),
+        scopeKey,
+        scopeValueExtractor,
+        true);
+  }
+
+  private <T> void register(
+      String method,
+      Class<T> eventType,
+      Function<T, Collection<RemoteSubscriptionContext>> recipients,
+      String scopeKey,
+      Function<T, String> scopeValueExtractor,
+      boolean batched) {
+    Consumer<T> localTransmitter =
+        event -> transmit(method, event, recipients.apply(event), batched);
+    localTransmitters.put(method, event -> localTransmitter.accept(eventType.cast(event)));
     eventService.subscribe(
-        event ->
-            remoteSubscriptionStorage
-                .getByMethod(method)
-                .stream()
-                .filter(context -> biPredicate.test(event, context.getScope()))
-                .forEach(context -> transmit(context.getEndpointId(), method, event)),
+        event -> {
+          localTransmitter.accept(event);
+          if (forwarder != null) {
+            forward(method, event, scopeKey, scopeValueExtractor);
+          }
+        },
         eventType);
   }
 
+  /**
+   * Transmits the event forwarded from another node of the cluster to the subscribers of the given
+   * method on this node, the event is not forwarded further.
+   *
+   * @param method method name
+   * @param event forwarded event, must be an instance of the type the method is registered for
+   * @see RemoteSubscriptionForwarder
+   */
+  public void transmitForwarded(String method, Object event) {
+    Consumer<Object> localTransmitter = localTransmitters.get(method);
+    if (localTransmitter != null) {
+      localTransmitter.accept(event);
+    }
+  }
+
+  private <T> void forward(
+      String method, T event, String scopeKey, Function<T, String> scopeValueExtractor) {
+    if (scopeKey == null) {
+      forwarder.forward(method, event, null, null);
+      return;
+    }
+    String scopeValue = scopeValueExtractor.apply(event);
+    if (scopeValue != null) {
+      forwarder.forward(method, event, scopeKey, scopeValue);
+    }
+  }
+
+  private <T> Function<T, Collection<RemoteSubscriptionContext>> predicateRecipients(
+      String method, BiPredicate<T, Map<String, String>> biPredicate) {
+    return event ->
+        remoteSubscriptionStorage
+            .getByMethod(method)
+            .stream()
+            .filter(context -> biPredicate.test(event, context.getScope()))
+            .collect(toList());
+  }
+
+  private <T> Function<T, Collection<RemoteSubscriptionContext>> scopeRecipients(
+      String method, String scopeKey, Function<T, String> scopeValueExtractor) {
+    return event -> {
+      String scopeValue = scopeValueExtractor.apply(event);
+      if (scopeValue == null) {
+        return Collections.emptySet();
+      }
+      return remoteSubscriptionStorage.getByScope(method, scopeKey, scopeValue);
+    };
+  }
+
   private void consumeSubscriptionRequest(String endpointId, EventSubscription eventSubscription) {
     remoteSubscriptionStorage.addSubscription(
         eventSubscription.getMethod(),
@@ -79,12 +223,23 @@ public class RemoteSubscriptionManager {
     remoteSubscriptionStorage.removeSubscription(eventSubscription.getMethod(), endpointId);
   }
 
-  private <T> void transmit(String endpointId, String method, T event) {
-    requestTransmitter
-        .newRequest()
-        .endpointId(endpointId)
-        .methodName(method)
-        .paramsAsDto(event)
-        .sendAndSkipResult();
+  private void transmit(
+      String method,
+      Object event,
+      Collection<RemoteSubscriptionContext> recipients,
+      boolean batched) {
+    if (recipients.isEmpty()) {
+      return;
+    }
+    // notification doesn't have an id, so the same message is sent to all the recipients
+    String message =
+        marshaller.marshall(new JsonRpcRequest(null, method, new JsonRpcParams(event)));
+    for (RemoteSubscriptionContext recipient : recipients) {
+      if (batched) {
+        transmitter.transmitBatched(recipient.getEndpointId(), message);
+      } else {
+        transmitter.transmit(recipient.getEndpointId(), message);
+      }
+    }
   }
 }
@@ -11,6 +11,8 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.stream.Collectors.toSet;
+
 import java.util.Set;
 
 /**
@@ -29,6 +31,40 @@ public interface RemoteSubscriptionStorage {
    */
   Set<RemoteSubscriptionContext> getByMethod(String method);
 
+  /**
+   * Returns active subscriptions for the given method which scope contains the given value of the
+   * given key. Implementations are recommended to index subscriptions by scope entries, so events
+   * addressed to a single scope (e.g. a workspace) don't require to check all the subscriptions.
+   *
+   * @param method Method name
+   * @param scopeKey key of the scope entry, e.g. {@code workspaceId}
+   * @param scopeValue value of the scope entry
+   * @return active subscriptions to this method with the given scope entry
+   */
+  default Set<RemoteSubscriptionContext> getByScope(
+      String method, String scopeKey, String scopeValue) {
+    return getByMethod(method)
+        .stream()
+        .filter(
+            context ->
+                context.getScope() != null && scopeValue.equals(context.getScope().get(scopeKey)))
+        .collect(toSet());
+  }
+
+  /**
+   * Returns true if there are subscribers of the given method which scope contains the given value
+   * of the given key. Implementations which keep subscriptions only on some nodes of a cluster
+   * should take into account the subscribers of the other nodes too.
+   *
+   * @param method Method name
+   * @param scopeKey key of the scope entry, e.g. {@code workspaceId}
+   * @param scopeValue value of the scope entry
+   * @return true if there are subscribers to this method with the given scope entry
+   */
+  default boolean hasSubscribers(String method, String scopeKey, String scopeValue) {
+    return !getByScope(method, scopeKey, scopeValue).isEmpty();
+  }
+
   /**
    * Adds new subscription to the given method subscriptions list
    *
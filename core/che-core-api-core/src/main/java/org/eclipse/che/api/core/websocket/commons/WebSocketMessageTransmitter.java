@@ -29,4 +29,18 @@ public interface WebSocketMessageTransmitter {
    * @param message plain text message
    */
   void transmit(String endpointId, String message);
+
+  /**
+   * Transmit a JSON RPC message which may be combined with other messages addressed to the same
+   * endpoint into a single JSON RPC batch, so it must be used only for endpoints which are able to
+   * process batches. Messages transmitted this way may be delivered later than messages which are
+   * transmitted with {@link #transmit(String, String)} afterwards. Implementations that don't
+   * support batching transmit the message immediately.
+   *
+   * @param endpointId identifier of an endpoint known to an transmitter implementation
+   * @param message JSON RPC message
+   */
+  default void transmitBatched(String endpointId, String message) {
+    transmit(endpointId, message);
+  }
 }
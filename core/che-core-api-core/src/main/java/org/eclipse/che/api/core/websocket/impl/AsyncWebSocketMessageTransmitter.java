@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
+
+/**
+ * Transmits messages over WEB SOCKET without blocking the caller. Each session has its own
+ * lock-free outbound queue which is drained with asynchronous sends, only one send per session is
+ * in flight at a time, so a slow session doesn't delay messages of other sessions.
+ *
+ * <p>Sessions which queue more than {@code che.core.websocket.transmitter.max_queue_size} messages
+ * or don't complete a send during {@code che.core.websocket.transmitter.send_timeout_ms} are
+ * considered slow consumers and closed. When a session is closed or a send fails, the failed frame
+ * and then all the pending messages of the session are passed to {@link MessagesReSender} to be
+ * re-sent once the client reconnects, so the order of messages is kept.
+ *
+ * <p>If WEB SOCKET session is not opened adds messages to re-sender the same way as {@link
+ * BasicWebSocketMessageTransmitter} does.
+ */
+@Singleton
+public class AsyncWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
+  private static final Logger LOG = getLogger(AsyncWebSocketMessageTransmitter.class);
+
+  private final WebSocketSessionRegistry registry;
+  private final MessagesReSender reSender;
+  private final int maxQueueSize;
+  private final long sendTimeoutNanos;
+  private final ConcurrentMap<Session, SessionQueue> queues;
+  private final ExecutorService continuationExecutor;
+
+  private final LongAdder sentFrames;
+  private final LongAdder sendNanos;
+  private final LongAdder slowConsumers;
+
+  @Inject
+  public AsyncWebSocketMessageTransmitter(
+      WebSocketSessionRegistry registry,
+      MessagesReSender reSender,
+      @Named("che.core.websocket.transmitter.max_queue_size") int maxQueueSize,
+      @Named("che.core.websocket.transmitter.send_timeout_ms") long sendTimeoutMillis) {
+    this.registry = registry;
+    this.reSender = reSender;
+    this.maxQueueSize = maxQueueSize;
+    this.sendTimeoutNanos = MILLISECONDS.toNanos(sendTimeoutMillis);
+    this.queues = new ConcurrentHashMap<>();
+    this.sentFrames = new LongAdder();
+    this.sendNanos = new LongAdder();
+    this.slowConsumers = new LongAdder();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            2,
+            2,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder()
+                .setNameFormat(AsyncWebSocketMessageTransmitter.class.getSimpleName() + "-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    this.continuationExecutor = executor;
+  }
+
+  @Override
+  public void transmit(String endpointId, String message) {
+    Optional<Session> sessionOptional = registry.get(endpointId);
+
+    if (!sessionOptional.isPresent()) {
+      sessionOptional = registry.getByPartialMatch(endpointId).stream().findFirst();
+    }
+
+    // messages still queued for a closed session go first, see SessionQueue#send
+    SessionQueue queue = sessionOptional.map(queues::get).orElse(null);
+    if (queue == null) {
+      if (!sessionOptional.isPresent() || !sessionOptional.get().isOpen()) {
+        LOG.debug("Session is not registered or closed, adding message to pending");
+
+        reSender.add(endpointId, message);
+        return;
+      }
+      queue = queues.computeIfAbsent(sessionOptional.get(), s -> new SessionQueue(endpointId, s));
+    }
+
+    queue.offer(message);
+    if (!queue.abandoned && (queue.size() > maxQueueSize || queue.isSendTimedOut())) {
+      disconnectSlowConsumer(queue);
+    }
+    queue.send();
+  }
+
+  /** Returns the number of messages waiting to be sent to all the sessions. */
+  public long getQueuedMessages() {
+    long size = 0;
+    for (SessionQueue queue : queues.values()) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /** Returns the number of messages waiting to be sent to the slowest session. */
+  public int getMaxSessionQueueSize() {
+    int max = 0;
+    for (SessionQueue queue : queues.values()) {
+      max = Math.max(max, queue.size());
+    }
+    return max;
+  }
+
+  /** Returns the number of completed frame sends. */
+  public long getSentFrames() {
+    return sentFrames.sum();
+  }
+
+  /** Returns the total time between sending frames and the completion of the sends. */
+  public double getTotalSendTime(TimeUnit unit) {
+    return (double) sendNanos.sum() / unit.toNanos(1);
+  }
+
+  /** Returns the number of sessions closed because they didn't keep up with sent messages. */
+  public long getSlowConsumersDisconnected() {
+    return slowConsumers.sum();
+  }
+
+  /** Drops queues of the sessions which were closed while having nothing to send. */
+  @ScheduleDelay(initialDelay = 60, delay = 60)
+  void cleanClosedSessions() {
+    queues.values().removeIf(queue -> !queue.session.isOpen() && queue.size() == 0);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    continuationExecutor.shutdownNow();
+  }
+
+  private void disconnectSlowConsumer(SessionQueue queue) {
+    synchronized (queue) {
+      if (queue.abandoned) {
+        return;
+      }
+      slowConsumers.increment();
+      LOG.warn(
+          "Closing websocket session of endpoint '{}', it doesn't keep up with {} queued messages",
+          queue.endpointId,
+          queue.size());
+      queue.abandon(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Slow consumer"));
+    }
+  }
+
+  /** Outbound messages of a single session. */
+  private class SessionQueue {
+    final String endpointId;
+    final Session session;
+    final Queue<String> messages = new ConcurrentLinkedQueue<>();
+    final AtomicInteger size = new AtomicInteger();
+    final AtomicBoolean sending = new AtomicBoolean();
+
+    /** Start time of the send in flight, valid while {@link #sending} is set. */
+    volatile long sendStartedAt;
+
+    /**
+     * Set once the session is closed or a send to it failed, then the queued messages are passed
+     * to the re-sender instead of being sent.
+     */
+    volatile boolean abandoned;
+
+    SessionQueue(String endpointId, Session session) {
+      this.endpointId = endpointId;
+      this.session = session;
+    }
+
+    void offer(String message) {
+      messages.offer(message);
+      size.incrementAndGet();
+    }
+
+    String poll() {
+      String message = messages.poll();
+      if (message != null) {
+        size.decrementAndGet();
+      }
+      return message;
+    }
+
+    int size() {
+      return size.get();
+    }
+
+    boolean isSendTimedOut() {
+      return sending.get() && System.nanoTime() - sendStartedAt > sendTimeoutNanos;
+    }
+
+    /**
+     * Starts sending of the next message unless there is a send in flight. Messages of abandoned
+     * queue are passed to the re-sender by the same rule, so they can't overtake a failed frame.
+     */
+    void send() {
+      while (!messages.isEmpty() && sending.compareAndSet(false, true)) {
+        if (!abandoned && !session.isOpen()) {
+          abandoned = true;
+        }
+        if (abandoned) {
+          passToReSender();
+          sending.set(false);
+          continue;
+        }
+        String message = poll();
+        if (message == null) {
+          sending.set(false);
+          continue;
+        }
+        sendStartedAt = System.nanoTime();
+        try {
+          session.getAsyncRemote().sendText(message, result -> onSent(message, result));
+        } catch (RuntimeException e) {
+          LOG.error("Error while trying to send a message to websocket remote endpoint", e);
+          failed(message);
+        }
+        return;
+      }
+    }
+
+    /** Closes the session, so its client reconnects and gets pending messages re-sent. */
+    synchronized void abandon(CloseReason reason) {
+      // session is closed before the queue is unregistered,
+      // so new messages are not sent to it bypassing pending ones
+      try {
+        session.close(reason);
+      } catch (IOException e) {
+        LOG.error("Error while trying to close a websocket session", e);
+      }
+      abandoned = true;
+    }
+
+    private void onSent(String message, SendResult result) {
+      sentFrames.increment();
+      sendNanos.add(System.nanoTime() - sendStartedAt);
+      if (!result.isOK()) {
+        LOG.debug("Error while sending a websocket message", result.getException());
+        failed(message);
+        return;
+      }
+      sending.set(false);
+      if (!messages.isEmpty()) {
+        // send handler may be called by the container on the sending thread,
+        // so continue on the separate thread to avoid the recursion
+        continuationExecutor.execute(this::send);
+      }
+    }
+
+    /** Re-sends the failed message and all the following ones after the client reconnects. */
+    private void failed(String message) {
+      // still holding the sending flag, so no other message goes to the re-sender before this one
+      reSender.add(endpointId, message);
+      if (!abandoned) {
+        abandon(new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Send failed"));
+      }
+      passToReSender();
+      sending.set(false);
+      // queue is abandoned, so this only passes the messages offered meanwhile to the re-sender
+      send();
+    }
+
+    private void passToReSender() {
+      queues.remove(session, this);
+      String message;
+      while ((message = poll()) != null) {
+        reSender.add(endpointId, message);
+      }
+    }
+  }
+}
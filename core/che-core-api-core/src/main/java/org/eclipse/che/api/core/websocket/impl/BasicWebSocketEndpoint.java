@@ -68,7 +68,7 @@ public abstract class BasicWebSocketEndpoint {
     session.setMaxIdleTimeout(0);
 
     registry.add(combinedEndpointId, session);
-    reSender.resend(combinedEndpointId);
+    resend(combinedEndpointId, session);
     sessionMessagesBuffer.put(session, new StringBuffer());
   }
 
@@ -150,6 +150,25 @@ public abstract class BasicWebSocketEndpoint {
 
   protected abstract String getEndpointId();
 
+  /**
+   * Re-sends pending messages, starting after the sequence number passed by the client in the
+   * {@code lastSequence} query parameter, if any.
+   */
+  private void resend(String combinedEndpointId, Session session) {
+    String lastSequence = getQueryParamsMap(session.getQueryString()).get("lastSequence");
+    if (lastSequence == null) {
+      reSender.resend(combinedEndpointId);
+      return;
+    }
+    try {
+      reSender.resend(combinedEndpointId, Long.parseLong(lastSequence));
+    } catch (NumberFormatException e) {
+      LOG.warn(
+          "Illegal last sequence number '{}' of endpoint '{}'", lastSequence, combinedEndpointId);
+      reSender.resend(combinedEndpointId, 0);
+    }
+  }
+
   private String getOrGenerateCombinedEndpointId(Session session) {
     Map<String, String> queryParamsMap = getQueryParamsMap(session.getQueryString());
     String clientId = queryParamsMap.getOrDefault("clientId", randomClientId());
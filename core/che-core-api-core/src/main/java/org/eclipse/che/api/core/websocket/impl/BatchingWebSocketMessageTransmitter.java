@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+
+/**
+ * Combines messages transmitted with {@link #transmitBatched(String, String)} into JSON RPC
+ * batches. Messages of an endpoint are collected during the batch window which starts with the
+ * first message and are transmitted by the delegate as a single JSON array when the window ends
+ * or the batch reaches the maximum number of messages or the maximum size. Messages transmitted
+ * with {@link #transmit(String, String)} are passed to the delegate immediately, after the batch
+ * collected for the same endpoint, so the order of messages is kept.
+ *
+ * <p>This is the only place where messages are combined, transmitters send the batches as they
+ * are, and re-send them as a whole if they fail.
+ */
+public class BatchingWebSocketMessageTransmitter implements WebSocketMessageTransmitter {
+
+  private final WebSocketMessageTransmitter delegate;
+  private final long windowMillis;
+  private final int maxMessages;
+  private final int maxBytes;
+  private final Map<String, Batch> batches;
+  private final ScheduledExecutorService flushExecutor;
+
+  public BatchingWebSocketMessageTransmitter(
+      WebSocketMessageTransmitter delegate, long windowMillis, int maxMessages, int maxBytes) {
+    this.delegate = delegate;
+    this.windowMillis = windowMillis;
+    this.maxMessages = maxMessages;
+    this.maxBytes = maxBytes;
+    this.batches = new HashMap<>();
+    ScheduledThreadPoolExecutor executor =
+        new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setNameFormat(BatchingWebSocketMessageTransmitter.class.getSimpleName() + "-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+    executor.setRemoveOnCancelPolicy(true);
+    this.flushExecutor = executor;
+  }
+
+  @Override
+  public void transmit(String endpointId, String message) {
+    Batch pending;
+    synchronized (batches) {
+      pending = batches.remove(endpointId);
+    }
+    if (pending != null) {
+      delegate.transmit(endpointId, pending.toMessage());
+    }
+    delegate.transmit(endpointId, message);
+  }
+
+  @Override
+  public void transmitBatched(String endpointId, String message) {
+    Batch full = null;
+    synchronized (batches) {
+      Batch batch = batches.get(endpointId);
+      if (batch == null) {
+        batch = new Batch(endpointId, message);
+        batches.put(endpointId, batch);
+        final Batch scheduled = batch;
+        flushExecutor.schedule(() -> flush(scheduled), windowMillis, MILLISECONDS);
+      } else {
+        batch.add(message);
+      }
+      if (batch.size >= maxMessages || batch.content.length() >= maxBytes) {
+        batches.remove(endpointId);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      delegate.transmit(endpointId, full.toMessage());
+    }
+  }
+
+  /** Returns the transmitter which sends messages and batches. */
+  public WebSocketMessageTransmitter getDelegate() {
+    return delegate;
+  }
+
+  /** Transmits all the collected batches and stops batching. */
+  public void shutdown() {
+    flushExecutor.shutdownNow();
+    Map<String, Batch> pending;
+    synchronized (batches) {
+      pending = new HashMap<>(batches);
+      batches.clear();
+    }
+    pending.values().forEach(batch -> delegate.transmit(batch.endpointId, batch.toMessage()));
+  }
+
+  private void flush(Batch batch) {
+    synchronized (batches) {
+      if (!batches.remove(batch.endpointId, batch)) {
+        // already transmitted as a full batch
+        return;
+      }
+    }
+    delegate.transmit(batch.endpointId, batch.toMessage());
+  }
+
+  private static class Batch {
+    final String endpointId;
+    final StringBuilder content;
+    int size;
+
+    Batch(String endpointId, String message) {
+      this.endpointId = endpointId;
+      this.content = new StringBuilder(message.length() + 1).append('[').append(message);
+      this.size = 1;
+    }
+
+    void add(String message) {
+      content.append(',').append(message);
+      size++;
+    }
+
+    String toMessage() {
+      return size == 1 ? content.substring(1) : content.append(']').toString();
+    }
+  }
+}
@@ -11,12 +11,18 @@
  */
 package org.eclipse.che.api.core.websocket.impl;
 
-import com.google.common.collect.EvictingQueue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.websocket.Session;
 import org.eclipse.che.commons.schedule.ScheduleDelay;
@@ -26,45 +32,100 @@ import org.eclipse.che.commons.schedule.ScheduleDelay;
  * SOCKET session was closed. If session is closed during re-send process it stops and left messages
  * will be re-sent as WEB SOCKET session becomes open again.
  *
+ * <p>Pending messages are kept in a replay buffer of each endpoint in the UTF-8 encoded form and
+ * are numbered with monotonically increasing sequence numbers, so they are re-sent exactly in the
+ * order they were added. The memory is limited by the byte budget of a single endpoint and by the
+ * total budget of all the endpoints, when a budget is exceeded the oldest messages are evicted.
+ * Messages which are not re-sent during the configured time to live are dropped as well.
+ *
+ * <p>A client which tracks sequence numbers reconnects with the last sequence number it has
+ * received, see {@link #resend(String, long)}. Each message re-sent to such client is followed by
+ * the {@value #SEQUENCE_METHOD} notification in the same JSON RPC batch, and is kept in the buffer
+ * until the client acknowledges it by the next reconnect, so messages lost while the session
+ * closes during a re-send are sent again. Messages of other clients are re-sent as they are and
+ * removed from the buffer once they are sent.
+ *
  * @author Dmitry Kuleshov
  */
 @Singleton
 public class MessagesReSender {
 
-  private static final int MAX_MESSAGES = 100;
+  /** JSON RPC notification which carries the sequence number of the re-sent message. */
+  public static final String SEQUENCE_METHOD = "websocket/sequence";
 
   private final WebSocketSessionRegistry registry;
+  private final long endpointMaxBytes;
+  private final long maxBytes;
+  private final long messageTtlMillis;
 
-  private final Map<String, Queue<DelayedMessage>> delayedMessageRegistry =
-      new ConcurrentHashMap<>();
+  private final Map<String, ReplayBuffer> delayedMessageRegistry = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong bufferedBytes = new AtomicLong();
+  private final LongAdder evictedMessages = new LongAdder();
 
   @Inject
-  public MessagesReSender(WebSocketSessionRegistry registry) {
+  public MessagesReSender(
+      WebSocketSessionRegistry registry,
+      @Named("che.core.websocket.resender.endpoint_max_bytes") long endpointMaxBytes,
+      @Named("che.core.websocket.resender.max_bytes") long maxBytes,
+      @Named("che.core.websocket.resender.message_ttl_ms") long messageTtlMillis) {
     this.registry = registry;
+    this.endpointMaxBytes = endpointMaxBytes;
+    this.maxBytes = maxBytes;
+    this.messageTtlMillis = messageTtlMillis;
   }
 
   @ScheduleDelay(initialDelay = 60, delay = 60)
   void cleanStaleMessages() {
-    long currentTimeMillis = System.currentTimeMillis();
+    long staleTimeMillis = System.currentTimeMillis() - messageTtlMillis;
 
-    delayedMessageRegistry
-        .values()
-        .forEach(it -> it.removeIf(m -> currentTimeMillis - m.timeMillis > 60_000));
+    delayedMessageRegistry.values().forEach(it -> it.evictOlderThan(staleTimeMillis));
 
-    delayedMessageRegistry.values().removeIf(Queue::isEmpty);
+    delayedMessageRegistry.keySet().forEach(this::removeIfEmpty);
   }
 
-  public void add(String endpointId, String message) {
+  /**
+   * Adds the message to the replay buffer of the endpoint.
+   *
+   * @return sequence number assigned to the message
+   */
+  public long add(String endpointId, String message) {
+    BufferedMessage bufferedMessage =
+        new BufferedMessage(sequence.incrementAndGet(), message.getBytes(UTF_8));
 
     delayedMessageRegistry
-        .computeIfAbsent(endpointId, k -> EvictingQueue.create(MAX_MESSAGES))
-        .offer(new DelayedMessage(message));
+        .compute(
+            endpointId,
+            (id, buffer) -> {
+              if (buffer == null) {
+                buffer = new ReplayBuffer();
+              }
+              buffer.add(bufferedMessage);
+              return buffer;
+            });
+
+    if (bufferedBytes.get() > maxBytes) {
+      evictOverBudget();
+    }
+    return bufferedMessage.sequence;
   }
 
+  /** Re-sends messages of the endpoint as they are, each of them is sent once. */
   public void resend(String endpointId) {
-    Queue<DelayedMessage> delayedMessages = delayedMessageRegistry.remove(endpointId);
+    resend(endpointId, -1);
+  }
+
+  /**
+   * Re-sends messages of the endpoint which have sequence number greater than the given one
+   * together with their sequence numbers, the rest of the messages are considered as already
+   * received by the client and dropped.
+   *
+   * @param lastReceivedSequence the last sequence number received by the client, zero if none
+   */
+  public void resend(String endpointId, long lastReceivedSequence) {
+    ReplayBuffer buffer = delayedMessageRegistry.get(endpointId);
 
-    if (delayedMessages == null || delayedMessages.isEmpty()) {
+    if (buffer == null || buffer.isEmpty()) {
       return;
     }
 
@@ -74,32 +135,134 @@ public class MessagesReSender {
       return;
     }
 
-    Queue<DelayedMessage> backingQueue = EvictingQueue.create(delayedMessages.size());
-    while (!delayedMessages.isEmpty()) {
-      backingQueue.offer(delayedMessages.poll());
+    buffer.sendTo(sessionOptional.get(), lastReceivedSequence);
+
+    removeIfEmpty(endpointId);
+  }
+
+  /** Returns the size of all the messages waiting to be re-sent, in bytes. */
+  public long getBufferedBytes() {
+    return bufferedBytes.get();
+  }
+
+  /** Returns the number of endpoints which have messages waiting to be re-sent. */
+  public int getBufferedEndpoints() {
+    return delayedMessageRegistry.size();
+  }
+
+  /** Returns the number of messages dropped because of exceeded budget or time to live. */
+  public long getEvictedMessages() {
+    return evictedMessages.sum();
+  }
+
+  private void removeIfEmpty(String endpointId) {
+    delayedMessageRegistry.computeIfPresent(endpointId, (id, b) -> b.isEmpty() ? null : b);
+  }
+
+  /** Evicts the oldest messages of the endpoints until all the messages fit the total budget. */
+  private void evictOverBudget() {
+    Iterator<ReplayBuffer> it = delayedMessageRegistry.values().iterator();
+    while (bufferedBytes.get() > maxBytes && it.hasNext()) {
+      it.next().evictOldest();
     }
+  }
 
-    Session session = sessionOptional.get();
-    for (DelayedMessage delayedMessage : backingQueue) {
-      if (session.isOpen()) {
-        session.getAsyncRemote().sendText(delayedMessage.message);
-      } else {
-        delayedMessages.add(delayedMessage);
+  /**
+   * Wraps the message into a JSON RPC batch followed by the notification with the sequence number,
+   * messages which are batches already are extended with the notification.
+   */
+  @VisibleForTesting
+  static String withSequence(String message, long sequence) {
+    String notification =
+        "{\"jsonrpc\":\"2.0\",\"method\":\""
+            + SEQUENCE_METHOD
+            + "\",\"params\":{\"sequence\":"
+            + sequence
+            + "}}";
+    String trimmed = message.trim();
+    if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+      String items = trimmed.substring(1, trimmed.length() - 1).trim();
+      return items.isEmpty() ? '[' + notification + ']' : '[' + items + ',' + notification + ']';
+    }
+    return '[' + message + ',' + notification + ']';
+  }
+
+  /** Pending messages of a single endpoint ordered by their sequence numbers. */
+  private class ReplayBuffer {
+    private final ArrayDeque<BufferedMessage> messages = new ArrayDeque<>();
+    private long bytes;
+
+    synchronized void add(BufferedMessage message) {
+      messages.addLast(message);
+      bytes += message.payload.length;
+      bufferedBytes.addAndGet(message.payload.length);
+      while (bytes > endpointMaxBytes && messages.size() > 1) {
+        evict(messages.pollFirst());
+      }
+    }
+
+    synchronized void evictOldest() {
+      if (!messages.isEmpty()) {
+        evict(messages.pollFirst());
+      }
+    }
+
+    synchronized void evictOlderThan(long timeMillis) {
+      while (!messages.isEmpty() && messages.peekFirst().timeMillis < timeMillis) {
+        evict(messages.pollFirst());
       }
     }
 
-    if (!delayedMessages.isEmpty()) {
-      delayedMessageRegistry.put(endpointId, delayedMessages);
+    synchronized boolean isEmpty() {
+      return messages.isEmpty();
+    }
+
+    /**
+     * Sends messages in the sequence order while the session is open. Negative last received
+     * sequence means that the client doesn't track sequence numbers.
+     */
+    synchronized void sendTo(Session session, long lastReceivedSequence) {
+      BufferedMessage message;
+      if (lastReceivedSequence < 0) {
+        while ((message = messages.peekFirst()) != null && session.isOpen()) {
+          session.getAsyncRemote().sendText(new String(message.payload, UTF_8));
+          remove(messages.pollFirst());
+        }
+        return;
+      }
+      while ((message = messages.peekFirst()) != null && message.sequence <= lastReceivedSequence) {
+        remove(messages.pollFirst());
+      }
+      for (BufferedMessage pending : messages) {
+        if (!session.isOpen()) {
+          return;
+        }
+        session
+            .getAsyncRemote()
+            .sendText(withSequence(new String(pending.payload, UTF_8), pending.sequence));
+      }
+    }
+
+    private void evict(BufferedMessage message) {
+      remove(message);
+      evictedMessages.increment();
+    }
+
+    private void remove(BufferedMessage message) {
+      bytes -= message.payload.length;
+      bufferedBytes.addAndGet(-message.payload.length);
     }
   }
 
-  private static class DelayedMessage {
+  private static class BufferedMessage {
 
+    private final long sequence;
     private final long timeMillis;
-    private final String message;
+    private final byte[] payload;
 
-    private DelayedMessage(String message) {
-      this.message = message;
+    private BufferedMessage(long sequence, byte[] payload) {
+      this.sequence = sequence;
+      this.payload = payload;
       this.timeMillis = System.currentTimeMillis();
     }
   }
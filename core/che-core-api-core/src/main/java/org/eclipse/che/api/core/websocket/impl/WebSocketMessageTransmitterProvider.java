@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+
+/**
+ * Provides {@link AsyncWebSocketMessageTransmitter} when {@code
+ * che.core.websocket.transmitter.async} is enabled, otherwise {@link
+ * BasicWebSocketMessageTransmitter}. If {@code che.core.jsonrpc.batch.window_ms} is positive, the
+ * transmitter is wrapped with {@link BatchingWebSocketMessageTransmitter}.
+ */
+@Singleton
+public class WebSocketMessageTransmitterProvider implements Provider<WebSocketMessageTransmitter> {
+
+  private final WebSocketMessageTransmitter transmitter;
+
+  @Inject
+  public WebSocketMessageTransmitterProvider(
+      @Named("che.core.websocket.transmitter.async") boolean async,
+      @Named("che.core.jsonrpc.batch.window_ms") long batchWindowMillis,
+      @Named("che.core.jsonrpc.batch.max_messages") int batchMaxMessages,
+      @Named("che.core.jsonrpc.batch.max_bytes") int batchMaxBytes,
+      Provider<BasicWebSocketMessageTransmitter> basicTransmitterProvider,
+      Provider<AsyncWebSocketMessageTransmitter> asyncTransmitterProvider) {
+    WebSocketMessageTransmitter transmitter =
+        async ? asyncTransmitterProvider.get() : basicTransmitterProvider.get();
+    if (batchWindowMillis > 0) {
+      transmitter =
+          new BatchingWebSocketMessageTransmitter(
+              transmitter, batchWindowMillis, batchMaxMessages, batchMaxBytes);
+    }
+    this.transmitter = transmitter;
+  }
+
+  @Override
+  public WebSocketMessageTransmitter get() {
+    return transmitter;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (transmitter instanceof BatchingWebSocketMessageTransmitter) {
+      ((BatchingWebSocketMessageTransmitter) transmitter).shutdown();
+    }
+  }
+}
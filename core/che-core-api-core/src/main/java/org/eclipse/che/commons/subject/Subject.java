@@ -11,6 +11,9 @@
  */
 package org.eclipse.che.commons.subject;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import org.eclipse.che.api.core.ForbiddenException;
 
 /**
@@ -94,6 +97,23 @@ public interface Subject {
    */
   void checkPermission(String domain, String instance, String action) throws ForbiddenException;
 
+  /**
+   * Returns those of the specified instances for which subject has permission to perform given
+   * action. Allows to authorize a page of instances at once.
+   *
+   * @return ids of the permitted instances
+   */
+  default Set<String> getPermittedInstances(
+      String domain, Collection<String> instances, String action) {
+    final Set<String> permitted = new HashSet<>();
+    for (String instance : instances) {
+      if (hasPermission(domain, instance, action)) {
+        permitted.add(instance);
+      }
+    }
+    return permitted;
+  }
+
   /** @return subject auth token to be able to execute request as subject */
   String getToken();
 
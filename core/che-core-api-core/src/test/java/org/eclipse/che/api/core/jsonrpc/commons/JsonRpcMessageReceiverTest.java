@@ -17,7 +17,9 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -94,4 +96,40 @@ public class JsonRpcMessageReceiverTest {
 
     verify(requestProcessor).process(any());
   }
+
+  @Test
+  public void shouldTransmitErrorWithRequestIdWhenRequestIsRejected() throws Exception {
+    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
+    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest("request-id", "method", null));
+    jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
+    ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(requestProcessor).process(taskCaptor.capture());
+    JsonRpcRequestTask task = (JsonRpcRequestTask) taskCaptor.getValue();
+
+    task.reject(new JsonRpcException(-32000, "overloaded"));
+
+    ArgumentCaptor<JsonRpcException> errorCaptor = ArgumentCaptor.forClass(JsonRpcException.class);
+    verify(errorTransmitter).transmit(eq(ENDPOINT_ID), errorCaptor.capture());
+    assertEquals(errorCaptor.getValue().getId(), "request-id");
+    assertEquals(errorCaptor.getValue().getCode(), -32000);
+    verify(requestDispatcher, never()).dispatch(any(), any());
+  }
+
+  @Test
+  public void shouldNotTransmitErrorWhenNotificationIsRejected() throws Exception {
+    when(jsonRpcQualifier.isJsonRpcRequest(MESSAGE)).thenReturn(true);
+    when(jsonRpcUnmarshaller.unmarshalArray(any())).thenReturn(singletonList(MESSAGE));
+    when(jsonRpcUnmarshaller.unmarshalRequest(MESSAGE))
+        .thenReturn(new JsonRpcRequest(null, "method", null));
+    jsonRpcMessageReceiver.receive(ENDPOINT_ID, MESSAGE);
+    ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(requestProcessor).process(taskCaptor.capture());
+    JsonRpcRequestTask task = (JsonRpcRequestTask) taskCaptor.getValue();
+
+    task.reject(new JsonRpcException(-32000, "overloaded"));
+
+    verify(errorTransmitter, never()).transmit(eq(ENDPOINT_ID), any(JsonRpcException.class));
+  }
 }
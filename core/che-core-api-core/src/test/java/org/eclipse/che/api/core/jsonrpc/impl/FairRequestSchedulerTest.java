@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcException;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequestTask;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link FairRequestScheduler} */
+public class FairRequestSchedulerTest {
+
+  private ExecutorService executor;
+  private List<String> processed;
+  private CountDownLatch blocker;
+  private CountDownLatch blockerStarted;
+
+  @BeforeMethod
+  public void setUp() {
+    executor = Executors.newCachedThreadPool();
+    processed = Collections.synchronizedList(new ArrayList<>());
+    blocker = new CountDownLatch(1);
+    blockerStarted = new CountDownLatch(1);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    blocker.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldServeEndpointsInTurn() throws Exception {
+    FairRequestScheduler scheduler = newScheduler(100, 100, emptySet());
+    scheduler.schedule(new BlockingTask());
+    assertTrue(blockerStarted.await(5, SECONDS));
+
+    scheduler.schedule(new Task("endpoint-1", "1", "method-a"));
+    scheduler.schedule(new Task("endpoint-1", "2", "method-b"));
+    scheduler.schedule(new Task("endpoint-1", "3", "method-c"));
+    scheduler.schedule(new Task("endpoint-2", "4", "method-d"));
+    CountDownLatch done = scheduleLast(scheduler, "endpoint-2");
+    blocker.countDown();
+
+    assertTrue(done.await(5, SECONDS));
+    assertEquals(processed.subList(0, 4), asList("method-a", "method-d", "method-b", "last"));
+  }
+
+  @Test
+  public void shouldProcessHighPriorityRequestsFirst() throws Exception {
+    FairRequestScheduler scheduler = newScheduler(100, 100, singleton("method-priority"));
+    scheduler.schedule(new BlockingTask());
+    assertTrue(blockerStarted.await(5, SECONDS));
+
+    scheduler.schedule(new Task("endpoint-1", "1", "method-a"));
+    scheduler.schedule(new Task("endpoint-1", "2", "method-priority"));
+    scheduler.schedule(new Task("endpoint-1", null, "notification"));
+    CountDownLatch done = scheduleLast(scheduler, "endpoint-1");
+    blocker.countDown();
+
+    assertTrue(done.await(5, SECONDS));
+    assertEquals(processed, asList("method-priority", "notification", "method-a", "last"));
+  }
+
+  @Test
+  public void shouldRejectRequestWhenEndpointQueueIsFull() throws Exception {
+    FairRequestScheduler scheduler = newScheduler(100, 1, emptySet());
+    scheduler.schedule(new BlockingTask());
+    assertTrue(blockerStarted.await(5, SECONDS));
+
+    Task accepted = new Task("endpoint-1", "1", "method-a");
+    Task rejected = new Task("endpoint-1", "2", "method-b");
+    Task otherEndpoint = new Task("endpoint-2", "3", "method-c");
+    scheduler.schedule(accepted);
+    scheduler.schedule(rejected);
+    scheduler.schedule(otherEndpoint);
+
+    assertNull(accepted.rejection);
+    assertNull(otherEndpoint.rejection);
+    assertNotNull(rejected.rejection);
+    assertEquals(
+        rejected.rejection.getCode(), FairRequestScheduler.SERVER_OVERLOADED_ERROR_CODE);
+    assertEquals(scheduler.getQueueSize(), 2);
+  }
+
+  @Test
+  public void shouldRejectRequestWhenQueueIsFull() throws Exception {
+    FairRequestScheduler scheduler = newScheduler(1, 1, emptySet());
+    scheduler.schedule(new BlockingTask());
+    assertTrue(blockerStarted.await(5, SECONDS));
+
+    Task accepted = new Task("endpoint-1", "1", "method-a");
+    Task rejected = new Task("endpoint-2", "2", "method-b");
+    scheduler.schedule(accepted);
+    scheduler.schedule(rejected);
+
+    assertNull(accepted.rejection);
+    assertNotNull(rejected.rejection);
+  }
+
+  private FairRequestScheduler newScheduler(
+      int queueCapacity, int endpointQueueCapacity, Set<String> priorityMethods) {
+    return new FairRequestScheduler(
+        executor, 1, queueCapacity, endpointQueueCapacity, priorityMethods, emptySet());
+  }
+
+  private CountDownLatch scheduleLast(FairRequestScheduler scheduler, String endpointId) {
+    CountDownLatch done = new CountDownLatch(1);
+    scheduler.schedule(
+        new Task(endpointId, "last", "last") {
+          @Override
+          public void run() {
+            super.run();
+            done.countDown();
+          }
+        });
+    return done;
+  }
+
+  private static List<String> asList(String... values) {
+    return Arrays.asList(values);
+  }
+
+  private class Task implements JsonRpcRequestTask {
+    final String endpointId;
+    final JsonRpcRequest request;
+    JsonRpcException rejection;
+
+    Task(String endpointId, String id, String method) {
+      this.endpointId = endpointId;
+      this.request = new JsonRpcRequest(id, method, null);
+    }
+
+    @Override
+    public String getEndpointId() {
+      return endpointId;
+    }
+
+    @Override
+    public JsonRpcRequest getRequest() {
+      return request;
+    }
+
+    @Override
+    public void reject(JsonRpcException e) {
+      rejection = e;
+    }
+
+    @Override
+    public void run() {
+      processed.add(request.getMethod());
+    }
+  }
+
+  private class BlockingTask extends Task {
+    BlockingTask() {
+      super("blocker", "0", "blocker");
+    }
+
+    @Override
+    public void run() {
+      blockerStarted.countDown();
+      try {
+        blocker.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
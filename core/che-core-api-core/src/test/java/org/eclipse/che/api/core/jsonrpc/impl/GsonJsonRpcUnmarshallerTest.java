@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.List;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcResponse;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerManager;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests for {@link GsonJsonRpcUnmarshaller} */
+@Listeners(MockitoTestNGListener.class)
+public class GsonJsonRpcUnmarshallerTest {
+
+  @Mock private RequestHandlerManager requestHandlerManager;
+
+  private GsonJsonRpcUnmarshaller unmarshaller;
+
+  @BeforeMethod
+  public void setUp() {
+    unmarshaller = new GsonJsonRpcUnmarshaller(new JsonParser(), requestHandlerManager);
+  }
+
+  @Test
+  public void shouldReturnSingleMessageIfItIsNotArray() {
+    String message = "{\"jsonrpc\":\"2.0\",\"method\":\"a\"}";
+
+    assertEquals(unmarshaller.unmarshalArray(message), singletonList(message));
+  }
+
+  @Test
+  public void shouldSplitArrayIntoMessages() {
+    String message =
+        "[ {\"method\":\"a\",\"params\":{\"text\":\"x],\\\"{\"}} ,"
+            + "{\"method\":\"b\",\"params\":[1,2]},\"c\", 3 ]";
+
+    List<String> messages = unmarshaller.unmarshalArray(message);
+
+    assertEquals(
+        messages,
+        asList(
+            "{\"method\":\"a\",\"params\":{\"text\":\"x],\\\"{\"}}",
+            "{\"method\":\"b\",\"params\":[1,2]}",
+            "\"c\"",
+            "3"));
+  }
+
+  @Test
+  public void shouldUnmarshalRequestWithUnknownParamsAsJsonObject() {
+    JsonRpcRequest request =
+        unmarshaller.unmarshalRequest(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"m\",\"id\":7,\"params\":{\"a\":\"b\"}}");
+
+    assertEquals(request.getMethod(), "m");
+    assertEquals(request.getId(), "7");
+    assertTrue(request.getParams().isSingle());
+    JsonObject params = (JsonObject) request.getParams().getOne();
+    assertEquals(params.get("a").getAsString(), "b");
+  }
+
+  @Test
+  public void shouldUnmarshalPrimitiveParams() {
+    JsonRpcRequest request =
+        unmarshaller.unmarshalRequest(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"m\",\"params\":[\"s\",1,true,null]}");
+
+    assertFalse(request.hasId());
+    assertFalse(request.getParams().isSingle());
+    assertEquals(request.getParams().getMany(), asList("s", 1.0, true, null));
+  }
+
+  @Test
+  public void shouldBindParamsToRegisteredDto() {
+    when(requestHandlerManager.getParamsClass("m")).thenReturn((Class) Link.class);
+
+    JsonRpcRequest request =
+        unmarshaller.unmarshalRequest(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"m\",\"params\":{\"href\":\"h\",\"rel\":\"r\"}}");
+
+    Link link = (Link) request.getParams().getOne();
+    assertEquals(link.getHref(), "h");
+    assertEquals(link.getRel(), "r");
+  }
+
+  @Test
+  public void shouldBindListOfParamsToRegisteredDto() {
+    when(requestHandlerManager.getParamsClass("m")).thenReturn((Class) Link.class);
+
+    JsonRpcRequest request =
+        unmarshaller.unmarshalRequest(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"m\","
+                + "\"params\":[{\"href\":\"a\"},{\"href\":\"b\"}]}");
+
+    List<?> links = request.getParams().getMany();
+    assertEquals(links.size(), 2);
+    assertEquals(((Link) links.get(0)).getHref(), "a");
+    assertEquals(((Link) links.get(1)).getHref(), "b");
+  }
+
+  @Test
+  public void shouldUnmarshalResponseWithResult() {
+    JsonRpcResponse response =
+        unmarshaller.unmarshalResponse("{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"result\":[{\"a\":1}]}");
+
+    assertEquals(response.getId(), "1");
+    assertTrue(response.hasResult());
+    assertFalse(response.hasError());
+    assertEquals(((JsonObject) response.getResult().getMany().get(0)).get("a").getAsInt(), 1);
+  }
+
+  @Test
+  public void shouldUnmarshalResponseWithError() {
+    JsonRpcResponse response =
+        unmarshaller.unmarshalResponse(
+            "{\"jsonrpc\":\"2.0\",\"id\":\"1\",\"error\":{\"code\":-32000,\"message\":\"m\"}}");
+
+    assertTrue(response.hasError());
+    assertNull(response.getResult());
+    assertEquals(response.getError().getCode(), -32000);
+    assertEquals(response.getError().getMessage(), "m");
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.jsonrpc.impl;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcParams;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestHandlerManager;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares receiving of JSON RPC messages by {@link GsonJsonRpcQualifier} and {@link
+ * GsonJsonRpcUnmarshaller} with the {@code JsonElement} tree based processing they replaced.
+ *
+ * <p>Messages mimic typical traffic of a workspace: language server completion responses, project
+ * tree responses, single and batched exec output notifications and requests with params of a
+ * registered DTO type.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.eclipse.che.api.core.jsonrpc.impl.JsonRpcUnmarshallerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonRpcUnmarshallerBenchmark {
+
+  private static final String LINK_METHOD = "benchmark/link";
+
+  @Param({"completion", "projectTree", "execOutput", "execOutputBatch", "linkRequest"})
+  public String traffic;
+
+  private String message;
+  private JsonParser jsonParser;
+  private RequestHandlerManager requestHandlerManager;
+  private GsonJsonRpcQualifier qualifier;
+  private GsonJsonRpcUnmarshaller unmarshaller;
+
+  @Setup
+  public void setUp() {
+    jsonParser = new JsonParser();
+    requestHandlerManager = new RequestHandlerManager(null, new GsonJsonRpcComposer(), null);
+    requestHandlerManager.registerManyToNone(LINK_METHOD, Link.class, (endpoint, links) -> {});
+    qualifier = new GsonJsonRpcQualifier();
+    unmarshaller = new GsonJsonRpcUnmarshaller(jsonParser, requestHandlerManager);
+
+    switch (traffic) {
+      case "completion":
+        message = completionResponse(50);
+        break;
+      case "projectTree":
+        message = projectTreeResponse(30);
+        break;
+      case "execOutput":
+        message = execOutputNotification(0);
+        break;
+      case "execOutputBatch":
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+          batch.append(i == 0 ? "" : ",").append(execOutputNotification(i));
+        }
+        message = batch.append(']').toString();
+        break;
+      case "linkRequest":
+        message = linkRequest(5);
+        break;
+      default:
+        throw new IllegalArgumentException(traffic);
+    }
+  }
+
+  @Benchmark
+  public void streaming(Blackhole blackhole) {
+    if (!qualifier.isValidJson(message)) {
+      throw new IllegalStateException();
+    }
+    for (String inner : unmarshaller.unmarshalArray(message)) {
+      if (qualifier.isJsonRpcRequest(inner)) {
+        blackhole.consume(unmarshaller.unmarshalRequest(inner));
+      } else if (qualifier.isJsonRpcResponse(inner)) {
+        blackhole.consume(unmarshaller.unmarshalResponse(inner));
+      }
+    }
+  }
+
+  /** Processing of the message as it was done before, each step parses a new tree. */
+  @Benchmark
+  public void tree(Blackhole blackhole) {
+    jsonParser.parse(message);
+    List<String> messages = new ArrayList<>();
+    JsonElement element = jsonParser.parse(message);
+    if (element.isJsonArray()) {
+      for (JsonElement inner : jsonParser.parse(message).getAsJsonArray()) {
+        messages.add(inner.toString());
+      }
+    } else {
+      messages.add(message);
+    }
+    for (String inner : messages) {
+      JsonObject object = jsonParser.parse(inner).getAsJsonObject();
+      if (object.has("method")) {
+        blackhole.consume(treeRequest(jsonParser.parse(inner).getAsJsonObject()));
+      } else if (jsonParser.parse(inner).getAsJsonObject().has("result")) {
+        blackhole.consume(jsonParser.parse(inner).getAsJsonObject().get("result"));
+      }
+    }
+  }
+
+  private Object treeRequest(JsonObject request) {
+    String method = request.get("method").getAsString();
+    JsonElement params = request.get("params");
+    if (LINK_METHOD.equals(method)) {
+      // params were bound to DTOs by the composer after being serialized back to string
+      return DtoFactory.getInstance().createListDtoFromJson(params.toString(), Link.class);
+    }
+    return new JsonRpcRequest(null, method, new JsonRpcParams(params.getAsJsonObject()));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(JsonRpcUnmarshallerBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+
+  private static String completionResponse(int items) {
+    StringBuilder sb =
+        new StringBuilder("{\"jsonrpc\":\"2.0\",\"id\":\"42\",\"result\":{\"isIncomplete\":false,");
+    sb.append("\"items\":[");
+    for (int i = 0; i < items; i++) {
+      sb.append(i == 0 ? "" : ",")
+          .append("{\"label\":\"toString")
+          .append(i)
+          .append("() : String\",\"kind\":2,\"detail\":\"java.lang.Object.toString")
+          .append(i)
+          .append("() : String\",\"sortText\":\"999999")
+          .append(i)
+          .append("\",\"filterText\":\"toString")
+          .append(i)
+          .append("\",\"insertText\":\"toString")
+          .append(i)
+          .append("()\",\"textEdit\":{\"range\":{\"start\":{\"line\":12,\"character\":8},")
+          .append("\"end\":{\"line\":12,\"character\":12}},\"newText\":\"toString()\"},")
+          .append("\"data\":{\"uri\":\"file:///projects/console-java-simple/src/main/java/")
+          .append("org/eclipse/che/examples/HelloWorld.java\",\"decl\":\"")
+          .append(i)
+          .append("\"}}");
+    }
+    return sb.append("]}}").toString();
+  }
+
+  private static String projectTreeResponse(int items) {
+    StringBuilder sb = new StringBuilder("{\"jsonrpc\":\"2.0\",\"id\":\"7\",\"result\":[");
+    for (int i = 0; i < items; i++) {
+      sb.append(i == 0 ? "" : ",")
+          .append("{\"name\":\"File")
+          .append(i)
+          .append(".java\",\"path\":\"/console-java-simple/src/main/java/org/eclipse/File")
+          .append(i)
+          .append(".java\",\"type\":\"FILE\",\"project\":\"/console-java-simple\",")
+          .append("\"modified\":1525262871000,\"contentLength\":")
+          .append(1024 + i)
+          .append(",\"attributes\":{\"vcs.status\":[\"NOT_MODIFIED\"]},")
+          .append("\"links\":[{\"href\":\"http://localhost:8080/api/project/file/")
+          .append("console-java-simple/File")
+          .append(i)
+          .append(".java\",\"rel\":\"get content\",\"method\":\"GET\",")
+          .append("\"produces\":\"application/octet-stream\",\"parameters\":[]}]}");
+    }
+    return sb.append("]}").toString();
+  }
+
+  private static String execOutputNotification(int line) {
+    return "{\"jsonrpc\":\"2.0\",\"method\":\"process_stdout\",\"params\":{\"pid\":3,"
+        + "\"text\":\"[INFO] Compiling 1 source file to /projects/console-java-simple/target/"
+        + "classes \\u001b[0;32m"
+        + line
+        + "\\u001b[0m\",\"time\":\"2018-05-02T12:07:51.85"
+        + line % 10
+        + "Z\"}}";
+  }
+
+  private static String linkRequest(int links) {
+    StringBuilder sb =
+        new StringBuilder("{\"jsonrpc\":\"2.0\",\"method\":\"" + LINK_METHOD + "\",\"params\":[");
+    for (int i = 0; i < links; i++) {
+      sb.append(i == 0 ? "" : ",")
+          .append("{\"href\":\"http://localhost:8080/api/workspace/workspace")
+          .append(i)
+          .append("/runtime\",\"rel\":\"start workspace\",\"method\":\"POST\",")
+          .append("\"produces\":\"application/json\",\"parameters\":[]}");
+    }
+    return sb.append("]}").toString();
+  }
+}
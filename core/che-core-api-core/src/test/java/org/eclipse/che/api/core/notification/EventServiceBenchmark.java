@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures {@link EventService#publish(Object)} throughput for events which mimic generated DTO
+ * hierarchies (a DTO implementation class implementing the DTO interface, its parent interfaces
+ * and {@code JsonSerializable}), like {@code WorkspaceStatusEvent} and {@code FileChangedEventDto}.
+ *
+ * <p>Subscribers are distributed between the event interface and its parents, while the largest
+ * part of them listens to unrelated events, as it happens on a real wsmaster.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.eclipse.che.api.core.notification.EventServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventServiceBenchmark {
+
+  @Param({"1", "10", "50", "200"})
+  public int subscribers;
+
+  private EventService eventService;
+  private Object statusEvent;
+  private Object fileChangedEvent;
+  private long received;
+
+  @Setup
+  public void setUp() {
+    eventService = new EventService();
+    statusEvent = new StatusEventImpl();
+    fileChangedEvent = new FileChangedEventImpl();
+    for (int i = 0; i < subscribers; i++) {
+      switch (i % 5) {
+        case 0:
+          eventService.subscribe(e -> received++, StatusEvent.class);
+          break;
+        case 1:
+          eventService.subscribe(e -> received++, FileChangedEvent.class);
+          break;
+        case 2:
+          eventService.subscribe(e -> received++, ProjectEvent.class);
+          break;
+        default:
+          eventService.subscribe(e -> received++, UnrelatedEvent.class);
+      }
+    }
+    // warm up the type hierarchy lookups as it happens on a running server
+    eventService.publish(statusEvent);
+    eventService.publish(fileChangedEvent);
+  }
+
+  @TearDown
+  public void tearDown() {
+    eventService.shutdown();
+  }
+
+  @Benchmark
+  public Object publishStatusEvent() {
+    return eventService.publish(statusEvent);
+  }
+
+  @Benchmark
+  public Object publishFileChangedEvent() {
+    return eventService.publish(fileChangedEvent);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(EventServiceBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  interface JsonSerializable {}
+
+  interface StatusEvent {}
+
+  interface ProjectEvent {}
+
+  interface ChangeEvent extends ProjectEvent {}
+
+  interface FileChangedEvent extends ChangeEvent {}
+
+  interface UnrelatedEvent {}
+
+  abstract static class AbstractDto implements JsonSerializable {}
+
+  static class StatusEventImpl extends AbstractDto implements StatusEvent {}
+
+  static class FileChangedEventImpl extends AbstractDto implements FileChangedEvent {}
+}
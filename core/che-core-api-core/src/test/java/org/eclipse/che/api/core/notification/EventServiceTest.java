@@ -11,10 +11,19 @@
  */
 package org.eclipse.che.api.core.notification;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.eclipse.che.api.core.notification.AsyncDeliveryOptions.OverflowPolicy;
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -27,6 +36,11 @@ public class EventServiceTest {
     bus = new EventService();
   }
 
+  @AfterMethod
+  public void tearDown() {
+    bus.shutdown();
+  }
+
   @Test
   public void testSimpleEvent() {
     final List<Object> events = new ArrayList<>();
@@ -193,6 +207,153 @@ public class EventServiceTest {
     bus.unsubscribe(sb, CustomEventImpl.class);
   }
 
+  @Test
+  public void shouldDeliverEventsToSubscribersAddedAfterEventWasPublished() {
+    final List<String> events = new ArrayList<>();
+    bus.publish(new ExtEvent());
+
+    bus.subscribe((EventSubscriber<Event>) event -> events.add(event.data), Event.class);
+    bus.publish(new ExtEvent());
+
+    Assert.assertEquals(events, Collections.singletonList("ext_event"));
+  }
+
+  @Test
+  public void shouldNotDeliverEventTwiceToTheSameSubscriber() {
+    final Listener listener = new Listener();
+    bus.subscribe(listener);
+    bus.subscribe(listener);
+
+    bus.publish("hello");
+
+    Assert.assertEquals(listener.events, Collections.singletonList("hello"));
+  }
+
+  @Test
+  public void shouldDeliverEventsAsynchronouslyPreservingOrderPerKey() throws Exception {
+    final Map<String, List<String>> eventsByKey = new ConcurrentHashMap<>();
+    final CountDownLatch latch = new CountDownLatch(200);
+    bus.subscribeAsync(
+        (EventSubscriber<Event>)
+            event -> {
+              eventsByKey
+                  .computeIfAbsent(
+                      event.data.substring(0, 1),
+                      k -> Collections.synchronizedList(new ArrayList<>()))
+                  .add(event.data);
+              latch.countDown();
+            },
+        Event.class,
+        AsyncDeliveryOptions.<Event>partitionedBy(event -> event.data.substring(0, 1))
+            .withPartitions(4));
+
+    for (int i = 0; i < 100; i++) {
+      bus.publish(new Event("a" + i));
+      bus.publish(new Event("b" + i));
+    }
+
+    Assert.assertTrue(latch.await(10, SECONDS));
+    for (String key : new String[] {"a", "b"}) {
+      final List<String> events = eventsByKey.get(key);
+      Assert.assertEquals(events.size(), 100);
+      for (int i = 0; i < 100; i++) {
+        Assert.assertEquals(events.get(i), key + i);
+      }
+    }
+    Assert.assertEquals(bus.getAsyncDeliveryStats().getDispatchedCount(), 200);
+  }
+
+  @Test
+  public void shouldNotBlockPublisherBySlowAsyncSubscriber() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> syncEvents = new ArrayList<>();
+    bus.subscribeAsync(
+        (EventSubscriber<String>)
+            event -> {
+              try {
+                release.await();
+              } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+              }
+            },
+        String.class,
+        AsyncDeliveryOptions.ordered());
+    bus.subscribe((EventSubscriber<String>) syncEvents::add, String.class);
+
+    bus.publish("hello");
+
+    Assert.assertEquals(syncEvents, Collections.singletonList("hello"));
+    release.countDown();
+  }
+
+  @Test
+  public void shouldDropOldestEventsWhenAsyncQueueIsFull() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch delivered = new CountDownLatch(2);
+    bus.subscribeAsync(
+        (EventSubscriber<String>)
+            event -> {
+              started.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException x) {
+                Thread.currentThread().interrupt();
+              }
+              events.add(event);
+              delivered.countDown();
+            },
+        String.class,
+        AsyncDeliveryOptions.<String>ordered()
+            .withQueueCapacity(1)
+            .withOverflowPolicy(OverflowPolicy.DROP_OLDEST));
+
+    bus.publish("first");
+    Assert.assertTrue(started.await(10, SECONDS));
+    bus.publish("second");
+    bus.publish("third");
+    release.countDown();
+
+    Assert.assertTrue(delivered.await(10, SECONDS));
+    Assert.assertEquals(events, Arrays.asList("first", "third"));
+    Assert.assertEquals(bus.getAsyncDeliveryStats().getDroppedCount(), 1);
+  }
+
+  @Test
+  public void shouldUnsubscribeAsyncSubscriber() throws Exception {
+    final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    final EventSubscriber<String> subscriber = events::add;
+    bus.subscribeAsync(subscriber, String.class, AsyncDeliveryOptions.ordered());
+
+    bus.unsubscribe(subscriber, String.class);
+    bus.publish("hello");
+
+    SECONDS.sleep(1);
+    Assert.assertTrue(events.isEmpty());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldKeepDeliveringToAsyncSubscriberUnsubscribedFromOtherEventType()
+      throws Exception {
+    final CountDownLatch delivered = new CountDownLatch(1);
+    final EventSubscriber<String> subscriber = event -> delivered.countDown();
+    bus.subscribeAsync(subscriber, String.class, AsyncDeliveryOptions.ordered());
+
+    bus.unsubscribe((EventSubscriber) subscriber, Long.class);
+    bus.publish("hello");
+
+    Assert.assertTrue(delivered.await(10, SECONDS));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void shouldNotSubscribeAsyncSubscriberTwice() {
+    final EventSubscriber<String> subscriber = event -> {};
+    bus.subscribeAsync(subscriber, String.class, AsyncDeliveryOptions.ordered());
+    bus.subscribeAsync(subscriber, String.class, AsyncDeliveryOptions.ordered());
+  }
+
   static class CustomEventSubscriber<T extends CustomEvent> implements EventSubscriber<T> {
     final List<String> events = new ArrayList<>();
 
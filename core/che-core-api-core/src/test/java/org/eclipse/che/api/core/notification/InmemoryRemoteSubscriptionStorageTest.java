@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import static java.util.Collections.singleton;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class InmemoryRemoteSubscriptionStorageTest {
+
+  private InmemoryRemoteSubscriptionStorage storage;
+
+  @BeforeMethod
+  public void setUp() {
+    storage = new InmemoryRemoteSubscriptionStorage();
+  }
+
+  @Test
+  public void shouldReturnSubscriptionsByScopeEntry() {
+    RemoteSubscriptionContext ws1 =
+        new RemoteSubscriptionContext("endpoint1", ImmutableMap.of("workspaceId", "ws1"));
+    RemoteSubscriptionContext ws2 =
+        new RemoteSubscriptionContext(
+            "endpoint2", ImmutableMap.of("workspaceId", "ws2", "machineName", "dev"));
+    storage.addSubscription("method", ws1);
+    storage.addSubscription("method", ws2);
+    storage.addSubscription("other", new RemoteSubscriptionContext("endpoint1", null));
+
+    assertEquals(storage.getByScope("method", "workspaceId", "ws1"), singleton(ws1));
+    assertEquals(storage.getByScope("method", "machineName", "dev"), singleton(ws2));
+    assertTrue(storage.getByScope("other", "workspaceId", "ws1").isEmpty());
+  }
+
+  @Test
+  public void shouldRemoveSubscriptionFromScopeIndex() {
+    RemoteSubscriptionContext endpoint1 =
+        new RemoteSubscriptionContext("endpoint1", ImmutableMap.of("workspaceId", "ws1"));
+    RemoteSubscriptionContext endpoint2 =
+        new RemoteSubscriptionContext("endpoint2", ImmutableMap.of("workspaceId", "ws1"));
+    storage.addSubscription("method", endpoint1);
+    storage.addSubscription("method", endpoint2);
+
+    storage.removeSubscription("method", "endpoint1");
+
+    assertEquals(storage.getByMethod("method"), singleton(endpoint2));
+    assertEquals(storage.getByScope("method", "workspaceId", "ws1"), singleton(endpoint2));
+  }
+}
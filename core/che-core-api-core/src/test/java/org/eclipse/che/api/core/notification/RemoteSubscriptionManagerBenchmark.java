@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.core.jsonrpc.impl.GsonJsonRpcMarshaller;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures transmission of a workspace scoped event, like {@code RuntimeLogEvent}, by {@link
+ * RemoteSubscriptionManager} when there are 10k subscriptions to the method, 10 per workspace.
+ *
+ * <p>Compares events registered with a predicate, which is tested against each subscription, with
+ * events registered with a scope key, which recipients are looked up in the scope index of {@link
+ * InmemoryRemoteSubscriptionStorage}.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.eclipse.che.api.core.notification.RemoteSubscriptionManagerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoteSubscriptionManagerBenchmark {
+
+  private static final String PREDICATE_METHOD = "predicate/log";
+  private static final String SCOPE_METHOD = "scope/log";
+  private static final int WORKSPACES = 1000;
+  private static final int SUBSCRIPTIONS_PER_WORKSPACE = 10;
+
+  @Param({"predicate", "scope"})
+  public String routing;
+
+  private EventService eventService;
+  private Object event;
+  private long transmitted;
+
+  @Setup
+  public void setUp() {
+    eventService = new EventService();
+    InmemoryRemoteSubscriptionStorage storage = new InmemoryRemoteSubscriptionStorage();
+    RemoteSubscriptionManager manager =
+        new RemoteSubscriptionManager(
+            eventService,
+            new GsonJsonRpcMarshaller(new JsonParser(), new Gson()),
+            new CountingTransmitter(),
+            storage);
+    String method;
+    if ("predicate".equals(routing)) {
+      method = PREDICATE_METHOD;
+      manager.register(
+          method,
+          LogEvent.class,
+          (event, scope) -> event.workspaceId.equals(scope.get("workspaceId")));
+    } else {
+      method = SCOPE_METHOD;
+      manager.register(method, LogEvent.class, "workspaceId", event -> event.workspaceId);
+    }
+    for (int i = 0; i < WORKSPACES * SUBSCRIPTIONS_PER_WORKSPACE; i++) {
+      storage.addSubscription(
+          method,
+          new RemoteSubscriptionContext(
+              "endpoint" + i, ImmutableMap.of("workspaceId", "workspace" + i % WORKSPACES)));
+    }
+    event = new LogEvent("workspace42", "[INFO] Pulling image 'eclipse/che-dev'");
+  }
+
+  @TearDown
+  public void tearDown() {
+    eventService.shutdown();
+  }
+
+  @Benchmark
+  public long publishWorkspaceEvent() {
+    eventService.publish(event);
+    return transmitted;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(RemoteSubscriptionManagerBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+
+  static class LogEvent {
+    final String workspaceId;
+    final String text;
+
+    LogEvent(String workspaceId, String text) {
+      this.workspaceId = workspaceId;
+      this.text = text;
+    }
+  }
+
+  private class CountingTransmitter implements WebSocketMessageTransmitter {
+    @Override
+    public void transmit(String endpointId, String message) {
+      transmitted += message.length();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.notification;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcMarshaller;
+import org.eclipse.che.api.core.jsonrpc.commons.JsonRpcRequest;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link RemoteSubscriptionManager}. */
+@Listeners(MockitoTestNGListener.class)
+public class RemoteSubscriptionManagerTest {
+
+  private static final String METHOD = "workspace/statusChanged";
+  private static final String SCOPE_KEY = "workspaceId";
+
+  @Mock private EventService eventService;
+  @Mock private JsonRpcMarshaller marshaller;
+  @Mock private WebSocketMessageTransmitter transmitter;
+  @Mock private RemoteSubscriptionForwarder forwarder;
+  @Captor private ArgumentCaptor<EventSubscriber<WorkspaceEvent>> subscriberCaptor;
+
+  private InmemoryRemoteSubscriptionStorage storage;
+  private RemoteSubscriptionManager manager;
+
+  @BeforeMethod
+  public void setUp() {
+    storage = new InmemoryRemoteSubscriptionStorage();
+    manager = new RemoteSubscriptionManager(eventService, marshaller, transmitter, storage);
+    manager.setForwarder(forwarder);
+    storage.addSubscription(
+        METHOD, new RemoteSubscriptionContext("endpoint1", ImmutableMap.of(SCOPE_KEY, "ws1")));
+  }
+
+  @Test
+  public void shouldTransmitPublishedEventToLocalSubscribersAndForwardIt() {
+    when(marshaller.marshall(any(JsonRpcRequest.class))).thenReturn("message");
+    manager.register(METHOD, WorkspaceEvent.class, SCOPE_KEY, event -> event.workspaceId);
+    WorkspaceEvent event = new WorkspaceEvent("ws1");
+
+    publishedEventsSubscriber().onEvent(event);
+
+    verify(transmitter).transmit("endpoint1", "message");
+    verify(forwarder).forward(METHOD, event, SCOPE_KEY, "ws1");
+  }
+
+  @Test
+  public void shouldNotForwardEventWithoutScopeValue() {
+    manager.register(METHOD, WorkspaceEvent.class, SCOPE_KEY, event -> event.workspaceId);
+
+    publishedEventsSubscriber().onEvent(new WorkspaceEvent(null));
+
+    verifyZeroInteractions(transmitter, forwarder);
+  }
+
+  @Test
+  public void shouldForwardEventRegisteredWithPredicateWithoutScope() {
+    manager.register(
+        METHOD,
+        WorkspaceEvent.class,
+        (event, scope) -> event.workspaceId.equals(scope.get(SCOPE_KEY)));
+    WorkspaceEvent event = new WorkspaceEvent("ws2");
+
+    publishedEventsSubscriber().onEvent(event);
+
+    verify(forwarder).forward(METHOD, event, null, null);
+    verify(transmitter, never()).transmit(anyString(), anyString());
+  }
+
+  @Test
+  public void shouldTransmitForwardedEventToLocalSubscribersWithoutForwardingIt() {
+    when(marshaller.marshall(any(JsonRpcRequest.class))).thenReturn("message");
+    manager.register(METHOD, WorkspaceEvent.class, SCOPE_KEY, event -> event.workspaceId);
+
+    manager.transmitForwarded(METHOD, new WorkspaceEvent("ws1"));
+
+    verify(transmitter).transmit("endpoint1", "message");
+    verifyZeroInteractions(forwarder);
+  }
+
+  @Test
+  public void shouldIgnoreForwardedEventOfUnregisteredMethod() {
+    manager.transmitForwarded(METHOD, new WorkspaceEvent("ws1"));
+
+    verifyZeroInteractions(transmitter, forwarder);
+  }
+
+  private EventSubscriber<WorkspaceEvent> publishedEventsSubscriber() {
+    verify(eventService).subscribe(subscriberCaptor.capture(), eq(WorkspaceEvent.class));
+    return subscriberCaptor.getValue();
+  }
+
+  private static class WorkspaceEvent {
+    private final String workspaceId;
+
+    private WorkspaceEvent(String workspaceId) {
+      this.workspaceId = workspaceId;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Test for {@link AsyncWebSocketMessageTransmitter} */
+@Listeners(MockitoTestNGListener.class)
+public class AsyncWebSocketMessageTransmitterTest {
+  private static final String ENDPOINT_ID = "id";
+
+  @Mock private WebSocketSessionRegistry registry;
+  @Mock private MessagesReSender reSender;
+  @Mock private Session session;
+  @Mock private RemoteEndpoint.Async remote;
+
+  private List<String> sentFrames;
+  private List<SendHandler> sendHandlers;
+  private AsyncWebSocketMessageTransmitter transmitter;
+
+  @BeforeMethod
+  public void setUp() {
+    sentFrames = new ArrayList<>();
+    sendHandlers = new ArrayList<>();
+    lenient().when(session.getAsyncRemote()).thenReturn(remote);
+    lenient()
+        .doAnswer(
+            inv -> {
+              sentFrames.add(inv.getArgument(0));
+              sendHandlers.add(inv.getArgument(1));
+              return null;
+            })
+        .when(remote)
+        .sendText(anyString(), any(SendHandler.class));
+    when(session.isOpen()).thenReturn(true);
+    when(registry.get(ENDPOINT_ID)).thenReturn(Optional.of(session));
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    if (transmitter != null) {
+      transmitter.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldSendMessageAsynchronously() {
+    transmitter = new AsyncWebSocketMessageTransmitter(registry, reSender, 10, 30_000);
+
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":1}");
+
+    assertEquals(sentFrames.size(), 1);
+    assertEquals(sentFrames.get(0), "{\"a\":1}");
+    verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
+  }
+
+  @Test
+  public void shouldQueueMessagesWhileSendIsInFlight() {
+    transmitter = new AsyncWebSocketMessageTransmitter(registry, reSender, 10, 30_000);
+
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":2}");
+
+    assertEquals(sentFrames.size(), 1);
+    assertEquals(transmitter.getQueuedMessages(), 1);
+
+    sendHandlers.get(0).onResult(new SendResult());
+
+    verify(remote, timeout(1000).times(2)).sendText(anyString(), any(SendHandler.class));
+    assertEquals(sentFrames.get(1), "{\"a\":2}");
+    assertEquals(transmitter.getQueuedMessages(), 0);
+    assertEquals(transmitter.getSentFrames(), 1);
+  }
+
+  @Test
+  public void shouldPassFailedAndFollowingMessagesToReSenderInOrder() throws Exception {
+    transmitter = new AsyncWebSocketMessageTransmitter(registry, reSender, 10, 30_000);
+
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":2}");
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":3}");
+    sendHandlers.get(0).onResult(new SendResult(new IOException("connection reset")));
+
+    InOrder inOrder = inOrder(reSender);
+    inOrder.verify(reSender).add(ENDPOINT_ID, "{\"a\":1}");
+    inOrder.verify(reSender).add(ENDPOINT_ID, "{\"a\":2}");
+    inOrder.verify(reSender).add(ENDPOINT_ID, "{\"a\":3}");
+    verify(session).close(any(CloseReason.class));
+    assertEquals(sentFrames.size(), 1);
+    assertEquals(transmitter.getQueuedMessages(), 0);
+  }
+
+  @Test
+  public void shouldCloseSlowConsumerAndPassPendingMessagesToReSender() throws Exception {
+    transmitter = new AsyncWebSocketMessageTransmitter(registry, reSender, 1, 30_000);
+
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":2}");
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":3}");
+
+    verify(session).close(any(CloseReason.class));
+    assertEquals(transmitter.getSlowConsumersDisconnected(), 1);
+    // pending messages wait for the send in flight, which fails as the session is closed
+    verify(reSender, never()).add(eq(ENDPOINT_ID), anyString());
+    sendHandlers.get(0).onResult(new SendResult(new IOException("closed")));
+
+    InOrder inOrder = inOrder(reSender);
+    inOrder.verify(reSender).add(ENDPOINT_ID, "{\"a\":1}");
+    inOrder.verify(reSender).add(ENDPOINT_ID, "{\"a\":2}");
+    inOrder.verify(reSender).add(ENDPOINT_ID, "{\"a\":3}");
+    assertEquals(transmitter.getQueuedMessages(), 0);
+  }
+
+  @Test
+  public void shouldAddMessageToPendingIfSessionIsNotOpened() {
+    transmitter = new AsyncWebSocketMessageTransmitter(registry, reSender, 10, 30_000);
+    when(session.isOpen()).thenReturn(false);
+
+    transmitter.transmit(ENDPOINT_ID, "message");
+
+    verify(remote, never()).sendText(anyString(), any(SendHandler.class));
+    verify(reSender).add(ENDPOINT_ID, "message");
+  }
+}
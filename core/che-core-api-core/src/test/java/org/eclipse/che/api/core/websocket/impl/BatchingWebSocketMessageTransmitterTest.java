@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.core.websocket.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for {@link BatchingWebSocketMessageTransmitter} */
+public class BatchingWebSocketMessageTransmitterTest {
+  private static final String ENDPOINT_ID = "id";
+
+  private List<String> transmitted;
+  private BatchingWebSocketMessageTransmitter transmitter;
+
+  @BeforeMethod
+  public void setUp() {
+    transmitted = new CopyOnWriteArrayList<>();
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    transmitter.shutdown();
+  }
+
+  @Test
+  public void shouldTransmitNotBatchedMessagesImmediately() {
+    transmitter = newTransmitter(10_000, 100, 1000);
+
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":1}");
+
+    assertEquals(transmitted, singletonList("{\"a\":1}"));
+  }
+
+  @Test
+  public void shouldTransmitPendingBatchBeforeNotBatchedMessage() {
+    transmitter = newTransmitter(10_000, 100, 1000);
+
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":2}");
+    transmitter.transmit(ENDPOINT_ID, "{\"a\":3}");
+
+    assertEquals(transmitted, asList("[{\"a\":1},{\"a\":2}]", "{\"a\":3}"));
+  }
+
+  @Test
+  public void shouldTransmitBatchWhenWindowEnds() throws Exception {
+    transmitter = newTransmitter(50, 100, 1000);
+
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":2}");
+    assertTrue(transmitted.isEmpty());
+
+    waitForTransmission();
+
+    assertEquals(transmitted, singletonList("[{\"a\":1},{\"a\":2}]"));
+  }
+
+  @Test
+  public void shouldTransmitSingleMessageWithoutArray() throws Exception {
+    transmitter = newTransmitter(50, 100, 1000);
+
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":1}");
+
+    waitForTransmission();
+
+    assertEquals(transmitted, singletonList("{\"a\":1}"));
+  }
+
+  @Test
+  public void shouldTransmitBatchWhenMaxMessagesIsReached() {
+    transmitter = newTransmitter(10_000, 2, 1000);
+
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":2}");
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":3}");
+
+    assertEquals(transmitted, singletonList("[{\"a\":1},{\"a\":2}]"));
+  }
+
+  @Test
+  public void shouldTransmitBatchWhenMaxSizeIsReached() {
+    transmitter = newTransmitter(10_000, 100, 10);
+
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":2}");
+
+    assertEquals(transmitted, singletonList("[{\"a\":1},{\"a\":2}]"));
+  }
+
+  @Test
+  public void shouldTransmitPendingBatchesOnShutdown() {
+    transmitter = newTransmitter(10_000, 100, 1000);
+
+    transmitter.transmitBatched(ENDPOINT_ID, "{\"a\":1}");
+    transmitter.transmitBatched("other", "{\"b\":1}");
+    transmitter.shutdown();
+
+    assertEquals(transmitted.size(), 2);
+    assertTrue(transmitted.containsAll(asList("{\"a\":1}", "{\"b\":1}")));
+  }
+
+  private BatchingWebSocketMessageTransmitter newTransmitter(
+      long windowMillis, int maxMessages, int maxBytes) {
+    return new BatchingWebSocketMessageTransmitter(
+        (endpointId, message) -> transmitted.add(message), windowMillis, maxMessages, maxBytes);
+  }
+
+  private void waitForTransmission() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (transmitted.isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+}
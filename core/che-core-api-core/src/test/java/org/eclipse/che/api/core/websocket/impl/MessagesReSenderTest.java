@@ -12,15 +12,18 @@
 package org.eclipse.che.api.core.websocket.impl;
 
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.util.Optional;
 import javax.websocket.RemoteEndpoint;
 import javax.websocket.Session;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -38,7 +41,7 @@ public class MessagesReSenderTest {
   private static final String ENDPOINT_ID = "id";
 
   @Mock private WebSocketSessionRegistry sessionRegistry;
-  @InjectMocks private MessagesReSender reSender;
+  private MessagesReSender reSender;
 
   @Mock private Session session;
   @Mock private RemoteEndpoint.Async endpoint;
@@ -52,7 +55,7 @@ public class MessagesReSenderTest {
 
   @BeforeMethod
   public void before() {
-    reSender = new MessagesReSender(sessionRegistry);
+    reSender = new MessagesReSender(sessionRegistry, 1024 * 1024, 64 * 1024 * 1024, 60_000);
   }
 
   @Test
@@ -146,4 +149,118 @@ public class MessagesReSenderTest {
     verify(session, times(2)).getAsyncRemote();
     verify(endpoint, times(2)).sendText(MESSAGE);
   }
+
+  @Test
+  public void shouldResendMessagesInOrder() {
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add(ENDPOINT_ID, "3");
+
+    reSender.resend(ENDPOINT_ID);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText("1");
+    inOrder.verify(endpoint).sendText("2");
+    inOrder.verify(endpoint).sendText("3");
+    assertEquals(reSender.getBufferedBytes(), 0);
+    assertEquals(reSender.getBufferedEndpoints(), 0);
+  }
+
+  @Test
+  public void shouldAssignIncreasingSequenceNumbers() {
+    long first = reSender.add(ENDPOINT_ID, "1");
+    long second = reSender.add("1", "2");
+    long third = reSender.add(ENDPOINT_ID, "3");
+
+    assertTrue(first < second);
+    assertTrue(second < third);
+  }
+
+  @Test
+  public void shouldResendOnlyMessagesAfterLastReceivedSequenceWithTheirSequences() {
+    reSender.add(ENDPOINT_ID, "{\"a\":1}");
+    long lastReceived = reSender.add(ENDPOINT_ID, "{\"a\":2}");
+    long next = reSender.add(ENDPOINT_ID, "[{\"a\":3},{\"a\":4}]");
+    long last = reSender.add(ENDPOINT_ID, "{\"a\":5}");
+
+    reSender.resend(ENDPOINT_ID, lastReceived);
+
+    InOrder inOrder = inOrder(endpoint);
+    inOrder.verify(endpoint).sendText("[{\"a\":3},{\"a\":4}," + sequenceNotification(next) + ']');
+    inOrder.verify(endpoint).sendText("[{\"a\":5}," + sequenceNotification(last) + ']');
+    verify(endpoint, times(2)).sendText(anyString());
+  }
+
+  @Test
+  public void shouldKeepResentMessagesUntilClientAcknowledgesThem() {
+    long first = reSender.add(ENDPOINT_ID, "1");
+    long second = reSender.add(ENDPOINT_ID, "2");
+
+    reSender.resend(ENDPOINT_ID, 0);
+    reSender.resend(ENDPOINT_ID, first);
+    reSender.resend(ENDPOINT_ID, second);
+
+    verify(endpoint).sendText("[1," + sequenceNotification(first) + ']');
+    verify(endpoint, times(2)).sendText("[2," + sequenceNotification(second) + ']');
+    assertEquals(reSender.getBufferedBytes(), 0);
+    assertEquals(reSender.getBufferedEndpoints(), 0);
+  }
+
+  @Test
+  public void shouldEvictOldestMessagesWhenEndpointBudgetIsExceeded() {
+    reSender = new MessagesReSender(sessionRegistry, 2, 100, 60_000);
+
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add(ENDPOINT_ID, "3");
+
+    assertEquals(reSender.getBufferedBytes(), 2);
+    assertEquals(reSender.getEvictedMessages(), 1);
+
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText("1");
+    verify(endpoint).sendText("2");
+    verify(endpoint).sendText("3");
+  }
+
+  @Test
+  public void shouldEvictMessagesWhenTotalBudgetIsExceeded() {
+    reSender = new MessagesReSender(sessionRegistry, 100, 3, 60_000);
+
+    reSender.add(ENDPOINT_ID, "1");
+    reSender.add(ENDPOINT_ID, "2");
+    reSender.add("1", "3");
+    reSender.add("1", "4");
+
+    assertTrue(reSender.getBufferedBytes() <= 3);
+    assertEquals(reSender.getEvictedMessages(), 1);
+
+    reSender.resend(ENDPOINT_ID);
+    reSender.resend("1");
+
+    verify(endpoint, times(3)).sendText(anyString());
+  }
+
+  @Test
+  public void shouldDropStaleMessages() {
+    reSender = new MessagesReSender(sessionRegistry, 100, 100, -1);
+
+    reSender.add(ENDPOINT_ID, MESSAGE);
+    reSender.cleanStaleMessages();
+
+    assertEquals(reSender.getBufferedEndpoints(), 0);
+    assertEquals(reSender.getEvictedMessages(), 1);
+
+    reSender.add(ENDPOINT_ID, "fresh");
+    reSender.resend(ENDPOINT_ID);
+
+    verify(endpoint, never()).sendText(MESSAGE);
+  }
+
+  private static String sequenceNotification(long sequence) {
+    return "{\"jsonrpc\":\"2.0\",\"method\":\"websocket/sequence\",\"params\":{\"sequence\":"
+        + sequence
+        + "}}";
+  }
 }
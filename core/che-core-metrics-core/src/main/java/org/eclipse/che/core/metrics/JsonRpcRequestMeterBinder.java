@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.impl.RequestProcessingListener;
+
+/**
+ * Metric binding for JSON RPC requests processing: histograms of the time requests wait in the
+ * queue and of the processing time, and the number of rejected requests. Grouped by the request
+ * priority.
+ */
+@Singleton
+public class JsonRpcRequestMeterBinder implements MeterBinder, RequestProcessingListener {
+
+  // package private access for visibility in tests
+  Timer highPriorityQueueWaitTimer;
+  Timer normalPriorityQueueWaitTimer;
+  Timer highPriorityExecutionTimer;
+  Timer normalPriorityExecutionTimer;
+  Counter highPriorityRejectedCounter;
+  Counter normalPriorityRejectedCounter;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    highPriorityQueueWaitTimer = queueWaitTimer("high", registry);
+    normalPriorityQueueWaitTimer = queueWaitTimer("normal", registry);
+    highPriorityExecutionTimer = executionTimer("high", registry);
+    normalPriorityExecutionTimer = executionTimer("normal", registry);
+    highPriorityRejectedCounter = rejectedCounter("high", registry);
+    normalPriorityRejectedCounter = rejectedCounter("normal", registry);
+  }
+
+  @Override
+  public void onProcessed(boolean highPriority, long queueWaitNanos, long executionNanos) {
+    Timer queueWaitTimer = highPriority ? highPriorityQueueWaitTimer : normalPriorityQueueWaitTimer;
+    Timer executionTimer = highPriority ? highPriorityExecutionTimer : normalPriorityExecutionTimer;
+    if (queueWaitTimer != null && executionTimer != null) {
+      queueWaitTimer.record(queueWaitNanos, NANOSECONDS);
+      executionTimer.record(executionNanos, NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void onRejected(boolean highPriority) {
+    Counter counter = highPriority ? highPriorityRejectedCounter : normalPriorityRejectedCounter;
+    if (counter != null) {
+      counter.increment();
+    }
+  }
+
+  private static Timer queueWaitTimer(String priority, MeterRegistry registry) {
+    return Timer.builder("che.jsonrpc.request.queue.wait")
+        .description("Time JSON RPC requests wait in the queue before processing")
+        .tag("priority", priority)
+        .tag("area", "jsonrpc")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private static Timer executionTimer(String priority, MeterRegistry registry) {
+    return Timer.builder("che.jsonrpc.request.execution")
+        .description("Time of JSON RPC requests processing")
+        .tag("priority", priority)
+        .tag("area", "jsonrpc")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  private static Counter rejectedCounter(String priority, MeterRegistry registry) {
+    return Counter.builder("che.jsonrpc.request.rejected")
+        .description("JSON RPC requests rejected because the queue is full")
+        .tag("priority", priority)
+        .tag("area", "jsonrpc")
+        .register(registry);
+  }
+}
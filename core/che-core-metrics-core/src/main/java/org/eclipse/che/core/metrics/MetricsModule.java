@@ -25,6 +25,7 @@ import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
 import io.micrometer.core.instrument.binder.system.UptimeMetrics;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.prometheus.client.CollectorRegistry;
+import org.eclipse.che.api.core.jsonrpc.impl.RequestProcessingListener;
 
 @Beta
 public class MetricsModule extends AbstractModule {
@@ -49,5 +50,11 @@ public class MetricsModule extends AbstractModule {
     meterMultibinder.addBinding().to(UptimeMetrics.class);
     meterMultibinder.addBinding().to(FileStoresMeterBinder.class);
     meterMultibinder.addBinding().to(ApiResponseCounter.class);
+    meterMultibinder.addBinding().to(JsonRpcRequestMeterBinder.class);
+    meterMultibinder.addBinding().to(WebSocketTransmitterMeterBinder.class);
+
+    Multibinder.newSetBinder(binder(), RequestProcessingListener.class)
+        .addBinding()
+        .to(JsonRpcRequestMeterBinder.class);
   }
 }
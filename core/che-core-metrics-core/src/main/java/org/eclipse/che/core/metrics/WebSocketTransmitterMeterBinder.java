@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.websocket.commons.WebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.AsyncWebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.BatchingWebSocketMessageTransmitter;
+import org.eclipse.che.api.core.websocket.impl.MessagesReSender;
+
+/**
+ * Provides metrics of messages waiting to be re-sent to disconnected websocket endpoints and of
+ * websocket outbound queues when {@link AsyncWebSocketMessageTransmitter} is used.
+ */
+@Singleton
+public class WebSocketTransmitterMeterBinder implements MeterBinder {
+
+  private final WebSocketMessageTransmitter transmitter;
+  private final MessagesReSender reSender;
+
+  @Inject
+  public WebSocketTransmitterMeterBinder(
+      WebSocketMessageTransmitter transmitter, MessagesReSender reSender) {
+    this.transmitter =
+        transmitter instanceof BatchingWebSocketMessageTransmitter
+            ? ((BatchingWebSocketMessageTransmitter) transmitter).getDelegate()
+            : transmitter;
+    this.reSender = reSender;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("che.websocket.resend.buffer.bytes", reSender, MessagesReSender::getBufferedBytes)
+        .description("The size of messages waiting to be re-sent to websocket endpoints")
+        .tag("area", "websocket")
+        .register(registry);
+    Gauge.builder(
+            "che.websocket.resend.buffer.endpoints",
+            reSender,
+            MessagesReSender::getBufferedEndpoints)
+        .description("The number of websocket endpoints having messages waiting to be re-sent")
+        .tag("area", "websocket")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.websocket.resend.evicted", reSender, MessagesReSender::getEvictedMessages)
+        .description("The number of messages dropped before they could be re-sent")
+        .tag("area", "websocket")
+        .register(registry);
+
+    if (!(transmitter instanceof AsyncWebSocketMessageTransmitter)) {
+      return;
+    }
+    AsyncWebSocketMessageTransmitter asyncTransmitter =
+        (AsyncWebSocketMessageTransmitter) transmitter;
+    Gauge.builder(
+            "che.websocket.outbound.queue.size",
+            asyncTransmitter,
+            AsyncWebSocketMessageTransmitter::getQueuedMessages)
+        .description("The number of messages waiting to be sent to websocket sessions")
+        .tag("area", "websocket")
+        .register(registry);
+    Gauge.builder(
+            "che.websocket.outbound.queue.max",
+            asyncTransmitter,
+            AsyncWebSocketMessageTransmitter::getMaxSessionQueueSize)
+        .description("The number of messages waiting to be sent to the slowest websocket session")
+        .tag("area", "websocket")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.websocket.outbound.send",
+            asyncTransmitter,
+            AsyncWebSocketMessageTransmitter::getSentFrames,
+            t -> t.getTotalSendTime(TimeUnit.NANOSECONDS),
+            TimeUnit.NANOSECONDS)
+        .description("The time of sending websocket frames")
+        .tag("area", "websocket")
+        .register(registry);
+    FunctionCounter.builder(
+            "che.websocket.outbound.slow_consumers",
+            asyncTransmitter,
+            AsyncWebSocketMessageTransmitter::getSlowConsumersDisconnected)
+        .description("The number of websocket sessions closed as they didn't keep up with messages")
+        .tag("area", "websocket")
+        .register(registry);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.core.metrics;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Test for {@link JsonRpcRequestMeterBinder} functionality */
+public class JsonRpcRequestMeterBinderTest {
+  private JsonRpcRequestMeterBinder meterBinder;
+  private MeterRegistry registry;
+
+  @BeforeMethod
+  public void setup() {
+    registry = new SimpleMeterRegistry();
+
+    meterBinder = new JsonRpcRequestMeterBinder();
+    meterBinder.bindTo(registry);
+  }
+
+  @Test
+  public void shouldRecordQueueWaitAndExecutionTime() {
+    meterBinder.onProcessed(true, MILLISECONDS.toNanos(10), MILLISECONDS.toNanos(20));
+    meterBinder.onProcessed(false, MILLISECONDS.toNanos(30), MILLISECONDS.toNanos(40));
+
+    assertEquals(meterBinder.highPriorityQueueWaitTimer.count(), 1);
+    assertEquals(meterBinder.highPriorityQueueWaitTimer.totalTime(MILLISECONDS), 10.0);
+    assertEquals(meterBinder.highPriorityExecutionTimer.totalTime(MILLISECONDS), 20.0);
+    assertEquals(meterBinder.normalPriorityQueueWaitTimer.count(), 1);
+    assertEquals(meterBinder.normalPriorityQueueWaitTimer.totalTime(MILLISECONDS), 30.0);
+    assertEquals(meterBinder.normalPriorityExecutionTimer.totalTime(MILLISECONDS), 40.0);
+  }
+
+  @Test
+  public void shouldCountRejectedRequests() {
+    meterBinder.onRejected(false);
+    meterBinder.onRejected(false);
+    meterBinder.onRejected(true);
+
+    assertEquals(meterBinder.normalPriorityRejectedCounter.count(), 2.0);
+    assertEquals(meterBinder.highPriorityRejectedCounter.count(), 1.0);
+  }
+
+  @Test
+  public void shouldIgnoreEventsBeforeBinding() {
+    JsonRpcRequestMeterBinder unbound = new JsonRpcRequestMeterBinder();
+
+    unbound.onProcessed(true, 1, 1);
+    unbound.onRejected(true);
+  }
+}
@@ -19,6 +19,7 @@ import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.LinkedList;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -77,19 +78,36 @@ public class TarUtils {
   }
 
   public static void tarFiles(File tar, long modTime, File... files) throws IOException {
-    try (TarArchiveOutputStream tarOut =
-        new TarArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(tar)))) {
-      tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
-      for (File f : files) {
-        if (f.isDirectory()) {
-          addDirectoryEntry(tarOut, f.getName(), f, modTime);
-          final String parentPath = f.getParentFile().getAbsolutePath();
-          addDirectoryRecursively(tarOut, parentPath, f, modTime, IoUtil.ANY_FILTER);
-        } else if (f.isFile()) {
-          addFileEntry(tarOut, f.getName(), f, modTime);
-        }
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tar))) {
+      tarFiles(out, modTime, files);
+    }
+  }
+
+  /**
+   * Writes tar archive of the given files to the stream, so the archive can be sent without
+   * storing it. The stream is not closed.
+   *
+   * @param out stream to write archive to
+   * @param modTime modification time that applied to all entries in archive instead modification
+   *     time provided by method {@link File#lastModified()}. This parameter should be {@code -1} if
+   *     don't need to set any specified time
+   * @param files files and directories to add
+   * @throws IOException if i/o error occurs
+   */
+  public static void tarFiles(OutputStream out, long modTime, File... files) throws IOException {
+    final TarArchiveOutputStream tarOut = new TarArchiveOutputStream(out);
+    tarOut.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+    for (File f : files) {
+      if (f.isDirectory()) {
+        addDirectoryEntry(tarOut, f.getName(), f, modTime);
+        final String parentPath = f.getParentFile().getAbsolutePath();
+        addDirectoryRecursively(tarOut, parentPath, f, modTime, IoUtil.ANY_FILTER);
+      } else if (f.isFile()) {
+        addFileEntry(tarOut, f.getName(), f, modTime);
       }
     }
+    tarOut.finish();
+    tarOut.flush();
   }
 
   public static void tarFiles(File tar, File... files) throws IOException {
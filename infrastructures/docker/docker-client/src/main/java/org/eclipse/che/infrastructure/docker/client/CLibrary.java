@@ -22,6 +22,11 @@ import java.util.List;
 public interface CLibrary extends Library {
   int AF_UNIX = 1; // Defined in 'sys/socket.h'
   int SOCK_STREAM = 1; // Defined in 'sys/socket.h'
+  int MSG_PEEK = 0x02; // Defined in 'sys/socket.h'
+  // Linux values, differ on other platforms, e.g. MSG_DONTWAIT is 0x80 and EAGAIN is 35 on macOS
+  int MSG_DONTWAIT = 0x40; // Defined in 'sys/socket.h'
+  int EAGAIN = 11; // Defined in 'asm-generic/errno-base.h'
+  int EWOULDBLOCK = EAGAIN; // Defined in 'asm-generic/errno.h'
 
   // Defined in 'unix.h', see http://man7.org/linux/man-pages/man7/unix.7.html
   class SockAddrUn extends Structure {
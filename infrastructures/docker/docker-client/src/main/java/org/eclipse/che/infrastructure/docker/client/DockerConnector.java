@@ -21,6 +21,7 @@ import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.eclipse.che.commons.lang.IoUtil.readAndCloseQuietly;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -28,18 +29,13 @@ import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -51,7 +47,6 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import javax.ws.rs.core.MediaType;
-import org.eclipse.che.api.core.util.FileCleaner;
 import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.lang.TarUtils;
 import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
@@ -422,7 +417,7 @@ public class DockerConnector {
   public int waitContainer(final WaitContainerParams params) throws IOException {
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("POST")
             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/wait")) {
       final DockerResponse response = connection.request();
@@ -487,7 +482,7 @@ public class DockerConnector {
 
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("POST")
             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/attach")
             .query("stdout", 1)
@@ -516,7 +511,7 @@ public class DockerConnector {
       throws IOException {
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("GET")
             .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/logs")
             .query("stdout", 1)
@@ -593,7 +588,7 @@ public class DockerConnector {
     byte[] entityBytesArray = toJson(execStart).getBytes(StandardCharsets.UTF_8);
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("POST")
             .path(apiVersionPathPrefix + "/exec/" + params.getExecId() + "/start")
             .header("Content-Type", MediaType.APPLICATION_JSON)
@@ -696,7 +691,7 @@ public class DockerConnector {
     try {
       connection =
           connectionFactory
-              .openConnection(dockerDaemonUri)
+              .openStreamingConnection(dockerDaemonUri)
               .method("GET")
               .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/archive")
               .query("path", params.getSourcePath());
@@ -720,37 +715,21 @@ public class DockerConnector {
    * @apiNote this method implements 1.20 docker API and requires docker not less than 1.8 version
    */
   public void putResource(final PutResourceParams params) throws IOException {
-    File tarFile;
-    long length;
-    try (InputStream sourceData = params.getSourceStream()) {
-      // TODO according to http spec http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.4,
-      // it is possible to send request without specifying content length if chunked encoding header
-      // is set
-      // Investigate is it possible to write the stream to request directly
-
-      // we save stream to file, because we have to know its length
-      Path tarFilePath = Files.createTempFile("compressed-resources", ".tar");
-      tarFile = tarFilePath.toFile();
-      length = Files.copy(sourceData, tarFilePath, StandardCopyOption.REPLACE_EXISTING);
-    }
-
-    try (InputStream tarStream = new BufferedInputStream(new FileInputStream(tarFile));
+    // source stream is sent with chunked encoding, so its length doesn't need to be known
+    try (InputStream sourceData = params.getSourceStream();
         DockerConnection connection =
             connectionFactory
-                .openConnection(dockerDaemonUri)
+                .openStreamingConnection(dockerDaemonUri)
                 .method("PUT")
                 .path(apiVersionPathPrefix + "/containers/" + params.getContainer() + "/archive")
                 .query("path", params.getTargetPath())
                 .header("Content-Type", ExtMediaType.APPLICATION_X_TAR)
-                .header("Content-Length", length)
-                .entity(tarStream)) {
+                .entity(output -> ByteStreams.copy(sourceData, output))) {
       addQueryParamIfNotNull(connection, "noOverwriteDirNonDir", params.isNoOverwriteDirNonDir());
       final DockerResponse response = connection.request();
       if (response.getStatus() != OK.getStatusCode()) {
         throw getDockerException(response);
       }
-    } finally {
-      FileCleaner.addFile(tarFile);
     }
   }
 
@@ -775,7 +754,7 @@ public class DockerConnector {
 
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("GET")
             .path(apiVersionPathPrefix + "/events")) {
       addQueryParamIfNotNull(connection, "since", params.getSinceSecond());
@@ -808,28 +787,20 @@ public class DockerConnector {
     if (params.getRemote() != null) {
       // build context provided by remote URL
       DockerConnection dockerConnection =
-          connectionFactory.openConnection(dockerDaemonUri).query("remote", params.getRemote());
+          connectionFactory
+              .openStreamingConnection(dockerDaemonUri)
+              .query("remote", params.getRemote());
       return buildImage(dockerConnection, params, progressMonitor);
     }
 
-    // build context is set of files
-    final File tar = Files.createTempFile(null, ".tar").toFile();
-    try {
-      File[] files = new File[params.getFiles().size()];
-      files = params.getFiles().toArray(files);
-      createTarArchive(tar, files);
-      try (InputStream tarInput = new FileInputStream(tar)) {
-        DockerConnection dockerConnection =
-            connectionFactory
-                .openConnection(dockerDaemonUri)
-                .header("Content-Type", "application/x-compressed-tar")
-                .header("Content-Length", tar.length())
-                .entity(tarInput);
-        return buildImage(dockerConnection, params, progressMonitor);
-      }
-    } finally {
-      FileCleaner.addFile(tar);
-    }
+    // build context is set of files, their tar archive is written right into the request body
+    final File[] files = params.getFiles().toArray(new File[params.getFiles().size()]);
+    DockerConnection dockerConnection =
+        connectionFactory
+            .openStreamingConnection(dockerDaemonUri)
+            .header("Content-Type", "application/x-compressed-tar")
+            .entity(output -> TarUtils.tarFiles(output, 0, files));
+    return buildImage(dockerConnection, params, progressMonitor);
   }
 
   private String buildImage(
@@ -994,7 +965,7 @@ public class DockerConnector {
 
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("POST")
             .path(apiVersionPathPrefix + "/images/" + fullRepo + "/push")
             .header(
@@ -1118,7 +1089,7 @@ public class DockerConnector {
       throws IOException {
     try (DockerConnection connection =
         connectionFactory
-            .openConnection(dockerDaemonUri)
+            .openStreamingConnection(dockerDaemonUri)
             .method("POST")
             .path(apiVersionPathPrefix + "/images/create")
             .query("fromImage", params.getFullRepo())
@@ -1530,10 +1501,6 @@ public class DockerConnector {
     }
   }
 
-  private void createTarArchive(File tar, File... files) throws IOException {
-    TarUtils.tarFiles(tar, 0, files);
-  }
-
   /**
    * Adds given parameter to query if it set (not null).
    *
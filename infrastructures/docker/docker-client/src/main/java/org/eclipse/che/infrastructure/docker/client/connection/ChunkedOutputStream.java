@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes data to the underlying stream with chunked transfer encoding, see <a
+ * href="https://tools.ietf.org/html/rfc7230#section-4.1">RFC 7230</a>.
+ *
+ * <p>Closing of this stream writes the last chunk but doesn't close the underlying stream.
+ */
+public class ChunkedOutputStream extends OutputStream {
+  private static final byte[] CRLF = {'\r', '\n'};
+  private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(US_ASCII);
+
+  private final OutputStream output;
+  private final byte[] buf;
+
+  private int count;
+  private boolean finished;
+
+  ChunkedOutputStream(OutputStream output) {
+    this(output, 8192);
+  }
+
+  ChunkedOutputStream(OutputStream output, int chunkSize) {
+    this.output = output;
+    this.buf = new byte[chunkSize];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (count == buf.length) {
+      writeChunk();
+    }
+    buf[count++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (b == null) {
+      throw new NullPointerException();
+    }
+    if (off < 0 || len < 0 || len > b.length - off) {
+      throw new IndexOutOfBoundsException();
+    }
+    while (len > 0) {
+      if (count == buf.length) {
+        writeChunk();
+      }
+      int n = Math.min(len, buf.length - count);
+      System.arraycopy(b, off, buf, count, n);
+      count += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeChunk();
+    output.flush();
+  }
+
+  /** Writes the last chunk, nothing can be written after that. */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    writeChunk();
+    output.write(LAST_CHUNK);
+    output.flush();
+    finished = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    finish();
+  }
+
+  private void writeChunk() throws IOException {
+    if (count == 0) {
+      return;
+    }
+    if (finished) {
+      throw new IOException("Chunked stream is already finished");
+    }
+    output.write(Integer.toHexString(count).getBytes(US_ASCII));
+    output.write(CRLF);
+    output.write(buf, 0, count);
+    output.write(CRLF);
+    count = 0;
+  }
+}
@@ -88,6 +88,16 @@ public abstract class DockerConnection implements Closeable {
     return this;
   }
 
+  /**
+   * Sets entity which is written by the given writer right into the request body, so it doesn't
+   * need to be prepared beforehand. Length of such entity is unknown, so it is sent with chunked
+   * transfer encoding.
+   */
+  public DockerConnection entity(EntityWriter entity) {
+    this.entity = new ChunkedEntity(entity);
+    return this;
+  }
+
   public DockerResponse request() throws IOException {
     return request(method, path, query.toString(), headers, entity);
   }
@@ -98,6 +108,13 @@ public abstract class DockerConnection implements Closeable {
 
   public abstract void close();
 
+  /** Writes request entity. */
+  @FunctionalInterface
+  public interface EntityWriter {
+    /** Writes entity to the given output, which must not be closed. */
+    void writeTo(OutputStream output) throws IOException;
+  }
+
   abstract static class Entity<T> {
     final T entity;
 
@@ -106,6 +123,28 @@ public abstract class DockerConnection implements Closeable {
     }
 
     abstract void writeTo(OutputStream output) throws IOException;
+
+    /** Whether the entity should be written with chunked transfer encoding. */
+    boolean isChunked() {
+      return false;
+    }
+  }
+
+  static class ChunkedEntity extends Entity<EntityWriter> {
+    ChunkedEntity(EntityWriter entity) {
+      super(entity);
+    }
+
+    @Override
+    public void writeTo(OutputStream output) throws IOException {
+      entity.writeTo(output);
+      output.flush();
+    }
+
+    @Override
+    boolean isChunked() {
+      return true;
+    }
   }
 
   static class StreamEntity extends Entity<InputStream> {
@@ -11,9 +11,17 @@
  */
 package org.eclipse.che.infrastructure.docker.client.connection;
 
+import static java.util.Collections.unmodifiableMap;
+
 import com.google.inject.Inject;
+import com.sun.jna.Platform;
 import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
+import javax.inject.Singleton;
 import org.eclipse.che.infrastructure.docker.client.DockerCertificates;
 import org.eclipse.che.infrastructure.docker.client.DockerConnectorConfiguration;
 
@@ -22,13 +30,27 @@ import org.eclipse.che.infrastructure.docker.client.DockerConnectorConfiguration
  *
  * <p>Detects connection implementation by checking docker daemon URI.
  *
+ * <p>Unix socket connections for short requests are kept alive and pooled per docker daemon, see
+ * {@link DockerConnectionPool}. Requests which stream data for a long time, e.g. logs, attach or
+ * events, should use {@link #openStreamingConnection(URI) dedicated} connections, so they don't
+ * hold pooled ones. Tcp connections are not reused, see {@link TcpConnection}. Pooling is
+ * supported only on Linux, as checking whether a pooled unix socket is still usable relies on
+ * Linux values of the {@code CLibrary} socket flags and error codes.
+ *
  * @author Alexander Garagatyi
  */
+@Singleton
 public class DockerConnectionFactory {
   public static final String CONNECTION_TIMEOUT_MS_PROPERTY =
       "che.docker.tcp_connection_timeout_ms";
   public static final String CONNECTION_READ_TIMEOUT_MS_PROPERTY =
       "che.docker.tcp_connection_read_timeout_ms";
+  public static final String POOL_MAX_CONNECTIONS_PROPERTY =
+      "che.docker.connection_pool.max_connections";
+  public static final String POOL_IDLE_TIMEOUT_MS_PROPERTY =
+      "che.docker.connection_pool.idle_timeout_ms";
+  public static final String POOL_ACQUIRE_TIMEOUT_MS_PROPERTY =
+      "che.docker.connection_pool.acquire_timeout_ms";
 
   @Inject(optional = true)
   @Named(CONNECTION_TIMEOUT_MS_PROPERTY)
@@ -38,14 +60,50 @@ public class DockerConnectionFactory {
   @Named(CONNECTION_READ_TIMEOUT_MS_PROPERTY)
   private int connectionReadTimeoutMs = 60000;
 
+  @Inject(optional = true)
+  @Named(POOL_MAX_CONNECTIONS_PROPERTY)
+  private int poolMaxConnections = 20;
+
+  @Inject(optional = true)
+  @Named(POOL_IDLE_TIMEOUT_MS_PROPERTY)
+  private long poolIdleTimeoutMs = 30000;
+
+  @Inject(optional = true)
+  @Named(POOL_ACQUIRE_TIMEOUT_MS_PROPERTY)
+  private long poolAcquireTimeoutMs = 60000;
+
   private final DockerCertificates dockerCertificates;
+  private final ConcurrentMap<String, DockerConnectionPool> pools;
 
   @Inject
   public DockerConnectionFactory(DockerConnectorConfiguration connectorConfiguration) {
     this.dockerCertificates = connectorConfiguration.getDockerCertificates();
+    this.pools = new ConcurrentHashMap<>();
   }
 
+  /**
+   * Opens connection for a short request, which is kept alive and reused once closed if pooling is
+   * enabled, docker daemon is accessed over unix socket and the platform is Linux.
+   */
   public DockerConnection openConnection(URI dockerDaemonUri) {
+    if (poolMaxConnections <= 0
+        || !Platform.isLinux()
+        || !DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
+      return openStreamingConnection(dockerDaemonUri);
+    }
+    return new UnixSocketConnection(
+        pools.computeIfAbsent(
+            dockerDaemonUri.getPath(),
+            path ->
+                new DockerConnectionPool(
+                    path, poolMaxConnections, poolIdleTimeoutMs, poolAcquireTimeoutMs)));
+  }
+
+  /**
+   * Opens dedicated connection which is closed together with the returned object. Should be used
+   * for requests which may stream response or request body for a long time.
+   */
+  public DockerConnection openStreamingConnection(URI dockerDaemonUri) {
     if (DockerConnectorConfiguration.isUnixSocketUri(dockerDaemonUri)) {
       return new UnixSocketConnection(dockerDaemonUri.getPath());
     } else {
@@ -53,4 +111,14 @@ public class DockerConnectionFactory {
           dockerDaemonUri, dockerCertificates, connectionTimeoutMs, connectionReadTimeoutMs);
     }
   }
+
+  /** Returns connection pools mapped by paths of unix sockets of docker daemons. */
+  public Map<String, DockerConnectionPool> getPools() {
+    return unmodifiableMap(pools);
+  }
+
+  @PreDestroy
+  public void closeIdleConnections() {
+    pools.values().forEach(DockerConnectionPool::closeIdle);
+  }
 }
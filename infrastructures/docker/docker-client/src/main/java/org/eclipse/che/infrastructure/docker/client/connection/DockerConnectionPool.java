@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of keep-alive unix socket connections to a single docker daemon.
+ *
+ * <p>Limits the number of simultaneously opened sockets, so requests which come when all of them
+ * are in use wait for a released one up to the acquire timeout. Idle sockets are reused in LIFO
+ * order, so the ones which are not needed anymore reach the idle timeout and are closed on the
+ * next acquire or release.
+ */
+public class DockerConnectionPool {
+  private final String socketPath;
+  private final int maxConnections;
+  private final long idleTimeoutNanos;
+  private final long acquireTimeoutNanos;
+
+  // most recently used socket goes first
+  private final Deque<UnixSocket> idle;
+  private int opened;
+
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+  private final AtomicLong waits;
+  private final AtomicLong waitNanos;
+
+  DockerConnectionPool(
+      String socketPath, int maxConnections, long idleTimeoutMs, long acquireTimeoutMs) {
+    this.socketPath = socketPath;
+    this.maxConnections = maxConnections;
+    this.idleTimeoutNanos = MILLISECONDS.toNanos(idleTimeoutMs);
+    this.acquireTimeoutNanos = MILLISECONDS.toNanos(acquireTimeoutMs);
+    this.idle = new ArrayDeque<>();
+    this.hits = new AtomicLong();
+    this.misses = new AtomicLong();
+    this.waits = new AtomicLong();
+    this.waitNanos = new AtomicLong();
+  }
+
+  /**
+   * Returns an idle socket or opens a new one if the limit is not reached yet, otherwise waits for
+   * a released socket.
+   *
+   * @throws IOException when connection can't be established or no socket was released in time
+   */
+  UnixSocket acquire() throws IOException {
+    final long start = System.nanoTime();
+    boolean waited = false;
+    UnixSocket socket = null;
+    try {
+      synchronized (this) {
+        for (; ; ) {
+          evictExpired();
+          while ((socket = idle.pollFirst()) != null && !socket.isReusable()) {
+            close(socket);
+          }
+          if (socket != null) {
+            hits.incrementAndGet();
+            return socket;
+          }
+          if (opened < maxConnections) {
+            opened++;
+            misses.incrementAndGet();
+            break;
+          }
+          final long remaining = acquireTimeoutNanos - (System.nanoTime() - start);
+          if (remaining <= 0) {
+            throw new IOException(
+                String.format(
+                    "Timeout of %d ms reached while waiting for connection to docker daemon '%s'",
+                    NANOSECONDS.toMillis(acquireTimeoutNanos), socketPath));
+          }
+          waited = true;
+          NANOSECONDS.timedWait(this, remaining);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for connection to docker daemon");
+    } finally {
+      if (waited) {
+        waits.incrementAndGet();
+        waitNanos.addAndGet(System.nanoTime() - start);
+      }
+    }
+    // connect outside of the lock, a slot for the new socket is already taken
+    try {
+      return openSocket();
+    } catch (IOException | RuntimeException e) {
+      synchronized (this) {
+        opened--;
+        notify();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the socket to the pool.
+   *
+   * @param socket acquired socket
+   * @param reusable whether the last response was completely read from the socket and docker
+   *     didn't ask to close the connection, otherwise the socket is closed
+   */
+  synchronized void release(UnixSocket socket, boolean reusable) {
+    if (reusable) {
+      socket.touch();
+      idle.addFirst(socket);
+    } else {
+      close(socket);
+    }
+    evictExpired();
+    notify();
+  }
+
+  /** Closes all the idle sockets. */
+  public synchronized void closeIdle() {
+    UnixSocket socket;
+    while ((socket = idle.pollLast()) != null) {
+      close(socket);
+    }
+  }
+
+  /** Returns the number of requests which reused an idle socket. */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** Returns the number of requests which opened a new socket. */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** Returns the number of requests which waited for a socket because the limit was reached. */
+  public long getWaits() {
+    return waits.get();
+  }
+
+  /** Returns the total time requests spent waiting for a socket, in nanoseconds. */
+  public long getWaitTimeNanos() {
+    return waitNanos.get();
+  }
+
+  /** Returns the number of opened sockets which are not in use. */
+  public synchronized int getIdle() {
+    return idle.size();
+  }
+
+  /** Returns the number of sockets which are in use. */
+  public synchronized int getActive() {
+    return opened - idle.size();
+  }
+
+  @VisibleForTesting
+  UnixSocket openSocket() throws IOException {
+    return UnixSocket.connect(socketPath);
+  }
+
+  private void evictExpired() {
+    final long now = System.nanoTime();
+    UnixSocket socket;
+    while ((socket = idle.peekLast()) != null
+        && now - socket.getLastUsedNanos() > idleTimeoutNanos) {
+      close(idle.pollLast());
+    }
+  }
+
+  private void close(UnixSocket socket) {
+    socket.close();
+    opened--;
+  }
+}
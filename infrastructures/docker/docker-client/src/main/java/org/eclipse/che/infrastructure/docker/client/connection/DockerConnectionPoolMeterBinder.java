@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToLongFunction;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Provides metrics of the {@link DockerConnectionPool docker connection pools}, summed up over all
+ * the docker daemons.
+ */
+@Singleton
+public class DockerConnectionPoolMeterBinder implements MeterBinder {
+  private static final String REQUESTS_METRIC_NAME = "che.docker.connection_pool.requests";
+  private static final String CONNECTIONS_METRIC_NAME = "che.docker.connection_pool.connections";
+
+  private final DockerConnectionFactory connectionFactory;
+
+  @Inject
+  public DockerConnectionPoolMeterBinder(DockerConnectionFactory connectionFactory) {
+    this.connectionFactory = connectionFactory;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder(
+            REQUESTS_METRIC_NAME, connectionFactory, f -> sum(f, DockerConnectionPool::getHits))
+        .tags("result", "hit")
+        .description("The number of docker API requests which reused an idle connection")
+        .register(registry);
+    FunctionCounter.builder(
+            REQUESTS_METRIC_NAME, connectionFactory, f -> sum(f, DockerConnectionPool::getMisses))
+        .tags("result", "miss")
+        .description("The number of docker API requests which opened a new connection")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.docker.connection_pool.wait",
+            connectionFactory,
+            f -> sum(f, DockerConnectionPool::getWaits),
+            f -> sum(f, DockerConnectionPool::getWaitTimeNanos),
+            NANOSECONDS)
+        .description("Time docker API requests waited for a connection when the limit was reached")
+        .register(registry);
+    Gauge.builder(
+            CONNECTIONS_METRIC_NAME, connectionFactory, f -> sum(f, DockerConnectionPool::getIdle))
+        .tags("state", "idle")
+        .description("The number of opened docker connections which are not in use")
+        .register(registry);
+    Gauge.builder(
+            CONNECTIONS_METRIC_NAME,
+            connectionFactory,
+            f -> sum(f, DockerConnectionPool::getActive))
+        .tags("state", "active")
+        .description("The number of docker connections which are in use")
+        .register(registry);
+  }
+
+  private static long sum(
+      DockerConnectionFactory connectionFactory, ToLongFunction<DockerConnectionPool> value) {
+    return connectionFactory.getPools().values().stream().mapToLong(value).sum();
+  }
+}
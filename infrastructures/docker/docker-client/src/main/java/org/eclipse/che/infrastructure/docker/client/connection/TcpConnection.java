@@ -78,6 +78,10 @@ public class TcpConnection extends DockerConnection {
     connection.setRequestProperty("Host", host);
     if (entity != null) {
       connection.setDoOutput(true);
+      if (entity.isChunked()) {
+        // default chunk length
+        connection.setChunkedStreamingMode(0);
+      }
       try (OutputStream output = connection.getOutputStream()) {
         entity.writeTo(output);
       }
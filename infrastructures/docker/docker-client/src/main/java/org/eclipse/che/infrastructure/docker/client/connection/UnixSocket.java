@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.AF_UNIX;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.EAGAIN;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.EWOULDBLOCK;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.MSG_DONTWAIT;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.MSG_PEEK;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.SOCK_STREAM;
+import static org.eclipse.che.infrastructure.docker.client.CLibrary.SockAddrUn;
+import static org.eclipse.che.infrastructure.docker.client.CLibraryFactory.getCLibrary;
+
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import org.eclipse.che.infrastructure.docker.client.CLibrary;
+
+/**
+ * Connected unix socket with the buffered streams which are kept for the whole socket life, so
+ * the socket may be used for several sequential HTTP requests.
+ */
+class UnixSocket {
+  private final int fd;
+  private final BufferedInputStream input;
+  private final BufferedOutputStream output;
+
+  private long lastUsedNanos;
+
+  /** Connects to the unix socket by the specified path. */
+  static UnixSocket connect(String socketPath) throws IOException {
+    final CLibrary cLib = getCLibrary();
+    int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
+    if (fd == -1) {
+      throw new ConnectException(
+          String.format("Unable connect to unix socket: '%s'", socketPath));
+    }
+    final SockAddrUn sockAddr = new SockAddrUn(socketPath);
+    int c = cLib.connect(fd, sockAddr, sockAddr.size());
+    if (c == -1) {
+      cLib.close(fd);
+      throw new ConnectException(
+          String.format("Unable connect to unix socket: '%s'", socketPath));
+    }
+    return new UnixSocket(fd);
+  }
+
+  private UnixSocket(int fd) {
+    this.fd = fd;
+    this.input = new BufferedInputStream(new UnixSocketInputStream(fd));
+    this.output = new BufferedOutputStream(new UnixSocketOutputStream(fd));
+    this.lastUsedNanos = System.nanoTime();
+  }
+
+  BufferedInputStream getInputStream() {
+    return input;
+  }
+
+  BufferedOutputStream getOutputStream() {
+    return output;
+  }
+
+  long getLastUsedNanos() {
+    return lastUsedNanos;
+  }
+
+  void touch() {
+    lastUsedNanos = System.nanoTime();
+  }
+
+  /**
+   * Checks without blocking that the socket is neither closed by docker nor has unexpected data to
+   * read, so it can be used for the next request. The check is supported only on Linux, the socket
+   * is never reused on other platforms.
+   */
+  boolean isReusable() {
+    if (!Platform.isLinux()) {
+      return false;
+    }
+    try {
+      if (input.available() > 0) {
+        return false;
+      }
+      // 0 means that docker closed the socket, positive value that there is unexpected data
+      if (getCLibrary().recv(fd, new byte[1], 1, MSG_PEEK | MSG_DONTWAIT) != -1) {
+        return false;
+      }
+      // nothing to read yet, any other error means that the socket is broken
+      final int errno = Native.getLastError();
+      return errno == EAGAIN || errno == EWOULDBLOCK;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  void close() {
+    getCLibrary().close(fd);
+  }
+}
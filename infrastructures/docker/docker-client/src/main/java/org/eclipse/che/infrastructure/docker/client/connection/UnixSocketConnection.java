@@ -11,75 +11,82 @@
  */
 package org.eclipse.che.infrastructure.docker.client.connection;
 
-import static org.eclipse.che.infrastructure.docker.client.CLibrary.AF_UNIX;
-import static org.eclipse.che.infrastructure.docker.client.CLibrary.SOCK_STREAM;
-import static org.eclipse.che.infrastructure.docker.client.CLibrary.SockAddrUn;
-import static org.eclipse.che.infrastructure.docker.client.CLibraryFactory.getCLibrary;
-
 import com.google.common.base.Strings;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.net.ConnectException;
 import java.util.List;
 import org.eclipse.che.commons.lang.Pair;
-import org.eclipse.che.infrastructure.docker.client.CLibrary;
 
 /**
+ * Connection to docker API over unix socket.
+ *
+ * <p>Opens a dedicated socket for the request unless a {@link DockerConnectionPool} is provided,
+ * in that case the socket is taken from the pool and returned back on close, so it can be reused
+ * if the response body is delimited and not too big to skip its unread part.
+ *
  * @author andrew00x
  * @author Alexander Garagatyi
  */
 public class UnixSocketConnection extends DockerConnection {
+  // unread part of a bigger response body is not worth skipping to keep the socket
+  private static final long MAX_SKIPPED_BYTES_ON_RELEASE = 64 * 1024;
+
   private final String dockerSocketPath;
+  private final DockerConnectionPool pool;
 
-  private int fd = -1;
+  private UnixSocket socket;
+  private UnixSocketDockerResponse response;
 
   public UnixSocketConnection(String dockerSocketPath) {
     this.dockerSocketPath = dockerSocketPath;
+    this.pool = null;
+  }
+
+  UnixSocketConnection(DockerConnectionPool pool) {
+    this.dockerSocketPath = null;
+    this.pool = pool;
   }
 
   @Override
   protected DockerResponse request(
       String method, String path, String query, List<Pair<String, ?>> headers, Entity<?> entity)
       throws IOException {
-    fd = connect();
-    final OutputStream output = new BufferedOutputStream(openOutputStream(fd));
-    writeHttpHeaders(output, method, path, query, headers);
-    if (entity != null) {
+    socket = pool != null ? pool.acquire() : UnixSocket.connect(dockerSocketPath);
+    final OutputStream output = socket.getOutputStream();
+    final boolean chunked = entity != null && entity.isChunked();
+    writeHttpHeaders(output, method, path, query, headers, chunked);
+    if (chunked) {
+      final ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output);
+      entity.writeTo(chunkedOutput);
+      chunkedOutput.finish();
+    } else if (entity != null) {
       entity.writeTo(output);
     }
-    return new UnixSocketDockerResponse(new BufferedInputStream(openInputStream(fd)));
+    return response = new UnixSocketDockerResponse(socket.getInputStream());
   }
 
   @Override
   public void close() {
-    if (fd != -1) {
-      getCLibrary().close(fd);
-    }
-  }
-
-  private int connect() throws IOException {
-    final CLibrary cLib = getCLibrary();
-    int fd = cLib.socket(AF_UNIX, SOCK_STREAM, 0);
-    if (fd == -1) {
-      throw new ConnectException(
-          String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+    if (socket == null) {
+      return;
     }
-    final SockAddrUn sockAddr = new SockAddrUn(dockerSocketPath);
-    int c = cLib.connect(fd, sockAddr, sockAddr.size());
-    if (c == -1) {
-      throw new ConnectException(
-          String.format("Unable connect to unix socket: '%s'", dockerSocketPath));
+    if (pool != null) {
+      pool.release(socket, response != null && response.consume(MAX_SKIPPED_BYTES_ON_RELEASE));
+    } else {
+      socket.close();
     }
-    return fd;
+    socket = null;
   }
 
   private void writeHttpHeaders(
-      OutputStream output, String method, String path, String query, List<Pair<String, ?>> headers)
+      OutputStream output,
+      String method,
+      String path,
+      String query,
+      List<Pair<String, ?>> headers,
+      boolean chunked)
       throws IOException {
     final Writer writer = new OutputStreamWriter(output);
     writer.write(method);
@@ -96,16 +103,11 @@ public class UnixSocketConnection extends DockerConnection {
       writer.write(String.valueOf(header.second));
       writer.write("\r\n");
     }
+    if (chunked) {
+      writer.write("Transfer-Encoding: chunked\r\n");
+    }
     // Host header is mandatory in HTTP 1.1
     writer.write("Host: \r\n\r\n");
     writer.flush();
   }
-
-  private InputStream openInputStream(int fd) {
-    return new UnixSocketInputStream(fd);
-  }
-
-  private OutputStream openOutputStream(int fd) {
-    return new UnixSocketOutputStream(fd);
-  }
 }
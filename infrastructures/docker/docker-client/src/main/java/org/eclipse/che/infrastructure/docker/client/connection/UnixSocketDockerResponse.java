@@ -155,4 +155,33 @@ public class UnixSocketDockerResponse implements DockerResponse {
             ? new ChunkedInputStream(rawData)
             : rawData;
   }
+
+  /**
+   * Reads the rest of the response body, so the next response can be read from the same
+   * connection.
+   *
+   * @param maxBytes maximum number of bytes to skip
+   * @return true if the body is read completely and docker didn't ask to close the connection,
+   *     false if the body is not delimited, too big or can't be read
+   */
+  synchronized boolean consume(long maxBytes) {
+    try {
+      final InputStream body = getInputStream();
+      if (body == rawData || "close".equalsIgnoreCase(getHeader("Connection"))) {
+        return false;
+      }
+      final byte[] buf = new byte[8192];
+      long skipped = 0;
+      while (skipped <= maxBytes) {
+        int n = body.read(buf);
+        if (n == -1) {
+          return true;
+        }
+        skipped += n;
+      }
+      return false;
+    } catch (IOException e) {
+      return false;
+    }
+  }
 }
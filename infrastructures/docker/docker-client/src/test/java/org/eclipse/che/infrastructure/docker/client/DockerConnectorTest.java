@@ -58,6 +58,7 @@ import org.eclipse.che.infrastructure.docker.auth.dto.AuthConfig;
 import org.eclipse.che.infrastructure.docker.auth.dto.AuthConfigs;
 import org.eclipse.che.infrastructure.docker.client.connection.CloseConnectionInputStream;
 import org.eclipse.che.infrastructure.docker.client.connection.DockerConnection;
+import org.eclipse.che.infrastructure.docker.client.connection.DockerConnection.EntityWriter;
 import org.eclipse.che.infrastructure.docker.client.connection.DockerConnectionFactory;
 import org.eclipse.che.infrastructure.docker.client.connection.DockerResponse;
 import org.eclipse.che.infrastructure.docker.client.exception.ContainerNotFoundException;
@@ -201,6 +202,8 @@ public class DockerConnectorTest {
   public void setup() throws IOException, URISyntaxException {
     dockerConnection = mock(DockerConnection.class, new SelfReturningAnswer());
     when(dockerConnectionFactory.openConnection(nullable(URI.class))).thenReturn(dockerConnection);
+    when(dockerConnectionFactory.openStreamingConnection(nullable(URI.class)))
+        .thenReturn(dockerConnection);
     when(dockerConnection.request()).thenReturn(dockerResponse);
     when(dockerConnectorConfiguration.getAuthConfigs()).thenReturn(initialAuthConfig);
     when(dockerResponse.getStatus()).thenReturn(RESPONSE_SUCCESS_CODE);
@@ -623,7 +626,7 @@ public class DockerConnectorTest {
 
     int returnedExitCode = dockerConnector.waitContainer(waitContainerParams);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/containers/" + waitContainerParams.getContainer() + "/wait");
     verify(dockerConnection).request();
@@ -722,7 +725,7 @@ public class DockerConnectorTest {
 
     dockerConnector.attachContainer(attachContainerParams, logMessageProcessor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection)
         .path("/containers/" + attachContainerParams.getContainer() + "/attach");
@@ -755,7 +758,7 @@ public class DockerConnectorTest {
 
     dockerConnector.getContainerLogs(getContainerLogsParams, logMessageProcessor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_GET);
     verify(dockerConnection).path("/containers/" + getContainerLogsParams.getContainer() + "/logs");
     verify(dockerConnection).query("stdout", 1);
@@ -842,7 +845,7 @@ public class DockerConnectorTest {
 
     dockerConnector.startExec(startExecParams, logMessageProcessor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/exec/" + startExecParams.getExecId() + "/start");
     verify(dockerConnection).header("Content-Type", MediaType.APPLICATION_JSON);
@@ -1003,7 +1006,7 @@ public class DockerConnectorTest {
     String response =
         CharStreams.toString(new InputStreamReader(dockerConnector.getResource(getResourceParams)));
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_GET);
     verify(dockerConnection).path("/containers/" + getResourceParams.getContainer() + "/archive");
     verify(dockerConnection).query(eq("path"), eq(PATH_TO_FILE));
@@ -1041,13 +1044,13 @@ public class DockerConnectorTest {
 
     dockerConnector.putResource(putResourceParams);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_PUT);
     verify(dockerConnection).path("/containers/" + putResourceParams.getContainer() + "/archive");
     verify(dockerConnection).query(eq("path"), eq(PATH_TO_FILE));
     verify(dockerConnection).header("Content-Type", ExtMediaType.APPLICATION_X_TAR);
-    verify(dockerConnection).header(eq("Content-Length"), anyLong());
-    verify(dockerConnection).entity(any(InputStream.class));
+    verify(dockerConnection, never()).header(eq("Content-Length"), anyLong());
+    verify(dockerConnection).entity(any(EntityWriter.class));
     verify(dockerConnection).request();
     verify(dockerResponse).getStatus();
   }
@@ -1079,7 +1082,7 @@ public class DockerConnectorTest {
 
     dockerConnector.getEvents(getEventsParams, eventMessageProcessor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_GET);
     verify(dockerConnection).path("/events");
     verify(dockerConnection).request();
@@ -1122,13 +1125,13 @@ public class DockerConnectorTest {
 
     String returnedImageId = dockerConnector.buildImage(buildImageParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/build");
 
     verify(dockerConnection).header("Content-Type", "application/x-compressed-tar");
-    verify(dockerConnection).header(eq("Content-Length"), anyLong());
-    verify(dockerConnection).entity(any(InputStream.class));
+    verify(dockerConnection, never()).header(eq("Content-Length"), anyLong());
+    verify(dockerConnection).entity(any(EntityWriter.class));
     verify(dockerConnection, never()).header(eq("remote"), anyString());
 
     verify(dockerConnection).header(eq("X-Registry-Config"), nullable(byte[].class));
@@ -1161,7 +1164,7 @@ public class DockerConnectorTest {
 
     String returnedImageId = dockerConnector.buildImage(buildImageParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/build");
 
@@ -1230,13 +1233,13 @@ public class DockerConnectorTest {
 
     String returnedImageId = dockerConnector.buildImage(buildImageParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/build");
 
     verify(dockerConnection).header("Content-Type", "application/x-compressed-tar");
-    verify(dockerConnection).header(eq("Content-Length"), anyLong());
-    verify(dockerConnection).entity(any(InputStream.class));
+    verify(dockerConnection, never()).header(eq("Content-Length"), anyLong());
+    verify(dockerConnection).entity(any(EntityWriter.class));
     verify(dockerConnection, never()).header(eq("remote"), anyString());
 
     verify(dockerConnection).header(eq("X-Registry-Config"), nullable(byte[].class));
@@ -1414,7 +1417,7 @@ public class DockerConnectorTest {
 
     dockerConnector.push(pushParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/images/" + pushParams.getRepository() + "/push");
     verify(dockerConnection).header(eq("X-Registry-Auth"), nullable(AuthConfig.class));
@@ -1435,7 +1438,7 @@ public class DockerConnectorTest {
 
     dockerConnector.push(pushParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection)
         .path("/images/" + pushParams.getRegistry() + '/' + pushParams.getRepository() + "/push");
@@ -1573,7 +1576,7 @@ public class DockerConnectorTest {
 
     dockerConnector.pull(pullParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/images/create");
     verify(dockerConnection).query("fromImage", pullParams.getImage());
@@ -1592,7 +1595,7 @@ public class DockerConnectorTest {
 
     dockerConnector.pull(pullParams, progressMonitor);
 
-    verify(dockerConnectionFactory).openConnection(nullable(URI.class));
+    verify(dockerConnectionFactory).openStreamingConnection(nullable(URI.class));
     verify(dockerConnection).method(REQUEST_METHOD_POST);
     verify(dockerConnection).path("/images/create");
     verify(dockerConnection)
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.FutureTask;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link DockerConnectionPool}. */
+@Listeners(MockitoTestNGListener.class)
+public class DockerConnectionPoolTest {
+  private static final long IDLE_TIMEOUT_MS = 30_000;
+
+  @Test
+  public void shouldReuseMostRecentlyReleasedSocket() throws Exception {
+    DockerConnectionPool pool = pool(2, 1000);
+    UnixSocket first = socket();
+    UnixSocket second = socket();
+    doReturn(first, second).when(pool).openSocket();
+
+    pool.release(pool.acquire(), true);
+    UnixSocket acquired = pool.acquire();
+    UnixSocket opened = pool.acquire();
+    pool.release(acquired, true);
+    pool.release(opened, true);
+
+    assertSame(pool.acquire(), second);
+    assertEquals(pool.getHits(), 2);
+    assertEquals(pool.getMisses(), 2);
+    assertEquals(pool.getIdle(), 1);
+    assertEquals(pool.getActive(), 1);
+  }
+
+  @Test
+  public void shouldNotOpenMoreSocketsThanLimit() throws Exception {
+    DockerConnectionPool pool = pool(1, 100);
+    doReturn(socket()).when(pool).openSocket();
+    pool.acquire();
+
+    try {
+      pool.acquire();
+      fail("Socket must not be acquired when all the sockets are in use");
+    } catch (IOException e) {
+      assertEquals(
+          e.getMessage(),
+          "Timeout of 100 ms reached while waiting for connection to docker daemon "
+              + "'/var/run/docker.sock'");
+    }
+
+    verify(pool).openSocket();
+    assertEquals(pool.getWaits(), 1);
+    assertEquals(pool.getActive(), 1);
+  }
+
+  @Test(timeOut = 10_000)
+  public void shouldWaitForReleasedSocketWhenLimitIsReached() throws Exception {
+    DockerConnectionPool pool = pool(1, 10_000);
+    UnixSocket socket = socket();
+    doReturn(socket).when(pool).openSocket();
+    UnixSocket acquired = pool.acquire();
+    FutureTask<UnixSocket> waiting = new FutureTask<>(pool::acquire);
+    Thread waiter = new Thread(waiting);
+    waiter.start();
+    while (waiter.getState() != Thread.State.TIMED_WAITING) {
+      Thread.sleep(10);
+    }
+
+    pool.release(acquired, true);
+
+    assertSame(waiting.get(5, SECONDS), socket);
+    verify(pool).openSocket();
+    assertEquals(pool.getWaits(), 1);
+  }
+
+  @Test
+  public void shouldCloseSocketsIdleLongerThanTimeout() throws Exception {
+    DockerConnectionPool pool = pool(1, 1000);
+    UnixSocket expired = socket();
+    when(expired.getLastUsedNanos()).thenReturn(System.nanoTime() - SECONDS.toNanos(60));
+    UnixSocket opened = socket();
+    doReturn(expired, opened).when(pool).openSocket();
+
+    pool.release(pool.acquire(), true);
+
+    verify(expired).close();
+    assertEquals(pool.getIdle(), 0);
+    assertSame(pool.acquire(), opened);
+  }
+
+  @Test
+  public void shouldCloseIdleSocketWhichIsNotReusable() throws Exception {
+    DockerConnectionPool pool = pool(1, 1000);
+    UnixSocket broken = socket();
+    UnixSocket opened = socket();
+    doReturn(broken, opened).when(pool).openSocket();
+    pool.release(pool.acquire(), true);
+    when(broken.isReusable()).thenReturn(false);
+
+    assertSame(pool.acquire(), opened);
+    verify(broken).close();
+    assertEquals(pool.getMisses(), 2);
+  }
+
+  @Test
+  public void shouldCloseReleasedSocketWhichResponseIsNotConsumed() throws Exception {
+    DockerConnectionPool pool = pool(1, 1000);
+    UnixSocket first = socket();
+    UnixSocket second = socket();
+    doReturn(first, second).when(pool).openSocket();
+
+    pool.release(pool.acquire(), false);
+
+    verify(first).close();
+    assertEquals(pool.getIdle(), 0);
+    assertSame(pool.acquire(), second);
+  }
+
+  @Test
+  public void shouldFreeSlotWhenSocketCanNotBeOpened() throws Exception {
+    DockerConnectionPool pool = pool(1, 100);
+    UnixSocket socket = socket();
+    doThrow(new ConnectException("refused")).doReturn(socket).when(pool).openSocket();
+
+    try {
+      pool.acquire();
+      fail("Acquire must fail when socket can't be opened");
+    } catch (ConnectException ignored) {
+    }
+
+    assertSame(pool.acquire(), socket);
+  }
+
+  @Test
+  public void shouldCloseIdleSockets() throws Exception {
+    DockerConnectionPool pool = pool(2, 1000);
+    UnixSocket first = socket();
+    UnixSocket second = socket();
+    doReturn(first, second).when(pool).openSocket();
+    UnixSocket acquired = pool.acquire();
+    pool.acquire();
+    pool.release(acquired, true);
+
+    pool.closeIdle();
+
+    verify(first).close();
+    verify(second, never()).close();
+    assertEquals(pool.getIdle(), 0);
+    assertEquals(pool.getActive(), 1);
+  }
+
+  private static DockerConnectionPool pool(int maxConnections, long acquireTimeoutMs) {
+    return spy(
+        new DockerConnectionPool(
+            "/var/run/docker.sock", maxConnections, IDLE_TIMEOUT_MS, acquireTimeoutMs));
+  }
+
+  private static UnixSocket socket() {
+    UnixSocket socket = mock(UnixSocket.class);
+    lenient().when(socket.isReusable()).thenReturn(true);
+    lenient().when(socket.getLastUsedNanos()).thenAnswer(inv -> System.nanoTime());
+    return socket;
+  }
+}
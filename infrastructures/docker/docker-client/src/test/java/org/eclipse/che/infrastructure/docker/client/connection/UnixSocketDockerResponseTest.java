@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.infrastructure.docker.client.connection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import org.testng.annotations.Test;
+
+/** Tests {@link UnixSocketDockerResponse#consume(long)}. */
+public class UnixSocketDockerResponseTest {
+  private static final String NEXT_RESPONSE = "HTTP/1.1 204 No Content\r\n\r\n";
+
+  @Test
+  public void shouldSkipUnreadPartOfBodyWithContentLength() throws Exception {
+    InputStream input =
+        input("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\n0123456789" + NEXT_RESPONSE);
+    UnixSocketDockerResponse response = new UnixSocketDockerResponse(input);
+    response.getInputStream().read(new byte[4]);
+
+    assertTrue(response.consume(1024));
+    assertEquals(rest(input), NEXT_RESPONSE);
+  }
+
+  @Test
+  public void shouldSkipChunkedBody() throws Exception {
+    InputStream input =
+        input(
+            "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5\r\n01234\r\n3\r\n567\r\n0\r\n\r\n"
+                + NEXT_RESPONSE);
+
+    assertTrue(new UnixSocketDockerResponse(input).consume(1024));
+    assertEquals(rest(input), NEXT_RESPONSE);
+  }
+
+  @Test
+  public void shouldConsumeResponseWithoutBody() throws Exception {
+    InputStream input =
+        input("HTTP/1.1 204 No Content\r\nContent-Length: 0\r\n\r\n" + NEXT_RESPONSE);
+
+    assertTrue(new UnixSocketDockerResponse(input).consume(1024));
+    assertEquals(rest(input), NEXT_RESPONSE);
+  }
+
+  @Test
+  public void shouldNotConsumeBodyBiggerThanLimit() throws Exception {
+    InputStream input = input("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\n0123456789");
+
+    assertFalse(new UnixSocketDockerResponse(input).consume(5));
+  }
+
+  @Test
+  public void shouldNotConsumeBodyWhichIsNotDelimited() throws Exception {
+    InputStream input = input("HTTP/1.1 200 OK\r\n\r\n0123456789");
+
+    assertFalse(new UnixSocketDockerResponse(input).consume(1024));
+  }
+
+  @Test
+  public void shouldNotConsumeResponseWhenDockerClosesConnection() throws Exception {
+    InputStream input =
+        input("HTTP/1.1 200 OK\r\nContent-Length: 10\r\nConnection: close\r\n\r\n0123456789");
+
+    assertFalse(new UnixSocketDockerResponse(input).consume(1024));
+  }
+
+  @Test
+  public void shouldNotConsumeInvalidResponse() throws Exception {
+    assertFalse(new UnixSocketDockerResponse(input("invalid response")).consume(1024));
+  }
+
+  private static InputStream input(String content) {
+    return new ByteArrayInputStream(content.getBytes(UTF_8));
+  }
+
+  private static String rest(InputStream input) throws Exception {
+    byte[] rest = new byte[input.available()];
+    input.read(rest);
+    return new String(rest, UTF_8);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.docker;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildStats.Phase;
+
+/** Provides metrics of workspace images preparation, see {@link DockerImagesBuildStats}. */
+@Singleton
+public class DockerImagesBuildMeterBinder implements MeterBinder {
+  private static final String CACHE_REQUESTS_METRIC_NAME = "che.docker.image.build_cache.requests";
+
+  private final DockerImagesBuildStats buildStats;
+
+  @Inject
+  public DockerImagesBuildMeterBinder(DockerImagesBuildStats buildStats) {
+    this.buildStats = buildStats;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Phase phase : Phase.values()) {
+      FunctionTimer.builder(
+              "che.docker.image.prepare",
+              buildStats,
+              s -> s.getCount(phase),
+              s -> s.getTotalTimeNanos(phase),
+              NANOSECONDS)
+          .tags("phase", phase.name().toLowerCase())
+          .description("Time spent in the phase of workspace image preparation")
+          .register(registry);
+    }
+    FunctionCounter.builder(
+            CACHE_REQUESTS_METRIC_NAME, buildStats, DockerImagesBuildStats::getCacheHits)
+        .tags("result", "hit")
+        .description("The number of image builds skipped because the same image was built before")
+        .register(registry);
+    FunctionCounter.builder(
+            CACHE_REQUESTS_METRIC_NAME, buildStats, DockerImagesBuildStats::getCacheMisses)
+        .tags("result", "miss")
+        .description("The number of image builds which didn't find a cached image")
+        .register(registry);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.docker;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Singleton;
+
+/**
+ * Accumulates time spent in the phases of workspace images preparation by {@link
+ * ParallelDockerImagesBuilder}, and results of its build cache lookups.
+ */
+@Singleton
+public class DockerImagesBuildStats {
+
+  /** Phases of image preparation. */
+  public enum Phase {
+    /** Preparation of the build context. */
+    CONTEXT,
+    /** Lookup of an image built from the same context before. */
+    CACHE_LOOKUP,
+    /** Upload of the build context and image build. */
+    BUILD,
+    /** Pull of the image from registry. */
+    PULL,
+    /** Tagging of the prepared image. */
+    TAG
+  }
+
+  private final Map<Phase, AtomicLong> counts;
+  private final Map<Phase, AtomicLong> totalTimes;
+  private final AtomicLong cacheHits;
+  private final AtomicLong cacheMisses;
+
+  public DockerImagesBuildStats() {
+    this.counts = new EnumMap<>(Phase.class);
+    this.totalTimes = new EnumMap<>(Phase.class);
+    for (Phase phase : Phase.values()) {
+      counts.put(phase, new AtomicLong());
+      totalTimes.put(phase, new AtomicLong());
+    }
+    this.cacheHits = new AtomicLong();
+    this.cacheMisses = new AtomicLong();
+  }
+
+  /** Records completion of the phase which started at the given {@link System#nanoTime()}. */
+  public void record(Phase phase, long startNanos) {
+    totalTimes.get(phase).addAndGet(System.nanoTime() - startNanos);
+    counts.get(phase).incrementAndGet();
+  }
+
+  public void recordCacheLookup(boolean hit) {
+    (hit ? cacheHits : cacheMisses).incrementAndGet();
+  }
+
+  /** Returns the number of completed phases of the given type. */
+  public long getCount(Phase phase) {
+    return counts.get(phase).get();
+  }
+
+  /** Returns the total time spent in phases of the given type, in nanoseconds. */
+  public long getTotalTimeNanos(Phase phase) {
+    return totalTimes.get(phase).get();
+  }
+
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+}
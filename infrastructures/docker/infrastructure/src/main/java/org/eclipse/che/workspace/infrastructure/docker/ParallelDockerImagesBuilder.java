@@ -12,12 +12,20 @@
 package org.eclipse.che.workspace.infrastructure.docker;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.toList;
+import static org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildStats.Phase.BUILD;
+import static org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildStats.Phase.CACHE_LOOKUP;
+import static org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildStats.Phase.CONTEXT;
+import static org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildStats.Phase.PULL;
+import static org.eclipse.che.workspace.infrastructure.docker.DockerImagesBuildStats.Phase.TAG;
 import static org.eclipse.che.workspace.infrastructure.docker.DockerMachine.LATEST_TAG;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.assistedinject.Assisted;
 import java.io.File;
@@ -26,6 +34,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -44,6 +53,7 @@ import org.eclipse.che.infrastructure.docker.client.DockerFileException;
 import org.eclipse.che.infrastructure.docker.client.ProgressMonitor;
 import org.eclipse.che.infrastructure.docker.client.exception.ImageNotFoundException;
 import org.eclipse.che.infrastructure.docker.client.json.Filters;
+import org.eclipse.che.infrastructure.docker.client.json.ProgressStatus;
 import org.eclipse.che.infrastructure.docker.client.params.BuildImageParams;
 import org.eclipse.che.infrastructure.docker.client.params.ListImagesParams;
 import org.eclipse.che.infrastructure.docker.client.params.PullParams;
@@ -52,6 +62,7 @@ import org.eclipse.che.infrastructure.docker.client.parser.DockerImageIdentifier
 import org.eclipse.che.infrastructure.docker.client.parser.DockerImageIdentifierParser;
 import org.eclipse.che.workspace.infrastructure.docker.exception.SourceNotFoundException;
 import org.eclipse.che.workspace.infrastructure.docker.logs.MachineLoggersFactory;
+import org.eclipse.che.workspace.infrastructure.docker.model.DockerBuildContext;
 import org.eclipse.che.workspace.infrastructure.docker.model.DockerContainerConfig;
 import org.slf4j.Logger;
 
@@ -59,18 +70,29 @@ import org.slf4j.Logger;
  * This class allows to make parallel prepare (build or download) of docker images for workspace
  * being started.
  *
+ * <p>Images built from Dockerfile content are additionally tagged with the hash of the content and
+ * build arguments, so the next builds from the same content reuse them instead of rebuilding.
+ *
  * @author Max Shaposhnik (mshaposh@redhat.com)
  */
 public class ParallelDockerImagesBuilder {
 
+  /**
+   * Repository of the tags that mark images reusable by the next builds. Expired tags are removed
+   * by {@link org.eclipse.che.workspace.infrastructure.docker.monit.DockerAbandonedResourcesCleaner}.
+   */
+  public static final String BUILD_CACHE_REPOSITORY = "eclipse-che/build-cache";
+
   private static final Logger LOG = getLogger(ParallelDockerImagesBuilder.class);
   private static final String PARALLEL_PULL_PROPERTY_NAME = "che.infra.docker.max_pull_threads";
 
   private final RuntimeIdentity identity;
   private final MachineLoggersFactory machineLoggersFactory;
   private final boolean doForcePullImage;
+  private final boolean buildCacheEnabled;
   private final UserSpecificDockerRegistryCredentialsProvider dockerCredentials;
   private final DockerConnector dockerConnector;
+  private final DockerImagesBuildStats buildStats;
   private final ThreadPoolExecutor executor;
 
   @Inject
@@ -78,11 +100,15 @@ public class ParallelDockerImagesBuilder {
       @Assisted RuntimeIdentity identity,
       @Named("che.docker.always_pull_image") boolean doForcePullImage,
       @Named(PARALLEL_PULL_PROPERTY_NAME) int parallelPullsNumber,
+      @Named("che.infra.docker.build_cache_enabled") boolean buildCacheEnabled,
       UserSpecificDockerRegistryCredentialsProvider dockerCredentials,
       DockerConnector dockerConnector,
-      MachineLoggersFactory machineLoggersFactory) {
+      MachineLoggersFactory machineLoggersFactory,
+      DockerImagesBuildStats buildStats) {
     this.identity = identity;
     this.doForcePullImage = doForcePullImage;
+    this.buildCacheEnabled = buildCacheEnabled;
+    this.buildStats = buildStats;
     this.dockerCredentials = dockerCredentials;
     this.dockerConnector = dockerConnector;
     this.machineLoggersFactory = machineLoggersFactory;
@@ -201,6 +227,7 @@ public class ParallelDockerImagesBuilder {
 
     File workDir = null;
     try {
+      long phaseStart = System.nanoTime();
       BuildImageParams buildImageParams;
       if (containerConfig.getBuild() != null
           && containerConfig.getBuild().getDockerfileContent() != null) {
@@ -225,8 +252,32 @@ public class ParallelDockerImagesBuilder {
           .withMemoryLimit(containerConfig.getMemLimit())
           .withMemorySwapLimit(-1)
           .withBuildArgs(containerConfig.getBuild().getArgs());
+      buildStats.record(CONTEXT, phaseStart);
 
+      String cachedImage =
+          buildCacheEnabled ? getCachedImageName(containerConfig.getBuild()) : null;
+      // base images may be updated, so when they should be pulled the cache is not used
+      if (cachedImage != null && !doForcePullOnBuild) {
+        phaseStart = System.nanoTime();
+        boolean isCached = isDockerImageExistLocally(cachedImage);
+        buildStats.record(CACHE_LOOKUP, phaseStart);
+        buildStats.recordCacheLookup(isCached);
+        if (isCached) {
+          ProgressStatus status = new ProgressStatus();
+          status.setStream(format("Using image built before from the same Dockerfile%n"));
+          progressMonitor.updateProgress(status);
+          tag(cachedImage, machineImageName);
+          return;
+        }
+      }
+
+      phaseStart = System.nanoTime();
       dockerConnector.buildImage(buildImageParams, progressMonitor);
+      buildStats.record(BUILD, phaseStart);
+
+      if (cachedImage != null) {
+        tag(machineImageName, cachedImage);
+      }
     } catch (IOException e) {
       throw new InternalInfrastructureException(e.getLocalizedMessage(), e);
     } finally {
@@ -271,13 +322,15 @@ public class ParallelDockerImagesBuilder {
                 .withTag(MoreObjects.firstNonNull(dockerImageIdentifier.getTag(), LATEST_TAG))
                 .withRegistry(dockerImageIdentifier.getRegistry())
                 .withAuthConfigs(dockerCredentials.getCredentials());
+        long pullStart = System.nanoTime();
         dockerConnector.pull(pullParams, progressMonitor);
+        buildStats.record(PULL, pullStart);
       }
 
       String fullNameOfPulledImage = container.getImage();
       try {
         // tag image with generated name to allow sysadmin recognize it
-        dockerConnector.tag(TagParams.create(fullNameOfPulledImage, machineImageName));
+        tag(fullNameOfPulledImage, machineImageName);
       } catch (ImageNotFoundException nfEx) {
         throw new SourceNotFoundException(nfEx.getLocalizedMessage(), nfEx);
       }
@@ -287,6 +340,39 @@ public class ParallelDockerImagesBuilder {
     }
   }
 
+  private void tag(String image, String newName) throws IOException {
+    long tagStart = System.nanoTime();
+    int tagPos = newName.lastIndexOf(':');
+    if (tagPos > newName.lastIndexOf('/')) {
+      dockerConnector.tag(
+          TagParams.create(image, newName.substring(0, tagPos))
+              .withTag(newName.substring(tagPos + 1)));
+    } else {
+      dockerConnector.tag(TagParams.create(image, newName));
+    }
+    buildStats.record(TAG, tagStart);
+  }
+
+  /**
+   * Returns name of the image which is built from the same Dockerfile content and build arguments,
+   * or null if the image is built from a context which content is not known, e.g. by URL.
+   */
+  @VisibleForTesting
+  static String getCachedImageName(DockerBuildContext buildContext) {
+    if (buildContext.getDockerfileContent() == null) {
+      return null;
+    }
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(buildContext.getDockerfileContent(), UTF_8);
+    if (buildContext.getArgs() != null) {
+      for (Map.Entry<String, String> arg : new TreeMap<>(buildContext.getArgs()).entrySet()) {
+        hasher.putByte((byte) 0).putString(arg.getKey(), UTF_8);
+        hasher.putByte((byte) '=').putString(String.valueOf(arg.getValue()), UTF_8);
+      }
+    }
+    return BUILD_CACHE_REPOSITORY + ':' + hasher.hash();
+  }
+
   @VisibleForTesting
   boolean isDockerImageExistLocally(String imageName) {
     try {
@@ -13,6 +13,8 @@ package org.eclipse.che.workspace.infrastructure.docker.container;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -24,30 +26,39 @@ import org.eclipse.che.infrastructure.docker.client.json.ContainerListEntry;
 import org.eclipse.che.infrastructure.docker.client.json.Filters;
 import org.eclipse.che.infrastructure.docker.client.params.ListContainersParams;
 import org.eclipse.che.workspace.infrastructure.docker.Labels;
+import org.eclipse.che.workspace.infrastructure.docker.monit.DockerEventBus;
 
 /** Facade for operations with docker containers in infrastructure domain context. */
 @Singleton
 public class DockerContainers {
 
   private final DockerConnector docker;
+  private final DockerEventBus eventBus;
 
   @Inject
-  public DockerContainers(DockerConnector docker) {
+  public DockerContainers(DockerConnector docker, DockerEventBus eventBus) {
     this.docker = docker;
+    this.eventBus = eventBus;
   }
 
   /**
    * Lookups all containers owned by runtime with given identity.
    *
+   * <p>Containers are taken from the {@link DockerEventBus} index while it is in sync with docker,
+   * otherwise they are listed with docker API.
+   *
    * @param id identity of runtime which owns containers
    * @return list of running containers owned by runtime with given id
    * @throws InternalInfrastructureException when any error occurs during lookup
    */
   public List<ContainerListEntry> find(RuntimeIdentity id) throws InternalInfrastructureException {
+    Map<String, String> labels = Labels.newSerializer().runtimeId(id).labels();
+    Optional<List<ContainerListEntry>> indexed = eventBus.findContainers(labels);
+    if (indexed.isPresent()) {
+      return indexed.get();
+    }
     return listNonStoppedContainers(
-        Labels.newSerializer()
-            .runtimeId(id)
-            .labels()
+        labels
             .entrySet()
             .stream()
             .map(entry -> entry.getKey() + '=' + entry.getValue())
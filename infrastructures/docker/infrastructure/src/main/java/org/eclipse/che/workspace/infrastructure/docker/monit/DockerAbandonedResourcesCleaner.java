@@ -13,6 +13,7 @@ package org.eclipse.che.workspace.infrastructure.docker.monit;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.lang.String.format;
+import static org.eclipse.che.workspace.infrastructure.docker.ParallelDockerImagesBuilder.BUILD_CACHE_REPOSITORY;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
@@ -23,6 +24,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.inject.Named;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.workspace.server.WorkspaceManager;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
@@ -31,6 +33,7 @@ import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.eclipse.che.infrastructure.docker.client.DockerConnector;
 import org.eclipse.che.infrastructure.docker.client.json.ContainerListEntry;
 import org.eclipse.che.infrastructure.docker.client.json.Filters;
+import org.eclipse.che.infrastructure.docker.client.json.Image;
 import org.eclipse.che.infrastructure.docker.client.json.network.Network;
 import org.eclipse.che.infrastructure.docker.client.params.RemoveContainerParams;
 import org.eclipse.che.infrastructure.docker.client.params.network.GetNetworksParams;
@@ -40,7 +43,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Job for periodically clean up abandoned docker containers and networks created by CHE. Also, logs
- * active containers list.
+ * active containers list and removes expired build cache tags.
  *
  * @author Alexander Andrienko
  * @author Mykola Morhun
@@ -57,19 +60,23 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
   private static final String CHE_NETWORK_REGEX =
       "^(?<" + WORKSPACE_ID_REGEX_GROUP + ">workspace[a-z\\d]{16})_[a-z\\d]{16}$";
   private static final Pattern CHE_NETWORK_PATTERN = Pattern.compile(CHE_NETWORK_REGEX);
+  private static final String BUILD_CACHE_TAG_PREFIX = BUILD_CACHE_REPOSITORY + ':';
 
   private final WorkspaceManager workspaceManager;
   private final DockerConnector dockerConnector;
   private final WorkspaceRuntimes runtimes;
+  private final long buildCacheMaxAgeSec;
 
   @Inject
   public DockerAbandonedResourcesCleaner(
       WorkspaceManager workspaceManager,
       DockerConnector dockerConnector,
-      WorkspaceRuntimes workspaceRuntimes) {
+      WorkspaceRuntimes workspaceRuntimes,
+      @Named("che.infra.docker.build_cache_max_age_hours") long buildCacheMaxAgeHours) {
     this.workspaceManager = workspaceManager;
     this.dockerConnector = dockerConnector;
     this.runtimes = workspaceRuntimes;
+    this.buildCacheMaxAgeSec = TimeUnit.HOURS.toSeconds(buildCacheMaxAgeHours);
   }
 
   @ScheduleRate(
@@ -80,6 +87,7 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
   public void run() {
     cleanContainers();
     cleanNetworks();
+    cleanBuildCache();
   }
 
   /** Cleans up CHE inactive machine docker containers. */
@@ -197,4 +205,38 @@ public class DockerAbandonedResourcesCleaner implements Runnable {
       LOG.error("Failed to get list of docker networks", e);
     }
   }
+
+  /**
+   * Removes build cache tags of images that were built earlier than the configured max age ago.
+   * The age is counted from the image creation, so images which are still reused by the builds are
+   * rebuilt once they expire. Only the tag is removed, an image is deleted by docker when it is not
+   * tagged and not used by a container anymore.
+   */
+  @VisibleForTesting
+  void cleanBuildCache() {
+    if (buildCacheMaxAgeSec <= 0) {
+      return;
+    }
+    long expirationTime =
+        TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) - buildCacheMaxAgeSec;
+    try {
+      for (Image image : dockerConnector.listImages()) {
+        if (image.getRepoTags() == null || image.getCreated() > expirationTime) {
+          continue;
+        }
+        for (String tag : image.getRepoTags()) {
+          if (tag.startsWith(BUILD_CACHE_TAG_PREFIX)) {
+            try {
+              dockerConnector.removeImage(tag);
+              LOG.debug("Expired build cache tag '{}' was removed", tag);
+            } catch (IOException e) {
+              LOG.warn(format("Failed to remove expired build cache tag '%s'", tag), e);
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      LOG.error("Failed to get list of docker images", e);
+    }
+  }
 }
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.docker.monit;
+
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.eclipse.che.workspace.infrastructure.docker.Labels.LABEL_WORKSPACE_ID;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.infrastructure.docker.client.DockerConnector;
+import org.eclipse.che.infrastructure.docker.client.MessageProcessor;
+import org.eclipse.che.infrastructure.docker.client.json.ContainerListEntry;
+import org.eclipse.che.infrastructure.docker.client.json.Event;
+import org.eclipse.che.infrastructure.docker.client.json.Filters;
+import org.eclipse.che.infrastructure.docker.client.json.SystemInfo;
+import org.eclipse.che.infrastructure.docker.client.params.GetEventsParams;
+import org.eclipse.che.infrastructure.docker.client.params.ListContainersParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Consumes docker containers events with a single stream and dispatches them to the subscribers.
+ *
+ * <p>Keeps the index of running workspace containers by workspace id label. The index is built
+ * from the containers list each time the stream is (re)connected and then maintained by the
+ * events, so workspace containers can be found without calls to docker API while the stream is
+ * connected. If an event doesn't tell enough to update the index, e.g. labels of a started
+ * container are unknown, the index is rebuilt in background while the stream keeps being consumed.
+ *
+ * <p>The stream is first connected from the docker daemon time taken before the containers are
+ * listed and then resumed from the time of the last processed event, so the subscribers don't miss
+ * events which happened while it was disconnected. Events which are sent again because docker
+ * accepts the resume time in seconds are skipped.
+ */
+@Singleton
+public class DockerEventBus {
+  private static final Logger LOG = LoggerFactory.getLogger(DockerEventBus.class);
+
+  private static final long RECONNECT_DELAY_MS = 1000;
+  private static final long RESYNC_DELAY_MS = 1000;
+
+  private final DockerConnector docker;
+  // runs the events stream and the background resyncs
+  private final ScheduledExecutorService executor;
+  private final List<MessageProcessor<Event>> subscribers;
+
+  // workspace id -> container id -> container
+  private volatile ConcurrentMap<String, Map<String, ContainerListEntry>> containers;
+  private volatile boolean synced;
+
+  // the following fields are guarded by the index lock
+  private final Object indexLock;
+  private boolean streamConnected;
+  private boolean resyncScheduled;
+  // events processed while the containers are listed, null if the index is not being rebuilt
+  private List<Event> eventsDuringResync;
+
+  // the following fields are accessed only by the events thread
+  private long cursorNano;
+  private final Set<String> eventsAtCursor;
+
+  @Inject
+  public DockerEventBus(DockerConnector docker) {
+    this.docker = docker;
+    this.subscribers = new CopyOnWriteArrayList<>();
+    this.containers = new ConcurrentHashMap<>();
+    this.eventsAtCursor = new HashSet<>();
+    this.indexLock = new Object();
+    this.executor =
+        Executors.newScheduledThreadPool(
+            2,
+            new ThreadFactoryBuilder()
+                .setNameFormat("DockerEventBus-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Subscribes to docker containers events.
+   *
+   * <p>Subscribers are called sequentially by the single events thread, so they should not block.
+   */
+  public void subscribe(MessageProcessor<Event> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  /**
+   * Finds running workspace containers which have all the given labels.
+   *
+   * @param labels labels of the containers, must include {@link
+   *     org.eclipse.che.workspace.infrastructure.docker.Labels#LABEL_WORKSPACE_ID workspace id}
+   * @return found containers or empty optional if containers index is not in sync with docker, e.g.
+   *     when the events stream is disconnected
+   */
+  public Optional<List<ContainerListEntry>> findContainers(Map<String, String> labels) {
+    String workspaceId = labels.get(LABEL_WORKSPACE_ID);
+    if (!synced || workspaceId == null) {
+      return Optional.empty();
+    }
+    Map<String, ContainerListEntry> workspaceContainers = containers.get(workspaceId);
+    if (workspaceContainers == null) {
+      return Optional.of(emptyList());
+    }
+    return Optional.of(
+        workspaceContainers
+            .values()
+            .stream()
+            .filter(c -> c.getLabels().entrySet().containsAll(labels.entrySet()))
+            .collect(toList()));
+  }
+
+  @SuppressWarnings("unused")
+  @PostConstruct
+  private void start() {
+    executor.execute(
+        () -> {
+          while (!Thread.currentThread().isInterrupted()) {
+            try {
+              resync();
+              docker.getEvents(
+                  GetEventsParams.create()
+                      .withSinceSecond(NANOSECONDS.toSeconds(cursorNano))
+                      .withFilters(
+                          new Filters().withFilter("event", "start", "die", "oom", "destroy")),
+                  this::process);
+            } catch (IOException e) {
+              // usually connection timeout
+              LOG.debug(e.getLocalizedMessage(), e);
+              sleepBeforeReconnect();
+            } catch (RuntimeException e) {
+              LOG.error(
+                  "Failed to consume docker events, reconnecting. Cause: {}", e.getMessage(), e);
+              sleepBeforeReconnect();
+            } finally {
+              synchronized (indexLock) {
+                streamConnected = false;
+                synced = false;
+              }
+            }
+          }
+        });
+  }
+
+  @SuppressWarnings("unused")
+  @PreDestroy
+  private void stop() {
+    // the thread which waits for the next event can't be interrupted, it is a daemon one though
+    executor.shutdownNow();
+  }
+
+  /**
+   * Rebuilds containers index from the list of running workspace containers. Events stream should
+   * be (re)connected right after that, so the index is kept in sync with docker.
+   */
+  void resync() throws IOException {
+    if (cursorNano != 0) {
+      rebuildIndex(true);
+      return;
+    }
+    // the time is taken before the listing, so events which happened before that time are already
+    // reflected by the list. Events carry the daemon time, so the daemon clock is used if possible
+    long startNano = getDaemonTimeNano();
+    rebuildIndex(true);
+    cursorNano = startNano;
+  }
+
+  /**
+   * Returns the current time of docker daemon in nanoseconds, or the time of this host rounded down
+   * to seconds if the daemon doesn't report its time.
+   */
+  private long getDaemonTimeNano() throws IOException {
+    SystemInfo info = docker.getSystemInfo();
+    if (info != null && info.getSystemTime() != null) {
+      try {
+        Instant time = OffsetDateTime.parse(info.getSystemTime()).toInstant();
+        return SECONDS.toNanos(time.getEpochSecond()) + time.getNano();
+      } catch (DateTimeParseException e) {
+        LOG.warn("Failed to parse docker daemon time '{}'", info.getSystemTime());
+      }
+    }
+    return SECONDS.toNanos(MILLISECONDS.toSeconds(System.currentTimeMillis()));
+  }
+
+  /**
+   * Rebuilds containers index from the list of running workspace containers. The events processed
+   * while the containers are listed are applied to the new index, so the index may be rebuilt
+   * while the stream is consumed.
+   *
+   * @param connecting whether the events stream is going to be (re)connected right after that
+   */
+  private synchronized void rebuildIndex(boolean connecting) throws IOException {
+    synchronized (indexLock) {
+      eventsDuringResync = new ArrayList<>();
+    }
+    ConcurrentMap<String, Map<String, ContainerListEntry>> listed = new ConcurrentHashMap<>();
+    try {
+      for (ContainerListEntry container :
+          docker.listContainers(
+              ListContainersParams.create()
+                  .withAll(false)
+                  .withFilters(Filters.label(LABEL_WORKSPACE_ID)))) {
+        listed
+            .computeIfAbsent(
+                container.getLabels().get(LABEL_WORKSPACE_ID), id -> new ConcurrentHashMap<>())
+            .put(container.getId(), container);
+      }
+    } catch (IOException | RuntimeException e) {
+      synchronized (indexLock) {
+        eventsDuringResync = null;
+      }
+      throw e;
+    }
+    synchronized (indexLock) {
+      containers = listed;
+      boolean complete = true;
+      for (Event event : eventsDuringResync) {
+        complete &= updateIndex(event);
+      }
+      eventsDuringResync = null;
+      if (connecting) {
+        streamConnected = true;
+      }
+      synced = complete && streamConnected;
+      if (!complete) {
+        scheduleResync();
+      }
+    }
+  }
+
+  // must be called while holding the index lock
+  private void scheduleResync() {
+    if (resyncScheduled || !streamConnected || executor.isShutdown()) {
+      // the index is rebuilt anyway when the stream is reconnected
+      return;
+    }
+    resyncScheduled = true;
+    executor.schedule(
+        () -> {
+          synchronized (indexLock) {
+            resyncScheduled = false;
+          }
+          try {
+            rebuildIndex(false);
+          } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to rebuild index of workspace containers. Cause: {}", e.getMessage());
+            synchronized (indexLock) {
+              scheduleResync();
+            }
+          }
+        },
+        RESYNC_DELAY_MS,
+        MILLISECONDS);
+  }
+
+  void process(Event event) {
+    if (event.getType() != null && !"container".equals(event.getType())) {
+      // this check is added because of bug in the docker swarm which do not filter events
+      // in case of new response format of 'get events' we should skip all not filtered by swarm
+      // event types
+      return;
+    }
+    long timeNano =
+        event.getTimeNano() != 0 ? event.getTimeNano() : SECONDS.toNanos(event.getTime());
+    String eventKey = event.getId() + '/' + event.getStatus();
+    if (timeNano < cursorNano || (timeNano == cursorNano && !eventsAtCursor.add(eventKey))) {
+      // already processed before the stream was resumed
+      return;
+    }
+    if (timeNano > cursorNano) {
+      cursorNano = timeNano;
+      eventsAtCursor.clear();
+      eventsAtCursor.add(eventKey);
+    }
+
+    synchronized (indexLock) {
+      if (eventsDuringResync != null) {
+        eventsDuringResync.add(event);
+      }
+      if (!updateIndex(event)) {
+        // labels of the started container are unknown, so the index can't be used until resync
+        synced = false;
+        scheduleResync();
+      }
+    }
+    for (MessageProcessor<Event> subscriber : subscribers) {
+      try {
+        subscriber.process(event);
+      } catch (RuntimeException e) {
+        LOG.error(
+            "Failed to process event '{}' of container '{}'", event.getStatus(), event.getId(), e);
+      }
+    }
+  }
+
+  /**
+   * Applies the event to the index, must be called while holding the index lock.
+   *
+   * @return false if the index can't be updated by the event, so it must be rebuilt
+   */
+  private boolean updateIndex(Event event) {
+    Map<String, String> attributes =
+        event.getActor() != null ? event.getActor().getAttributes() : null;
+    switch (event.getStatus()) {
+      case "start":
+        if (attributes == null) {
+          return false;
+        }
+        if (attributes.containsKey(LABEL_WORKSPACE_ID)) {
+          containers
+              .computeIfAbsent(attributes.get(LABEL_WORKSPACE_ID), id -> new ConcurrentHashMap<>())
+              .put(event.getId(), asContainer(event, attributes));
+        }
+        break;
+      case "die":
+      case "destroy":
+        if (attributes != null && attributes.containsKey(LABEL_WORKSPACE_ID)) {
+          remove(attributes.get(LABEL_WORKSPACE_ID), event.getId());
+        } else if (attributes == null) {
+          for (String workspaceId : containers.keySet()) {
+            remove(workspaceId, event.getId());
+          }
+        }
+        break;
+      default:
+        // container state is not changed
+    }
+    return true;
+  }
+
+  private void remove(String workspaceId, String containerId) {
+    Map<String, ContainerListEntry> workspaceContainers = containers.get(workspaceId);
+    if (workspaceContainers != null
+        && workspaceContainers.remove(containerId) != null
+        && workspaceContainers.isEmpty()) {
+      containers.remove(workspaceId, workspaceContainers);
+    }
+  }
+
+  private static ContainerListEntry asContainer(Event event, Map<String, String> attributes) {
+    Map<String, String> labels = new HashMap<>(attributes);
+    // besides labels container event has image and name attributes
+    labels.remove("image");
+    String name = labels.remove("name");
+
+    ContainerListEntry container = new ContainerListEntry();
+    container.setId(event.getId());
+    container.setImage(event.getFrom());
+    if (name != null) {
+      container.setNames(new String[] {'/' + name});
+    }
+    container.setLabels(labels);
+    return container;
+  }
+
+  private static void sleepBeforeReconnect() {
+    try {
+      MILLISECONDS.sleep(RECONNECT_DELAY_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -15,36 +15,27 @@ import static java.lang.String.format;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
-import org.eclipse.che.infrastructure.docker.client.DockerConnector;
 import org.eclipse.che.infrastructure.docker.client.MessageProcessor;
 import org.eclipse.che.infrastructure.docker.client.json.Event;
-import org.eclipse.che.infrastructure.docker.client.json.Filters;
-import org.eclipse.che.infrastructure.docker.client.params.GetEventsParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Track docker containers events to detect containers stop or failure.
  *
+ * <p>Events are received from the {@link DockerEventBus}.
+ *
  * @author Alexander Garagatyi
  */
 @Singleton
 public class DockerMachineStopDetector {
   private static final Logger LOG = LoggerFactory.getLogger(DockerMachineStopDetector.class);
 
-  private final DockerConnector dockerConnector;
-  private final ExecutorService executorService;
   private final Map<String, ContainerDeathHandlerHolder> handlers;
   /*
      Helps differentiate container main process OOM from other processes OOM
@@ -60,21 +51,12 @@ public class DockerMachineStopDetector {
   */
   private final Cache<String, String> containersOomTimestamps;
 
-  private long lastProcessedEventDate = 0;
-
   @Inject
-  public DockerMachineStopDetector(DockerConnector dockerConnector) {
-    this.dockerConnector = dockerConnector;
+  public DockerMachineStopDetector(DockerEventBus eventBus) {
     this.handlers = new ConcurrentHashMap<>();
     this.containersOomTimestamps =
         CacheBuilder.newBuilder().expireAfterWrite(10, TimeUnit.SECONDS).build();
-    this.executorService =
-        Executors.newSingleThreadExecutor(
-            new ThreadFactoryBuilder()
-                .setNameFormat("DockerMachineStopDetector-%d")
-                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
-                .setDaemon(true)
-                .build());
+    eventBus.subscribe(new EventsProcessor());
   }
 
   /**
@@ -98,37 +80,9 @@ public class DockerMachineStopDetector {
     handlers.remove(containerId);
   }
 
-  @SuppressWarnings("unused")
-  @PostConstruct
-  private void detectContainersEvents() {
-    executorService.execute(
-        () -> {
-          // noinspection InfiniteLoopStatement
-          while (true) {
-            try {
-              dockerConnector.getEvents(
-                  GetEventsParams.create()
-                      .withSinceSecond(lastProcessedEventDate)
-                      .withFilters(new Filters().withFilter("event", "die", "oom")),
-                  new EventsProcessor());
-            } catch (IOException e) {
-              // usually connection timeout
-              LOG.debug(e.getLocalizedMessage(), e);
-            }
-          }
-        });
-  }
-
   private class EventsProcessor implements MessageProcessor<Event> {
     @Override
     public void process(Event message) {
-      if (message.getType() != null && !"container".equals(message.getType())) {
-        // this check is added because of bug in the docker swarm which do not filter events
-        // in case of new response format of 'get events' we should skip all not filtered by swarm
-        // event types
-        return;
-      }
-
       switch (message.getStatus()) {
         case "oom":
           containersOomTimestamps.put(message.getId(), message.getId());
@@ -143,7 +97,6 @@ public class DockerMachineStopDetector {
             stopReason =
                 "Please, check that container is designed to run in non-interactive terminal.";
           }
-          lastProcessedEventDate = message.getTime();
           ContainerDeathHandlerHolder holder = handlers.get(message.getId());
           if (holder != null) {
             holder.handler.handle(
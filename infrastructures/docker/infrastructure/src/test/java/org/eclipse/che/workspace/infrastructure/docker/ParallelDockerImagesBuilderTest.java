@@ -11,8 +11,10 @@
  */
 package org.eclipse.che.workspace.infrastructure.docker;
 
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,7 +29,9 @@ import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.infrastructure.docker.auth.UserSpecificDockerRegistryCredentialsProvider;
 import org.eclipse.che.infrastructure.docker.client.DockerConnector;
+import org.eclipse.che.infrastructure.docker.client.json.Image;
 import org.eclipse.che.infrastructure.docker.client.params.BuildImageParams;
+import org.eclipse.che.infrastructure.docker.client.params.TagParams;
 import org.eclipse.che.workspace.infrastructure.docker.logs.MachineLoggersFactory;
 import org.eclipse.che.workspace.infrastructure.docker.model.DockerBuildContext;
 import org.eclipse.che.workspace.infrastructure.docker.model.DockerContainerConfig;
@@ -53,7 +57,14 @@ public class ParallelDockerImagesBuilderTest {
   public void setUp() throws Exception {
     dockerImagesBuilder =
         new ParallelDockerImagesBuilder(
-            identity, false, 10, dockerCredentials, dockerConnector, machineLoggersFactory);
+            identity,
+            false,
+            10,
+            true,
+            dockerCredentials,
+            dockerConnector,
+            machineLoggersFactory,
+            new DockerImagesBuildStats());
   }
 
   @Test(
@@ -135,4 +146,24 @@ public class ParallelDockerImagesBuilderTest {
     assertTrue(list.stream().map(BuildImageParams::getBuildArgs).anyMatch(m -> m.equals(args1)));
     assertTrue(list.stream().map(BuildImageParams::getBuildArgs).anyMatch(m -> m.equals(args2)));
   }
+
+  @Test
+  void shouldTagImageBuiltFromTheSameDockerfileInsteadOfBuilding() throws Throwable {
+    DockerBuildContext context =
+        new DockerBuildContext()
+            .setDockerfileContent("FROM ubuntu/jdk8")
+            .setArgs(singletonMap("key1", "value1"));
+    DockerContainerConfig config =
+        new DockerContainerConfig().setContainerName("container1").setBuild(context);
+    when(dockerConnector.listImages(any())).thenReturn(singletonList(new Image()));
+
+    dockerImagesBuilder.prepareImages(singletonMap("machine1", config));
+
+    verify(dockerConnector, never()).buildImage(any(), any());
+    ArgumentCaptor<TagParams> captor = ArgumentCaptor.forClass(TagParams.class);
+    verify(dockerConnector).tag(captor.capture());
+    assertEquals(
+        captor.getValue().getImage(), ParallelDockerImagesBuilder.getCachedImageName(context));
+    assertEquals(captor.getValue().getRepository(), "eclipse-che/container1");
+  }
 }
@@ -14,6 +14,7 @@ package org.eclipse.che.workspace.infrastructure.docker.container;
 import static com.google.common.collect.Sets.newHashSet;
 import static java.util.Arrays.asList;
 import static org.mockito.ArgumentMatchers.anyObject;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -23,6 +24,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.workspace.server.model.impl.RuntimeIdentityImpl;
@@ -32,6 +34,7 @@ import org.eclipse.che.infrastructure.docker.client.DockerConnector;
 import org.eclipse.che.infrastructure.docker.client.json.ContainerListEntry;
 import org.eclipse.che.infrastructure.docker.client.params.ListContainersParams;
 import org.eclipse.che.workspace.infrastructure.docker.Labels;
+import org.eclipse.che.workspace.infrastructure.docker.monit.DockerEventBus;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -44,6 +47,7 @@ import org.testng.annotations.Test;
 public class DockerContainersTest {
 
   @Mock private DockerConnector docker;
+  @Mock private DockerEventBus eventBus;
 
   @InjectMocks private DockerContainers containers;
 
@@ -104,6 +108,18 @@ public class DockerContainersTest {
             .collect(Collectors.toList()));
   }
 
+  @Test
+  public void findsContainersInEventBusIndexWhenItIsInSync() throws Exception {
+    RuntimeIdentity id = new RuntimeIdentityImpl("workspace123", "default", "id");
+    ContainerListEntry entry = mockContainer(id, "container1");
+    when(eventBus.findContainers(Labels.newSerializer().runtimeId(id).labels()))
+        .thenReturn(Optional.of(Arrays.asList(entry)));
+
+    assertEquals(containers.find(id), Arrays.asList(entry));
+
+    verify(docker, never()).listContainers(anyObject());
+  }
+
   @Test(
       expectedExceptions = InternalInfrastructureException.class,
       expectedExceptionsMessageRegExp = "oops")
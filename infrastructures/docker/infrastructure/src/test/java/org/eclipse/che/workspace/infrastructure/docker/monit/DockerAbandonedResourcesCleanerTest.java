@@ -17,6 +17,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -31,6 +32,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.workspace.server.WorkspaceManager;
 import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
@@ -39,6 +41,7 @@ import org.eclipse.che.api.workspace.server.model.impl.RuntimeImpl;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.infrastructure.docker.client.DockerConnector;
 import org.eclipse.che.infrastructure.docker.client.json.ContainerListEntry;
+import org.eclipse.che.infrastructure.docker.client.json.Image;
 import org.eclipse.che.infrastructure.docker.client.json.network.ContainerInNetwork;
 import org.eclipse.che.infrastructure.docker.client.json.network.Network;
 import org.eclipse.che.infrastructure.docker.client.params.RemoveContainerParams;
@@ -81,6 +84,8 @@ public class DockerAbandonedResourcesCleanerTest {
   private static final String abandonedNetworkName = "workspace1234567890abcdef_1234567890abcdef";
   private static final String usedNetworkName = "workspace0987654321zyxwvu_0987654321zyxwvu";
 
+  private static final long BUILD_CACHE_MAX_AGE_HOURS = 24;
+
   @Mock private WorkspaceManager workspaceManager;
   @Mock private DockerConnector dockerConnector;
   @Mock private WorkspaceRuntimes workspaceRuntimes;
@@ -116,7 +121,10 @@ public class DockerAbandonedResourcesCleanerTest {
     cleaner =
         spy(
             new DockerAbandonedResourcesCleaner(
-                workspaceManager, dockerConnector, workspaceRuntimes));
+                workspaceManager,
+                dockerConnector,
+                workspaceRuntimes,
+                BUILD_CACHE_MAX_AGE_HOURS));
 
     doAnswer(
             invocation -> {
@@ -187,6 +195,7 @@ public class DockerAbandonedResourcesCleanerTest {
     // then
     verify(cleaner).cleanContainers();
     verify(cleaner).cleanNetworks();
+    verify(cleaner).cleanBuildCache();
   }
 
   @Test
@@ -352,4 +361,85 @@ public class DockerAbandonedResourcesCleanerTest {
     verify(dockerConnector).removeNetwork(abandonedNetworkId);
     verify(dockerConnector).removeNetwork(abandonedNetworkId);
   }
+
+  @Test
+  public void shouldRemoveExpiredBuildCacheTags() throws IOException {
+    // given
+    Image expired =
+        image(
+            BUILD_CACHE_MAX_AGE_HOURS + 1,
+            "eclipse-che/build-cache:expired",
+            "eclipse-che/build-cache:other");
+    Image fresh = image(BUILD_CACHE_MAX_AGE_HOURS - 1, "eclipse-che/build-cache:fresh");
+    when(dockerConnector.listImages()).thenReturn(asList(expired, fresh));
+
+    // when
+    cleaner.cleanBuildCache();
+
+    // then
+    verify(dockerConnector).removeImage("eclipse-che/build-cache:expired");
+    verify(dockerConnector).removeImage("eclipse-che/build-cache:other");
+    verify(dockerConnector, never()).removeImage("eclipse-che/build-cache:fresh");
+  }
+
+  @Test
+  public void shouldNotRemoveExpiredTagsWhichDoNotBelongToBuildCache() throws IOException {
+    // given
+    Image expired =
+        image(BUILD_CACHE_MAX_AGE_HOURS + 1, "eclipse-che/build-cache:expired", "user/image:1");
+    Image untagged = image(BUILD_CACHE_MAX_AGE_HOURS + 1);
+    untagged.setRepoTags(null);
+    when(dockerConnector.listImages()).thenReturn(asList(expired, untagged));
+
+    // when
+    cleaner.cleanBuildCache();
+
+    // then
+    verify(dockerConnector).removeImage("eclipse-che/build-cache:expired");
+    verify(dockerConnector, never()).removeImage("user/image:1");
+  }
+
+  @Test
+  public void shouldRemoveExpiredBuildCacheTagEvenIfRemovingOfPreviousOneFailed()
+      throws IOException {
+    // given
+    Image expired =
+        image(
+            BUILD_CACHE_MAX_AGE_HOURS + 1,
+            "eclipse-che/build-cache:used",
+            "eclipse-che/build-cache:expired");
+    when(dockerConnector.listImages()).thenReturn(asList(expired));
+    doThrow(new IOException("Image is used by a container"))
+        .when(dockerConnector)
+        .removeImage("eclipse-che/build-cache:used");
+
+    // when
+    cleaner.cleanBuildCache();
+
+    // then
+    verify(dockerConnector).removeImage("eclipse-che/build-cache:expired");
+  }
+
+  @Test
+  public void shouldNotCleanBuildCacheWhenMaxAgeIsNotPositive() throws IOException {
+    // given
+    cleaner =
+        new DockerAbandonedResourcesCleaner(
+            workspaceManager, dockerConnector, workspaceRuntimes, 0);
+
+    // when
+    cleaner.cleanBuildCache();
+
+    // then
+    verify(dockerConnector, never()).listImages();
+  }
+
+  private static Image image(long ageHours, String... repoTags) {
+    Image image = new Image();
+    image.setRepoTags(repoTags);
+    image.setCreated(
+        TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())
+            - TimeUnit.HOURS.toSeconds(ageHours));
+    return image;
+  }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.docker.monit;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.eclipse.che.workspace.infrastructure.docker.Labels.LABEL_WORKSPACE_ID;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.eclipse.che.infrastructure.docker.client.DockerConnector;
+import org.eclipse.che.infrastructure.docker.client.MessageProcessor;
+import org.eclipse.che.infrastructure.docker.client.json.Actor;
+import org.eclipse.che.infrastructure.docker.client.json.ContainerListEntry;
+import org.eclipse.che.infrastructure.docker.client.json.Event;
+import org.eclipse.che.infrastructure.docker.client.json.SystemInfo;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link DockerEventBus}. */
+@Listeners(MockitoTestNGListener.class)
+public class DockerEventBusTest {
+
+  private static final Map<String, String> WORKSPACE_LABELS =
+      ImmutableMap.of(LABEL_WORKSPACE_ID, "workspace123");
+
+  @Mock private DockerConnector docker;
+  @Mock private MessageProcessor<Event> subscriber;
+
+  private DockerEventBus eventBus;
+
+  @BeforeMethod
+  public void setUp() {
+    eventBus = new DockerEventBus(docker);
+    eventBus.subscribe(subscriber);
+  }
+
+  @Test
+  public void doesNotFindContainersUntilIndexIsSynced() {
+    assertFalse(eventBus.findContainers(WORKSPACE_LABELS).isPresent());
+  }
+
+  @Test
+  public void maintainsIndexOfRunningContainersByEvents() throws Exception {
+    ContainerListEntry listed = new ContainerListEntry();
+    listed.setId("container1");
+    listed.setLabels(WORKSPACE_LABELS);
+    when(docker.listContainers(any())).thenReturn(singletonList(listed));
+    eventBus.resync();
+
+    eventBus.process(event("container2", "start", Long.MAX_VALUE - 1));
+    assertEquals(
+        eventBus.findContainers(WORKSPACE_LABELS).get().size(), 2, "Started container is indexed");
+
+    eventBus.process(event("container1", "die", Long.MAX_VALUE));
+    eventBus.process(event("container2", "die", Long.MAX_VALUE));
+    assertEquals(eventBus.findContainers(WORKSPACE_LABELS), Optional.of(emptyList()));
+  }
+
+  @Test(timeOut = 10_000)
+  public void resyncsIndexWhenLabelsOfStartedContainerAreUnknown() throws Exception {
+    when(docker.listContainers(any()))
+        .thenReturn(emptyList())
+        .thenReturn(singletonList(container("container1")));
+    eventBus.resync();
+
+    eventBus.process(
+        new Event()
+            .withId("container1")
+            .withStatus("start")
+            .withType("container")
+            .withTimeNano(Long.MAX_VALUE));
+    assertFalse(eventBus.findContainers(WORKSPACE_LABELS).isPresent());
+
+    Optional<List<ContainerListEntry>> found;
+    while (!(found = eventBus.findContainers(WORKSPACE_LABELS)).isPresent()) {
+      Thread.sleep(50);
+    }
+    assertEquals(found.get().size(), 1);
+  }
+
+  @Test
+  public void appliesEventsProcessedWhileContainersAreListed() throws Exception {
+    when(docker.listContainers(any()))
+        .thenAnswer(
+            invocation -> {
+              eventBus.process(event("container1", "die", Long.MAX_VALUE));
+              return singletonList(container("container1"));
+            });
+
+    eventBus.resync();
+
+    assertEquals(eventBus.findContainers(WORKSPACE_LABELS), Optional.of(emptyList()));
+  }
+
+  @Test
+  public void skipsEventsWhichAreSentAgainOnResume() throws Exception {
+    when(docker.listContainers(any())).thenReturn(emptyList());
+    eventBus.resync();
+    Event oom = event("container1", "oom", Long.MAX_VALUE - 1);
+    Event die = event("container1", "die", Long.MAX_VALUE - 1);
+
+    eventBus.process(oom);
+    eventBus.process(die);
+    // the stream is resumed from the second of the last processed event
+    eventBus.process(oom);
+    eventBus.process(die);
+
+    verify(subscriber, times(1)).process(oom);
+    verify(subscriber, times(1)).process(die);
+  }
+
+  @Test
+  public void startsConsumingEventsFromDaemonTime() throws Exception {
+    SystemInfo info = new SystemInfo();
+    info.setSystemTime("2018-01-01T00:00:10.5Z");
+    when(docker.getSystemInfo()).thenReturn(info);
+    when(docker.listContainers(any())).thenReturn(emptyList());
+    eventBus.resync();
+    long daemonTimeNano = SECONDS.toNanos(Instant.parse("2018-01-01T00:00:10Z").getEpochSecond());
+    Event beforeListing = event("container1", "die", daemonTimeNano + 400_000_000);
+    Event afterListing = event("container2", "die", daemonTimeNano + 600_000_000);
+
+    eventBus.process(beforeListing);
+    eventBus.process(afterListing);
+
+    verify(subscriber, never()).process(beforeListing);
+    verify(subscriber).process(afterListing);
+  }
+
+  @Test
+  public void dispatchesEventsToSubscribers() throws Exception {
+    Event first = event("container1", "start", Long.MAX_VALUE - 1);
+    Event second = event("container2", "start", Long.MAX_VALUE);
+
+    eventBus.process(first);
+    eventBus.process(second);
+
+    verify(subscriber).process(first);
+    verify(subscriber).process(second);
+  }
+
+  private static ContainerListEntry container(String containerId) {
+    ContainerListEntry container = new ContainerListEntry();
+    container.setId(containerId);
+    container.setLabels(WORKSPACE_LABELS);
+    return container;
+  }
+
+  private static Event event(String containerId, String status, long timeNano) {
+    return new Event()
+        .withId(containerId)
+        .withStatus(status)
+        .withType("container")
+        .withTimeNano(timeNano)
+        .withActor(new Actor().withId(containerId).withAttributes(WORKSPACE_LABELS));
+  }
+}
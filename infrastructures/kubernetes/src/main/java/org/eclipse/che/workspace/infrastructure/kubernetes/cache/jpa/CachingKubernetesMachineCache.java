@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa;
+
+import static java.lang.String.format;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.model.workspace.runtime.MachineStatus;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.core.model.workspace.runtime.ServerStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.eclipse.che.workspace.infrastructure.kubernetes.cache.BeforeKubernetesRuntimeStateRemovedEvent;
+import org.eclipse.che.workspace.infrastructure.kubernetes.cache.KubernetesMachineCache;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachineImpl;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachineImpl.MachineId;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl.ServerId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory layer over {@link JpaKubernetesMachineCache}.
+ *
+ * <p>Machines of a runtime are loaded once and then served from memory. Machines are put and
+ * removed through the JPA cache right away, while machine and server status updates are applied
+ * in memory and written in a single transaction every {@code
+ * che.infra.kubernetes.runtime_cache.flush_period_ms}, so a burst of status updates during
+ * workspace start doesn't produce a transaction per server.
+ *
+ * <p>Other Che Server replicas keep their own in-memory copies, they are told to drop the copies
+ * of a runtime through {@link #addChangeListener(Consumer) change listeners} once its changes are
+ * written, see {@link #invalidate(String)}. Until that, replicas may see statuses which are up to
+ * the flush period old.
+ *
+ * <p>If the flush period is not positive, all the calls are passed to the JPA cache directly.
+ */
+@Singleton
+public class CachingKubernetesMachineCache implements KubernetesMachineCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CachingKubernetesMachineCache.class);
+
+  private final JpaKubernetesMachineCache delegate;
+  private final boolean enabled;
+  // machines by workspace ids, pending status updates are already applied to them
+  private final ConcurrentMap<String, Map<String, KubernetesMachineImpl>> machines;
+  // guarded by this
+  private Map<MachineId, MachineStatus> pendingMachineStatuses;
+  private Map<ServerId, ServerStatus> pendingServerStatuses;
+  private Set<String> pendingWorkspaces;
+  // incremented on each invalidation, so machines loaded before it are not cached
+  private final AtomicLong invalidations;
+  private final List<Consumer<String>> changeListeners;
+
+  @Inject
+  public CachingKubernetesMachineCache(
+      JpaKubernetesMachineCache delegate,
+      EventService eventService,
+      @Named("che.infra.kubernetes.runtime_cache.flush_period_ms") long flushPeriodMs) {
+    this.delegate = delegate;
+    this.enabled = flushPeriodMs > 0;
+    this.machines = new ConcurrentHashMap<>();
+    this.pendingMachineStatuses = new HashMap<>();
+    this.pendingServerStatuses = new HashMap<>();
+    this.pendingWorkspaces = new HashSet<>();
+    this.invalidations = new AtomicLong();
+    this.changeListeners = new CopyOnWriteArrayList<>();
+    if (enabled) {
+      // runtime machines are also removed on workspace removal bypassing this cache
+      eventService.subscribe(
+          new EventSubscriber<BeforeKubernetesRuntimeStateRemovedEvent>() {
+            @Override
+            public void onEvent(BeforeKubernetesRuntimeStateRemovedEvent event) {
+              String workspaceId = event.getRuntimeState().getRuntimeId().getWorkspaceId();
+              dropPending(workspaceId);
+              invalidate(workspaceId);
+              notifyChanged(workspaceId);
+            }
+          },
+          BeforeKubernetesRuntimeStateRemovedEvent.class);
+    }
+  }
+
+  @Override
+  public void put(RuntimeIdentity runtimeIdentity, KubernetesMachineImpl machine)
+      throws InfrastructureException {
+    delegate.put(runtimeIdentity, machine);
+    if (enabled) {
+      invalidate(runtimeIdentity.getWorkspaceId());
+      notifyChanged(runtimeIdentity.getWorkspaceId());
+    }
+  }
+
+  @Override
+  public Map<String, KubernetesMachineImpl> getMachines(RuntimeIdentity runtimeIdentity)
+      throws InfrastructureException {
+    if (!enabled) {
+      return delegate.getMachines(runtimeIdentity);
+    }
+    Map<String, KubernetesMachineImpl> runtimeMachines = load(runtimeIdentity);
+    Map<String, KubernetesMachineImpl> copies = new HashMap<>();
+    synchronized (this) {
+      for (KubernetesMachineImpl machine : runtimeMachines.values()) {
+        copies.put(machine.getName(), new KubernetesMachineImpl(machine));
+      }
+    }
+    return copies;
+  }
+
+  @Override
+  public KubernetesServerImpl getServer(
+      RuntimeIdentity runtimeIdentity, String machineName, String serverName)
+      throws InfrastructureException {
+    if (!enabled) {
+      return delegate.getServer(runtimeIdentity, machineName, serverName);
+    }
+    Map<String, KubernetesMachineImpl> runtimeMachines = load(runtimeIdentity);
+    synchronized (this) {
+      return new KubernetesServerImpl(findServer(runtimeMachines, machineName, serverName));
+    }
+  }
+
+  @Override
+  public void updateMachineStatus(
+      RuntimeIdentity runtimeIdentity, String machineName, MachineStatus newStatus)
+      throws InfrastructureException {
+    if (!enabled) {
+      delegate.updateMachineStatus(runtimeIdentity, machineName, newStatus);
+      return;
+    }
+    String workspaceId = runtimeIdentity.getWorkspaceId();
+    Map<String, KubernetesMachineImpl> runtimeMachines = load(runtimeIdentity);
+    synchronized (this) {
+      KubernetesMachineImpl machine = runtimeMachines.get(machineName);
+      if (machine == null) {
+        throw new InfrastructureException(
+            format("Machine '%s:%s' was not found", workspaceId, machineName));
+      }
+      machine.setStatus(newStatus);
+      pendingMachineStatuses.put(new MachineId(workspaceId, machineName), newStatus);
+      pendingWorkspaces.add(workspaceId);
+    }
+  }
+
+  @Override
+  public boolean updateServerStatus(
+      RuntimeIdentity runtimeIdentity,
+      String machineName,
+      String serverName,
+      ServerStatus newStatus)
+      throws InfrastructureException {
+    if (!enabled) {
+      return delegate.updateServerStatus(runtimeIdentity, machineName, serverName, newStatus);
+    }
+    String workspaceId = runtimeIdentity.getWorkspaceId();
+    Map<String, KubernetesMachineImpl> runtimeMachines = load(runtimeIdentity);
+    synchronized (this) {
+      KubernetesServerImpl server = findServer(runtimeMachines, machineName, serverName);
+      if (server.getStatus() == newStatus) {
+        return false;
+      }
+      server.setStatus(newStatus);
+      pendingServerStatuses.put(new ServerId(workspaceId, machineName, serverName), newStatus);
+      pendingWorkspaces.add(workspaceId);
+      return true;
+    }
+  }
+
+  @Override
+  public void remove(RuntimeIdentity runtimeIdentity) throws InfrastructureException {
+    if (!enabled) {
+      delegate.remove(runtimeIdentity);
+      return;
+    }
+    String workspaceId = runtimeIdentity.getWorkspaceId();
+    dropPending(workspaceId);
+    invalidate(workspaceId);
+    try {
+      delegate.remove(runtimeIdentity);
+    } finally {
+      invalidate(workspaceId);
+      notifyChanged(workspaceId);
+    }
+  }
+
+  /**
+   * Drops in-memory machines of the specified workspace, so they are loaded again on the next
+   * access. Status updates which are not written yet are kept.
+   */
+  public synchronized void invalidate(String workspaceId) {
+    invalidations.incrementAndGet();
+    machines.remove(workspaceId);
+  }
+
+  /**
+   * Adds a listener which is notified with workspace ids once machine changes of the workspaces
+   * are written.
+   */
+  public void addChangeListener(Consumer<String> listener) {
+    changeListeners.add(listener);
+  }
+
+  /** Returns the number of machines and servers which statuses are not written yet. */
+  public synchronized int getPendingUpdatesCount() {
+    return pendingMachineStatuses.size() + pendingServerStatuses.size();
+  }
+
+  /** Writes pending status updates in a single transaction. */
+  @ScheduleDelay(
+      initialDelayParameterName = "che.infra.kubernetes.runtime_cache.flush_period_ms",
+      delayParameterName = "che.infra.kubernetes.runtime_cache.flush_period_ms",
+      unit = TimeUnit.MILLISECONDS)
+  public void flush() {
+    Map<MachineId, MachineStatus> machineStatuses;
+    Map<ServerId, ServerStatus> serverStatuses;
+    Set<String> workspaces;
+    synchronized (this) {
+      if (pendingWorkspaces.isEmpty()) {
+        return;
+      }
+      machineStatuses = pendingMachineStatuses;
+      serverStatuses = pendingServerStatuses;
+      workspaces = pendingWorkspaces;
+      pendingMachineStatuses = new HashMap<>();
+      pendingServerStatuses = new HashMap<>();
+      pendingWorkspaces = new HashSet<>();
+    }
+    try {
+      delegate.updateStatuses(machineStatuses, serverStatuses);
+    } catch (InfrastructureException e) {
+      LOG.error("Failed to write statuses of {} workspaces runtimes", workspaces.size(), e);
+      synchronized (this) {
+        // updates which came after the failed ones are newer
+        machineStatuses.forEach(pendingMachineStatuses::putIfAbsent);
+        serverStatuses.forEach(pendingServerStatuses::putIfAbsent);
+        pendingWorkspaces.addAll(workspaces);
+      }
+      return;
+    }
+    workspaces.forEach(this::notifyChanged);
+  }
+
+  @PreDestroy
+  void flushOnShutdown() {
+    flush();
+  }
+
+  private Map<String, KubernetesMachineImpl> load(RuntimeIdentity runtimeIdentity)
+      throws InfrastructureException {
+    String workspaceId = runtimeIdentity.getWorkspaceId();
+    Map<String, KubernetesMachineImpl> runtimeMachines = machines.get(workspaceId);
+    if (runtimeMachines != null) {
+      return runtimeMachines;
+    }
+    long invalidationsBeforeLoad = invalidations.get();
+    Map<String, KubernetesMachineImpl> loaded = new HashMap<>();
+    for (KubernetesMachineImpl machine : delegate.getMachines(runtimeIdentity).values()) {
+      loaded.put(machine.getName(), new KubernetesMachineImpl(machine));
+    }
+    synchronized (this) {
+      runtimeMachines = machines.get(workspaceId);
+      if (runtimeMachines != null) {
+        return runtimeMachines;
+      }
+      applyPending(workspaceId, loaded);
+      if (invalidations.get() == invalidationsBeforeLoad) {
+        machines.put(workspaceId, loaded);
+      }
+    }
+    return loaded;
+  }
+
+  /** Applies status updates which are not written yet to the loaded machines. */
+  private void applyPending(String workspaceId, Map<String, KubernetesMachineImpl> loaded) {
+    if (!pendingWorkspaces.contains(workspaceId)) {
+      return;
+    }
+    for (KubernetesMachineImpl machine : loaded.values()) {
+      MachineStatus status = pendingMachineStatuses.get(machine.getMachineId());
+      if (status != null) {
+        machine.setStatus(status);
+      }
+      for (Map.Entry<String, KubernetesServerImpl> entry : machine.getServers().entrySet()) {
+        ServerStatus serverStatus =
+            pendingServerStatuses.get(
+                new ServerId(workspaceId, machine.getName(), entry.getKey()));
+        if (serverStatus != null) {
+          entry.getValue().setStatus(serverStatus);
+        }
+      }
+    }
+  }
+
+  private KubernetesServerImpl findServer(
+      Map<String, KubernetesMachineImpl> runtimeMachines, String machineName, String serverName)
+      throws InfrastructureException {
+    KubernetesMachineImpl machine = runtimeMachines.get(machineName);
+    KubernetesServerImpl server = machine == null ? null : machine.getServers().get(serverName);
+    if (server == null) {
+      throw new InfrastructureException(
+          format("Server with name '%s' was not found", serverName));
+    }
+    return server;
+  }
+
+  private synchronized void dropPending(String workspaceId) {
+    if (pendingWorkspaces.remove(workspaceId)) {
+      pendingMachineStatuses.keySet().removeIf(id -> workspaceId.equals(id.getWorkspaceId()));
+      pendingServerStatuses.keySet().removeIf(id -> workspaceId.equals(id.getWorkspaceId()));
+    }
+  }
+
+  private void notifyChanged(String workspaceId) {
+    for (Consumer<String> listener : changeListeners) {
+      try {
+        listener.accept(workspaceId);
+      } catch (RuntimeException e) {
+        LOG.error("Failed to notify about machines change of workspace '{}'", workspaceId, e);
+      }
+    }
+  }
+}
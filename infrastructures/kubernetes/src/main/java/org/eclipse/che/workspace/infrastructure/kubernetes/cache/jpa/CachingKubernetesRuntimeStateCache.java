@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa;
+
+import static java.util.Collections.emptyList;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.model.workspace.config.Command;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.cache.BeforeKubernetesRuntimeStateRemovedEvent;
+import org.eclipse.che.workspace.infrastructure.kubernetes.cache.KubernetesRuntimeStateCache;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesRuntimeState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory layer over {@link JpaKubernetesRuntimeStateCache}.
+ *
+ * <p>Runtime states are served from memory once loaded. All the changes are written through the
+ * JPA cache right away, so compare-and-set status updates are still decided by the database, and
+ * then in-memory state of the runtime is dropped and {@link #addChangeListener(Consumer) change
+ * listeners} are notified, so other Che Server replicas can drop their copies, see {@link
+ * #invalidate(String)}. Absent states are not cached.
+ *
+ * <p>Enabled together with {@link CachingKubernetesMachineCache} when {@code
+ * che.infra.kubernetes.runtime_cache.flush_period_ms} is positive, otherwise all the calls are
+ * passed to the JPA cache directly.
+ */
+@Singleton
+public class CachingKubernetesRuntimeStateCache implements KubernetesRuntimeStateCache {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(CachingKubernetesRuntimeStateCache.class);
+
+  private final JpaKubernetesRuntimeStateCache delegate;
+  private final boolean enabled;
+  private final ConcurrentMap<String, KubernetesRuntimeState> states;
+  // incremented on each invalidation, so states loaded before it are not cached
+  private final AtomicLong invalidations;
+  private final List<Consumer<String>> changeListeners;
+
+  @Inject
+  public CachingKubernetesRuntimeStateCache(
+      JpaKubernetesRuntimeStateCache delegate,
+      EventService eventService,
+      @Named("che.infra.kubernetes.runtime_cache.flush_period_ms") long flushPeriodMs) {
+    this.delegate = delegate;
+    this.enabled = flushPeriodMs > 0;
+    this.states = new ConcurrentHashMap<>();
+    this.invalidations = new AtomicLong();
+    this.changeListeners = new CopyOnWriteArrayList<>();
+    if (enabled) {
+      // runtime state is also removed on workspace removal bypassing this cache
+      eventService.subscribe(
+          new EventSubscriber<BeforeKubernetesRuntimeStateRemovedEvent>() {
+            @Override
+            public void onEvent(BeforeKubernetesRuntimeStateRemovedEvent event) {
+              changed(event.getRuntimeState().getRuntimeId().getWorkspaceId());
+            }
+          },
+          BeforeKubernetesRuntimeStateRemovedEvent.class);
+    }
+  }
+
+  @Override
+  public boolean putIfAbsent(KubernetesRuntimeState state) throws InfrastructureException {
+    try {
+      return delegate.putIfAbsent(state);
+    } finally {
+      changed(state.getRuntimeId().getWorkspaceId());
+    }
+  }
+
+  @Override
+  public Set<RuntimeIdentity> getIdentities() throws InfrastructureException {
+    return delegate.getIdentities();
+  }
+
+  @Override
+  public Optional<WorkspaceStatus> getStatus(RuntimeIdentity runtimeId)
+      throws InfrastructureException {
+    if (!enabled) {
+      return delegate.getStatus(runtimeId);
+    }
+    return get(runtimeId).map(KubernetesRuntimeState::getStatus);
+  }
+
+  @Override
+  public List<? extends Command> getCommands(RuntimeIdentity runtimeId)
+      throws InfrastructureException {
+    if (!enabled) {
+      return delegate.getCommands(runtimeId);
+    }
+    Optional<KubernetesRuntimeState> state = get(runtimeId);
+    // runtime is not started yet if state is absent
+    return state.isPresent() ? state.get().getCommands() : emptyList();
+  }
+
+  @Override
+  public Optional<KubernetesRuntimeState> get(RuntimeIdentity runtimeId)
+      throws InfrastructureException {
+    if (!enabled) {
+      return delegate.get(runtimeId);
+    }
+    String workspaceId = runtimeId.getWorkspaceId();
+    KubernetesRuntimeState state = states.get(workspaceId);
+    if (state == null) {
+      long invalidationsBeforeLoad = invalidations.get();
+      Optional<KubernetesRuntimeState> loaded = delegate.get(runtimeId);
+      if (!loaded.isPresent()) {
+        return Optional.empty();
+      }
+      state = new KubernetesRuntimeState(loaded.get());
+      synchronized (this) {
+        if (invalidations.get() == invalidationsBeforeLoad) {
+          states.putIfAbsent(workspaceId, state);
+        }
+      }
+    }
+    return Optional.of(new KubernetesRuntimeState(state));
+  }
+
+  @Override
+  public void updateStatus(RuntimeIdentity runtimeId, WorkspaceStatus newStatus)
+      throws InfrastructureException {
+    try {
+      delegate.updateStatus(runtimeId, newStatus);
+    } finally {
+      changed(runtimeId.getWorkspaceId());
+    }
+  }
+
+  @Override
+  public boolean updateStatus(
+      RuntimeIdentity identity, Predicate<WorkspaceStatus> predicate, WorkspaceStatus newStatus)
+      throws InfrastructureException {
+    try {
+      return delegate.updateStatus(identity, predicate, newStatus);
+    } finally {
+      changed(identity.getWorkspaceId());
+    }
+  }
+
+  @Override
+  public void updateCommands(RuntimeIdentity identity, List<? extends Command> commands)
+      throws InfrastructureException {
+    try {
+      delegate.updateCommands(identity, commands);
+    } finally {
+      changed(identity.getWorkspaceId());
+    }
+  }
+
+  @Override
+  public void remove(RuntimeIdentity runtimeId) throws InfrastructureException {
+    try {
+      delegate.remove(runtimeId);
+    } finally {
+      changed(runtimeId.getWorkspaceId());
+    }
+  }
+
+  /** Drops in-memory state of the specified workspace runtime. */
+  public synchronized void invalidate(String workspaceId) {
+    invalidations.incrementAndGet();
+    states.remove(workspaceId);
+  }
+
+  /** Adds a listener which is notified with workspace ids once their runtime states are changed. */
+  public void addChangeListener(Consumer<String> listener) {
+    changeListeners.add(listener);
+  }
+
+  private void changed(String workspaceId) {
+    if (!enabled) {
+      return;
+    }
+    invalidate(workspaceId);
+    for (Consumer<String> listener : changeListeners) {
+      try {
+        listener.accept(workspaceId);
+      } catch (RuntimeException e) {
+        LOG.error("Failed to notify about runtime state change of workspace '{}'", workspaceId, e);
+      }
+    }
+  }
+}
@@ -126,6 +126,24 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
     }
   }
 
+  /**
+   * Updates statuses of the machines and servers of any runtimes in a single transaction. Machines
+   * and servers which are not cached anymore, e.g. because runtime is already removed, are skipped.
+   *
+   * @param machineStatuses new statuses of the machines
+   * @param serverStatuses new statuses of the servers
+   * @throws InfrastructureException if any exception occurs during statuses updating
+   */
+  public void updateStatuses(
+      Map<MachineId, MachineStatus> machineStatuses, Map<ServerId, ServerStatus> serverStatuses)
+      throws InfrastructureException {
+    try {
+      doUpdateStatuses(machineStatuses, serverStatuses);
+    } catch (RuntimeException e) {
+      throw new InfrastructureException(e.getMessage(), e);
+    }
+  }
+
   @Override
   public void remove(RuntimeIdentity runtimeIdentity) throws InfrastructureException {
     try {
@@ -189,6 +207,28 @@ public class JpaKubernetesMachineCache implements KubernetesMachineCache {
     return false;
   }
 
+  @Transactional
+  protected void doUpdateStatuses(
+      Map<MachineId, MachineStatus> machineStatuses, Map<ServerId, ServerStatus> serverStatuses) {
+    EntityManager entityManager = managerProvider.get();
+
+    for (Map.Entry<MachineId, MachineStatus> entry : machineStatuses.entrySet()) {
+      KubernetesMachineImpl machine =
+          entityManager.find(KubernetesMachineImpl.class, entry.getKey());
+      if (machine != null) {
+        machine.setStatus(entry.getValue());
+      }
+    }
+    for (Map.Entry<ServerId, ServerStatus> entry : serverStatuses.entrySet()) {
+      KubernetesServerImpl server = entityManager.find(KubernetesServerImpl.class, entry.getKey());
+      if (server != null) {
+        server.setStatus(entry.getValue());
+      }
+    }
+
+    entityManager.flush();
+  }
+
   @Singleton
   public static class RemoveKubernetesMachinesBeforeRuntimesRemoved
       extends CascadeEventSubscriber<BeforeKubernetesRuntimeStateRemovedEvent> {
@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.workspace.infrastructure.kubernetes.model;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -103,6 +104,26 @@ public class KubernetesMachineImpl implements Machine {
                             workspaceId, machineName, e.getKey(), e.getValue())));
   }
 
+  public KubernetesMachineImpl(KubernetesMachineImpl machine) {
+    this.machineId = new MachineId(machine.getWorkspaceId(), machine.getName());
+    this.podName = machine.podName;
+    this.containerName = machine.containerName;
+    this.status = machine.status;
+    if (machine.attributes != null) {
+      this.attributes = new HashMap<>(machine.attributes);
+    }
+    if (machine.servers != null) {
+      this.servers =
+          machine
+              .servers
+              .entrySet()
+              .stream()
+              .collect(
+                  Collectors.toMap(
+                      Map.Entry::getKey, e -> new KubernetesServerImpl(e.getValue())));
+    }
+  }
+
   public MachineStatus getStatus() {
     return status;
   }
@@ -11,6 +11,7 @@
  */
 package org.eclipse.che.workspace.infrastructure.kubernetes.model;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import javax.persistence.CollectionTable;
@@ -64,6 +65,17 @@ public class KubernetesServerImpl implements Server {
     this.attributes = server.getAttributes();
   }
 
+  public KubernetesServerImpl(KubernetesServerImpl server) {
+    this.serverId =
+        new ServerId(
+            server.serverId.workspaceId, server.serverId.machineName, server.serverId.serverName);
+    this.url = server.url;
+    this.status = server.status;
+    if (server.attributes != null) {
+      this.attributes = new HashMap<>(server.attributes);
+    }
+  }
+
   @Override
   public String getUrl() {
     return url;
@@ -142,6 +154,10 @@ public class KubernetesServerImpl implements Server {
       this.serverName = serverName;
     }
 
+    public String getWorkspaceId() {
+      return workspaceId;
+    }
+
     @Override
     public boolean equals(Object obj) {
       if (this == obj) {
@@ -101,6 +101,7 @@ public class KubernetesDeployments {
   protected final String namespace;
   protected final String workspaceId;
   private final KubernetesClientFactory clientFactory;
+  private final KubernetesSharedInformer sharedInformer;
   private final ConcurrentLinkedQueue<PodActionHandler> podActionHandlers;
   private final ConcurrentLinkedQueue<PodEventHandler> containerEventsHandlers;
   private Watch podWatch;
@@ -109,9 +110,22 @@ public class KubernetesDeployments {
 
   protected KubernetesDeployments(
       String namespace, String workspaceId, KubernetesClientFactory clientFactory) {
+    this(namespace, workspaceId, clientFactory, null);
+  }
+
+  /**
+   * Creates deployments which watch pods and answer pod lookups through the specified shared
+   * informer instead of using the dedicated watches and requests to Kubernetes API.
+   */
+  protected KubernetesDeployments(
+      String namespace,
+      String workspaceId,
+      KubernetesClientFactory clientFactory,
+      @Nullable KubernetesSharedInformer sharedInformer) {
     this.namespace = namespace;
     this.workspaceId = workspaceId;
     this.clientFactory = clientFactory;
+    this.sharedInformer = sharedInformer;
     this.containerEventsHandlers = new ConcurrentLinkedQueue<>();
     this.podActionHandlers = new ConcurrentLinkedQueue<>();
   }
@@ -171,12 +185,12 @@ public class KubernetesDeployments {
       throws InfrastructureException {
     final String deploymentName = deployment.getMetadata().getName();
     final CompletableFuture<Pod> createFuture = new CompletableFuture<>();
+    final CreateWatcher createWatcher =
+        new CreateWatcher(createFuture, workspaceId, deploymentName);
     final Watch createWatch =
-        clientFactory
-            .create(workspaceId)
-            .pods()
-            .inNamespace(namespace)
-            .watch(new CreateWatcher(createFuture, workspaceId, deploymentName));
+        sharedInformer != null
+            ? sharedInformer.watchPods(namespace, workspaceId, createWatcher)
+            : clientFactory.create(workspaceId).pods().inNamespace(namespace).watch(createWatcher);
     try {
       clientFactory
           .create(workspaceId)
@@ -230,6 +244,12 @@ public class KubernetesDeployments {
    * @throws InfrastructureException when any exception occurs
    */
   public List<Pod> get() throws InfrastructureException {
+    if (sharedInformer != null) {
+      Optional<List<Pod>> pods = sharedInformer.getPods(namespace, workspaceId);
+      if (pods.isPresent()) {
+        return pods.get();
+      }
+    }
     try {
       return clientFactory
           .create(workspaceId)
@@ -276,7 +296,9 @@ public class KubernetesDeployments {
           clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName);
 
       watch =
-          podResource.watch(
+          watchPod(
+              podResource,
+              podName,
               new Watcher<Pod>() {
                 @Override
                 public void eventReceived(Action action, Pod pod) {
@@ -350,7 +372,9 @@ public class KubernetesDeployments {
       final PodResource<Pod, DoneablePod> podResource =
           clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName);
       final Watch watch =
-          podResource.watch(
+          watchPod(
+              podResource,
+              podName,
               new Watcher<Pod>() {
                 @Override
                 public void eventReceived(Action action, Pod pod) {
@@ -443,6 +467,11 @@ public class KubernetesDeployments {
             @Override
             public void onClose(KubernetesClientException ignored) {}
           };
+      if (sharedInformer != null) {
+        podWatch = sharedInformer.watchPods(namespace, workspaceId, watcher);
+        podActionHandlers.add(handler);
+        return;
+      }
       try {
         podWatch =
             clientFactory
@@ -529,8 +558,13 @@ public class KubernetesDeployments {
               return eventLastTimestampDate.after(watcherInitializationDate);
             }
           };
+      watcherInitializationDate = new Date();
+      if (sharedInformer != null) {
+        containerWatch = sharedInformer.watchEvents(namespace, workspaceId, watcher);
+        containerEventsHandlers.add(handler);
+        return;
+      }
       try {
-        watcherInitializationDate = new Date();
         containerWatch =
             clientFactory.create(workspaceId).events().inNamespace(namespace).watch(watcher);
       } catch (KubernetesClientException ex) {
@@ -805,9 +839,10 @@ public class KubernetesDeployments {
       if (!Strings.isNullOrEmpty(podName)) {
         PodResource<Pod, DoneablePod> podResource =
             clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(podName);
-        watch = podResource.watch(new DeleteWatcher<Pod>(deleteFuture));
+        watch = watchPod(podResource, podName, new DeleteWatcher<Pod>(deleteFuture));
         toCloseOnException = watch;
       } else {
+        // deployments are not watched by the shared informer
         watch = deploymentResource.watch(new DeleteWatcher<Deployment>(deleteFuture));
         toCloseOnException = watch;
       }
@@ -848,7 +883,7 @@ public class KubernetesDeployments {
       }
 
       final CompletableFuture<Void> deleteFuture = new CompletableFuture<>();
-      final Watch watch = podResource.watch(new DeleteWatcher<Pod>(deleteFuture));
+      final Watch watch = watchPod(podResource, podName, new DeleteWatcher<Pod>(deleteFuture));
       toCloseOnException = watch;
 
       Boolean deleteSucceeded = podResource.delete();
@@ -875,6 +910,19 @@ public class KubernetesDeployments {
     }
   }
 
+  /**
+   * Watches the pod through the shared informer if there is one, otherwise opens a dedicated watch
+   * of the pod resource.
+   */
+  private Watch watchPod(
+      PodResource<Pod, DoneablePod> podResource, String podName, Watcher<Pod> watcher)
+      throws InfrastructureException {
+    if (sharedInformer == null) {
+      return podResource.watch(watcher);
+    }
+    return sharedInformer.watchPods(namespace, workspaceId, new PodNameFilter(podName, watcher));
+  }
+
   private String[] encode(String[] toEncode) throws InfrastructureException {
     String[] encoded = new String[toEncode.length];
     for (int i = 0; i < toEncode.length; i++) {
@@ -888,6 +936,12 @@ public class KubernetesDeployments {
   }
 
   private Optional<Pod> findPod(String name) throws InfrastructureException {
+    if (sharedInformer != null) {
+      Optional<Pod> stored = sharedInformer.getPod(namespace, workspaceId, name);
+      if (stored.isPresent()) {
+        return stored;
+      }
+    }
     Pod pod = clientFactory.create(workspaceId).pods().inNamespace(namespace).withName(name).get();
     if (pod != null) {
       return Optional.of(pod);
@@ -970,6 +1024,30 @@ public class KubernetesDeployments {
     }
   }
 
+  /** Passes the actions of the pod with the specified name to the delegate. */
+  private static class PodNameFilter implements Watcher<Pod> {
+
+    private final String podName;
+    private final Watcher<Pod> delegate;
+
+    private PodNameFilter(String podName, Watcher<Pod> delegate) {
+      this.podName = podName;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void eventReceived(Action action, Pod pod) {
+      if (podName.equals(pod.getMetadata().getName())) {
+        delegate.eventReceived(action, pod);
+      }
+    }
+
+    @Override
+    public void onClose(KubernetesClientException cause) {
+      delegate.onClose(cause);
+    }
+  }
+
   private static class DeleteWatcher<T> implements Watcher<T> {
 
     private final CompletableFuture<Void> future;
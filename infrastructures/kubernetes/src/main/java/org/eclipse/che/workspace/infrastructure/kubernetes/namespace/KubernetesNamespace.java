@@ -34,6 +34,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.api.workspace.server.spi.InternalInfrastructureException;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfrastructureException;
 import org.slf4j.Logger;
@@ -92,10 +93,18 @@ public class KubernetesNamespace {
 
   public KubernetesNamespace(
       KubernetesClientFactory clientFactory, String name, String workspaceId) {
+    this(clientFactory, name, workspaceId, null);
+  }
+
+  public KubernetesNamespace(
+      KubernetesClientFactory clientFactory,
+      String name,
+      String workspaceId,
+      @Nullable KubernetesSharedInformer sharedInformer) {
     this.clientFactory = clientFactory;
     this.workspaceId = workspaceId;
     this.name = name;
-    this.deployments = new KubernetesDeployments(name, workspaceId, clientFactory);
+    this.deployments = new KubernetesDeployments(name, workspaceId, clientFactory, sharedInformer);
     this.services = new KubernetesServices(name, workspaceId, clientFactory);
     this.pvcs = new KubernetesPersistentVolumeClaims(name, workspaceId, clientFactory);
     this.ingresses = new KubernetesIngresses(name, workspaceId, clientFactory);
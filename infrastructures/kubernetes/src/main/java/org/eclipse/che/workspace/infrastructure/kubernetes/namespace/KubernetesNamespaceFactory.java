@@ -16,6 +16,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
 import org.eclipse.che.commons.annotation.Nullable;
@@ -33,16 +34,20 @@ public class KubernetesNamespaceFactory {
   private final boolean isPredefined;
   private final String serviceAccountName;
   private final KubernetesClientFactory clientFactory;
+  private final KubernetesSharedInformer sharedInformer;
 
   @Inject
   public KubernetesNamespaceFactory(
       @Nullable @Named("che.infra.kubernetes.namespace") String namespaceName,
       @Nullable @Named("che.infra.kubernetes.service_account_name") String serviceAccountName,
+      @Named("che.infra.kubernetes.shared_informer.enabled") boolean sharedInformerEnabled,
       KubernetesClientFactory clientFactory) {
     this.namespaceName = namespaceName;
     this.isPredefined = !isNullOrEmpty(namespaceName);
     this.serviceAccountName = serviceAccountName;
     this.clientFactory = clientFactory;
+    this.sharedInformer =
+        sharedInformerEnabled ? new KubernetesSharedInformer(clientFactory) : null;
   }
 
   /**
@@ -94,7 +99,23 @@ public class KubernetesNamespaceFactory {
 
   @VisibleForTesting
   KubernetesNamespace doCreateNamespace(String workspaceId, String name) {
-    return new KubernetesNamespace(clientFactory, name, workspaceId);
+    return new KubernetesNamespace(clientFactory, name, workspaceId, sharedInformer);
+  }
+
+  /**
+   * Returns the informer shared by the created namespaces, or null if namespaces use the dedicated
+   * watches.
+   */
+  @Nullable
+  protected KubernetesSharedInformer getSharedInformer() {
+    return sharedInformer;
+  }
+
+  @PreDestroy
+  void stopSharedInformer() {
+    if (sharedInformer != null) {
+      sharedInformer.stop();
+    }
   }
 
   @VisibleForTesting
@@ -0,0 +1,570 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace;
+
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_DEPLOYMENT_NAME_LABEL;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.ObjectReference;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfrastructureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches pods and events of the namespaces where workspaces are running with a single pod watch
+ * and a single event watch per namespace which are shared by all the workspaces of the namespace,
+ * instead of opening watches for each workspace.
+ *
+ * <p>Workspace pods of a watched namespace are kept in the local store indexed by the workspace id
+ * label, so pod lookups are answered without requests to Kubernetes API. Received pod actions and
+ * pod events are dispatched to the watchers registered by the workspaces the pods belong to.
+ *
+ * <p>Namespace is watched since the first registration of a watcher while it has registered
+ * watchers or workspace pods. Lookups in the namespaces which are not watched are not answered, so
+ * a single lookup doesn't start watching. Watches which are closed by Kubernetes API are restarted,
+ * the store is synchronized with the listed pods before that.
+ *
+ * <p>Namespaces are watched independently, each namespace is guarded by its own lock, so listing
+ * and watching of a namespace doesn't hold the others.
+ */
+public class KubernetesSharedInformer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KubernetesSharedInformer.class);
+
+  private static final String POD_OBJECT_KIND = "Pod";
+  private static final long REWATCH_DELAY_SEC = 5;
+  // events of the pods which are not in the store yet, e.g. because pod watch lags behind
+  private static final long PENDING_EVENTS_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+  private static final int MAX_PENDING_EVENTS = 1000;
+
+  private final KubernetesClientFactory clientFactory;
+  private final ConcurrentMap<String, NamespaceInformer> informers;
+  private final ScheduledExecutorService rewatchExecutor;
+
+  public KubernetesSharedInformer(KubernetesClientFactory clientFactory) {
+    this.clientFactory = clientFactory;
+    this.informers = new ConcurrentHashMap<>();
+    this.rewatchExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("KubernetesSharedInformer-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build());
+  }
+
+  /**
+   * Registers a watcher of the pods of the specified workspace.
+   *
+   * @param namespace namespace where workspace pods are running
+   * @param workspaceId workspace identifier
+   * @param watcher watcher of the workspace pods
+   * @return watch which unregisters the watcher when closed
+   * @throws InfrastructureException when namespace watching can't be started
+   */
+  public Watch watchPods(String namespace, String workspaceId, Watcher<Pod> watcher)
+      throws InfrastructureException {
+    NamespaceInformer informer = acquire(namespace);
+    try {
+      informer
+          .podWatchers
+          .computeIfAbsent(workspaceId, id -> new ConcurrentLinkedQueue<>())
+          .add(watcher);
+    } finally {
+      release(informer);
+    }
+    return () -> unregister(informer, informer.podWatchers, workspaceId, watcher);
+  }
+
+  /**
+   * Registers a watcher of the events related to the pods of the specified workspace.
+   *
+   * @param namespace namespace where workspace pods are running
+   * @param workspaceId workspace identifier
+   * @param watcher watcher of the workspace pod events
+   * @return watch which unregisters the watcher when closed
+   * @throws InfrastructureException when namespace watching can't be started
+   */
+  public Watch watchEvents(String namespace, String workspaceId, Watcher<Event> watcher)
+      throws InfrastructureException {
+    NamespaceInformer informer = acquire(namespace);
+    try {
+      synchronized (informer) {
+        if (informer.eventWatch == null) {
+          informer.startEventWatch();
+        }
+        informer
+            .eventWatchers
+            .computeIfAbsent(workspaceId, id -> new ConcurrentLinkedQueue<>())
+            .add(watcher);
+      }
+    } finally {
+      release(informer);
+    }
+    return () -> unregister(informer, informer.eventWatchers, workspaceId, watcher);
+  }
+
+  /**
+   * Returns the pods of the specified workspace from the local store, or empty optional if the
+   * namespace is not watched or the store is not synchronized with Kubernetes API at the moment.
+   */
+  public Optional<List<Pod>> getPods(String namespace, String workspaceId) {
+    NamespaceInformer informer = informers.get(namespace);
+    if (informer == null || !informer.synced) {
+      return Optional.empty();
+    }
+    List<Pod> pods = new ArrayList<>();
+    for (String podName : informer.podNames(workspaceId)) {
+      Pod pod = informer.pods.get(podName);
+      if (pod != null) {
+        pods.add(pod);
+      }
+    }
+    return Optional.of(pods);
+  }
+
+  /**
+   * Returns the pod of the specified workspace which either has the specified name or is
+   * controlled by the deployment with the specified name from the local store.
+   *
+   * <p>Empty optional is returned if there is no such a pod in the store, the namespace is not
+   * watched or the store is not synchronized with Kubernetes API at the moment, so the pod may
+   * still be looked up through the API, e.g. because the pod was created moments ago.
+   */
+  public Optional<Pod> getPod(String namespace, String workspaceId, String name) {
+    NamespaceInformer informer = informers.get(namespace);
+    if (informer == null || !informer.synced) {
+      return Optional.empty();
+    }
+    Pod pod = informer.pods.get(name);
+    if (pod != null && workspaceId.equals(label(pod, CHE_WORKSPACE_ID_LABEL))) {
+      return Optional.of(pod);
+    }
+    Pod deploymentPod = null;
+    for (String podName : informer.podNames(workspaceId)) {
+      Pod candidate = informer.pods.get(podName);
+      if (candidate != null && name.equals(label(candidate, CHE_DEPLOYMENT_NAME_LABEL))) {
+        if (deploymentPod != null) {
+          // multiple pods in deployment are reported by the lookup through the API
+          return Optional.empty();
+        }
+        deploymentPod = candidate;
+      }
+    }
+    return Optional.ofNullable(deploymentPod);
+  }
+
+  /** Stops watching of all the namespaces. */
+  public void stop() {
+    for (NamespaceInformer informer : informers.values()) {
+      synchronized (informer) {
+        informer.close();
+        informers.remove(informer.namespace, informer);
+      }
+    }
+    rewatchExecutor.shutdownNow();
+  }
+
+  /**
+   * Returns the informer of the namespace which is watched at least until it is {@link
+   * #release(NamespaceInformer) released}, starts watching the namespace if needed.
+   */
+  private NamespaceInformer acquire(String namespace) throws InfrastructureException {
+    while (true) {
+      NamespaceInformer informer = informers.computeIfAbsent(namespace, NamespaceInformer::new);
+      synchronized (informer) {
+        if (informer.closed) {
+          // released meanwhile, the next attempt gets the new one
+          continue;
+        }
+        if (informer.podWatch == null) {
+          try {
+            informer.startPodWatch();
+          } catch (InfrastructureException e) {
+            informer.close();
+            informers.remove(namespace, informer);
+            throw e;
+          }
+        }
+        informer.acquired++;
+        return informer;
+      }
+    }
+  }
+
+  private void release(NamespaceInformer informer) {
+    synchronized (informer) {
+      informer.acquired--;
+    }
+    releaseIfIdle(informer);
+  }
+
+  private <T> void unregister(
+      NamespaceInformer informer,
+      ConcurrentMap<String, Queue<Watcher<T>>> watchers,
+      String workspaceId,
+      Watcher<T> watcher) {
+    synchronized (informer) {
+      Queue<Watcher<T>> workspaceWatchers = watchers.get(workspaceId);
+      if (workspaceWatchers != null) {
+        workspaceWatchers.remove(watcher);
+        if (workspaceWatchers.isEmpty()) {
+          watchers.remove(workspaceId);
+        }
+      }
+      if (informer.eventWatchers.isEmpty()) {
+        informer.stopEventWatch();
+      }
+    }
+    releaseIfIdle(informer);
+  }
+
+  private void releaseIfIdle(NamespaceInformer informer) {
+    synchronized (informer) {
+      if (!informer.closed
+          && informer.acquired == 0
+          && informer.podWatchers.isEmpty()
+          && informer.eventWatchers.isEmpty()
+          && informer.pods.isEmpty()) {
+        informer.close();
+        informers.remove(informer.namespace, informer);
+      }
+    }
+  }
+
+  private static String label(Pod pod, String name) {
+    Map<String, String> labels = pod.getMetadata().getLabels();
+    return labels == null ? null : labels.get(name);
+  }
+
+  /** Watches and stores workspace pods of a single namespace. */
+  private class NamespaceInformer {
+
+    final String namespace;
+    final ConcurrentMap<String, Pod> pods = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, Set<String>> podsByWorkspace = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, Queue<Watcher<Pod>>> podWatchers = new ConcurrentHashMap<>();
+    final ConcurrentMap<String, Queue<Watcher<Event>>> eventWatchers = new ConcurrentHashMap<>();
+    // guarded by itself
+    final LinkedHashMap<String, List<PendingEvent>> pendingEvents = new LinkedHashMap<>();
+
+    // guarded by this informer
+    Watch podWatch;
+    Watch eventWatch;
+    int acquired;
+    volatile boolean synced;
+    volatile boolean closed;
+
+    NamespaceInformer(String namespace) {
+      this.namespace = namespace;
+    }
+
+    Set<String> podNames(String workspaceId) {
+      Set<String> names = podsByWorkspace.get(workspaceId);
+      return names == null ? new HashSet<>() : names;
+    }
+
+    /** Lists the pods to synchronize the store and starts watching the following changes. */
+    void startPodWatch() throws InfrastructureException {
+      try {
+        PodList list =
+            clientFactory
+                .create()
+                .pods()
+                .inNamespace(namespace)
+                .withLabel(CHE_WORKSPACE_ID_LABEL)
+                .list();
+        Set<String> listed = new HashSet<>();
+        for (Pod pod : list.getItems()) {
+          String name = pod.getMetadata().getName();
+          listed.add(name);
+          Pod previous = store(pod);
+          if (previous == null) {
+            dispatch(Action.ADDED, pod);
+          } else if (!Objects.equals(
+              previous.getMetadata().getResourceVersion(),
+              pod.getMetadata().getResourceVersion())) {
+            dispatch(Action.MODIFIED, pod);
+          }
+        }
+        for (Iterator<Pod> it = pods.values().iterator(); it.hasNext(); ) {
+          Pod pod = it.next();
+          if (!listed.contains(pod.getMetadata().getName())) {
+            remove(pod);
+            dispatch(Action.DELETED, pod);
+          }
+        }
+        podWatch =
+            clientFactory
+                .create()
+                .pods()
+                .inNamespace(namespace)
+                .withLabel(CHE_WORKSPACE_ID_LABEL)
+                .watch(list.getMetadata().getResourceVersion(), new PodWatcher());
+        synced = true;
+      } catch (KubernetesClientException e) {
+        throw new KubernetesInfrastructureException(e);
+      }
+    }
+
+    void startEventWatch() throws InfrastructureException {
+      try {
+        eventWatch =
+            clientFactory.create().events().inNamespace(namespace).watch(new EventWatcher());
+      } catch (KubernetesClientException e) {
+        throw new KubernetesInfrastructureException(e);
+      }
+    }
+
+    void stopEventWatch() {
+      if (eventWatch != null) {
+        closeQuietly(eventWatch);
+        eventWatch = null;
+      }
+      synchronized (pendingEvents) {
+        pendingEvents.clear();
+      }
+    }
+
+    void close() {
+      closed = true;
+      synced = false;
+      if (podWatch != null) {
+        closeQuietly(podWatch);
+        podWatch = null;
+      }
+      stopEventWatch();
+    }
+
+    Pod store(Pod pod) {
+      String name = pod.getMetadata().getName();
+      String workspaceId = label(pod, CHE_WORKSPACE_ID_LABEL);
+      if (workspaceId != null) {
+        podsByWorkspace
+            .computeIfAbsent(workspaceId, id -> ConcurrentHashMap.newKeySet())
+            .add(name);
+      }
+      return pods.put(name, pod);
+    }
+
+    void remove(Pod pod) {
+      String name = pod.getMetadata().getName();
+      pods.remove(name);
+      String workspaceId = label(pod, CHE_WORKSPACE_ID_LABEL);
+      if (workspaceId != null) {
+        podsByWorkspace.computeIfPresent(
+            workspaceId,
+            (id, names) -> {
+              names.remove(name);
+              return names.isEmpty() ? null : names;
+            });
+      }
+    }
+
+    void dispatch(Action action, Pod pod) {
+      String workspaceId = label(pod, CHE_WORKSPACE_ID_LABEL);
+      Queue<Watcher<Pod>> watchers = workspaceId == null ? null : podWatchers.get(workspaceId);
+      if (watchers != null) {
+        for (Watcher<Pod> watcher : watchers) {
+          try {
+            watcher.eventReceived(action, pod);
+          } catch (RuntimeException e) {
+            LOG.error("Failed to handle pod action in namespace '{}'", namespace, e);
+          }
+        }
+      }
+    }
+
+    void dispatch(Action action, Event event, Pod pod) {
+      String workspaceId = label(pod, CHE_WORKSPACE_ID_LABEL);
+      Queue<Watcher<Event>> watchers = workspaceId == null ? null : eventWatchers.get(workspaceId);
+      if (watchers != null) {
+        for (Watcher<Event> watcher : watchers) {
+          try {
+            watcher.eventReceived(action, event);
+          } catch (RuntimeException e) {
+            LOG.error("Failed to handle pod event in namespace '{}'", namespace, e);
+          }
+        }
+      }
+    }
+
+    void addPending(String podName, Action action, Event event) {
+      long now = System.currentTimeMillis();
+      synchronized (pendingEvents) {
+        for (Iterator<List<PendingEvent>> it = pendingEvents.values().iterator(); it.hasNext(); ) {
+          List<PendingEvent> events = it.next();
+          if (pendingEvents.size() < MAX_PENDING_EVENTS
+              && now - events.get(events.size() - 1).receivedAt < PENDING_EVENTS_TTL_MS) {
+            break;
+          }
+          it.remove();
+        }
+        pendingEvents
+            .computeIfAbsent(podName, name -> new ArrayList<>())
+            .add(new PendingEvent(action, event, now));
+      }
+    }
+
+    void dispatchPending(Pod pod) {
+      List<PendingEvent> events;
+      synchronized (pendingEvents) {
+        events = pendingEvents.remove(pod.getMetadata().getName());
+      }
+      if (events != null) {
+        for (PendingEvent pending : events) {
+          dispatch(pending.action, pending.event, pod);
+        }
+      }
+    }
+
+    void rewatchPods() {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        try {
+          startPodWatch();
+        } catch (InfrastructureException e) {
+          LOG.warn(
+              "Failed to restart pods watcher for namespace '{}' cause '{}'",
+              namespace,
+              e.getMessage());
+          rewatchExecutor.schedule(this::rewatchPods, REWATCH_DELAY_SEC, TimeUnit.SECONDS);
+          return;
+        }
+      }
+      releaseIfIdle(this);
+    }
+
+    void rewatchEvents() {
+      synchronized (this) {
+        if (closed || eventWatchers.isEmpty()) {
+          return;
+        }
+        try {
+          startEventWatch();
+        } catch (InfrastructureException e) {
+          LOG.warn(
+              "Failed to restart events watcher for namespace '{}' cause '{}'",
+              namespace,
+              e.getMessage());
+          rewatchExecutor.schedule(this::rewatchEvents, REWATCH_DELAY_SEC, TimeUnit.SECONDS);
+        }
+      }
+    }
+
+    private void closeQuietly(Watch watch) {
+      try {
+        watch.close();
+      } catch (KubernetesClientException e) {
+        LOG.error(
+            "Failed to stop watcher for namespace '{}' cause '{}'", namespace, e.getMessage());
+      }
+    }
+
+    private class PodWatcher implements Watcher<Pod> {
+
+      @Override
+      public void eventReceived(Action action, Pod pod) {
+        switch (action) {
+          case ADDED:
+          case MODIFIED:
+            store(pod);
+            dispatch(action, pod);
+            dispatchPending(pod);
+            break;
+          case DELETED:
+            remove(pod);
+            dispatch(action, pod);
+            releaseIfIdle(NamespaceInformer.this);
+            break;
+          default:
+            break;
+        }
+      }
+
+      @Override
+      public void onClose(KubernetesClientException cause) {
+        // closed by Kubernetes API, e.g. the resource version is too old to watch from
+        if (cause != null && !closed) {
+          synced = false;
+          rewatchExecutor.execute(NamespaceInformer.this::rewatchPods);
+        }
+      }
+    }
+
+    private class EventWatcher implements Watcher<Event> {
+
+      @Override
+      public void eventReceived(Action action, Event event) {
+        ObjectReference involvedObject = event.getInvolvedObject();
+        if (involvedObject == null || !POD_OBJECT_KIND.equals(involvedObject.getKind())) {
+          return;
+        }
+        Pod pod = pods.get(involvedObject.getName());
+        if (pod != null) {
+          dispatch(action, event, pod);
+        } else {
+          addPending(involvedObject.getName(), action, event);
+        }
+      }
+
+      @Override
+      public void onClose(KubernetesClientException cause) {
+        if (cause != null && !closed) {
+          rewatchExecutor.execute(NamespaceInformer.this::rewatchEvents);
+        }
+      }
+    }
+  }
+
+  private static class PendingEvent {
+
+    final Action action;
+    final Event event;
+    final long receivedAt;
+
+    PendingEvent(Action action, Event event, long receivedAt) {
+      this.action = action;
+      this.event = event;
+      this.receivedAt = receivedAt;
+    }
+  }
+}
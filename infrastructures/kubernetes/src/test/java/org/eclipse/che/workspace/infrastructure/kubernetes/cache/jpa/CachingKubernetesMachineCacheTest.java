@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.api.core.model.workspace.runtime.MachineStatus;
+import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
+import org.eclipse.che.api.core.model.workspace.runtime.ServerStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.workspace.server.model.impl.RuntimeIdentityImpl;
+import org.eclipse.che.api.workspace.server.model.impl.ServerImpl;
+import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachineImpl;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesMachineImpl.MachineId;
+import org.eclipse.che.workspace.infrastructure.kubernetes.model.KubernetesServerImpl.ServerId;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class CachingKubernetesMachineCacheTest {
+
+  private static final String WORKSPACE_ID = "workspace123";
+  private static final RuntimeIdentity IDENTITY =
+      new RuntimeIdentityImpl(WORKSPACE_ID, "default", "user123");
+
+  @Mock private JpaKubernetesMachineCache delegate;
+  @Mock private EventService eventService;
+
+  private CachingKubernetesMachineCache cache;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    lenient()
+        .when(delegate.getMachines(any()))
+        .thenAnswer(
+            invocation ->
+                ImmutableMap.of(
+                    "machine1",
+                    new KubernetesMachineImpl(
+                        WORKSPACE_ID,
+                        "machine1",
+                        "pod1",
+                        "container1",
+                        MachineStatus.STARTING,
+                        emptyMap(),
+                        ImmutableMap.of(
+                            "server1",
+                            new ServerImpl("http://localhost", ServerStatus.UNKNOWN, null)))));
+    cache = new CachingKubernetesMachineCache(delegate, eventService, 1000);
+  }
+
+  @Test
+  public void shouldServeMachinesFromMemoryAfterTheFirstLoad() throws Exception {
+    cache.getMachines(IDENTITY);
+    cache.getMachines(IDENTITY);
+    cache.getServer(IDENTITY, "machine1", "server1");
+
+    verify(delegate, times(1)).getMachines(IDENTITY);
+  }
+
+  @Test
+  public void shouldReturnCopiesOfCachedMachines() throws Exception {
+    cache.getMachines(IDENTITY).get("machine1").setStatus(MachineStatus.FAILED);
+
+    assertEquals(
+        cache.getMachines(IDENTITY).get("machine1").getStatus(), MachineStatus.STARTING);
+  }
+
+  @Test
+  public void shouldWriteStatusUpdatesInSingleBatchOnFlush() throws Exception {
+    cache.updateMachineStatus(IDENTITY, "machine1", MachineStatus.RUNNING);
+    assertTrue(cache.updateServerStatus(IDENTITY, "machine1", "server1", ServerStatus.RUNNING));
+    assertFalse(cache.updateServerStatus(IDENTITY, "machine1", "server1", ServerStatus.RUNNING));
+
+    Map<String, KubernetesMachineImpl> machines = cache.getMachines(IDENTITY);
+    assertEquals(machines.get("machine1").getStatus(), MachineStatus.RUNNING);
+    assertEquals(
+        machines.get("machine1").getServers().get("server1").getStatus(), ServerStatus.RUNNING);
+    verify(delegate, never()).updateStatuses(anyMap(), anyMap());
+    assertEquals(cache.getPendingUpdatesCount(), 2);
+
+    cache.flush();
+
+    verify(delegate)
+        .updateStatuses(
+            ImmutableMap.of(new MachineId(WORKSPACE_ID, "machine1"), MachineStatus.RUNNING),
+            ImmutableMap.of(
+                new ServerId(WORKSPACE_ID, "machine1", "server1"), ServerStatus.RUNNING));
+    assertEquals(cache.getPendingUpdatesCount(), 0);
+  }
+
+  @Test
+  public void shouldKeepStatusUpdatesWhenFlushFails() throws Exception {
+    cache.updateMachineStatus(IDENTITY, "machine1", MachineStatus.RUNNING);
+    doThrow(new InfrastructureException("error"))
+        .when(delegate)
+        .updateStatuses(anyMap(), anyMap());
+
+    cache.flush();
+
+    assertEquals(cache.getPendingUpdatesCount(), 1);
+  }
+
+  @Test
+  public void shouldApplyPendingUpdatesToMachinesLoadedAfterInvalidation() throws Exception {
+    cache.updateMachineStatus(IDENTITY, "machine1", MachineStatus.RUNNING);
+
+    cache.invalidate(WORKSPACE_ID);
+
+    assertEquals(
+        cache.getMachines(IDENTITY).get("machine1").getStatus(), MachineStatus.RUNNING);
+    verify(delegate, times(2)).getMachines(IDENTITY);
+  }
+
+  @Test
+  public void shouldNotifyChangeListenersAfterFlush() throws Exception {
+    List<String> changed = new ArrayList<>();
+    cache.addChangeListener(changed::add);
+    cache.updateMachineStatus(IDENTITY, "machine1", MachineStatus.RUNNING);
+    assertTrue(changed.isEmpty());
+
+    cache.flush();
+
+    assertEquals(changed, singletonList(WORKSPACE_ID));
+  }
+
+  @Test
+  public void shouldPassCallsToJpaCacheWhenFlushPeriodIsNotPositive() throws Exception {
+    cache = new CachingKubernetesMachineCache(delegate, eventService, -1);
+    when(delegate.updateServerStatus(IDENTITY, "machine1", "server1", ServerStatus.RUNNING))
+        .thenReturn(true);
+
+    cache.updateMachineStatus(IDENTITY, "machine1", MachineStatus.RUNNING);
+    cache.updateServerStatus(IDENTITY, "machine1", "server1", ServerStatus.RUNNING);
+    cache.getMachines(IDENTITY);
+    cache.getMachines(IDENTITY);
+
+    verify(delegate).updateMachineStatus(IDENTITY, "machine1", MachineStatus.RUNNING);
+    verify(delegate).updateServerStatus(IDENTITY, "machine1", "server1", ServerStatus.RUNNING);
+    verify(delegate, times(2)).getMachines(IDENTITY);
+    verify(eventService, never()).subscribe(any(), any());
+  }
+}
@@ -18,10 +18,12 @@ import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.POD_
 import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.POD_STATUS_PHASE_SUCCEEDED;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
@@ -213,6 +215,28 @@ public class KubernetesDeploymentsTest {
     assertTrue(future.isDone());
   }
 
+  @Test
+  public void shouldWaitForRunningPodThroughSharedInformer() throws Exception {
+    // given
+    KubernetesSharedInformer sharedInformer = mock(KubernetesSharedInformer.class);
+    Watch watch = mock(Watch.class);
+    doReturn(Optional.empty()).when(sharedInformer).getPod(anyString(), anyString(), anyString());
+    doReturn(watch).when(sharedInformer).watchPods(anyString(), anyString(), any());
+    kubernetesDeployments =
+        new KubernetesDeployments("namespace", "workspace123", clientFactory, sharedInformer);
+    CompletableFuture future = kubernetesDeployments.waitRunningAsync(POD_NAME);
+
+    // when
+    verify(sharedInformer).watchPods(eq("namespace"), eq("workspace123"), watcherCaptor.capture());
+    when(status.getPhase()).thenReturn(POD_STATUS_PHASE_RUNNING);
+    watcherCaptor.getValue().eventReceived(Watcher.Action.MODIFIED, pod);
+
+    // then
+    assertTrue(future.isDone());
+    verify(podResource, never()).watch(any());
+    verify(watch).close();
+  }
+
   @Test
   public void shouldCompleteExceptionallyFutureForWaitingPodIfStatusIsSucceeded() throws Exception {
     // given
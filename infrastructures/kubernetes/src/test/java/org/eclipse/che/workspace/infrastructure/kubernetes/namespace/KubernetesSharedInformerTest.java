@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.workspace.infrastructure.kubernetes.namespace;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_DEPLOYMENT_NAME_LABEL;
+import static org.eclipse.che.workspace.infrastructure.kubernetes.Constants.CHE_WORKSPACE_ID_LABEL;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesClientFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+@Listeners(MockitoTestNGListener.class)
+public class KubernetesSharedInformerTest {
+
+  private static final String NAMESPACE = "che";
+
+  @Mock private KubernetesClientFactory clientFactory;
+  @Mock private KubernetesClient kubernetesClient;
+  @Mock private MixedOperation podsMixedOperation;
+  @Mock private NonNamespaceOperation podsNamespaceOperation;
+  @Mock private FilterWatchListDeletable podsLabelOperation;
+  @Mock private MixedOperation eventsMixedOperation;
+  @Mock private NonNamespaceOperation eventsNamespaceOperation;
+  @Mock private Watch podWatch;
+  @Mock private Watch eventWatch;
+
+  @Captor private ArgumentCaptor<Watcher<Pod>> podWatcherCaptor;
+  @Captor private ArgumentCaptor<Watcher<Event>> eventWatcherCaptor;
+
+  private KubernetesSharedInformer informer;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    lenient().when(clientFactory.create()).thenReturn(kubernetesClient);
+
+    // Model DSL: client.pods().inNamespace(...).withLabel(...).list() / watch(...)
+    lenient().doReturn(podsMixedOperation).when(kubernetesClient).pods();
+    lenient().doReturn(podsNamespaceOperation).when(podsMixedOperation).inNamespace(anyString());
+    lenient()
+        .doReturn(podsLabelOperation)
+        .when(podsNamespaceOperation)
+        .withLabel(CHE_WORKSPACE_ID_LABEL);
+    lenient().doReturn(podWatch).when(podsLabelOperation).watch(anyString(), any(Watcher.class));
+    listPods(emptyList());
+
+    // Model DSL: client.events().inNamespace(...).watch(...)
+    lenient().doReturn(eventsMixedOperation).when(kubernetesClient).events();
+    lenient()
+        .doReturn(eventsNamespaceOperation)
+        .when(eventsMixedOperation)
+        .inNamespace(anyString());
+    lenient().doReturn(eventWatch).when(eventsNamespaceOperation).watch(any(Watcher.class));
+
+    informer = new KubernetesSharedInformer(clientFactory);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    informer.stop();
+  }
+
+  @Test
+  public void shouldDispatchPodActionsToWatchersOfPodWorkspace() throws Exception {
+    Watcher<Pod> watcher1 = mock(Watcher.class);
+    Watcher<Pod> watcher2 = mock(Watcher.class);
+    informer.watchPods(NAMESPACE, "ws1", watcher1);
+    informer.watchPods(NAMESPACE, "ws2", watcher2);
+    Pod pod = pod("pod1", "ws1", null);
+
+    verify(podsLabelOperation).watch(anyString(), podWatcherCaptor.capture());
+    podWatcherCaptor.getValue().eventReceived(Action.ADDED, pod);
+
+    verify(watcher1).eventReceived(Action.ADDED, pod);
+    verify(watcher2, never()).eventReceived(any(), any());
+  }
+
+  @Test
+  public void shouldAnswerPodLookupsFromStore() throws Exception {
+    Pod bare = pod("bare", "ws1", null);
+    Pod deployed = pod("deployed-1-abcde", "ws1", "deployed");
+    Pod foreign = pod("foreign", "ws2", null);
+    listPods(asList(bare, deployed, foreign));
+    informer.watchPods(NAMESPACE, "ws1", mock(Watcher.class));
+
+    assertEquals(informer.getPod(NAMESPACE, "ws1", "bare"), Optional.of(bare));
+    assertEquals(informer.getPod(NAMESPACE, "ws1", "deployed"), Optional.of(deployed));
+    assertFalse(informer.getPod(NAMESPACE, "ws1", "foreign").isPresent());
+    assertEquals(informer.getPods(NAMESPACE, "ws2"), Optional.of(singletonList(foreign)));
+    verify(podsLabelOperation, times(1)).list();
+  }
+
+  @Test
+  public void shouldDispatchEventsWhichArrivedBeforeTheirPod() throws Exception {
+    Watcher<Event> watcher = mock(Watcher.class);
+    informer.watchPods(NAMESPACE, "ws1", mock(Watcher.class));
+    informer.watchEvents(NAMESPACE, "ws1", watcher);
+    verify(podsLabelOperation).watch(anyString(), podWatcherCaptor.capture());
+    verify(eventsNamespaceOperation).watch(eventWatcherCaptor.capture());
+    Event event =
+        new EventBuilder()
+            .withNewInvolvedObject()
+            .withKind("Pod")
+            .withName("pod1")
+            .endInvolvedObject()
+            .build();
+
+    eventWatcherCaptor.getValue().eventReceived(Action.ADDED, event);
+    verify(watcher, never()).eventReceived(any(), any());
+    podWatcherCaptor.getValue().eventReceived(Action.ADDED, pod("pod1", "ws1", null));
+
+    verify(watcher).eventReceived(Action.ADDED, event);
+  }
+
+  @Test
+  public void shouldStopWatchingNamespaceWhenItHasNoWatchersAndPods() throws Exception {
+    Watch podsRegistration = informer.watchPods(NAMESPACE, "ws1", mock(Watcher.class));
+    Watch eventsRegistration = informer.watchEvents(NAMESPACE, "ws1", mock(Watcher.class));
+
+    eventsRegistration.close();
+    verify(eventWatch).close();
+    verify(podWatch, never()).close();
+
+    podsRegistration.close();
+    verify(podWatch).close();
+  }
+
+  @Test
+  public void shouldRelistPodsWhenWatchIsClosedByKubernetesApi() throws Exception {
+    Pod pod = pod("pod1", "ws1", null);
+    Watcher<Pod> watcher = mock(Watcher.class);
+    informer.watchPods(NAMESPACE, "ws1", watcher);
+    verify(podsLabelOperation).watch(anyString(), podWatcherCaptor.capture());
+    listPods(singletonList(pod));
+
+    podWatcherCaptor.getValue().onClose(new KubernetesClientException("too old resource version"));
+
+    verify(watcher, timeout(2000)).eventReceived(Action.ADDED, pod);
+    verify(podsLabelOperation, timeout(2000).times(2)).watch(anyString(), any(Watcher.class));
+  }
+
+  @Test
+  public void shouldNotWatchNamespaceForLookups() throws Exception {
+    assertFalse(informer.getPods(NAMESPACE, "ws1").isPresent());
+    assertFalse(informer.getPod(NAMESPACE, "ws1", "pod1").isPresent());
+
+    verify(podsLabelOperation, never()).list();
+    verify(podsLabelOperation, never()).watch(anyString(), any(Watcher.class));
+  }
+
+  @Test
+  public void shouldNotHoldOtherNamespacesWhileListingPods() throws Exception {
+    NonNamespaceOperation slowNamespaceOperation = mock(NonNamespaceOperation.class);
+    FilterWatchListDeletable slowLabelOperation = mock(FilterWatchListDeletable.class);
+    doReturn(slowNamespaceOperation).when(podsMixedOperation).inNamespace("slow");
+    doReturn(slowLabelOperation).when(slowNamespaceOperation).withLabel(CHE_WORKSPACE_ID_LABEL);
+    doReturn(podWatch).when(slowLabelOperation).watch(anyString(), any(Watcher.class));
+    CountDownLatch listing = new CountDownLatch(1);
+    CountDownLatch listed = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              listing.countDown();
+              listed.await();
+              return new PodListBuilder()
+                  .withNewMetadata()
+                  .withResourceVersion("1")
+                  .endMetadata()
+                  .build();
+            })
+        .when(slowLabelOperation)
+        .list();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Watch> slow =
+          executor.submit(() -> informer.watchPods("slow", "ws2", mock(Watcher.class)));
+      assertTrue(listing.await(5, TimeUnit.SECONDS));
+
+      informer.watchPods(NAMESPACE, "ws1", mock(Watcher.class));
+
+      verify(podsLabelOperation).watch(anyString(), any(Watcher.class));
+      listed.countDown();
+      slow.get(5, TimeUnit.SECONDS);
+    } finally {
+      listed.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private void listPods(List<Pod> pods) {
+    PodList list =
+        new PodListBuilder()
+            .withNewMetadata()
+            .withResourceVersion("1")
+            .endMetadata()
+            .withItems(pods)
+            .build();
+    lenient().doReturn(list).when(podsLabelOperation).list();
+  }
+
+  private Pod pod(String name, String workspaceId, String deploymentName) {
+    ImmutableMap.Builder<String, String> labels = ImmutableMap.builder();
+    labels.put(CHE_WORKSPACE_ID_LABEL, workspaceId);
+    if (deploymentName != null) {
+      labels.put(CHE_DEPLOYMENT_NAME_LABEL, deploymentName);
+    }
+    return new PodBuilder()
+        .withNewMetadata()
+        .withName(name)
+        .withLabels(labels.build())
+        .withResourceVersion("1")
+        .endMetadata()
+        .build();
+  }
+}
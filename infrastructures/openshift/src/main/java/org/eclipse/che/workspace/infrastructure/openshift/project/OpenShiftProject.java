@@ -18,6 +18,7 @@ import io.fabric8.openshift.api.model.Project;
 import io.fabric8.openshift.api.model.Route;
 import io.fabric8.openshift.client.OpenShiftClient;
 import org.eclipse.che.api.workspace.server.spi.InfrastructureException;
+import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.workspace.infrastructure.kubernetes.KubernetesInfrastructureException;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesConfigsMaps;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesDeployments;
@@ -26,6 +27,7 @@ import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesN
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesPersistentVolumeClaims;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesSecrets;
 import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesServices;
+import org.eclipse.che.workspace.infrastructure.kubernetes.namespace.KubernetesSharedInformer;
 import org.eclipse.che.workspace.infrastructure.openshift.OpenShiftClientFactory;
 
 /**
@@ -65,7 +67,15 @@ public class OpenShiftProject extends KubernetesNamespace {
   }
 
   public OpenShiftProject(OpenShiftClientFactory clientFactory, String name, String workspaceId) {
-    super(clientFactory, name, workspaceId);
+    this(clientFactory, name, workspaceId, null);
+  }
+
+  public OpenShiftProject(
+      OpenShiftClientFactory clientFactory,
+      String name,
+      String workspaceId,
+      @Nullable KubernetesSharedInformer sharedInformer) {
+    super(clientFactory, name, workspaceId, sharedInformer);
     this.clientFactory = clientFactory;
     this.routes = new OpenShiftRoutes(name, workspaceId, clientFactory);
   }
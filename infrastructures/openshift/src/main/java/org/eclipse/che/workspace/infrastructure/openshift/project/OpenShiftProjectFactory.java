@@ -38,8 +38,9 @@ public class OpenShiftProjectFactory extends KubernetesNamespaceFactory {
   public OpenShiftProjectFactory(
       @Nullable @Named("che.infra.openshift.project") String projectName,
       @Nullable @Named("che.infra.kubernetes.service_account_name") String serviceAccountName,
+      @Named("che.infra.kubernetes.shared_informer.enabled") boolean sharedInformerEnabled,
       OpenShiftClientFactory clientFactory) {
-    super(projectName, serviceAccountName, clientFactory);
+    super(projectName, serviceAccountName, sharedInformerEnabled, clientFactory);
     this.projectName = projectName;
     this.serviceAccountName = serviceAccountName;
     this.clientFactory = clientFactory;
@@ -86,7 +87,7 @@ public class OpenShiftProjectFactory extends KubernetesNamespaceFactory {
 
   @VisibleForTesting
   OpenShiftProject doCreateProject(String workspaceId, String name) {
-    return new OpenShiftProject(clientFactory, name, workspaceId);
+    return new OpenShiftProject(clientFactory, name, workspaceId, getSharedInformer());
   }
 
   @VisibleForTesting
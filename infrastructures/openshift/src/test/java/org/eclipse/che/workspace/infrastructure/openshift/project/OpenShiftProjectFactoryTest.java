@@ -39,7 +39,7 @@ public class OpenShiftProjectFactoryTest {
   @Test
   public void shouldCreateAndPrepareProjectWithPredefinedValueIfItIsNotEmpty() throws Exception {
     // given
-    projectFactory = spy(new OpenShiftProjectFactory("projectName", "", clientFactory));
+    projectFactory = spy(new OpenShiftProjectFactory("projectName", "", false, clientFactory));
     OpenShiftProject toReturnProject = mock(OpenShiftProject.class);
     doReturn(toReturnProject).when(projectFactory).doCreateProject(any(), any());
 
@@ -56,7 +56,7 @@ public class OpenShiftProjectFactoryTest {
   public void shouldCreateAndPrepareProjectWithWorkspaceIdAsNameIfConfiguredValueIsEmtpy()
       throws Exception {
     // given
-    projectFactory = spy(new OpenShiftProjectFactory("", "", clientFactory));
+    projectFactory = spy(new OpenShiftProjectFactory("", "", false, clientFactory));
     OpenShiftProject toReturnProject = mock(OpenShiftProject.class);
     doReturn(toReturnProject).when(projectFactory).doCreateProject(any(), any());
 
@@ -73,7 +73,7 @@ public class OpenShiftProjectFactoryTest {
   public void shouldPrepareWorkspaceServiceAccountIfItIsConfiguredAndProjectIsNotPredefined()
       throws Exception {
     // given
-    projectFactory = spy(new OpenShiftProjectFactory("", "serviceAccount", clientFactory));
+    projectFactory = spy(new OpenShiftProjectFactory("", "serviceAccount", false, clientFactory));
     OpenShiftProject toReturnProject = mock(OpenShiftProject.class);
     doReturn(toReturnProject).when(projectFactory).doCreateProject(any(), any());
 
@@ -92,7 +92,8 @@ public class OpenShiftProjectFactoryTest {
   public void shouldNotPrepareWorkspaceServiceAccountIfItIsConfiguredAndProjectIsPredefined()
       throws Exception {
     // given
-    projectFactory = spy(new OpenShiftProjectFactory("namespace", "serviceAccount", clientFactory));
+    projectFactory =
+        spy(new OpenShiftProjectFactory("namespace", "serviceAccount", false, clientFactory));
     OpenShiftProject toReturnProject = mock(OpenShiftProject.class);
     doReturn(toReturnProject).when(projectFactory).doCreateProject(any(), any());
 
@@ -107,7 +108,7 @@ public class OpenShiftProjectFactoryTest {
   public void shouldNotPrepareWorkspaceServiceAccountIfItIsNotConfiguredAndProjectIsNotPredefined()
       throws Exception {
     // given
-    projectFactory = spy(new OpenShiftProjectFactory("", "", clientFactory));
+    projectFactory = spy(new OpenShiftProjectFactory("", "", false, clientFactory));
     OpenShiftProject toReturnProject = mock(OpenShiftProject.class);
     doReturn(toReturnProject).when(projectFactory).doCreateProject(any(), any());
 
@@ -124,7 +125,7 @@ public class OpenShiftProjectFactoryTest {
           throws Exception {
     // given
     projectFactory =
-        spy(new OpenShiftProjectFactory("projectName", "serviceAccountName", clientFactory));
+        spy(new OpenShiftProjectFactory("projectName", "serviceAccountName", false, clientFactory));
     OpenShiftProject toReturnProject = mock(OpenShiftProject.class);
     doReturn(toReturnProject).when(projectFactory).doCreateProject(any(), any());
 
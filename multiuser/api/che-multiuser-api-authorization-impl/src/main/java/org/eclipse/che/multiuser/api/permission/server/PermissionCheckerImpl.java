@@ -11,28 +11,230 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.multiuser.api.permission.shared.event.PermissionsEvent;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of {@link PermissionChecker} that use {@link PermissionsManager} for checking.
  *
+ * <p>Decisions are cached by user, domain, instance and action when {@code
+ * che.permission.decision_cache.size} is positive. Once permissions of an instance are created,
+ * updated or removed, all the cached decisions about the instance are dropped, regardless of the
+ * user, since permissions of '*' user are applied to everyone. Listeners added with {@link
+ * #addInvalidationListener(BiConsumer)} are notified about such changes, so the decisions cached
+ * by other Che Server replicas can be dropped too, see {@link #invalidate(String, String)}.
+ * Permissions removed on removal of users and instances do not produce events, so cached decisions
+ * also expire after {@code che.permission.decision_cache.ttl_sec}.
+ *
  * @author Sergii Leschenko
  */
+@Singleton
 public class PermissionCheckerImpl implements PermissionChecker {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PermissionCheckerImpl.class);
+
   private final PermissionsManager permissionsManager;
+  private final Cache<DecisionKey, Boolean> decisions;
+  // incremented on each invalidation, so decisions made before it are not cached
+  private final AtomicLong invalidations;
+  private final List<BiConsumer<String, String>> invalidationListeners;
 
   @Inject
-  public PermissionCheckerImpl(PermissionsManager permissionsManager) {
+  public PermissionCheckerImpl(
+      PermissionsManager permissionsManager,
+      EventService eventService,
+      @Named("che.permission.decision_cache.size") long cacheSize,
+      @Named("che.permission.decision_cache.ttl_sec") long cacheTtlSec) {
     this.permissionsManager = permissionsManager;
+    this.invalidations = new AtomicLong();
+    this.invalidationListeners = new CopyOnWriteArrayList<>();
+    if (cacheSize > 0) {
+      CacheBuilder<Object, Object> builder =
+          CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats();
+      if (cacheTtlSec > 0) {
+        builder.expireAfterWrite(cacheTtlSec, TimeUnit.SECONDS);
+      }
+      this.decisions = builder.build();
+      eventService.subscribe(
+          new EventSubscriber<PermissionsEvent>() {
+            @Override
+            public void onEvent(PermissionsEvent event) {
+              Permissions permissions = event.getPermissions();
+              permissionsChanged(permissions.getDomainId(), permissions.getInstanceId());
+            }
+          },
+          PermissionsEvent.class);
+    } else {
+      this.decisions = null;
+    }
   }
 
   @Override
   public boolean hasPermission(String user, String domain, String instance, String action)
       throws ServerException, NotFoundException, ConflictException {
+    if (decisions == null) {
+      return check(user, domain, instance, action);
+    }
+    DecisionKey key = new DecisionKey(user, domain, instance, action);
+    Boolean decision = decisions.getIfPresent(key);
+    if (decision == null) {
+      long invalidationsBeforeCheck = invalidations.get();
+      decision = check(user, domain, instance, action);
+      cache(key, decision, invalidationsBeforeCheck);
+    }
+    return decision;
+  }
+
+  @Override
+  public Set<String> getPermittedInstances(
+      String user, String domain, Collection<String> instances, String action)
+      throws ServerException, NotFoundException, ConflictException {
+    Set<String> permitted = new HashSet<>();
+    List<String> unknown = new ArrayList<>();
+    for (String instance : instances) {
+      Boolean decision =
+          decisions == null
+              ? null
+              : decisions.getIfPresent(new DecisionKey(user, domain, instance, action));
+      if (decision == null) {
+        unknown.add(instance);
+      } else if (decision) {
+        permitted.add(instance);
+      }
+    }
+    if (unknown.isEmpty()) {
+      return permitted;
+    }
+    long invalidationsBeforeCheck = invalidations.get();
+    Set<String> checked =
+        new HashSet<>(permissionsManager.getPermittedInstances(user, domain, unknown, action));
+    checked.addAll(permissionsManager.getPermittedInstances("*", domain, unknown, action));
+    permitted.addAll(checked);
+    if (decisions != null) {
+      for (String instance : unknown) {
+        cache(
+            new DecisionKey(user, domain, instance, action),
+            checked.contains(instance),
+            invalidationsBeforeCheck);
+      }
+    }
+    return permitted;
+  }
+
+  /** Drops cached decisions about the specified instance of the domain for all the users. */
+  public void invalidate(String domain, String instance) {
+    if (decisions == null) {
+      return;
+    }
+    synchronized (this) {
+      invalidations.incrementAndGet();
+      decisions
+          .asMap()
+          .keySet()
+          .removeIf(
+              key -> Objects.equals(key.domain, domain) && Objects.equals(key.instance, instance));
+    }
+  }
+
+  /**
+   * Adds a listener which is notified with domain and instance ids once permissions of the instance
+   * are changed.
+   */
+  public void addInvalidationListener(BiConsumer<String, String> listener) {
+    invalidationListeners.add(listener);
+  }
+
+  /** Returns statistics of the decision cache, all zeros if the cache is disabled. */
+  public CacheStats getCacheStats() {
+    return decisions == null ? new CacheStats(0, 0, 0, 0, 0, 0) : decisions.stats();
+  }
+
+  /** Returns the number of cached decisions. */
+  public long getCacheSize() {
+    return decisions == null ? 0 : decisions.size();
+  }
+
+  private boolean check(String user, String domain, String instance, String action)
+      throws ServerException, NotFoundException, ConflictException {
     return permissionsManager.exists(user, domain, instance, action)
         || permissionsManager.exists("*", domain, instance, action);
   }
+
+  private synchronized void cache(DecisionKey key, boolean decision, long invalidationsBefore) {
+    if (invalidations.get() == invalidationsBefore) {
+      decisions.put(key, decision);
+    }
+  }
+
+  private void permissionsChanged(String domain, String instance) {
+    invalidate(domain, instance);
+    for (BiConsumer<String, String> listener : invalidationListeners) {
+      try {
+        listener.accept(domain, instance);
+      } catch (RuntimeException e) {
+        LOG.error(
+            "Failed to notify about permissions change of instance '{}' of domain '{}'",
+            instance,
+            domain,
+            e);
+      }
+    }
+  }
+
+  private static final class DecisionKey {
+    private final String user;
+    private final String domain;
+    private final String instance;
+    private final String action;
+
+    private DecisionKey(String user, String domain, String instance, String action) {
+      this.user = user;
+      this.domain = domain;
+      this.instance = instance;
+      this.action = action;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof DecisionKey)) {
+        return false;
+      }
+      final DecisionKey that = (DecisionKey) obj;
+      return Objects.equals(user, that.user)
+          && Objects.equals(domain, that.domain)
+          && Objects.equals(instance, that.instance)
+          && Objects.equals(action, that.action);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(user, domain, instance, action);
+    }
+  }
 }
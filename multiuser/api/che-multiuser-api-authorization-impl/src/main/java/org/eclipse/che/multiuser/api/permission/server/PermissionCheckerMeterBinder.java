@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/** Provides metrics of the decision cache of {@link PermissionCheckerImpl}. */
+@Singleton
+public class PermissionCheckerMeterBinder implements MeterBinder {
+  private static final String REQUESTS_METRIC_NAME = "che.permission.decision_cache.requests";
+
+  private final PermissionCheckerImpl permissionChecker;
+
+  @Inject
+  public PermissionCheckerMeterBinder(PermissionCheckerImpl permissionChecker) {
+    this.permissionChecker = permissionChecker;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder(
+            REQUESTS_METRIC_NAME, permissionChecker, c -> c.getCacheStats().hitCount())
+        .tags("result", "hit")
+        .description("The number of permission checks answered from the decision cache")
+        .register(registry);
+    FunctionCounter.builder(
+            REQUESTS_METRIC_NAME, permissionChecker, c -> c.getCacheStats().missCount())
+        .tags("result", "miss")
+        .description("The number of permission checks which required a database request")
+        .register(registry);
+    Gauge.builder(
+            "che.permission.decision_cache.size",
+            permissionChecker,
+            PermissionCheckerImpl::getCacheSize)
+        .description("The number of cached permission decisions")
+        .register(registry);
+  }
+}
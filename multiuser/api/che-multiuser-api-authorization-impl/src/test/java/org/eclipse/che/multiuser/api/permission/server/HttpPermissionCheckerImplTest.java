@@ -12,6 +12,7 @@
 package org.eclipse.che.multiuser.api.permission.server;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.anyObject;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -65,18 +66,19 @@ public class HttpPermissionCheckerImplTest {
     when(request.request()).thenReturn(response);
     when(requestFactory.fromUrl(anyString())).thenReturn(request);
 
-    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, requestFactory);
+    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, requestFactory, 1000, 60);
   }
 
   @Test
   public void shouldCheckPermissionsByHttpRequestToPermissionsService() throws Exception {
-    when(response.asDto(anyObject()))
+    when(response.asList(anyObject()))
         .thenReturn(
-            DtoFactory.newDto(PermissionsDto.class)
-                .withUserId("user123")
-                .withDomainId("domain123")
-                .withInstanceId("instance123")
-                .withActions(asList("read", "test")));
+            singletonList(
+                DtoFactory.newDto(PermissionsDto.class)
+                    .withUserId("user123")
+                    .withDomainId("domain123")
+                    .withInstanceId("instance123")
+                    .withActions(asList("read", "test"))));
 
     final boolean hasPermission =
         httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test");
@@ -87,9 +89,9 @@ public class HttpPermissionCheckerImplTest {
             eq(
                 UriBuilder.fromUri(API_ENDPOINT)
                     .path(PermissionsService.class)
-                    .path(PermissionsService.class, "getCurrentUsersPermissions")
+                    .path(PermissionsService.class, "getCurrentUsersInstancePermissions")
                     .queryParam("instance", "instance123")
-                    .build("domain123")
+                    .build()
                     .toString()));
     verify(request).useGetMethod();
     verify(request).request();
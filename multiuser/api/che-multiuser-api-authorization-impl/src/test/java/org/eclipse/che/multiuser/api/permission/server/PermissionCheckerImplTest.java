@@ -11,24 +11,48 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import static java.util.Arrays.asList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 
-import org.mockito.InjectMocks;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.multiuser.api.permission.shared.event.PermissionsEvent;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
 @Listeners(MockitoTestNGListener.class)
 public class PermissionCheckerImplTest {
   @Mock private PermissionsManager permissionsManager;
+  @Mock private EventService eventService;
+  @Mock private PermissionsEvent permissionsEvent;
+  @Mock private Permissions permissions;
 
-  @InjectMocks private PermissionCheckerImpl permissionChecker;
+  @Captor private ArgumentCaptor<EventSubscriber<PermissionsEvent>> subscriberCaptor;
+
+  private PermissionCheckerImpl permissionChecker;
+
+  @BeforeMethod
+  public void setUp() {
+    permissionChecker = new PermissionCheckerImpl(permissionsManager, eventService, 0, 0);
+  }
 
   @Test
   public void shouldCheckExistingDirectUsersPermissions() throws Exception {
@@ -57,4 +81,64 @@ public class PermissionCheckerImplTest {
     verify(permissionsManager).exists("user123", "domain123", "instance123", "test");
     verify(permissionsManager).exists("*", "domain123", "instance123", "test");
   }
+
+  @Test
+  public void shouldAnswerRepeatedChecksFromCache() throws Exception {
+    permissionChecker = new PermissionCheckerImpl(permissionsManager, eventService, 100, -1);
+    when(permissionsManager.exists(anyString(), anyString(), anyString(), anyString()))
+        .thenReturn(true);
+
+    permissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+    boolean hasPermission =
+        permissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+
+    assertEquals(hasPermission, true);
+    verify(permissionsManager, times(1)).exists("user123", "domain123", "instance123", "test");
+    assertEquals(permissionChecker.getCacheStats().hitCount(), 1);
+  }
+
+  @Test
+  public void shouldDropCachedDecisionsAboutInstanceWhenItsPermissionsAreChanged()
+      throws Exception {
+    permissionChecker = new PermissionCheckerImpl(permissionsManager, eventService, 100, -1);
+    verify(eventService).subscribe(subscriberCaptor.capture(), eq(PermissionsEvent.class));
+    List<String> changed = new ArrayList<>();
+    permissionChecker.addInvalidationListener((domain, instance) -> changed.add(instance));
+    permissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+    permissionChecker.hasPermission("user123", "domain123", "instance234", "test");
+    when(permissionsEvent.getPermissions()).thenReturn(permissions);
+    when(permissions.getDomainId()).thenReturn("domain123");
+    when(permissions.getInstanceId()).thenReturn("instance123");
+
+    subscriberCaptor.getValue().onEvent(permissionsEvent);
+    permissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+    permissionChecker.hasPermission("user123", "domain123", "instance234", "test");
+
+    verify(permissionsManager, times(2)).exists("user123", "domain123", "instance123", "test");
+    verify(permissionsManager, times(1)).exists("user123", "domain123", "instance234", "test");
+    assertEquals(changed, asList("instance123"));
+  }
+
+  @Test
+  public void shouldCheckInstancesInBulkAndCacheDecisions() throws Exception {
+    permissionChecker = new PermissionCheckerImpl(permissionsManager, eventService, 100, -1);
+    doReturn(ImmutableSet.of("instance1"))
+        .when(permissionsManager)
+        .getPermittedInstances(eq("user123"), anyString(), anyCollection(), anyString());
+    doReturn(ImmutableSet.of("instance2"))
+        .when(permissionsManager)
+        .getPermittedInstances(eq("*"), anyString(), anyCollection(), anyString());
+
+    assertEquals(
+        permissionChecker.getPermittedInstances(
+            "user123", "domain123", asList("instance1", "instance2", "instance3"), "test"),
+        ImmutableSet.of("instance1", "instance2"));
+    assertEquals(
+        permissionChecker.hasPermission("user123", "domain123", "instance3", "test"), false);
+
+    verify(permissionsManager)
+        .getPermittedInstances(
+            "user123", "domain123", asList("instance1", "instance2", "instance3"), "test");
+    verify(permissionsManager, never()).exists(any(), any(), any(), any());
+  }
 }
@@ -13,6 +13,9 @@ package org.eclipse.che.multiuser.api.permission.server;
 
 import static java.lang.String.format;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -59,6 +62,23 @@ public class AuthorizedSubject implements Subject {
     }
   }
 
+  @Override
+  public Set<String> getPermittedInstances(
+      String domain, Collection<String> instances, String action) {
+    try {
+      return permissionChecker.getPermittedInstances(getUserId(), domain, instances, action);
+    } catch (NotFoundException nfe) {
+      return new HashSet<>();
+    } catch (ServerException | ConflictException e) {
+      LOG.error(
+          format(
+              "Can't check permissions for user '%s' and instances of domain '%s'",
+              getUserId(), domain),
+          e);
+      throw new RuntimeException("Can't check user's permissions", e);
+    }
+  }
+
   @Override
   public void checkPermission(String domain, String instance, String action)
       throws ForbiddenException {
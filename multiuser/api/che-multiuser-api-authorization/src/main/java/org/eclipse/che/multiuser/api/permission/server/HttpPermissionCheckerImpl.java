@@ -11,14 +11,21 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.inject.name.Named;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.core.UriBuilder;
@@ -26,48 +33,56 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of {@link PermissionChecker} that load permissions by http requests to {@link
  * PermissionsService}
  *
- * <p>It also caches permissions to avoid frequently requests to workspace master.
+ * <p>It also caches permissions to avoid frequently requests to workspace master. A single request
+ * fetches the actions user has in all the domains of an instance, so one request is needed per
+ * user for the current workspace. Changed permissions are applied once the cached ones expire.
  *
  * @author Sergii Leschenko
  */
 @Singleton
 public class HttpPermissionCheckerImpl implements PermissionChecker {
-  private final LoadingCache<Key, Set<String>> permissionsCache;
+  private static final Logger LOG = LoggerFactory.getLogger(HttpPermissionCheckerImpl.class);
+
+  private final LoadingCache<Key, Map<String, Set<String>>> permissionsCache;
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong missTotalNanos = new AtomicLong();
 
   @Inject
   public HttpPermissionCheckerImpl(
-      @Named("che.api") String apiEndpoint, HttpJsonRequestFactory requestFactory) {
-    // TODO mb make configurable size of cache and expiration time
+      @Named("che.api") String apiEndpoint,
+      HttpJsonRequestFactory requestFactory,
+      @Named("che.wsagent.permission.cache.size") long cacheSize,
+      @Named("che.wsagent.permission.cache.ttl_sec") long cacheTtlSec) {
     this.permissionsCache =
         CacheBuilder.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheTtlSec, TimeUnit.SECONDS)
             .build(
-                new CacheLoader<Key, Set<String>>() {
+                new CacheLoader<Key, Map<String, Set<String>>>() {
                   @Override
-                  public Set<String> load(Key key) throws Exception {
-                    UriBuilder currentUsersPermissions =
-                        UriBuilder.fromUri(apiEndpoint).path("permissions/" + key.domain);
-                    if (key.instance != null) {
-                      currentUsersPermissions.queryParam("instance", key.instance);
-                    }
-                    String userPermissionsUrl = currentUsersPermissions.build().toString();
+                  public Map<String, Set<String>> load(Key key) throws Exception {
+                    long start = System.nanoTime();
                     try {
-                      PermissionsDto usersPermissions =
-                          requestFactory
-                              .fromUrl(userPermissionsUrl)
-                              .useGetMethod()
-                              .request()
-                              .asDto(PermissionsDto.class);
-                      return new HashSet<>(usersPermissions.getActions());
-                    } catch (NotFoundException e) {
-                      // user doesn't have permissions
-                      return new HashSet<>();
+                      return key.instance == null
+                          ? fetchDomainPermissions(apiEndpoint, requestFactory, key.domain)
+                          : fetchInstancePermissions(apiEndpoint, requestFactory, key.instance);
+                    } finally {
+                      long elapsed = System.nanoTime() - start;
+                      missCount.incrementAndGet();
+                      missTotalNanos.addAndGet(elapsed);
+                      LOG.debug(
+                          "Fetched permissions of user '{}' for domain '{}' instance '{}' in {}ms",
+                          key.user,
+                          key.domain,
+                          key.instance,
+                          TimeUnit.NANOSECONDS.toMillis(elapsed));
                     }
                   }
                 });
@@ -76,13 +91,56 @@ public class HttpPermissionCheckerImpl implements PermissionChecker {
   @Override
   public boolean hasPermission(String user, String domain, String instance, String action)
       throws ServerException {
+    // permissions of all the domains are fetched at once when instance is known
+    Key key = instance == null ? new Key(user, domain, null) : new Key(user, null, instance);
     try {
-      return permissionsCache.get(new Key(user, domain, instance)).contains(action);
+      return permissionsCache.get(key).getOrDefault(domain, emptySet()).contains(action);
     } catch (Exception e) {
       throw new ServerException(e.getMessage(), e);
     }
   }
 
+  /** Returns the number of permissions requests made to workspace master on cache misses. */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Returns the average time in milliseconds spent on requesting permissions on cache misses. */
+  public long getAverageMissLatencyMillis() {
+    long misses = missCount.get();
+    return misses == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(missTotalNanos.get() / misses);
+  }
+
+  private static Map<String, Set<String>> fetchInstancePermissions(
+      String apiEndpoint, HttpJsonRequestFactory requestFactory, String instance)
+      throws Exception {
+    String url =
+        UriBuilder.fromUri(apiEndpoint)
+            .path("permissions/instance")
+            .queryParam("instance", instance)
+            .build()
+            .toString();
+    Map<String, Set<String>> actionsByDomain = new HashMap<>();
+    for (PermissionsDto permissions :
+        requestFactory.fromUrl(url).useGetMethod().request().asList(PermissionsDto.class)) {
+      actionsByDomain.put(permissions.getDomainId(), new HashSet<>(permissions.getActions()));
+    }
+    return actionsByDomain;
+  }
+
+  private static Map<String, Set<String>> fetchDomainPermissions(
+      String apiEndpoint, HttpJsonRequestFactory requestFactory, String domain) throws Exception {
+    String url = UriBuilder.fromUri(apiEndpoint).path("permissions/" + domain).build().toString();
+    try {
+      PermissionsDto usersPermissions =
+          requestFactory.fromUrl(url).useGetMethod().request().asDto(PermissionsDto.class);
+      return singletonMap(domain, new HashSet<>(usersPermissions.getActions()));
+    } catch (NotFoundException e) {
+      // user doesn't have permissions
+      return emptyMap();
+    }
+  }
+
   private static final class Key {
     private final String user;
     private final String domain;
@@ -11,6 +11,9 @@
  */
 package org.eclipse.che.multiuser.api.permission.server;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
@@ -36,4 +39,31 @@ public interface PermissionChecker {
    */
   boolean hasPermission(String user, String domain, String instance, String action)
       throws ServerException, NotFoundException, ConflictException;
+
+  /**
+   * Returns those of the specified instances for which the user has the permission to perform the
+   * action. Implementations should check all the instances at once, by default each instance is
+   * checked with {@link #hasPermission(String, String, String, String)}.
+   *
+   * @param user user id
+   * @param domain domain id
+   * @param instances ids of instances to check
+   * @param action action name
+   * @return ids of instances for which the user has given permission
+   * @throws NotFoundException when given domain is unsupported
+   * @throws ConflictException when given domain requires non nullable value for instance but it is
+   *     null
+   * @throws ServerException when any other error occurs during permissions checking
+   */
+  default Set<String> getPermittedInstances(
+      String user, String domain, Collection<String> instances, String action)
+      throws ServerException, NotFoundException, ConflictException {
+    final Set<String> permitted = new HashSet<>();
+    for (String instance : instances) {
+      if (hasPermission(user, domain, instance, action)) {
+        permitted.add(instance);
+      }
+    }
+    return permitted;
+  }
 }
@@ -12,15 +12,19 @@
 package org.eclipse.che.multiuser.api.permission.server;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.anyObject;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEFAULTS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import javax.ws.rs.core.UriBuilder;
 import org.eclipse.che.api.core.rest.HttpJsonRequest;
@@ -65,18 +69,19 @@ public class HttpPermissionCheckerImplTest {
     when(request.request()).thenReturn(response);
     when(requestFactory.fromUrl(anyString())).thenReturn(request);
 
-    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, requestFactory);
+    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, requestFactory, 1000, 60);
   }
 
   @Test
   public void shouldCheckPermissionsByHttpRequestToPermissionsService() throws Exception {
-    when(response.asDto(anyObject()))
+    when(response.asList(anyObject()))
         .thenReturn(
-            DtoFactory.newDto(PermissionsDto.class)
-                .withUserId("user123")
-                .withDomainId("domain123")
-                .withInstanceId("instance123")
-                .withActions(asList("read", "test")));
+            singletonList(
+                DtoFactory.newDto(PermissionsDto.class)
+                    .withUserId("user123")
+                    .withDomainId("domain123")
+                    .withInstanceId("instance123")
+                    .withActions(asList("read", "test"))));
 
     final boolean hasPermission =
         httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test");
@@ -87,12 +92,66 @@ public class HttpPermissionCheckerImplTest {
             eq(
                 UriBuilder.fromUri(API_ENDPOINT)
                     .path(PermissionsService.class)
-                    .path(PermissionsService.class, "getCurrentUsersPermissions")
+                    .path(PermissionsService.class, "getCurrentUsersInstancePermissions")
                     .queryParam("instance", "instance123")
-                    .build("domain123")
+                    .build()
                     .toString()));
     verify(request).useGetMethod();
     verify(request).request();
     verifyNoMoreInteractions(request);
   }
+
+  @Test
+  public void shouldRequestDomainPermissionsWhenInstanceIsNotSpecified() throws Exception {
+    when(response.asDto(anyObject())).thenReturn(permissions("domain123", "read", "test"));
+
+    assertTrue(httpPermissionChecker.hasPermission("user123", "domain123", null, "test"));
+
+    verify(requestFactory)
+        .fromUrl(
+            eq(
+                UriBuilder.fromUri(API_ENDPOINT)
+                    .path(PermissionsService.class)
+                    .path(PermissionsService.class, "getCurrentUsersPermissions")
+                    .build("domain123")
+                    .toString()));
+  }
+
+  @Test
+  public void shouldRequestAllActionsOfInstanceOnlyOnce() throws Exception {
+    when(response.asList(anyObject()))
+        .thenReturn(
+            asList(permissions("domain123", "read", "test"), permissions("domain234", "run")));
+
+    assertTrue(httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test"));
+    assertFalse(
+        httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "write"));
+    assertTrue(httpPermissionChecker.hasPermission("user123", "domain234", "instance123", "run"));
+    assertFalse(
+        httpPermissionChecker.hasPermission("user123", "domain345", "instance123", "read"));
+
+    verify(request).request();
+    assertEquals(httpPermissionChecker.getMissCount(), 1);
+  }
+
+  @Test
+  public void shouldRequestPermissionsAgainWhenCachedOnesExpire() throws Exception {
+    httpPermissionChecker = new HttpPermissionCheckerImpl(API_ENDPOINT, requestFactory, 1000, 0);
+    when(response.asList(anyObject()))
+        .thenReturn(singletonList(permissions("domain123", "read", "test")));
+
+    httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+    httpPermissionChecker.hasPermission("user123", "domain123", "instance123", "test");
+
+    verify(request, times(2)).request();
+    assertEquals(httpPermissionChecker.getMissCount(), 2);
+  }
+
+  private static PermissionsDto permissions(String domain, String... actions) {
+    return DtoFactory.newDto(PermissionsDto.class)
+        .withUserId("user123")
+        .withDomainId(domain)
+        .withInstanceId("instance123")
+        .withActions(asList(actions));
+  }
 }
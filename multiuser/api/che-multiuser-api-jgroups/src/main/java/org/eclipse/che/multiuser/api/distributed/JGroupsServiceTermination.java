@@ -18,8 +18,10 @@ import java.util.Set;
 import org.eclipse.che.api.system.server.ServiceTermination;
 import org.eclipse.che.api.workspace.server.WorkspaceServiceTermination;
 import org.eclipse.che.multiuser.api.distributed.cache.JGroupsWorkspaceStatusCache;
+import org.eclipse.che.multiuser.api.distributed.cache.KubernetesRuntimeCacheInvalidationPropagator;
+import org.eclipse.che.multiuser.api.distributed.cache.PermissionsCacheInvalidationPropagator;
 import org.eclipse.che.multiuser.api.distributed.lock.JGroupsWorkspaceLockService;
-import org.eclipse.che.multiuser.api.distributed.subscription.DistributedRemoteSubscriptionStorage;
+import org.eclipse.che.multiuser.api.distributed.subscription.NodeLocalRemoteSubscriptionStorage;
 
 /**
  * Terminates jgroups components.
@@ -31,16 +33,22 @@ public class JGroupsServiceTermination implements ServiceTermination {
 
   private final JGroupsWorkspaceLockService workspaceLockService;
   private final JGroupsWorkspaceStatusCache workspaceStatusCache;
-  private final DistributedRemoteSubscriptionStorage remoteSubscriptionStorage;
+  private final NodeLocalRemoteSubscriptionStorage remoteSubscriptionStorage;
+  private final KubernetesRuntimeCacheInvalidationPropagator runtimeCacheInvalidationPropagator;
+  private final PermissionsCacheInvalidationPropagator permissionsCacheInvalidationPropagator;
 
   @Inject
   public JGroupsServiceTermination(
       JGroupsWorkspaceLockService workspaceLockService,
       JGroupsWorkspaceStatusCache workspaceStatusCache,
-      DistributedRemoteSubscriptionStorage remoteSubscriptionStorage) {
+      NodeLocalRemoteSubscriptionStorage remoteSubscriptionStorage,
+      KubernetesRuntimeCacheInvalidationPropagator runtimeCacheInvalidationPropagator,
+      PermissionsCacheInvalidationPropagator permissionsCacheInvalidationPropagator) {
     this.workspaceLockService = workspaceLockService;
     this.workspaceStatusCache = workspaceStatusCache;
     this.remoteSubscriptionStorage = remoteSubscriptionStorage;
+    this.runtimeCacheInvalidationPropagator = runtimeCacheInvalidationPropagator;
+    this.permissionsCacheInvalidationPropagator = permissionsCacheInvalidationPropagator;
   }
 
   @Override
@@ -53,6 +61,8 @@ public class JGroupsServiceTermination implements ServiceTermination {
     workspaceLockService.shutdown();
     workspaceStatusCache.shutdown();
     remoteSubscriptionStorage.shutdown();
+    runtimeCacheInvalidationPropagator.shutdown();
+    permissionsCacheInvalidationPropagator.shutdown();
   }
 
   @Override
@@ -13,12 +13,18 @@ package org.eclipse.che.multiuser.api.distributed.cache;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.workspace.server.WorkspaceStatusCache;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
 import org.jgroups.JChannel;
 import org.jgroups.blocks.ReplicatedHashMap;
 import org.slf4j.Logger;
@@ -27,24 +33,57 @@ import org.slf4j.LoggerFactory;
 /**
  * JGroups based implementation of {@link WorkspaceStatusCache}.
  *
+ * <p>By default each status change blocks until it is applied by all the members of the cluster.
+ * When {@code che.workspace.status_cache.async_replication} is enabled, statuses are read from the
+ * local near cache. Changes are applied to it with compare-and-set semantics and replicated
+ * asynchronously. Each change is stamped with the per workspace version, so the members converge
+ * to the latest change regardless of the order in which the changes are delivered. Tombstones of
+ * the removed statuses are purged when they are older than {@link #TOMBSTONE_TTL_MS}.
+ *
  * @author Anton Korneta
  */
 @Singleton
 public class JGroupsWorkspaceStatusCache implements WorkspaceStatusCache {
 
   private static final String CHANNEL_NAME = "WorkspaceStateCache";
+  private static final String VERSIONED_CHANNEL_NAME = "VersionedWorkspaceStateCache";
   private static final Logger LOG = LoggerFactory.getLogger(JGroupsWorkspaceStatusCache.class);
 
+  /** Time which is long enough for any delayed change to be delivered to all the members. */
+  static final long TOMBSTONE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
   private final ReplicatedHashMap<String, WorkspaceStatus> delegate;
+  private final VersionedStatusMap versioned;
+  private final VersionedStatusStore nearCache;
+  private final List<BiConsumer<String, WorkspaceStatus>> listeners;
 
   @Inject
-  public JGroupsWorkspaceStatusCache(@Named("jgroups.config.file") String confFile) {
+  public JGroupsWorkspaceStatusCache(
+      @Named("jgroups.config.file") String confFile,
+      @Named("che.workspace.status_cache.async_replication") boolean asyncReplication) {
+    this.listeners = new CopyOnWriteArrayList<>();
     try {
       JChannel channel = new JChannel(confFile);
-      channel.connect(CHANNEL_NAME);
-      delegate = new ReplicatedHashMap<>(channel);
-      delegate.setBlockingUpdates(true);
-      delegate.start(5000);
+      if (asyncReplication) {
+        // versioned statuses are not compatible with the statuses of the blocking mode
+        channel.connect(VERSIONED_CHANNEL_NAME);
+        delegate = null;
+        versioned = new VersionedStatusMap(channel);
+        nearCache =
+            new VersionedStatusStore(
+                UUID.randomUUID().toString(), versioned::put, this::notifyListeners);
+        versioned.setBlockingUpdates(false);
+        versioned.addNotifier(new VersionedStatusMerger());
+        versioned.start(5000);
+      } else {
+        channel.connect(CHANNEL_NAME);
+        nearCache = null;
+        versioned = null;
+        delegate = new ReplicatedHashMap<>(channel);
+        delegate.setBlockingUpdates(true);
+        delegate.addNotifier(new StatusChangeNotifier());
+        delegate.start(5000);
+      }
     } catch (Exception ex) {
       throw new RuntimeException("Jgroups cache creation failed. Cause :" + ex.getMessage());
     }
@@ -52,33 +91,62 @@ public class JGroupsWorkspaceStatusCache implements WorkspaceStatusCache {
 
   @Override
   public WorkspaceStatus get(String workspaceId) {
-    return delegate.get(workspaceId);
+    if (versioned == null) {
+      return delegate.get(workspaceId);
+    }
+    return nearCache.get(workspaceId);
   }
 
   @Override
   public WorkspaceStatus replace(String workspaceId, WorkspaceStatus newStatus) {
-    return delegate.replace(workspaceId, newStatus);
+    if (versioned == null) {
+      return delegate.replace(workspaceId, newStatus);
+    }
+    return nearCache.update(workspaceId, current -> current == null ? null : newStatus);
   }
 
   @Override
   public boolean replace(
       String workspaceId, WorkspaceStatus prevStatus, WorkspaceStatus newStatus) {
-    return delegate.replace(workspaceId, prevStatus, newStatus);
+    if (versioned == null) {
+      return delegate.replace(workspaceId, prevStatus, newStatus);
+    }
+    return nearCache.update(workspaceId, current -> current == prevStatus ? newStatus : current)
+        == prevStatus;
   }
 
   @Override
   public WorkspaceStatus remove(String workspaceId) {
-    return delegate.remove(workspaceId);
+    if (versioned == null) {
+      return delegate.remove(workspaceId);
+    }
+    return nearCache.update(workspaceId, current -> null);
   }
 
   @Override
   public WorkspaceStatus putIfAbsent(String workspaceId, WorkspaceStatus status) {
-    return delegate.putIfAbsent(workspaceId, status);
+    if (versioned == null) {
+      return delegate.putIfAbsent(workspaceId, status);
+    }
+    return nearCache.update(workspaceId, current -> current == null ? status : current);
   }
 
   @Override
   public Map<String, WorkspaceStatus> asMap() {
-    return new HashMap<>(delegate);
+    if (versioned == null) {
+      return new HashMap<>(delegate);
+    }
+    return nearCache.asMap();
+  }
+
+  @Override
+  public void addStatusListener(BiConsumer<String, WorkspaceStatus> listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeStatusListener(BiConsumer<String, WorkspaceStatus> listener) {
+    listeners.remove(listener);
   }
 
   /**
@@ -87,26 +155,65 @@ public class JGroupsWorkspaceStatusCache implements WorkspaceStatusCache {
    * @param listener listener instance that will receive status changed events
    */
   public void subscribe(StatusChangeListener listener) {
-    delegate.addNotifier(
-        new ReplicatedMapNotificationAdapter() {
-          @Override
-          public void entrySet(Object workspaceId, Object workspaceStatus) {
-            listener.statusChanged((String) workspaceId, (WorkspaceStatus) workspaceStatus);
-          }
-
-          @Override
-          public void entryRemoved(Object workspaceId) {
-            listener.statusChanged((String) workspaceId, WorkspaceStatus.STOPPED);
-          }
-        });
+    addStatusListener(listener::statusChanged);
   }
 
   /** Stops workspace status cache. */
   public void shutdown() {
     try {
-      delegate.close();
+      if (versioned == null) {
+        delegate.close();
+      } else {
+        versioned.close();
+      }
     } catch (IOException | RuntimeException ex) {
       LOG.error("Failed to stop workspace status cache. Cause: " + ex.getMessage());
     }
   }
+
+  /** Purges the expired tombstones of the removed statuses. */
+  @ScheduleDelay(initialDelay = 60, delay = 60)
+  void purgeTombstones() {
+    if (versioned == null) {
+      return;
+    }
+    nearCache
+        .purgeTombstones(System.currentTimeMillis() - TOMBSTONE_TTL_MS)
+        .forEach(versioned::purge);
+  }
+
+  private void notifyListeners(String workspaceId, WorkspaceStatus status) {
+    WorkspaceStatus reported = status == null ? WorkspaceStatus.STOPPED : status;
+    for (BiConsumer<String, WorkspaceStatus> listener : listeners) {
+      listener.accept(workspaceId, reported);
+    }
+  }
+
+  private class StatusChangeNotifier extends ReplicatedMapNotificationAdapter {
+    @Override
+    public void entrySet(Object workspaceId, Object workspaceStatus) {
+      notifyListeners((String) workspaceId, (WorkspaceStatus) workspaceStatus);
+    }
+
+    @Override
+    public void entryRemoved(Object workspaceId) {
+      notifyListeners((String) workspaceId, null);
+    }
+  }
+
+  private class VersionedStatusMerger extends ReplicatedMapNotificationAdapter {
+    @Override
+    public void entrySet(Object workspaceId, Object versionedStatus) {
+      nearCache.merge((String) workspaceId, (VersionedStatus) versionedStatus);
+    }
+
+    @Override
+    public void contentsSet(Map entries) {
+      // the transferred state holds the newest changes, see VersionedStatusMap
+      for (Object entry : entries.entrySet()) {
+        Map.Entry<?, ?> status = (Map.Entry<?, ?>) entry;
+        nearCache.merge((String) status.getKey(), (VersionedStatus) status.getValue());
+      }
+    }
+  }
 }
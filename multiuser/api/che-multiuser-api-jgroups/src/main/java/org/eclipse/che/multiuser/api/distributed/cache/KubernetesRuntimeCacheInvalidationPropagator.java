@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa.CachingKubernetesMachineCache;
+import org.eclipse.che.workspace.infrastructure.kubernetes.cache.jpa.CachingKubernetesRuntimeStateCache;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Propagates changes of Kubernetes runtimes cached in memory between Che Servers instances.
+ *
+ * <p>Once runtime state or machines of a workspace are changed by one Che Server, id of the
+ * workspace is sent to the other members of the cluster which drop their in-memory copies of the
+ * workspace runtime, so it is loaded from the database on the next access.
+ *
+ * <p>Nothing is propagated and the channel is not connected when the in-memory caching is disabled,
+ * i.e. {@code che.infra.kubernetes.runtime_cache.flush_period_ms} is not positive.
+ *
+ * @see CachingKubernetesMachineCache
+ * @see CachingKubernetesRuntimeStateCache
+ */
+@Singleton
+public class KubernetesRuntimeCacheInvalidationPropagator {
+
+  private static final String CHANNEL_NAME = "KubernetesRuntimeCacheInvalidation";
+  private static final Logger LOG =
+      LoggerFactory.getLogger(KubernetesRuntimeCacheInvalidationPropagator.class);
+
+  private final JChannel channel;
+
+  @Inject
+  public KubernetesRuntimeCacheInvalidationPropagator(
+      @Named("jgroups.config.file") String confFile,
+      @Named("che.infra.kubernetes.runtime_cache.flush_period_ms") long flushPeriodMs,
+      CachingKubernetesMachineCache machineCache,
+      CachingKubernetesRuntimeStateCache runtimeStateCache) {
+    if (flushPeriodMs <= 0) {
+      // runtimes are not cached in memory, so there is nothing to invalidate
+      channel = null;
+      return;
+    }
+    try {
+      channel = new JChannel(confFile);
+      channel.setDiscardOwnMessages(true);
+      channel.setReceiver(
+          new ReceiverAdapter() {
+            @Override
+            public void receive(Message msg) {
+              String workspaceId = msg.getObject();
+              machineCache.invalidate(workspaceId);
+              runtimeStateCache.invalidate(workspaceId);
+            }
+          });
+      channel.connect(CHANNEL_NAME);
+    } catch (Exception ex) {
+      throw new RuntimeException(
+          "Jgroups runtime cache invalidation channel creation failed. Cause :" + ex.getMessage());
+    }
+    machineCache.addChangeListener(this::propagate);
+    runtimeStateCache.addChangeListener(this::propagate);
+  }
+
+  /** Closes the channel, changes are not propagated after that. */
+  public void shutdown() {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  private void propagate(String workspaceId) {
+    if (!channel.isConnected()) {
+      return;
+    }
+    try {
+      channel.send(null, workspaceId);
+    } catch (Exception ex) {
+      LOG.error(
+          "Failed to propagate change of runtime of workspace '{}'. Cause: {}",
+          workspaceId,
+          ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.multiuser.api.permission.server.PermissionCheckerImpl;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Propagates changes of permissions between Che Servers instances.
+ *
+ * <p>Once permissions of an instance are changed on one Che Server, domain and instance ids are
+ * sent to the other members of the cluster which drop permission check decisions about the
+ * instance cached by their {@link PermissionCheckerImpl}.
+ *
+ * <p>Nothing is propagated and the channel is not connected when the decisions are not cached,
+ * i.e. {@code che.permission.decision_cache.size} is not positive.
+ */
+@Singleton
+public class PermissionsCacheInvalidationPropagator {
+
+  private static final String CHANNEL_NAME = "PermissionsCacheInvalidation";
+  private static final Logger LOG =
+      LoggerFactory.getLogger(PermissionsCacheInvalidationPropagator.class);
+
+  private final JChannel channel;
+
+  @Inject
+  public PermissionsCacheInvalidationPropagator(
+      @Named("jgroups.config.file") String confFile,
+      @Named("che.permission.decision_cache.size") long cacheSize,
+      PermissionCheckerImpl permissionChecker) {
+    if (cacheSize <= 0) {
+      // decisions are not cached, so there is nothing to invalidate
+      channel = null;
+      return;
+    }
+    try {
+      channel = new JChannel(confFile);
+      channel.setDiscardOwnMessages(true);
+      channel.setReceiver(
+          new ReceiverAdapter() {
+            @Override
+            public void receive(Message msg) {
+              String[] domainAndInstance = msg.getObject();
+              permissionChecker.invalidate(domainAndInstance[0], domainAndInstance[1]);
+            }
+          });
+      channel.connect(CHANNEL_NAME);
+    } catch (Exception ex) {
+      throw new RuntimeException(
+          "Jgroups permissions cache invalidation channel creation failed. Cause :"
+              + ex.getMessage());
+    }
+    permissionChecker.addInvalidationListener(this::propagate);
+  }
+
+  /** Closes the channel, changes are not propagated after that. */
+  public void shutdown() {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  private void propagate(String domain, String instance) {
+    if (!channel.isConnected()) {
+      return;
+    }
+    try {
+      channel.send(null, new String[] {domain, instance});
+    } catch (Exception ex) {
+      LOG.error(
+          "Failed to propagate change of permissions of instance '{}' of domain '{}'. Cause: {}",
+          instance,
+          domain,
+          ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import java.io.Serializable;
+import java.util.Objects;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+
+/**
+ * Workspace status stamped with the version of the change which is replicated between the members
+ * of the cluster. The status is {@code null} when it was removed, such tombstones are kept for a
+ * while so a delayed update can't bring the removed status back.
+ */
+final class VersionedStatus implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  final WorkspaceStatus status;
+  final long version;
+  final String origin;
+
+  VersionedStatus(WorkspaceStatus status, long version, String origin) {
+    this.status = status;
+    this.version = version;
+    this.origin = origin;
+  }
+
+  /**
+   * Returns true if this change supersedes the given one. Concurrent changes of different members
+   * with the same version are ordered by the member ids.
+   */
+  boolean isNewerThan(VersionedStatus other) {
+    return version > other.version
+        || (version == other.version && origin.compareTo(other.origin) > 0);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof VersionedStatus)) {
+      return false;
+    }
+    final VersionedStatus that = (VersionedStatus) obj;
+    return version == that.version
+        && Objects.equals(status, that.status)
+        && Objects.equals(origin, that.origin);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(status, version, origin);
+  }
+}
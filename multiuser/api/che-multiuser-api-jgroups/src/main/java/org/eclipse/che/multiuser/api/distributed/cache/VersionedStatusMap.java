@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import org.jgroups.JChannel;
+import org.jgroups.blocks.ReplicatedHashMap;
+
+/**
+ * Replicated map of the versioned workspace statuses which keeps the newest delivered change of
+ * each status instead of the last delivered one. So the state transferred to the joining members
+ * always holds the newest changes.
+ */
+class VersionedStatusMap extends ReplicatedHashMap<String, VersionedStatus> {
+
+  VersionedStatusMap(JChannel channel) {
+    super(channel);
+  }
+
+  @Override
+  public synchronized VersionedStatus _put(String workspaceId, VersionedStatus incoming) {
+    VersionedStatus current = get(workspaceId);
+    if (current != null && !incoming.isNewerThan(current)) {
+      return current;
+    }
+    return super._put(workspaceId, incoming);
+  }
+
+  /**
+   * Removes the tombstone from the local copy of the map unless it is already superseded. Each
+   * member purges its own tombstones, so the removal is not replicated.
+   */
+  synchronized boolean purge(String workspaceId, VersionedStatus tombstone) {
+    if (!tombstone.equals(get(workspaceId))) {
+      return false;
+    }
+    _remove(workspaceId);
+    return true;
+  }
+}
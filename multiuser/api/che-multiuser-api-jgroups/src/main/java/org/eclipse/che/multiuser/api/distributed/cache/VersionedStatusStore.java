@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+
+/**
+ * Near cache of the versioned workspace statuses used by {@link JGroupsWorkspaceStatusCache}.
+ *
+ * <p>Local changes are applied with compare-and-set semantics and passed to the replicator,
+ * replicated changes are merged by their versions. Versions are never lower than the time of the
+ * change in milliseconds, so a status created after its tombstone was purged still supersedes the
+ * tombstone on the members which haven't purged it yet.
+ */
+class VersionedStatusStore {
+
+  private final String memberId;
+  private final BiConsumer<String, VersionedStatus> replicator;
+  private final BiConsumer<String, WorkspaceStatus> listener;
+  private final ConcurrentMap<String, VersionedStatus> statuses;
+  // local time when the tombstones were applied
+  private final ConcurrentMap<String, Long> tombstoneTimes;
+
+  /**
+   * @param memberId id of the cluster member which orders concurrent changes with equal versions
+   * @param replicator consumer of the local changes
+   * @param listener consumer of the local and replicated status changes, removed statuses are
+   *     reported as {@code null}
+   */
+  VersionedStatusStore(
+      String memberId,
+      BiConsumer<String, VersionedStatus> replicator,
+      BiConsumer<String, WorkspaceStatus> listener) {
+    this.memberId = memberId;
+    this.replicator = replicator;
+    this.listener = listener;
+    this.statuses = new ConcurrentHashMap<>();
+    this.tombstoneTimes = new ConcurrentHashMap<>();
+  }
+
+  WorkspaceStatus get(String workspaceId) {
+    VersionedStatus current = statuses.get(workspaceId);
+    return current == null ? null : current.status;
+  }
+
+  Map<String, WorkspaceStatus> asMap() {
+    Map<String, WorkspaceStatus> result = new HashMap<>();
+    statuses.forEach(
+        (workspaceId, current) -> {
+          if (current.status != null) {
+            result.put(workspaceId, current.status);
+          }
+        });
+    return result;
+  }
+
+  /**
+   * Applies the change to the status atomically and replicates it if the status is changed.
+   * Returns the status which was replaced.
+   */
+  WorkspaceStatus update(String workspaceId, UnaryOperator<WorkspaceStatus> change) {
+    VersionedStatus[] previous = new VersionedStatus[1];
+    VersionedStatus updated =
+        statuses.compute(
+            workspaceId,
+            (id, current) -> {
+              previous[0] = current;
+              WorkspaceStatus status = current == null ? null : current.status;
+              WorkspaceStatus newStatus = change.apply(status);
+              if (newStatus == status) {
+                return current;
+              }
+              long version = System.currentTimeMillis();
+              if (current != null && current.version >= version) {
+                version = current.version + 1;
+              }
+              return applied(id, new VersionedStatus(newStatus, version, memberId));
+            });
+    if (updated != previous[0]) {
+      replicator.accept(workspaceId, updated);
+      listener.accept(workspaceId, updated.status);
+    }
+    return previous[0] == null ? null : previous[0].status;
+  }
+
+  /** Applies the replicated change unless a newer change is already applied. */
+  void merge(String workspaceId, VersionedStatus incoming) {
+    boolean[] changed = new boolean[1];
+    statuses.compute(
+        workspaceId,
+        (id, current) -> {
+          if (current != null && !incoming.isNewerThan(current)) {
+            return current;
+          }
+          changed[0] = (current == null ? null : current.status) != incoming.status;
+          return applied(id, incoming);
+        });
+    if (changed[0]) {
+      listener.accept(workspaceId, incoming.status);
+    }
+  }
+
+  /**
+   * Removes the tombstones of the removed statuses which were applied before the given time.
+   *
+   * @return removed tombstones
+   */
+  Map<String, VersionedStatus> purgeTombstones(long appliedBeforeMillis) {
+    Map<String, VersionedStatus> purged = new HashMap<>();
+    tombstoneTimes.forEach(
+        (workspaceId, time) -> {
+          if (time < appliedBeforeMillis) {
+            statuses.computeIfPresent(
+                workspaceId,
+                (id, current) -> {
+                  if (current.status != null || !tombstoneTimes.remove(id, time)) {
+                    return current;
+                  }
+                  purged.put(id, current);
+                  return null;
+                });
+          }
+        });
+    return purged;
+  }
+
+  /** Returns the number of kept tombstones. */
+  int getTombstones() {
+    return tombstoneTimes.size();
+  }
+
+  /** Must be called for each applied status while it is being computed. */
+  private VersionedStatus applied(String workspaceId, VersionedStatus status) {
+    if (status.status == null) {
+      tombstoneTimes.put(workspaceId, System.currentTimeMillis());
+    } else {
+      tombstoneTimes.remove(workspaceId);
+    }
+    return status;
+  }
+}
@@ -11,20 +11,46 @@
  */
 package org.eclipse.che.multiuser.api.distributed.lock;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import javax.inject.Named;
 import org.eclipse.che.api.workspace.server.WorkspaceLockService;
+import org.eclipse.che.commons.lang.concurrent.StripedLocks;
 import org.eclipse.che.commons.lang.concurrent.Unlocker;
+import org.eclipse.che.multiuser.api.distributed.lock.RemoteWriteGates.ReadHold;
+import org.jgroups.Address;
 import org.jgroups.JChannel;
+import org.jgroups.MembershipListener;
+import org.jgroups.View;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.blocks.ResponseMode;
+import org.jgroups.blocks.RpcDispatcher;
 import org.jgroups.blocks.locking.LockService;
+import org.jgroups.util.Rsp;
+import org.jgroups.util.RspList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * JGroups based implementation of {@link WorkspaceLockService}.
  *
+ * <p>Write locks are exclusive across the cluster, they are based on JGroups {@link LockService}.
+ * Read locks don't need a network round trip, they are shared between the local readers. To keep
+ * the readers of all the cluster members away while a workspace is being changed, the writer
+ * registers itself on the other members after acquiring the lock and unregisters before releasing
+ * it, see {@link RemoteWriteGates}. The writer proceeds once all the members report that they have
+ * no readers of the workspace left. Members which don't respond are asked again until they leave
+ * the cluster view, if it takes longer than {@code che.workspace.lock.remote_readers_timeout_ms}
+ * the write lock is not acquired.
+ *
  * @author Anton Korneta
  */
 @Singleton
@@ -32,15 +58,37 @@ public class JGroupsWorkspaceLockService implements WorkspaceLockService {
   private static final Logger LOG = LoggerFactory.getLogger(JGroupsWorkspaceLockService.class);
 
   private static final String CHANNEL_NAME = "WorkspaceLocks";
+  private static final long RPC_TIMEOUT_MS = 5_000;
+  private static final long MAX_POLL_DELAY_MS = 200;
 
   private final LockService lockService;
   private final JChannel channel;
+  private final RpcDispatcher dispatcher;
+  private final StripedLocks localLocks;
+  private final RemoteWriteGates gates;
+  private final long remoteReadersTimeoutNanos;
+
+  private final LongAdder readLocks;
+  private final LongAdder readLockNanos;
+  private final LongAdder writeLocks;
+  private final LongAdder writeLockNanos;
 
   @Inject
-  public JGroupsWorkspaceLockService(@Named("jgroups.config.file") String confFile) {
+  public JGroupsWorkspaceLockService(
+      @Named("jgroups.config.file") String confFile,
+      @Named("che.workspace.lock.remote_readers_timeout_ms") long remoteReadersTimeoutMs) {
+    this.localLocks = new StripedLocks(16);
+    this.gates = new RemoteWriteGates();
+    this.remoteReadersTimeoutNanos = MILLISECONDS.toNanos(remoteReadersTimeoutMs);
+    this.readLocks = new LongAdder();
+    this.readLockNanos = new LongAdder();
+    this.writeLocks = new LongAdder();
+    this.writeLockNanos = new LongAdder();
     try {
       this.channel = new JChannel(confFile);
       this.lockService = new LockService(channel);
+      this.dispatcher = new RpcDispatcher(channel, this);
+      dispatcher.setMembershipListener(new MembersListener());
       channel.connect(CHANNEL_NAME);
     } catch (Exception ex) {
       throw new RuntimeException(ex);
@@ -49,34 +97,224 @@ public class JGroupsWorkspaceLockService implements WorkspaceLockService {
 
   @Override
   public Unlocker readLock(String key) {
-    // JGroups lock service does not contain an associated pair of read/write locks, that's why
-    // there no way provide a reliable version of a read lock.
-    return writeLock(key);
+    long start = System.nanoTime();
+    Unlocker localUnlocker = localLocks.readLock(key);
+    ReadHold hold = gates.enterRead(key);
+    readLockNanos.add(System.nanoTime() - start);
+    readLocks.increment();
+    return () -> {
+      hold.release();
+      localUnlocker.unlock();
+    };
   }
 
   @Override
   public Unlocker writeLock(String key) {
+    long start = System.nanoTime();
+    Unlocker localUnlocker = localLocks.writeLock(key);
     final Lock lock = lockService.getLock(key);
-    lock.lock();
-    return new UnlockerImpl(lock);
+    try {
+      lock.lock();
+    } catch (RuntimeException ex) {
+      localUnlocker.unlock();
+      throw ex;
+    }
+    try {
+      awaitRemoteReaders(key);
+    } catch (RuntimeException ex) {
+      new WriteUnlocker(key, lock, localUnlocker).unlock();
+      throw ex;
+    }
+    writeLockNanos.add(System.nanoTime() - start);
+    writeLocks.increment();
+    return new WriteUnlocker(key, lock, localUnlocker);
+  }
+
+  /** Returns the number of acquired read locks. */
+  public long getReadLockCount() {
+    return readLocks.sum();
+  }
+
+  /** Returns the total time spent waiting for read locks. */
+  public double getReadLockTime(TimeUnit unit) {
+    return (double) readLockNanos.sum() / unit.toNanos(1);
+  }
+
+  /** Returns the number of acquired write locks. */
+  public long getWriteLockCount() {
+    return writeLocks.sum();
+  }
+
+  /** Returns the total time spent waiting for write locks. */
+  public double getWriteLockTime(TimeUnit unit) {
+    return (double) writeLockNanos.sum() / unit.toNanos(1);
+  }
+
+  /**
+   * Called through RPC by the cluster member which has acquired the write lock of the given key.
+   * Doesn't wait for the readers, so the JGroups delivery thread is not blocked.
+   *
+   * @return the number of the local readers of the key which are still there
+   */
+  public int remoteWriteLocked(String key, Address writer) {
+    return gates.enterWrite(key, writer);
+  }
+
+  /** Called through RPC by the cluster member which releases the write lock of the given key. */
+  public void remoteWriteUnlocked(String key, Address writer) {
+    gates.exitWrite(key, writer);
+  }
+
+  /**
+   * Registers this member as the writer of the key on the other cluster members and waits until
+   * none of them has readers of the key.
+   *
+   * @throws IllegalStateException if some of the members still have readers of the key or don't
+   *     respond after the timeout
+   */
+  private void awaitRemoteReaders(String key) {
+    long deadline = System.nanoTime() + remoteReadersTimeoutNanos;
+    long pollDelayMs = 10;
+    List<Address> pending = getOtherMembers();
+    while (!pending.isEmpty()) {
+      pending = callRemoteWriteLocked(pending, key);
+      if (pending.isEmpty()) {
+        return;
+      }
+      if (System.nanoTime() - deadline > 0) {
+        throw new IllegalStateException(
+            String.format(
+                "Readers of workspace '%s' are not released by cluster members %s in time",
+                key, pending));
+      }
+      try {
+        MILLISECONDS.sleep(pollDelayMs);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(
+            String.format("Interrupted while waiting for readers of workspace '%s'", key));
+      }
+      pollDelayMs = Math.min(pollDelayMs * 2, MAX_POLL_DELAY_MS);
+    }
+  }
+
+  /** Returns the members which still have readers of the key or didn't respond. */
+  private List<Address> callRemoteWriteLocked(List<Address> members, String key) {
+    RspList<Integer> responses;
+    try {
+      responses =
+          dispatcher.callRemoteMethods(
+              members,
+              new MethodCall(
+                  "remoteWriteLocked",
+                  new Object[] {key, channel.getAddress()},
+                  new Class<?>[] {String.class, Address.class}),
+              new RequestOptions(ResponseMode.GET_ALL, RPC_TIMEOUT_MS));
+    } catch (Exception ex) {
+      LOG.warn(
+          "Failed to notify cluster members about the lock of workspace '{}'. Cause: {}",
+          key,
+          ex.getMessage());
+      return retainMembers(members);
+    }
+    List<Address> pending = new ArrayList<>();
+    for (Address member : members) {
+      Rsp<Integer> rsp = responses.get(member);
+      if (rsp == null || !rsp.wasReceived() || rsp.hasException()) {
+        LOG.debug("Cluster member '{}' didn't confirm the lock of workspace '{}'", member, key);
+        pending.add(member);
+      } else if (rsp.getValue() != null && rsp.getValue() > 0) {
+        pending.add(member);
+      }
+    }
+    // members which have left the cluster don't have readers any more
+    return retainMembers(pending);
+  }
+
+  private void notifyWriteUnlocked(String key) {
+    List<Address> members = getOtherMembers();
+    if (members.isEmpty()) {
+      return;
+    }
+    try {
+      dispatcher.callRemoteMethods(
+          members,
+          new MethodCall(
+              "remoteWriteUnlocked",
+              new Object[] {key, channel.getAddress()},
+              new Class<?>[] {String.class, Address.class}),
+          new RequestOptions(ResponseMode.GET_NONE, RPC_TIMEOUT_MS));
+    } catch (Exception ex) {
+      LOG.warn(
+          "Failed to notify cluster members about the unlock of workspace '{}'. Cause: {}",
+          key,
+          ex.getMessage());
+    }
+  }
+
+  private List<Address> getOtherMembers() {
+    View view = channel.getView();
+    if (view == null || view.size() < 2) {
+      return new ArrayList<>();
+    }
+    List<Address> members = new ArrayList<>(view.getMembers());
+    members.remove(channel.getAddress());
+    return members;
   }
 
-  private class UnlockerImpl implements Unlocker {
+  private List<Address> retainMembers(List<Address> members) {
+    View view = channel.getView();
+    List<Address> retained = new ArrayList<>();
+    for (Address member : members) {
+      if (view != null && view.containsMember(member)) {
+        retained.add(member);
+      }
+    }
+    return retained;
+  }
+
+  private class WriteUnlocker implements Unlocker {
+    private final String key;
     private final Lock lock;
+    private final Unlocker localUnlocker;
 
-    public UnlockerImpl(Lock lock) {
+    WriteUnlocker(String key, Lock lock, Unlocker localUnlocker) {
+      this.key = key;
       this.lock = lock;
+      this.localUnlocker = localUnlocker;
     }
 
     @Override
     public void unlock() {
-      lock.unlock();
+      try {
+        notifyWriteUnlocked(key);
+      } finally {
+        lock.unlock();
+        localUnlocker.unlock();
+      }
+    }
+  }
+
+  private class MembersListener implements MembershipListener {
+    @Override
+    public void viewAccepted(View view) {
+      gates.viewAccepted(view);
     }
+
+    @Override
+    public void suspect(Address member) {}
+
+    @Override
+    public void block() {}
+
+    @Override
+    public void unblock() {}
   }
 
   /** Stops the workspace lock service. */
   public void shutdown() {
     try {
+      dispatcher.stop();
       channel.close();
     } catch (RuntimeException ex) {
       LOG.error("Failed to stop workspace locks service. Cause: " + ex.getMessage());
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jgroups.Address;
+import org.jgroups.View;
+
+/**
+ * Keeps the local readers of workspaces away while other cluster members hold their write locks.
+ *
+ * <p>A member which has acquired the write lock of a key registers itself as a writer of the key
+ * on each other member. From then on new local readers of the key wait, while the writer polls
+ * the number of the readers which are still there until it drops to zero. Registration never
+ * blocks, so it may be called on the JGroups delivery thread. Nested read locks of the same thread
+ * don't wait for the writers, as the writer may be waiting for the outer read lock to be released.
+ * Writers which are not members of the accepted view are discarded.
+ */
+class RemoteWriteGates {
+
+  private final ConcurrentMap<String, Gate> gates = new ConcurrentHashMap<>();
+  private final ThreadLocal<Map<String, Integer>> readHolds = ThreadLocal.withInitial(HashMap::new);
+
+  /**
+   * Enters the gate of the key as a reader, waits while there are remote writers of the key unless
+   * the current thread already holds the read lock of the key.
+   *
+   * @return the hold which must be released once the read lock is released
+   */
+  ReadHold enterRead(String key) {
+    Map<String, Integer> holds = readHolds.get();
+    Integer held = holds.get(key);
+    Gate gate = null;
+    if (held == null) {
+      gate = enterGate(key);
+      gate.enterRead();
+    }
+    holds.put(key, held == null ? 1 : held + 1);
+    return new ReadHold(key, gate);
+  }
+
+  /**
+   * Registers the remote writer of the key, so the new readers of the key wait until the writer is
+   * unregistered. Repeated registrations of the same writer are ignored.
+   *
+   * @return the number of the readers of the key which entered the gate before the writer
+   */
+  int enterWrite(String key, Address writer) {
+    Gate gate = enterGate(key);
+    if (!gate.addWriter(writer)) {
+      leaveGate(key);
+    }
+    return gate.getReaders();
+  }
+
+  /** Unregisters the remote writer of the key. */
+  void exitWrite(String key, Address writer) {
+    Gate gate = gates.get(key);
+    if (gate != null && gate.removeWriter(writer)) {
+      leaveGate(key);
+    }
+  }
+
+  /** Returns the number of the local readers of the key. */
+  int getReaders(String key) {
+    Gate gate = gates.get(key);
+    return gate == null ? 0 : gate.getReaders();
+  }
+
+  /** Discards the writers which are not members of the given view. */
+  void viewAccepted(View view) {
+    for (Map.Entry<String, Gate> entry : gates.entrySet()) {
+      for (int i = entry.getValue().discardWriters(view); i > 0; i--) {
+        leaveGate(entry.getKey());
+      }
+    }
+  }
+
+  /** Returns the number of keys which have readers or writers. */
+  int size() {
+    return gates.size();
+  }
+
+  private Gate enterGate(String key) {
+    return gates.compute(
+        key,
+        (k, gate) -> {
+          if (gate == null) {
+            gate = new Gate();
+          }
+          gate.references++;
+          return gate;
+        });
+  }
+
+  private void leaveGate(String key) {
+    gates.computeIfPresent(key, (k, gate) -> --gate.references == 0 ? null : gate);
+  }
+
+  /** Read lock hold of the key by the current thread. */
+  class ReadHold {
+    private final String key;
+    private final Gate gate;
+
+    private ReadHold(String key, Gate gate) {
+      this.key = key;
+      this.gate = gate;
+    }
+
+    /** Releases the hold, must be called by the thread which entered the gate. */
+    void release() {
+      Map<String, Integer> holds = readHolds.get();
+      int held = holds.get(key);
+      if (held == 1) {
+        holds.remove(key);
+      } else {
+        holds.put(key, held - 1);
+      }
+      if (gate != null) {
+        gate.exitRead();
+        leaveGate(key);
+      }
+    }
+  }
+
+  private static class Gate {
+
+    /** Number of the readers and writers using the gate, guarded by the gates map. */
+    int references;
+
+    private final Set<Address> writers = new HashSet<>();
+    private int readers;
+
+    synchronized void enterRead() {
+      boolean interrupted = false;
+      while (!writers.isEmpty()) {
+        try {
+          wait();
+        } catch (InterruptedException ex) {
+          interrupted = true;
+        }
+      }
+      readers++;
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    synchronized void exitRead() {
+      readers--;
+    }
+
+    synchronized int getReaders() {
+      return readers;
+    }
+
+    synchronized boolean addWriter(Address writer) {
+      return writers.add(writer);
+    }
+
+    synchronized boolean removeWriter(Address writer) {
+      if (!writers.remove(writer)) {
+        return false;
+      }
+      if (writers.isEmpty()) {
+        notifyAll();
+      }
+      return true;
+    }
+
+    /** Releases the writers which are not members of the view, returns their number. */
+    synchronized int discardWriters(View view) {
+      int size = writers.size();
+      writers.removeIf(writer -> !view.containsMember(writer));
+      if (writers.isEmpty()) {
+        notifyAll();
+      }
+      return size - writers.size();
+    }
+  }
+}
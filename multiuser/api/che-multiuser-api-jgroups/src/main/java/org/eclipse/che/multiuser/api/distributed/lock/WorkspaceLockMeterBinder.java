@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Times the acquisition of the workspace locks provided by {@link JGroupsWorkspaceLockService}.
+ * The read and write locks are timed separately, they only differ in the "mode" tag.
+ */
+@Singleton
+public class WorkspaceLockMeterBinder implements MeterBinder {
+  private static final String METRIC_NAME = "che.workspace.lock.acquire";
+
+  private final JGroupsWorkspaceLockService lockService;
+
+  @Inject
+  public WorkspaceLockMeterBinder(JGroupsWorkspaceLockService lockService) {
+    this.lockService = lockService;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionTimer.builder(
+            METRIC_NAME,
+            lockService,
+            JGroupsWorkspaceLockService::getReadLockCount,
+            service -> service.getReadLockTime(NANOSECONDS),
+            NANOSECONDS)
+        .tags("area", "workspace", "mode", "read")
+        .description("The time spent waiting for the workspace read locks")
+        .register(registry);
+    FunctionTimer.builder(
+            METRIC_NAME,
+            lockService,
+            JGroupsWorkspaceLockService::getWriteLockCount,
+            service -> service.getWriteLockTime(NANOSECONDS),
+            NANOSECONDS)
+        .tags("area", "workspace", "mode", "write")
+        .description("The time spent waiting for the cluster wide workspace write locks")
+        .register(registry);
+  }
+}
@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.subscription;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.notification.InmemoryRemoteSubscriptionStorage;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionContext;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionForwarder;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionManager;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.shared.DTO;
+import org.jgroups.Address;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.ReceiverAdapter;
+import org.jgroups.View;
+import org.slf4j.Logger;
+
+/**
+ * Keeps remote subscriptions only on the node which holds the subscriber's websocket connection and
+ * forwards events to the nodes which have subscribers of the events.
+ *
+ * <p>Subscribing and unsubscribing don't require any cluster communication unless the first
+ * subscription to a method or to a scope entry of a method, e.g. {@code workspaceId=workspace123},
+ * appears on the node or the last one disappears. Then the node sends the added and removed methods
+ * and scope entries (an interest delta) to the other members of the cluster, the changes made while
+ * a previous delta is being sent are coalesced into the next one. The whole set of methods and
+ * scope entries the node has subscribers of (an interest summary) is sent only to new members and
+ * to the members which missed a delta. Events are forwarded as DTO JSON only to the members which
+ * interests contain the event's method and the scope entry the event is addressed to, and are
+ * transmitted to the subscribers there with {@link
+ * RemoteSubscriptionManager#transmitForwarded(String, Object)}.
+ */
+@Singleton
+public class NodeLocalRemoteSubscriptionStorage extends InmemoryRemoteSubscriptionStorage
+    implements RemoteSubscriptionForwarder {
+
+  private static final Logger LOG = getLogger(NodeLocalRemoteSubscriptionStorage.class);
+
+  private static final String CHANNEL_NAME = "RemoteSubscriptionForwarding";
+
+  private final Provider<RemoteSubscriptionManager> subscriptionManager;
+  private final JChannel channel;
+  /** Method -> scope key -> scope values of the subscriptions on this node. */
+  private final Map<String, Map<String, Set<String>>> localInterests;
+  // changes of local interests and summary requests which are not sent yet
+  private final Set<Interest> pendingAdded;
+  private final Set<Interest> pendingRemoved;
+  private final Set<Address> pendingSummaryRequesters;
+  private boolean pendingSummaryBroadcast;
+  private long version;
+
+  private final ReentrantLock sendLock;
+  private final Map<Address, MemberInterests> memberInterests;
+
+  @Inject
+  public NodeLocalRemoteSubscriptionStorage(
+      @Named("jgroups.config.file") String confFile,
+      Provider<RemoteSubscriptionManager> subscriptionManager)
+      throws Exception {
+    this(new JChannel(confFile), subscriptionManager);
+    try {
+      channel.connect(CHANNEL_NAME);
+    } catch (Exception e) {
+      LOG.error("Unable to create remote subscriptions forwarding channel.", e);
+      throw e;
+    }
+  }
+
+  @VisibleForTesting
+  NodeLocalRemoteSubscriptionStorage(
+      JChannel channel, Provider<RemoteSubscriptionManager> subscriptionManager) {
+    this.subscriptionManager = subscriptionManager;
+    this.localInterests = new HashMap<>();
+    this.pendingAdded = new HashSet<>();
+    this.pendingRemoved = new HashSet<>();
+    this.pendingSummaryRequesters = new HashSet<>();
+    this.sendLock = new ReentrantLock();
+    this.memberInterests = new ConcurrentHashMap<>();
+    this.channel = channel;
+    channel.setDiscardOwnMessages(true);
+    channel.setReceiver(new ForwardingReceiver());
+  }
+
+  @Override
+  public void addSubscription(String method, RemoteSubscriptionContext remoteSubscriptionContext) {
+    super.addSubscription(method, remoteSubscriptionContext);
+    synchronized (localInterests) {
+      Map<String, Set<String>> scopes = localInterests.get(method);
+      if (scopes == null) {
+        scopes = new HashMap<>();
+        localInterests.put(method, scopes);
+        interestAdded(new Interest(method, null, null));
+      }
+      for (Map.Entry<String, String> entry : scopeOf(remoteSubscriptionContext).entrySet()) {
+        if (scopes.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).add(entry.getValue())) {
+          interestAdded(new Interest(method, entry.getKey(), entry.getValue()));
+        }
+      }
+    }
+    flush();
+  }
+
+  @Override
+  public void removeSubscription(String method, String endpointId) {
+    Set<RemoteSubscriptionContext> removed = new HashSet<>();
+    for (RemoteSubscriptionContext context : getByMethod(method)) {
+      if (Objects.equals(context.getEndpointId(), endpointId)) {
+        removed.add(context);
+      }
+    }
+    super.removeSubscription(method, endpointId);
+    synchronized (localInterests) {
+      Map<String, Set<String>> scopes = localInterests.get(method);
+      if (scopes == null) {
+        return;
+      }
+      if (getByMethod(method).isEmpty()) {
+        localInterests.remove(method);
+        for (Map.Entry<String, Set<String>> scope : scopes.entrySet()) {
+          for (String value : scope.getValue()) {
+            interestRemoved(new Interest(method, scope.getKey(), value));
+          }
+        }
+        interestRemoved(new Interest(method, null, null));
+      } else {
+        for (RemoteSubscriptionContext context : removed) {
+          for (Map.Entry<String, String> entry : scopeOf(context).entrySet()) {
+            Set<String> values = scopes.get(entry.getKey());
+            if (values != null
+                && getByScope(method, entry.getKey(), entry.getValue()).isEmpty()
+                && values.remove(entry.getValue())) {
+              interestRemoved(new Interest(method, entry.getKey(), entry.getValue()));
+              if (values.isEmpty()) {
+                scopes.remove(entry.getKey());
+              }
+            }
+          }
+        }
+      }
+    }
+    flush();
+  }
+
+  /**
+   * Returns true if there are subscribers of the given method with the given scope entry either on
+   * this node or on any other member of the cluster.
+   */
+  @Override
+  public boolean hasSubscribers(String method, String scopeKey, String scopeValue) {
+    if (super.hasSubscribers(method, scopeKey, scopeValue)) {
+      return true;
+    }
+    for (MemberInterests interests : memberInterests.values()) {
+      if (interests.isInterested(method, scopeKey, scopeValue)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void forward(String method, Object event, String scopeKey, String scopeValue) {
+    ForwardedEvent forwarded = null;
+    for (Map.Entry<Address, MemberInterests> entry : memberInterests.entrySet()) {
+      if (!entry.getValue().isInterested(method, scopeKey, scopeValue)) {
+        continue;
+      }
+      if (forwarded == null) {
+        Class<?> dtoInterface = getDtoInterface(event.getClass());
+        if (dtoInterface == null) {
+          LOG.warn(
+              "Event '{}' of method '{}' is not a DTO and can't be forwarded",
+              event.getClass(),
+              method);
+          return;
+        }
+        // serialized once for all the interested members
+        forwarded =
+            new ForwardedEvent(
+                method, dtoInterface.getName(), DtoFactory.getInstance().toJson(event));
+      }
+      send(entry.getKey(), forwarded);
+    }
+  }
+
+  /** Stops forwarding of events. */
+  public void shutdown() {
+    try {
+      channel.close();
+    } catch (RuntimeException ex) {
+      LOG.error("Failed to stop remote subscriptions forwarding. Cause: " + ex.getMessage());
+    }
+  }
+
+  // must be called while holding the lock of local interests
+  private void interestAdded(Interest interest) {
+    if (!pendingRemoved.remove(interest)) {
+      pendingAdded.add(interest);
+    }
+  }
+
+  // must be called while holding the lock of local interests
+  private void interestRemoved(Interest interest) {
+    if (!pendingAdded.remove(interest)) {
+      pendingRemoved.add(interest);
+    }
+  }
+
+  /**
+   * Sends the pending changes of local interests. Messages are sent outside of the lock of local
+   * interests and only by one thread at a time, so they leave the node in the order of their
+   * versions. If another thread is sending, the changes are left for it and sent in its next batch.
+   */
+  private void flush() {
+    do {
+      if (!sendLock.tryLock()) {
+        return;
+      }
+      try {
+        InterestSummary broadcast = null;
+        InterestSummary unicast = null;
+        Set<Address> requesters;
+        InterestDelta delta = null;
+        synchronized (localInterests) {
+          boolean changed = !pendingAdded.isEmpty() || !pendingRemoved.isEmpty();
+          if (changed) {
+            version++;
+          }
+          if (pendingSummaryBroadcast) {
+            // the summary includes all the pending changes
+            broadcast = summary();
+          } else if (changed) {
+            delta =
+                new InterestDelta(
+                    version,
+                    ImmutableSet.copyOf(pendingAdded),
+                    ImmutableSet.copyOf(pendingRemoved));
+          }
+          requesters = ImmutableSet.copyOf(pendingSummaryRequesters);
+          if (broadcast == null && !requesters.isEmpty()) {
+            unicast = summary();
+          }
+          pendingAdded.clear();
+          pendingRemoved.clear();
+          pendingSummaryRequesters.clear();
+          pendingSummaryBroadcast = false;
+        }
+        if (broadcast != null) {
+          send(null, broadcast);
+        } else {
+          // requesters get the summary first, so the delta of the same version is ignored by them
+          for (Address requester : requesters) {
+            send(requester, unicast);
+          }
+          if (delta != null) {
+            send(null, delta);
+          }
+        }
+      } finally {
+        sendLock.unlock();
+      }
+    } while (hasPendingChanges());
+  }
+
+  private boolean hasPendingChanges() {
+    synchronized (localInterests) {
+      return !pendingAdded.isEmpty()
+          || !pendingRemoved.isEmpty()
+          || !pendingSummaryRequesters.isEmpty()
+          || pendingSummaryBroadcast;
+    }
+  }
+
+  // must be called while holding the lock of local interests
+  private InterestSummary summary() {
+    ImmutableMap.Builder<String, Map<String, Set<String>>> methods = ImmutableMap.builder();
+    for (Map.Entry<String, Map<String, Set<String>>> method : localInterests.entrySet()) {
+      ImmutableMap.Builder<String, Set<String>> scopes = ImmutableMap.builder();
+      for (Map.Entry<String, Set<String>> scope : method.getValue().entrySet()) {
+        scopes.put(scope.getKey(), ImmutableSet.copyOf(scope.getValue()));
+      }
+      methods.put(method.getKey(), scopes.build());
+    }
+    return new InterestSummary(version, methods.build());
+  }
+
+  private void send(Address destination, Serializable message) {
+    if (!channel.isConnected()) {
+      return;
+    }
+    try {
+      channel.send(destination, message);
+    } catch (Exception ex) {
+      LOG.error("Failed to send remote subscriptions message. Cause: {}", ex.getMessage());
+    }
+  }
+
+  private static Map<String, String> scopeOf(RemoteSubscriptionContext context) {
+    return context.getScope() == null ? Collections.emptyMap() : context.getScope();
+  }
+
+  private static Class<?> getDtoInterface(Class<?> type) {
+    for (Class<?> candidate = type; candidate != null; candidate = candidate.getSuperclass()) {
+      for (Class<?> implemented : candidate.getInterfaces()) {
+        if (implemented.isAnnotationPresent(DTO.class)) {
+          return implemented;
+        }
+      }
+    }
+    return null;
+  }
+
+  private class ForwardingReceiver extends ReceiverAdapter {
+    @Override
+    public void receive(Message msg) {
+      Object message = msg.getObject();
+      if (message instanceof InterestSummary) {
+        InterestSummary summary = (InterestSummary) message;
+        memberInterests.merge(
+            msg.getSrc(),
+            new MemberInterests(summary),
+            (current, received) -> received.version > current.version ? received : current);
+      } else if (message instanceof InterestDelta) {
+        InterestDelta delta = (InterestDelta) message;
+        MemberInterests interests =
+            memberInterests.computeIfAbsent(msg.getSrc(), src -> new MemberInterests());
+        if (!interests.apply(delta)) {
+          // some of the previous changes are missed, the whole summary is needed
+          send(msg.getSrc(), new SummaryRequest());
+        }
+      } else if (message instanceof SummaryRequest) {
+        synchronized (localInterests) {
+          pendingSummaryRequesters.add(msg.getSrc());
+        }
+        flush();
+      } else if (message instanceof ForwardedEvent) {
+        ForwardedEvent forwarded = (ForwardedEvent) message;
+        try {
+          Class<?> dtoInterface =
+              Class.forName(forwarded.dtoInterface, true, getClass().getClassLoader());
+          subscriptionManager
+              .get()
+              .transmitForwarded(
+                  forwarded.method,
+                  DtoFactory.getInstance().createDtoFromJson(forwarded.json, dtoInterface));
+        } catch (ClassNotFoundException | RuntimeException ex) {
+          LOG.error(
+              "Failed to transmit event of method '{}' forwarded by '{}'. Cause: {}",
+              forwarded.method,
+              msg.getSrc(),
+              ex.getMessage());
+        }
+      }
+    }
+
+    @Override
+    public void viewAccepted(View view) {
+      memberInterests.keySet().retainAll(view.getMembers());
+      // new members don't know interests of this node yet
+      synchronized (localInterests) {
+        pendingSummaryBroadcast = true;
+      }
+      flush();
+    }
+  }
+
+  /** Interests of another member of the cluster, built from its summaries and deltas. */
+  private static class MemberInterests {
+    private final Map<String, Map<String, Set<String>>> methods;
+    private long version;
+
+    private MemberInterests() {
+      this.methods = new ConcurrentHashMap<>();
+    }
+
+    private MemberInterests(InterestSummary summary) {
+      this();
+      this.version = summary.version;
+      for (Map.Entry<String, Map<String, Set<String>>> method : summary.methods.entrySet()) {
+        Map<String, Set<String>> scopes = new ConcurrentHashMap<>();
+        for (Map.Entry<String, Set<String>> scope : method.getValue().entrySet()) {
+          Set<String> values = ConcurrentHashMap.newKeySet();
+          values.addAll(scope.getValue());
+          scopes.put(scope.getKey(), values);
+        }
+        methods.put(method.getKey(), scopes);
+      }
+    }
+
+    /**
+     * Applies the delta if it directly follows the known interests, returns false if some deltas
+     * between them were missed.
+     */
+    private synchronized boolean apply(InterestDelta delta) {
+      if (delta.version <= version) {
+        return true;
+      }
+      if (delta.version != version + 1) {
+        return false;
+      }
+      for (Interest interest : delta.removed) {
+        if (interest.scopeKey == null) {
+          methods.remove(interest.method);
+        } else {
+          Map<String, Set<String>> scopes = methods.get(interest.method);
+          Set<String> values = scopes == null ? null : scopes.get(interest.scopeKey);
+          if (values != null) {
+            values.remove(interest.scopeValue);
+          }
+        }
+      }
+      for (Interest interest : delta.added) {
+        Map<String, Set<String>> scopes =
+            methods.computeIfAbsent(interest.method, m -> new ConcurrentHashMap<>());
+        if (interest.scopeKey != null) {
+          scopes
+              .computeIfAbsent(interest.scopeKey, k -> ConcurrentHashMap.newKeySet())
+              .add(interest.scopeValue);
+        }
+      }
+      version = delta.version;
+      return true;
+    }
+
+    private boolean isInterested(String method, String scopeKey, String scopeValue) {
+      Map<String, Set<String>> scopes = methods.get(method);
+      if (scopes == null) {
+        return false;
+      }
+      return scopeKey == null
+          || scopes.getOrDefault(scopeKey, Collections.emptySet()).contains(scopeValue);
+    }
+  }
+
+  /** A method, or a scope entry of a method, this node has subscribers of. */
+  private static class Interest implements Serializable {
+    private final String method;
+    private final String scopeKey;
+    private final String scopeValue;
+
+    private Interest(String method, String scopeKey, String scopeValue) {
+      this.method = method;
+      this.scopeKey = scopeKey;
+      this.scopeValue = scopeValue;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Interest)) {
+        return false;
+      }
+      final Interest that = (Interest) obj;
+      return Objects.equals(method, that.method)
+          && Objects.equals(scopeKey, that.scopeKey)
+          && Objects.equals(scopeValue, that.scopeValue);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(method, scopeKey, scopeValue);
+    }
+  }
+
+  private static class InterestSummary implements Serializable {
+    private final long version;
+    /** Method -> scope key -> scope values of the subscriptions on the member. */
+    private final Map<String, Map<String, Set<String>>> methods;
+
+    private InterestSummary(long version, Map<String, Map<String, Set<String>>> methods) {
+      this.version = version;
+      this.methods = methods;
+    }
+  }
+
+  private static class InterestDelta implements Serializable {
+    private final long version;
+    private final Set<Interest> added;
+    private final Set<Interest> removed;
+
+    private InterestDelta(long version, Set<Interest> added, Set<Interest> removed) {
+      this.version = version;
+      this.added = added;
+      this.removed = removed;
+    }
+  }
+
+  private static class SummaryRequest implements Serializable {}
+
+  private static class ForwardedEvent implements Serializable {
+    private final String method;
+    private final String dtoInterface;
+    private final String json;
+
+    private ForwardedEvent(String method, String dtoInterface, String json) {
+      this.method = method;
+      this.dtoInterface = dtoInterface;
+      this.json = json;
+    }
+  }
+}
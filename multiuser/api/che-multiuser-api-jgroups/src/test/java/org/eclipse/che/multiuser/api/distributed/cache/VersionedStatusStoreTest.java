@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.cache;
+
+import static java.util.Collections.singletonMap;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.function.BiConsumer;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link VersionedStatusStore}. */
+@Listeners(MockitoTestNGListener.class)
+public class VersionedStatusStoreTest {
+
+  private static final String WORKSPACE_ID = "workspace123";
+  private static final String MEMBER_ID = "member-b";
+
+  @Mock private BiConsumer<String, VersionedStatus> replicator;
+  @Mock private BiConsumer<String, WorkspaceStatus> listener;
+
+  private VersionedStatusStore store;
+
+  @BeforeMethod
+  public void setUp() {
+    store = new VersionedStatusStore(MEMBER_ID, replicator, listener);
+  }
+
+  @Test
+  public void shouldReplicateAndNotifyLocalChanges() {
+    assertNull(store.update(WORKSPACE_ID, current -> STARTING));
+
+    ArgumentCaptor<VersionedStatus> captor = ArgumentCaptor.forClass(VersionedStatus.class);
+    verify(replicator).accept(any(), captor.capture());
+    assertEquals(captor.getValue().status, STARTING);
+    assertEquals(captor.getValue().origin, MEMBER_ID);
+    verify(listener).accept(WORKSPACE_ID, STARTING);
+    assertEquals(store.get(WORKSPACE_ID), STARTING);
+  }
+
+  @Test
+  public void shouldNotReplicateUnchangedStatus() {
+    store.update(WORKSPACE_ID, current -> current);
+
+    verify(replicator, never()).accept(any(), any());
+    verify(listener, never()).accept(any(), any());
+  }
+
+  @Test
+  public void shouldKeepNewerStatusWhenOlderChangeIsDeliveredLater() {
+    store.merge(WORKSPACE_ID, new VersionedStatus(RUNNING, 2, "member-a"));
+    store.merge(WORKSPACE_ID, new VersionedStatus(STARTING, 1, "member-a"));
+
+    assertEquals(store.get(WORKSPACE_ID), RUNNING);
+    verify(listener, never()).accept(WORKSPACE_ID, STARTING);
+  }
+
+  @Test
+  public void shouldOrderConcurrentChangesWithSameVersionByMember() {
+    store.merge(WORKSPACE_ID, new VersionedStatus(RUNNING, 1, "member-b"));
+    store.merge(WORKSPACE_ID, new VersionedStatus(STOPPING, 1, "member-a"));
+
+    assertEquals(store.get(WORKSPACE_ID), RUNNING);
+  }
+
+  @Test
+  public void shouldIncrementVersionOfLocalChangeOverReplicatedOne() {
+    long future = System.currentTimeMillis() + 60_000;
+    store.merge(WORKSPACE_ID, new VersionedStatus(STARTING, future, "member-z"));
+
+    store.update(WORKSPACE_ID, current -> RUNNING);
+
+    ArgumentCaptor<VersionedStatus> captor = ArgumentCaptor.forClass(VersionedStatus.class);
+    verify(replicator).accept(any(), captor.capture());
+    assertEquals(captor.getValue().version, future + 1);
+  }
+
+  @Test
+  public void shouldKeepTombstoneSoDelayedChangeDoesNotRestoreRemovedStatus() {
+    store.merge(WORKSPACE_ID, new VersionedStatus(null, 3, "member-a"));
+    store.merge(WORKSPACE_ID, new VersionedStatus(RUNNING, 2, "member-a"));
+
+    assertNull(store.get(WORKSPACE_ID));
+    assertTrue(store.asMap().isEmpty());
+    assertEquals(store.getTombstones(), 1);
+  }
+
+  @Test
+  public void shouldNotPurgeFreshTombstones() {
+    store.update(WORKSPACE_ID, current -> STARTING);
+    store.update(WORKSPACE_ID, current -> null);
+
+    assertTrue(store.purgeTombstones(System.currentTimeMillis() - 60_000).isEmpty());
+    assertEquals(store.getTombstones(), 1);
+  }
+
+  @Test
+  public void shouldPurgeExpiredTombstones() {
+    VersionedStatus tombstone = new VersionedStatus(null, 3, "member-a");
+    store.merge(WORKSPACE_ID, tombstone);
+
+    assertEquals(
+        store.purgeTombstones(System.currentTimeMillis() + 1),
+        singletonMap(WORKSPACE_ID, tombstone));
+    assertEquals(store.getTombstones(), 0);
+    assertNull(store.get(WORKSPACE_ID));
+  }
+
+  @Test
+  public void shouldForgetTombstoneWhenStatusIsCreatedAgain() {
+    store.merge(WORKSPACE_ID, new VersionedStatus(null, 3, "member-a"));
+    store.update(WORKSPACE_ID, current -> current == null ? STARTING : current);
+
+    assertEquals(store.getTombstones(), 0);
+    assertTrue(store.purgeTombstones(System.currentTimeMillis() + 1).isEmpty());
+    assertEquals(store.get(WORKSPACE_ID), STARTING);
+  }
+
+  @Test
+  public void shouldSupersedePurgedTombstoneWithStatusCreatedLater() {
+    long removed = System.currentTimeMillis() - JGroupsWorkspaceStatusCache.TOMBSTONE_TTL_MS;
+    VersionedStatus tombstone = new VersionedStatus(null, removed, "member-z");
+    store.merge(WORKSPACE_ID, tombstone);
+    store.purgeTombstones(System.currentTimeMillis() + 1);
+
+    store.update(WORKSPACE_ID, current -> STARTING);
+
+    ArgumentCaptor<VersionedStatus> captor = ArgumentCaptor.forClass(VersionedStatus.class);
+    verify(replicator).accept(any(), captor.capture());
+    assertTrue(captor.getValue().isNewerThan(tombstone));
+  }
+}
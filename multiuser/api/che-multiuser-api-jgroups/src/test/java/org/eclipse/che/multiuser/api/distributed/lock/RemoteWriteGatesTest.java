@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.lock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.che.multiuser.api.distributed.lock.RemoteWriteGates.ReadHold;
+import org.jgroups.Address;
+import org.jgroups.View;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/** Tests {@link RemoteWriteGates}. */
+@Listeners(MockitoTestNGListener.class)
+public class RemoteWriteGatesTest {
+
+  private static final String KEY = "workspace123";
+
+  @Mock private Address writer;
+  @Mock private View view;
+
+  private RemoteWriteGates gates;
+  private ExecutorService executor;
+
+  @BeforeMethod
+  public void setUp() {
+    gates = new RemoteWriteGates();
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldReportReadersToWriterWithoutWaiting() {
+    ReadHold hold = gates.enterRead(KEY);
+
+    assertEquals(gates.enterWrite(KEY, writer), 1);
+    hold.release();
+    assertEquals(gates.enterWrite(KEY, writer), 0);
+
+    gates.exitWrite(KEY, writer);
+    assertEquals(gates.size(), 0);
+  }
+
+  @Test
+  public void shouldBlockNewReadersWhileRemoteWriterIsRegistered() throws Exception {
+    gates.enterWrite(KEY, writer);
+
+    Future<?> reader = executor.submit(() -> gates.enterRead(KEY).release());
+    Thread.sleep(200);
+    assertFalse(reader.isDone());
+
+    gates.exitWrite(KEY, writer);
+    reader.get(5, SECONDS);
+    assertEquals(gates.size(), 0);
+  }
+
+  @Test
+  public void shouldNotBlockNestedReadersOfTheSameThread() {
+    ReadHold outer = gates.enterRead(KEY);
+    gates.enterWrite(KEY, writer);
+
+    ReadHold nested = gates.enterRead(KEY);
+    nested.release();
+    assertEquals(gates.getReaders(KEY), 1);
+
+    outer.release();
+    assertEquals(gates.getReaders(KEY), 0);
+    gates.exitWrite(KEY, writer);
+    assertEquals(gates.size(), 0);
+  }
+
+  @Test
+  public void shouldReleaseReadersWhenWriterLeavesCluster() throws Exception {
+    when(view.containsMember(writer)).thenReturn(false);
+    gates.enterWrite(KEY, writer);
+    Future<?> reader = executor.submit(() -> gates.enterRead(KEY).release());
+    Thread.sleep(200);
+    assertFalse(reader.isDone());
+
+    gates.viewAccepted(view);
+
+    reader.get(5, SECONDS);
+    assertEquals(gates.size(), 0);
+  }
+
+  @Test
+  public void shouldIgnoreRepeatedRegistrationsOfWriter() throws Exception {
+    gates.enterWrite(KEY, writer);
+    gates.enterWrite(KEY, writer);
+
+    gates.exitWrite(KEY, writer);
+
+    executor.submit(() -> gates.enterRead(KEY).release()).get(500, MILLISECONDS);
+    assertEquals(gates.size(), 0);
+  }
+}
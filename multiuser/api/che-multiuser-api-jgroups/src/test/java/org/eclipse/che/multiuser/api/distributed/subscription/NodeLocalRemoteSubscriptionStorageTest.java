@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.distributed.subscription;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.Serializable;
+import java.util.List;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionContext;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionManager;
+import org.eclipse.che.api.core.rest.shared.dto.ServiceError;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.jgroups.Address;
+import org.jgroups.JChannel;
+import org.jgroups.Message;
+import org.jgroups.Receiver;
+import org.jgroups.View;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+/**
+ * Tests {@link NodeLocalRemoteSubscriptionStorage} with two nodes, the messages sent by one node
+ * are delivered to the other one explicitly.
+ */
+@Listeners(MockitoTestNGListener.class)
+public class NodeLocalRemoteSubscriptionStorageTest {
+
+  private static final String METHOD = "workspace/statusChanged";
+  private static final String SCOPE_KEY = "workspaceId";
+
+  @Mock private JChannel channel;
+  @Mock private JChannel otherChannel;
+  @Mock private Address address;
+  @Mock private Address otherAddress;
+  @Mock private RemoteSubscriptionManager otherSubscriptionManager;
+  @Mock private View view;
+
+  private NodeLocalRemoteSubscriptionStorage storage;
+  private NodeLocalRemoteSubscriptionStorage otherStorage;
+  private Receiver receiver;
+  private Receiver otherReceiver;
+  private ServiceError event;
+
+  @BeforeMethod
+  public void setUp() {
+    lenient().when(channel.isConnected()).thenReturn(true);
+    lenient().when(otherChannel.isConnected()).thenReturn(true);
+
+    storage = new NodeLocalRemoteSubscriptionStorage(channel, () -> null);
+    otherStorage =
+        new NodeLocalRemoteSubscriptionStorage(otherChannel, () -> otherSubscriptionManager);
+    receiver = captureReceiver(channel);
+    otherReceiver = captureReceiver(otherChannel);
+
+    event = DtoFactory.newDto(ServiceError.class).withMessage("workspace123 is running");
+  }
+
+  @Test
+  public void shouldForwardEventOnlyToMembersWithSubscribersOfItsScope() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    deliverSummaries();
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace234");
+    verify(channel, never()).send(eq(otherAddress), any(Serializable.class));
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace123");
+    verify(channel).send(eq(otherAddress), any(Serializable.class));
+  }
+
+  @Test
+  public void shouldForwardEventWithoutScopeToMembersWithSubscribersOfMethod() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    deliverSummaries();
+
+    storage.forward("other/method", event, null, null);
+    verify(channel, never()).send(eq(otherAddress), any(Serializable.class));
+
+    storage.forward(METHOD, event, null, null);
+    verify(channel).send(eq(otherAddress), any(Serializable.class));
+  }
+
+  @Test
+  public void shouldNotForwardEventWhichIsNotDto() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    deliverSummaries();
+
+    storage.forward(METHOD, "workspace123 is running", SCOPE_KEY, "workspace123");
+
+    verify(channel, never()).send(eq(otherAddress), any(Serializable.class));
+  }
+
+  @Test
+  public void shouldSendDeltaOnlyWhenScopesOfSubscriptionsChange() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    otherStorage.addSubscription(METHOD, subscription("endpoint2", "workspace123"));
+    assertEquals(sent(otherChannel, null).size(), 1);
+
+    otherStorage.removeSubscription(METHOD, "endpoint1");
+    assertEquals(sent(otherChannel, null).size(), 1);
+
+    otherStorage.removeSubscription(METHOD, "endpoint2");
+    assertEquals(sent(otherChannel, null).size(), 2);
+
+    deliverSummaries();
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace123");
+    verify(channel, never()).send(eq(otherAddress), any(Serializable.class));
+  }
+
+  @Test
+  public void shouldApplyRemovedScopesOfDelta() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    otherStorage.addSubscription(METHOD, subscription("endpoint2", "workspace234"));
+    otherStorage.removeSubscription(METHOD, "endpoint1");
+    deliverSummaries();
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace123");
+    verify(channel, never()).send(eq(otherAddress), any(Serializable.class));
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace234");
+    verify(channel).send(eq(otherAddress), any(Serializable.class));
+  }
+
+  @Test
+  public void shouldRequestSummaryWhenDeltaIsMissed() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    otherStorage.addSubscription(METHOD, subscription("endpoint2", "workspace234"));
+    List<Serializable> deltas = sent(otherChannel, null);
+    assertEquals(deltas.size(), 2);
+
+    // the latest delta is received before the previous one
+    deliver(receiver, otherAddress, deltas.get(1));
+    List<Serializable> requests = sent(channel, otherAddress);
+    assertEquals(requests.size(), 1);
+
+    deliver(otherReceiver, address, requests.get(0));
+    List<Serializable> summaries = sent(otherChannel, address);
+    assertEquals(summaries.size(), 1);
+    deliver(receiver, otherAddress, summaries.get(0));
+    // outdated delta is ignored
+    deliver(receiver, otherAddress, deltas.get(0));
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace123");
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace234");
+    assertEquals(sent(channel, otherAddress).size(), 3);
+  }
+
+  @Test
+  public void shouldFindSubscribersOfOtherMembers() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    deliverSummaries();
+
+    assertTrue(storage.hasSubscribers(METHOD, SCOPE_KEY, "workspace123"));
+    assertFalse(storage.hasSubscribers(METHOD, SCOPE_KEY, "workspace234"));
+    assertTrue(otherStorage.hasSubscribers(METHOD, SCOPE_KEY, "workspace123"));
+  }
+
+  @Test
+  public void shouldForgetInterestsOfMembersWhichLeftCluster() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    deliverSummaries();
+    when(view.getMembers()).thenReturn(singletonList(address));
+
+    receiver.viewAccepted(view);
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace123");
+    verify(channel, never()).send(eq(otherAddress), any(Serializable.class));
+    // interests of this node are sent to the new view members
+    verify(channel).send(isNull(), any(Serializable.class));
+  }
+
+  @Test
+  public void shouldTransmitForwardedEventToSubscribersOfReceivingMember() throws Exception {
+    otherStorage.addSubscription(METHOD, subscription("endpoint1", "workspace123"));
+    deliverSummaries();
+
+    storage.forward(METHOD, event, SCOPE_KEY, "workspace123");
+    deliver(otherReceiver, address, sent(channel, otherAddress).get(0));
+
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(otherSubscriptionManager).transmitForwarded(eq(METHOD), captor.capture());
+    assertEquals(((ServiceError) captor.getValue()).getMessage(), event.getMessage());
+  }
+
+  private void deliverSummaries() throws Exception {
+    for (Serializable message : sent(otherChannel, null)) {
+      deliver(receiver, otherAddress, message);
+    }
+  }
+
+  private static List<Serializable> sent(JChannel channel, Address destination) throws Exception {
+    ArgumentCaptor<Serializable> captor = ArgumentCaptor.forClass(Serializable.class);
+    verify(channel, atLeast(0))
+        .send(destination == null ? isNull() : eq(destination), captor.capture());
+    return captor.getAllValues();
+  }
+
+  private static void deliver(Receiver receiver, Address source, Serializable message) {
+    Message msg = new Message(null, message);
+    msg.setSrc(source);
+    receiver.receive(msg);
+  }
+
+  private static Receiver captureReceiver(JChannel channel) {
+    ArgumentCaptor<Receiver> captor = ArgumentCaptor.forClass(Receiver.class);
+    verify(channel).setReceiver(captor.capture());
+    return captor.getValue();
+  }
+
+  private static RemoteSubscriptionContext subscription(String endpointId, String workspaceId) {
+    return new RemoteSubscriptionContext(endpointId, ImmutableMap.of(SCOPE_KEY, workspaceId));
+  }
+}
@@ -17,6 +17,7 @@ import static org.eclipse.che.multiuser.api.permission.server.AbstractPermission
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -38,6 +39,7 @@ import org.eclipse.che.commons.lang.concurrent.Unlocker;
 import org.eclipse.che.commons.subject.Subject;
 import org.eclipse.che.multiuser.api.permission.server.event.PermissionsCreatedEvent;
 import org.eclipse.che.multiuser.api.permission.server.event.PermissionsRemovedEvent;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsUpdatedEvent;
 import org.eclipse.che.multiuser.api.permission.server.model.impl.AbstractPermissions;
 import org.eclipse.che.multiuser.api.permission.server.spi.PermissionsDao;
 import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
@@ -197,6 +199,35 @@ public class PermissionsManager {
         && getPermissionsDao(domainId).exists(userId, instanceId, action);
   }
 
+  /**
+   * Returns those of the specified instances for which the user has the permission to perform the
+   * action. All the instances are checked with a single request to the storage.
+   *
+   * @param userId user id
+   * @param domainId domain id
+   * @param instanceIds ids of instances to check
+   * @param action action name
+   * @return ids of instances for which the permission exists
+   * @throws NotFoundException when given domain is unsupported
+   * @throws ServerException when any other error occurs during permissions fetching
+   */
+  public Set<String> getPermittedInstances(
+      String userId, String domainId, Collection<String> instanceIds, String action)
+      throws ServerException, NotFoundException {
+    final Set<String> permitted = new HashSet<>();
+    if (instanceIds.isEmpty() || !getDomain(domainId).getAllowedActions().contains(action)) {
+      return permitted;
+    }
+    final Set<String> requested = new HashSet<>(instanceIds);
+    for (AbstractPermissions permissions : getPermissionsDao(domainId).getByUser(userId)) {
+      if (requested.contains(permissions.getInstanceId())
+          && permissions.getActions().contains(action)) {
+        permitted.add(permissions.getInstanceId());
+      }
+    }
+    return permitted;
+  }
+
   /**
    * Checks supporting all specified actions by domain with specified id.
    *
@@ -237,6 +268,11 @@ public class PermissionsManager {
       Subject subject = EnvironmentContext.getCurrent().getSubject();
       final String initiator = subject.isAnonymous() ? null : subject.getUserName();
       eventService.publish(new PermissionsCreatedEvent(initiator, permissions));
+    } else if (!new HashSet<>(existing.get().getActions())
+        .equals(new HashSet<>(permission.getActions()))) {
+      Subject subject = EnvironmentContext.getCurrent().getSubject();
+      final String initiator = subject.isAnonymous() ? null : subject.getUserName();
+      eventService.publish(new PermissionsUpdatedEvent(initiator, permissions));
     }
   }
 
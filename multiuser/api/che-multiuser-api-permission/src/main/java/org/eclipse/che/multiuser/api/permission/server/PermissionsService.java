@@ -20,6 +20,7 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -114,6 +115,37 @@ public class PermissionsService extends Service {
     permissionsManager.storePermission(permissionsDto);
   }
 
+  @GET
+  @Path("/instance")
+  @Produces(APPLICATION_JSON)
+  @ApiOperation(
+      value = "Get permissions of current user related to specified instance in all domains",
+      response = PermissionsDto.class,
+      responseContainer = "List")
+  @ApiResponses({
+    @ApiResponse(code = 200, message = "The permissions successfully fetched"),
+    @ApiResponse(code = 400, message = "Missed required parameters, parameters are not valid"),
+    @ApiResponse(code = 500, message = "Internal server error occurred during permissions fetching")
+  })
+  public List<PermissionsDto> getCurrentUsersInstancePermissions(
+      @ApiParam(value = "Instance id to retrieve user's permissions", required = true)
+          @QueryParam("instance")
+          @Required
+          String instance)
+      throws BadRequestException, ServerException {
+    checkArgument(!isNullOrEmpty(instance), "Instance required");
+    final String userId = EnvironmentContext.getCurrent().getSubject().getUserId();
+    final List<PermissionsDto> result = new ArrayList<>();
+    for (PermissionsDomain domain : permissionsManager.getDomains()) {
+      try {
+        result.add(toDto(permissionsManager.get(userId, domain.getId(), instance)));
+      } catch (NotFoundException | ConflictException ignored) {
+        // user has no permissions in this domain or the domain does not accept instances
+      }
+    }
+    return result;
+  }
+
   @GET
   @Path("/{domain}")
   @Produces(APPLICATION_JSON)
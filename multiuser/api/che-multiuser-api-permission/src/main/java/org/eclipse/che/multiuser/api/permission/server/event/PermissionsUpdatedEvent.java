@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.multiuser.api.permission.server.event;
+
+import static org.eclipse.che.multiuser.api.permission.shared.event.EventType.PERMISSIONS_UPDATED;
+
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.multiuser.api.permission.shared.event.EventType;
+import org.eclipse.che.multiuser.api.permission.shared.event.PermissionsEvent;
+import org.eclipse.che.multiuser.api.permission.shared.model.Permissions;
+
+/** Defines event of changing actions of existing permissions. */
+public class PermissionsUpdatedEvent implements PermissionsEvent {
+
+  private final String initiator;
+  private final Permissions permissions;
+
+  public PermissionsUpdatedEvent(String initiator, Permissions permissions) {
+    this.initiator = initiator;
+    this.permissions = permissions;
+  }
+
+  @Override
+  public EventType getType() {
+    return PERMISSIONS_UPDATED;
+  }
+
+  /** Returns permissions with the new actions. */
+  @Override
+  public Permissions getPermissions() {
+    return permissions;
+  }
+
+  @Nullable
+  @Override
+  public String getInitiator() {
+    return initiator;
+  }
+}
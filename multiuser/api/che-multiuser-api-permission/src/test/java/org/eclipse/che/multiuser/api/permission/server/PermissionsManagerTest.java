@@ -38,6 +38,7 @@ import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.multiuser.api.permission.server.event.PermissionsUpdatedEvent;
 import org.eclipse.che.multiuser.api.permission.server.model.impl.AbstractPermissions;
 import org.eclipse.che.multiuser.api.permission.server.spi.PermissionsDao;
 import org.eclipse.che.multiuser.api.permission.shared.dto.PermissionsDto;
@@ -247,6 +248,40 @@ public class PermissionsManagerTest {
     assertFalse(permissionsManager.exists("user", "test", "test123", "update"));
   }
 
+  @Test
+  public void shouldReturnPermittedInstancesUsingSingleStorageRequest() throws Exception {
+    doReturn(
+            asList(
+                new TestPermissionsImpl("user", "test", "test1", singletonList("use")),
+                new TestPermissionsImpl("user", "test", "test2", singletonList("read")),
+                new TestPermissionsImpl("user", "test", "test3", singletonList("use"))))
+        .when(permissionsDao)
+        .getByUser("user");
+
+    assertEquals(
+        permissionsManager.getPermittedInstances("user", "test", asList("test1", "test2"), "use"),
+        ImmutableSet.of("test1"));
+    verify(permissionsDao).getByUser("user");
+    verify(permissionsDao, never()).exists(anyString(), anyString(), anyString());
+  }
+
+  @Test
+  public void shouldPublishEventWhenActionsOfExistingPermissionsAreChanged() throws Exception {
+    final Permissions permissions =
+        DtoFactory.newDto(PermissionsDto.class)
+            .withUserId("user")
+            .withDomainId("test")
+            .withInstanceId("test123")
+            .withActions(asList(SET_PERMISSIONS, "write"));
+    final TestPermissionsImpl existing =
+        new TestPermissionsImpl("user", "test", "test123", singletonList(SET_PERMISSIONS));
+    when(permissionsDao.store(any(TestPermissionsImpl.class))).thenReturn(Optional.of(existing));
+
+    permissionsManager.storePermission(permissions);
+
+    verify(eventService).publish(any(PermissionsUpdatedEvent.class));
+  }
+
   @Test
   public void shouldBeAbleToDomains() throws Exception {
     final List<AbstractPermissionsDomain> domains = permissionsManager.getDomains();
@@ -58,7 +58,8 @@ public class MultiUserWorkspaceActivityManagerTest {
             eventService,
             accountManager,
             resourceManager,
-            DEFAULT_TIMEOUT);
+            DEFAULT_TIMEOUT,
+            -1);
 
     when(account.getId()).thenReturn("account123");
     when(accountManager.getByName(anyString())).thenReturn(account);
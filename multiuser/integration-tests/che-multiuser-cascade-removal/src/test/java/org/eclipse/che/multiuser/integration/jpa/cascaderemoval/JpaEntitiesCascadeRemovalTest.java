@@ -59,6 +59,8 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.InmemoryRemoteSubscriptionStorage;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionStorage;
 import org.eclipse.che.api.factory.server.jpa.FactoryJpaModule;
 import org.eclipse.che.api.factory.server.model.impl.FactoryImpl;
 import org.eclipse.che.api.factory.server.spi.FactoryDao;
@@ -247,6 +249,12 @@ public class JpaEntitiesCascadeRemovalTest {
                 MapBinder.newMapBinder(binder(), String.class, InternalEnvironmentFactory.class);
                 bind(PermissionsManager.class);
                 bind(PermissionChecker.class).to(PermissionCheckerImpl.class);
+                bindConstant()
+                    .annotatedWith(Names.named("che.permission.decision_cache.size"))
+                    .to(0L);
+                bindConstant()
+                    .annotatedWith(Names.named("che.permission.decision_cache.ttl_sec"))
+                    .to(0L);
                 bind(AccountManager.class);
                 bind(Boolean.class)
                     .annotatedWith(Names.named("che.workspace.auto_snapshot"))
@@ -288,6 +296,13 @@ public class JpaEntitiesCascadeRemovalTest {
                                             RamResourceType.ID, 1024, RamResourceType.UNIT)))));
 
                 bindConstant().annotatedWith(Names.named("che.workspace.probe_pool_size")).to(1);
+                bindConstant()
+                    .annotatedWith(Names.named("che.workspace.recovery.parallelism"))
+                    .to(1);
+                bindConstant()
+                    .annotatedWith(Names.named("che.workspace.recovery.max_rate_per_second"))
+                    .to(0D);
+                bind(RemoteSubscriptionStorage.class).to(InmemoryRemoteSubscriptionStorage.class);
               }
             });
 
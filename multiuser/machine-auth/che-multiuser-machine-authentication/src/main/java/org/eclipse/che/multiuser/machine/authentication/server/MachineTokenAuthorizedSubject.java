@@ -11,6 +11,11 @@
  */
 package org.eclipse.che.multiuser.machine.authentication.server;
 
+import static java.util.Collections.singleton;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import org.eclipse.che.commons.subject.Subject;
 import org.eclipse.che.multiuser.api.permission.server.AuthorizedSubject;
 import org.eclipse.che.multiuser.api.permission.server.PermissionChecker;
@@ -40,4 +45,16 @@ public class MachineTokenAuthorizedSubject extends AuthorizedSubject {
     }
     return super.hasPermission(domain, instance, action);
   }
+
+  @Override
+  public Set<String> getPermittedInstances(
+      String domain, Collection<String> instances, String action) {
+    if (domain.equals(WorkspaceDomain.DOMAIN_ID)) {
+      if (!instances.contains(claimsWorkspaceId)) {
+        return new HashSet<>();
+      }
+      instances = singleton(claimsWorkspaceId);
+    }
+    return super.getPermittedInstances(domain, instances, action);
+  }
 }
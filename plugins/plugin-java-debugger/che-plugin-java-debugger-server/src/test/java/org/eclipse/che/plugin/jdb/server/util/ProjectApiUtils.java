@@ -79,12 +79,34 @@ public class ProjectApiUtils {
                     .annotatedWith(Names.named("vfs.local.fs_index_root_dir"))
                     .toInstance(indexDir);
                 bind(String.class).annotatedWith(Names.named("che.api")).toInstance("api-endpoint");
+                bind(String.class)
+                    .annotatedWith(Names.named("che.search.indexing.threads"))
+                    .toInstance("0");
+                bind(String.class)
+                    .annotatedWith(Names.named("che.search.max_hits_per_document"))
+                    .toInstance("0");
+                bind(String.class)
+                    .annotatedWith(Names.named("che.fs.tree_walker.event_driven"))
+                    .toInstance("false");
+                bind(String.class)
+                    .annotatedWith(Names.named("che.fs.tree_walker.reconciliation_period_s"))
+                    .toInstance("300");
                 bind(String.class)
                     .annotatedWith(Names.named("project.importer.default_importer_id"))
                     .toInstance("git");
                 bind(String.class)
                     .annotatedWith(Names.named("che.core.jsonrpc.processor_max_pool_size"))
                     .toInstance("100");
+                bind(String.class)
+                    .annotatedWith(Names.named("che.core.jsonrpc.processor_queue_capacity"))
+                    .toInstance("0");
+                bind(String.class)
+                    .annotatedWith(
+                        Names.named("che.core.jsonrpc.processor_endpoint_queue_capacity"))
+                    .toInstance("0");
+                bind(String[].class)
+                    .annotatedWith(Names.named("che.core.jsonrpc.processor_priority_methods"))
+                    .toInstance(new String[0]);
 
                 install(
                     new FactoryModuleBuilder()
@@ -55,7 +55,7 @@ class PublishDiagnosticsParamsJsonRpcTransmitter {
                           .endpointId(endpointId)
                           .methodName("textDocument/publishDiagnostics")
                           .paramsAsDto(new ExtendedPublishDiagnosticsParamsDto(event))
-                          .sendAndSkipResult());
+                          .sendAndSkipResultBatched());
 
             } catch (URISyntaxException e) {
               LOG.error("Can't parse diagnostic URI: {}", params.getUri(), e);
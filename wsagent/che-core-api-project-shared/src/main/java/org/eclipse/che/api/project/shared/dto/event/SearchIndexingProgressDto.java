@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.project.shared.dto.event;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/** Progress of indexing of the workspace files for the search. */
+@DTO
+public interface SearchIndexingProgressDto {
+  /** Returns the number of files checked so far, including the ones which were up to date. */
+  int getProcessedFiles();
+
+  SearchIndexingProgressDto withProcessedFiles(int processedFiles);
+
+  /** Returns the number of files (re)indexed so far. */
+  int getIndexedFiles();
+
+  SearchIndexingProgressDto withIndexedFiles(int indexedFiles);
+
+  /** Returns true when indexing is finished and the search covers all the files. */
+  boolean isComplete();
+
+  SearchIndexingProgressDto withComplete(boolean complete);
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.search.server.impl;
+
+import java.util.Arrays;
+
+/**
+ * Start offsets of the lines of a document text. Lines of the matched tokens are found with the
+ * binary search over the offsets instead of scanning the text, the offsets are kept in the index
+ * in the compact form produced by {@link #encode()}.
+ */
+final class LineOffsets {
+
+  private final int[] starts;
+  private final int count;
+
+  private LineOffsets(int[] starts, int count) {
+    this.starts = starts;
+    this.count = count;
+  }
+
+  /** Computes line offsets of the given text, lines are separated with {@code '\n'}. */
+  static LineOffsets of(String text) {
+    int[] starts = new int[16];
+    int count = 1;
+    for (int i = text.indexOf('\n'); i != -1; i = text.indexOf('\n', i + 1)) {
+      if (count == starts.length) {
+        starts = Arrays.copyOf(starts, count * 2);
+      }
+      starts[count++] = i + 1;
+    }
+    return new LineOffsets(starts, count);
+  }
+
+  /** Restores line offsets from the result of {@link #encode()}. */
+  static LineOffsets decode(byte[] bytes, int offset, int length) {
+    int[] starts = new int[Math.max(length, 1)];
+    int count = 0;
+    int start = 0;
+    int pos = offset;
+    int end = offset + length;
+    while (pos < end) {
+      int delta = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[pos++];
+        delta |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      start += delta;
+      starts[count++] = start;
+    }
+    return new LineOffsets(starts, count);
+  }
+
+  /** Encodes offsets as variable length deltas, so a typical line takes a single byte. */
+  byte[] encode() {
+    byte[] bytes = new byte[count * 2];
+    int pos = 0;
+    int previous = 0;
+    for (int i = 0; i < count; i++) {
+      if (bytes.length - pos < 5) {
+        bytes = Arrays.copyOf(bytes, bytes.length * 2 + 5);
+      }
+      int delta = starts[i] - previous;
+      previous = starts[i];
+      while ((delta & ~0x7F) != 0) {
+        bytes[pos++] = (byte) ((delta & 0x7F) | 0x80);
+        delta >>>= 7;
+      }
+      bytes[pos++] = (byte) delta;
+    }
+    return Arrays.copyOf(bytes, pos);
+  }
+
+  /** Returns the number of the line, starting from 1, which contains the given offset. */
+  int lineNumber(int offset) {
+    int index = Arrays.binarySearch(starts, 0, count, offset);
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+
+  /** Returns the text of the line with the given number without the line separator. */
+  String line(String text, int lineNumber) {
+    int start = starts[lineNumber - 1];
+    int end = lineNumber < count ? starts[lineNumber] - 1 : text.length();
+    if (end > start && text.charAt(end - 1) == '\r') {
+      end--;
+    }
+    return text.substring(start, Math.min(end, text.length()));
+  }
+}
@@ -15,7 +15,9 @@ import static com.google.common.collect.Lists.newArrayList;
 import static org.eclipse.che.api.fs.server.WsPathUtils.nameOf;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
@@ -32,11 +34,18 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -50,11 +59,14 @@ import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
@@ -75,6 +87,7 @@ import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.TokenSources;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.SingleInstanceLockFactory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.eclipse.che.api.fs.server.PathTransformer;
 import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
@@ -84,6 +97,8 @@ import org.eclipse.che.api.search.server.QueryExecutionException;
 import org.eclipse.che.api.search.server.QueryExpression;
 import org.eclipse.che.api.search.server.SearchResult;
 import org.eclipse.che.api.search.server.Searcher;
+import org.eclipse.che.commons.annotation.Nullable;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +106,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Lucene based searcher.
  *
+ * <p>Files are indexed by a pool of threads, see {@code che.search.indexing.threads}, while the
+ * files tree is walked by a single thread. Modification time and size of indexed files are kept in
+ * the index, so when the index directory survives the restart of the agent only the files which
+ * were changed in the meantime are indexed again. Search requests are served during the initial
+ * indexing, they return results from the files indexed so far, clients are notified about the
+ * progress with {@link SearchIndexingCommunication}.
+ *
  * @author andrew00x
  * @author Sergii Kabashniuk
  */
@@ -103,6 +125,10 @@ public class LuceneSearcher implements Searcher {
   private static final String PATH_FIELD = "path";
   private static final String NAME_FIELD = "name";
   private static final String TEXT_FIELD = "text";
+  private static final String MODIFIED_FIELD = "modified";
+  private static final String SIZE_FIELD = "size";
+  private static final String LINES_FIELD = "lines";
+  private static final long PROGRESS_PERIOD_MS = 1000;
 
   private final Set<PathMatcher> excludePatterns;
   private final PathTransformer pathTransformer;
@@ -113,13 +139,28 @@ public class LuceneSearcher implements Searcher {
   private final Analyzer analyzer;
   private final CountDownLatch initialIndexingLatch = new CountDownLatch(1);
   private final Sort sort;
+  private final ThreadPoolExecutor indexingExecutor;
+  private final SearchIndexingCommunication indexingCommunication;
+  private final int maxHitsPerDocument;
+
+  public LuceneSearcher(
+      Set<PathMatcher> excludePatterns,
+      File indexDirectory,
+      RootDirPathProvider pathProvider,
+      PathTransformer pathTransformer)
+      throws IOException {
+    this(excludePatterns, indexDirectory, 0, 0, pathProvider, pathTransformer, null);
+  }
 
   @Inject
   public LuceneSearcher(
       @Named("vfs.index_filter_matcher") Set<PathMatcher> excludePatterns,
       @Named("vfs.local.fs_index_root_dir") File indexDirectory,
+      @Named("che.search.indexing.threads") int indexingThreads,
+      @Named("che.search.max_hits_per_document") int maxHitsPerDocument,
       RootDirPathProvider pathProvider,
-      PathTransformer pathTransformer)
+      PathTransformer pathTransformer,
+      @Nullable SearchIndexingCommunication indexingCommunication)
       throws IOException {
 
     if (indexDirectory.exists()) {
@@ -145,6 +186,26 @@ public class LuceneSearcher implements Searcher {
     this.searcherManager =
         new SearcherManager(luceneIndexWriter, true, true, new SearcherFactory());
     this.sort = new Sort(SortField.FIELD_SCORE, new SortField(PATH_FIELD, SortField.Type.STRING));
+    this.indexingCommunication = indexingCommunication;
+    this.maxHitsPerDocument = maxHitsPerDocument > 0 ? maxHitsPerDocument : Integer.MAX_VALUE;
+
+    int threads =
+        indexingThreads > 0 ? indexingThreads : Runtime.getRuntime().availableProcessors();
+    // the walker runs the indexing itself when the queue is full, so it never gets too far ahead
+    this.indexingExecutor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60L,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 64),
+            new ThreadFactoryBuilder()
+                .setNameFormat("LuceneSearcherIndexer-%d")
+                .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                .setDaemon(true)
+                .build(),
+            (task, executor) -> task.run());
+    this.indexingExecutor.allowCoreThreadTimeOut(true);
   }
 
   @PostConstruct
@@ -155,9 +216,23 @@ public class LuceneSearcher implements Searcher {
             () -> {
               try {
                 long start = System.currentTimeMillis();
-                add(root);
+                Map<String, FileStamp> indexedFiles = readIndexedFiles();
+                TreeIndexer indexer = new TreeIndexer(indexedFiles, indexingCommunication);
+                if (indexer.index(root)) {
+                  // files which were removed while the agent was stopped
+                  for (String wsPath : indexedFiles.keySet()) {
+                    luceneIndexWriter.deleteDocuments(new Term(PATH_FIELD, wsPath));
+                  }
+                }
+                luceneIndexWriter.commit();
+                indexer.reportProgress(true);
                 LOG.info(
-                    "Initial indexing complete after {} msec ", System.currentTimeMillis() - start);
+                    "Initial indexing complete after {} msec, {} of {} files were indexed",
+                    System.currentTimeMillis() - start,
+                    indexer.indexed.get(),
+                    indexer.processed);
+              } catch (IOException e) {
+                LOG.warn("Initial indexing failed because {}", e.getMessage());
               } finally {
                 initialIndexingLatch.countDown();
               }
@@ -177,6 +252,44 @@ public class LuceneSearcher implements Searcher {
     luceneIndexWriter.commit();
   }
 
+  @PreDestroy
+  @VisibleForTesting
+  void shutdown() throws IOException {
+    indexingExecutor.shutdownNow();
+    searcherManager.close();
+    // commits pending changes, so they are not indexed again on the next start
+    luceneIndexWriter.close();
+  }
+
+  /** Returns paths of the files which are in the index along with their modification stamps. */
+  private Map<String, FileStamp> readIndexedFiles() throws IOException {
+    Map<String, FileStamp> files = new HashMap<>();
+    Set<String> fields = ImmutableSet.of(PATH_FIELD, MODIFIED_FIELD, SIZE_FIELD);
+    IndexSearcher luceneSearcher = null;
+    try {
+      searcherManager.maybeRefresh();
+      luceneSearcher = searcherManager.acquire();
+      IndexReader reader = luceneSearcher.getIndexReader();
+      Bits liveDocs = MultiFields.getLiveDocs(reader);
+      for (int i = 0; i < reader.maxDoc(); i++) {
+        if (liveDocs == null || liveDocs.get(i)) {
+          Document doc = reader.document(i, fields);
+          IndexableField modified = doc.getField(MODIFIED_FIELD);
+          IndexableField size = doc.getField(SIZE_FIELD);
+          files.put(
+              doc.get(PATH_FIELD),
+              modified == null || size == null
+                  ? FileStamp.UNKNOWN
+                  : new FileStamp(
+                      modified.numericValue().longValue(), size.numericValue().longValue()));
+        }
+      }
+    } finally {
+      searcherManager.release(luceneSearcher);
+    }
+    return files;
+  }
+
   @Override
   public SearchResult search(QueryExpression query)
       throws InvalidQueryException, QueryExecutionException {
@@ -231,12 +344,23 @@ public class LuceneSearcher implements Searcher {
             }
             queryScorer.startFragment(null);
 
+            LineOffsets lineOffsets;
+            BytesRef lines = doc.getBinaryValue(LINES_FIELD);
+            if (lines != null) {
+              lineOffsets = LineOffsets.decode(lines.bytes, lines.offset, lines.length);
+            } else {
+              // indexed before line offsets were stored
+              lineOffsets = LineOffsets.of(txt);
+            }
+
             tokenStream.reset();
 
             int startOffset, endOffset;
             // TODO think about this constant
             for (boolean next = tokenStream.incrementToken();
-                next && (offsetAtt.startOffset() < 1_000_000);
+                next
+                    && (offsetAtt.startOffset() < 1_000_000)
+                    && offsetData.size() < maxHitsPerDocument;
                 next = tokenStream.incrementToken()) {
               startOffset = offsetAtt.startOffset();
               endOffset = offsetAtt.endOffset();
@@ -252,19 +376,8 @@ public class LuceneSearcher implements Searcher {
               float res = queryScorer.getTokenScore();
               if (res > 0.0F && startOffset <= endOffset) {
                 String tokenText = txt.substring(startOffset, endOffset);
-                int lineNum = 1;
-                long len = 0;
-                String foundLine = "";
-                try (Scanner sc = new Scanner(txt)) {
-                  while (sc.hasNextLine()) {
-                    foundLine = sc.nextLine();
-                    len += foundLine.length();
-                    if (len > startOffset) {
-                      break;
-                    }
-                    lineNum++;
-                  }
-                }
+                int lineNum = lineOffsets.lineNumber(startOffset);
+                String foundLine = lineOffsets.line(txt, lineNum);
                 offsetData.add(
                     new OffsetData(tokenText, startOffset, endOffset, res, lineNum, foundLine));
               }
@@ -362,19 +475,7 @@ public class LuceneSearcher implements Searcher {
 
     try {
       if (fsPath.toFile().isDirectory()) {
-        try {
-          Files.walkFileTree(
-              fsPath,
-              new SimpleFileVisitor<Path>() {
-                @Override
-                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                  addFile(file);
-                  return FileVisitResult.CONTINUE;
-                }
-              });
-        } catch (IOException ignore) {
-          LOG.warn("Not able to index {} because {} ", fsPath.toString(), ignore.getMessage());
-        }
+        new TreeIndexer(new HashMap<>(), null).index(fsPath);
       } else {
         addFile(fsPath);
       }
@@ -396,6 +497,17 @@ public class LuceneSearcher implements Searcher {
       return;
     }
     String wsPath = pathTransformer.transform(fsPath);
+    BasicFileAttributes attrs;
+    try {
+      attrs = Files.readAttributes(fsPath, BasicFileAttributes.class);
+    } catch (IOException e) {
+      LOG.warn("Can't index file: {}", wsPath);
+      return;
+    }
+    addFile(fsPath, wsPath, attrs);
+  }
+
+  private void addFile(Path fsPath, String wsPath, BasicFileAttributes attrs) {
     LOG.debug("Adding file {} ", wsPath);
 
     try (Reader reader =
@@ -405,8 +517,12 @@ public class LuceneSearcher implements Searcher {
       doc.add(new StringField(PATH_FIELD, wsPath, Field.Store.YES));
       doc.add(new SortedDocValuesField(PATH_FIELD, new BytesRef(wsPath)));
       doc.add(new TextField(NAME_FIELD, name, Field.Store.YES));
+      doc.add(new StoredField(MODIFIED_FIELD, attrs.lastModifiedTime().toMillis()));
+      doc.add(new StoredField(SIZE_FIELD, attrs.size()));
       try {
-        doc.add(new TextField(TEXT_FIELD, CharStreams.toString(reader), Field.Store.YES));
+        String text = CharStreams.toString(reader);
+        doc.add(new TextField(TEXT_FIELD, text, Field.Store.YES));
+        doc.add(new StoredField(LINES_FIELD, LineOffsets.of(text).encode()));
       } catch (MalformedInputException e) {
         LOG.warn("Can't index file: {}", wsPath);
       }
@@ -473,4 +589,94 @@ public class LuceneSearcher implements Searcher {
     }
     return true;
   }
+
+  /** Modification time and size of the file at the time it was indexed. */
+  private static class FileStamp {
+    static final FileStamp UNKNOWN = new FileStamp(-1, -1);
+
+    final long modified;
+    final long size;
+
+    FileStamp(long modified, long size) {
+      this.modified = modified;
+      this.size = size;
+    }
+
+    boolean matches(BasicFileAttributes attrs) {
+      return modified == attrs.lastModifiedTime().toMillis() && size == attrs.size();
+    }
+  }
+
+  /**
+   * Walks the files tree and passes the files which are not indexed yet or were changed since they
+   * were indexed to the indexing pool, waits until all of them are indexed.
+   */
+  private class TreeIndexer {
+    final Map<String, FileStamp> indexedFiles;
+    final SearchIndexingCommunication communication;
+    final Phaser pending = new Phaser(1);
+    final AtomicInteger indexed = new AtomicInteger();
+    int processed;
+    long lastReportTime = System.currentTimeMillis();
+
+    /**
+     * @param indexedFiles files which are already indexed, visited files are removed from it
+     * @param communication if not null, the progress is reported to the clients
+     */
+    TreeIndexer(Map<String, FileStamp> indexedFiles, SearchIndexingCommunication communication) {
+      this.indexedFiles = indexedFiles;
+      this.communication = communication;
+    }
+
+    /** Indexes files of the given directory, returns false if the walk was interrupted. */
+    boolean index(Path fsPath) {
+      try {
+        Files.walkFileTree(
+            fsPath,
+            new SimpleFileVisitor<Path>() {
+              @Override
+              public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                submit(file, attrs);
+                return FileVisitResult.CONTINUE;
+              }
+            });
+        return true;
+      } catch (IOException ignore) {
+        LOG.warn("Not able to index {} because {} ", fsPath.toString(), ignore.getMessage());
+        return false;
+      } finally {
+        pending.arriveAndAwaitAdvance();
+      }
+    }
+
+    private void submit(Path file, BasicFileAttributes attrs) {
+      processed++;
+      if (isNotExcluded(file)) {
+        String wsPath = pathTransformer.transform(file);
+        FileStamp stamp = indexedFiles.remove(wsPath);
+        if (stamp == null || !stamp.matches(attrs)) {
+          pending.register();
+          indexingExecutor.execute(
+              () -> {
+                try {
+                  addFile(file, wsPath, attrs);
+                  indexed.incrementAndGet();
+                } finally {
+                  pending.arriveAndDeregister();
+                }
+              });
+        }
+      }
+      if (System.currentTimeMillis() - lastReportTime > PROGRESS_PERIOD_MS) {
+        reportProgress(false);
+      }
+    }
+
+    void reportProgress(boolean complete) {
+      lastReportTime = System.currentTimeMillis();
+      if (communication != null) {
+        communication.broadcastIndexingProgress(processed, indexed.get(), complete);
+      }
+    }
+  }
 }
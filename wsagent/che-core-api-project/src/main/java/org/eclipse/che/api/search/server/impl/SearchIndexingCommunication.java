@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.search.server.impl;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.jsonrpc.commons.ClientSubscriptionHandler;
+import org.eclipse.che.api.core.jsonrpc.commons.RequestTransmitter;
+import org.eclipse.che.api.project.shared.dto.event.SearchIndexingProgressDto;
+
+/**
+ * Communication channel between the searcher and clients, notifies clients about the progress of
+ * indexing so they know that search results may be partial.
+ *
+ * @see LuceneSearcher
+ */
+@Singleton
+public class SearchIndexingCommunication {
+
+  private static final String JSON_RPC_METHOD_NAME = "search/indexingProgress";
+
+  private final RequestTransmitter transmitter;
+  private final ClientSubscriptionHandler clientSubscriptionHandler;
+
+  @Inject
+  public SearchIndexingCommunication(
+      RequestTransmitter transmitter, ClientSubscriptionHandler clientSubscriptionHandler) {
+    this.transmitter = transmitter;
+    this.clientSubscriptionHandler = clientSubscriptionHandler;
+  }
+
+  public void broadcastIndexingProgress(int processedFiles, int indexedFiles, boolean complete) {
+    SearchIndexingProgressDto progress =
+        newDto(SearchIndexingProgressDto.class)
+            .withProcessedFiles(processedFiles)
+            .withIndexedFiles(indexedFiles)
+            .withComplete(complete);
+    clientSubscriptionHandler
+        .getEndpointIds()
+        .forEach(
+            it ->
+                transmitter
+                    .newRequest()
+                    .endpointId(it)
+                    .methodName(JSON_RPC_METHOD_NAME)
+                    .paramsAsDto(progress)
+                    .sendAndSkipResult());
+  }
+}
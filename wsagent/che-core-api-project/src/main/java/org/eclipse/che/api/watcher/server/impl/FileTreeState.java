@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Files and directories known to {@link FileTreeWalker} along with their modification times. Items
+ * are kept in a trie of path names, so the common parts of paths are stored once and a directory
+ * can be removed along with all of its content without looking through all the known items.
+ *
+ * <p>Items which are stored during a reconciliation walk are marked with the current generation,
+ * so the items which were removed from the file system while not reported by events can be found
+ * as the ones not marked after the walk, without checking existence of every item.
+ *
+ * <p>Not thread safe.
+ */
+class FileTreeState {
+  private static final byte NONE = 0;
+  private static final byte FILE = 1;
+  private static final byte DIRECTORY = 2;
+
+  private final Path root;
+  private final Node rootNode = new Node(null, null);
+
+  private int generation;
+  private int files;
+  private int directories;
+
+  FileTreeState(Path root) {
+    this.root = root;
+  }
+
+  /**
+   * Stores an item and marks it with the current generation.
+   *
+   * @return previously stored modification time or null if the item of the same kind wasn't stored
+   */
+  Long put(Path path, boolean directory, long lastModified) {
+    Node node = find(path, true);
+    if (node == null) {
+      return null;
+    }
+    byte type = directory ? DIRECTORY : FILE;
+    Long previous = node.type == type ? node.lastModified : null;
+    if (node.type != type) {
+      count(node.type, -1);
+      count(type, 1);
+    }
+    node.type = type;
+    node.lastModified = lastModified;
+    node.generation = generation;
+    return previous;
+  }
+
+  /** Returns true if the directory is stored. */
+  boolean containsDirectory(Path path) {
+    Node node = find(path, false);
+    return node != null && node.type == DIRECTORY;
+  }
+
+  /**
+   * Removes an item and all the items under it.
+   *
+   * @param removedFiles receives paths of the removed files
+   * @param removedDirectories receives paths of the removed directories
+   */
+  void remove(Path path, List<Path> removedFiles, List<Path> removedDirectories) {
+    Node node = find(path, false);
+    if (node != null) {
+      collect(node, removedFiles, removedDirectories);
+      detach(node);
+    }
+  }
+
+  /** Starts a new generation, items stored after this call are considered present. */
+  void startGeneration() {
+    generation++;
+  }
+
+  /** Removes the items which were not stored since the last {@link #startGeneration()} call. */
+  void removeUnmarked(List<Path> removedFiles, List<Path> removedDirectories) {
+    Deque<Node> nodes = new ArrayDeque<>();
+    nodes.push(rootNode);
+    while (!nodes.isEmpty()) {
+      Node node = nodes.pop();
+      if (node.children == null) {
+        continue;
+      }
+      Iterator<Node> it = node.children.values().iterator();
+      while (it.hasNext()) {
+        Node child = it.next();
+        if (child.type != NONE && child.generation != generation) {
+          collect(child, removedFiles, removedDirectories);
+          it.remove();
+        } else {
+          nodes.push(child);
+        }
+      }
+    }
+  }
+
+  int getFiles() {
+    return files;
+  }
+
+  int getDirectories() {
+    return directories;
+  }
+
+  private Node find(Path path, boolean create) {
+    if (!path.startsWith(root)) {
+      return null;
+    }
+    Node node = rootNode;
+    if (path.equals(root)) {
+      return node;
+    }
+    for (Path name : root.relativize(path)) {
+      String key = name.toString();
+      Node child = node.children == null ? null : node.children.get(key);
+      if (child == null) {
+        if (!create) {
+          return null;
+        }
+        child = new Node(node, key);
+        if (node.children == null) {
+          node.children = new HashMap<>(4);
+        }
+        node.children.put(key, child);
+      }
+      node = child;
+    }
+    return node;
+  }
+
+  /** Collects paths of the node and its descendants, updates counters as they are removed. */
+  private void collect(Node node, List<Path> removedFiles, List<Path> removedDirectories) {
+    Deque<Node> nodes = new ArrayDeque<>();
+    nodes.push(node);
+    while (!nodes.isEmpty()) {
+      Node current = nodes.pop();
+      if (current.type == FILE) {
+        removedFiles.add(toPath(current));
+      } else if (current.type == DIRECTORY) {
+        removedDirectories.add(toPath(current));
+      }
+      count(current.type, -1);
+      if (current.children != null) {
+        current.children.values().forEach(nodes::push);
+      }
+    }
+  }
+
+  private void detach(Node node) {
+    if (node == rootNode) {
+      rootNode.children = null;
+      rootNode.type = NONE;
+      return;
+    }
+    node.parent.children.remove(node.name);
+  }
+
+  private void count(byte type, int delta) {
+    if (type == FILE) {
+      files += delta;
+    } else if (type == DIRECTORY) {
+      directories += delta;
+    }
+  }
+
+  private Path toPath(Node node) {
+    Deque<String> names = new ArrayDeque<>();
+    for (Node current = node; current != rootNode; current = current.parent) {
+      names.push(current.name);
+    }
+    Path path = root;
+    for (String name : names) {
+      path = path.resolve(name);
+    }
+    return path;
+  }
+
+  private static class Node {
+    final Node parent;
+    final String name;
+    Map<String, Node> children;
+    long lastModified;
+    int generation;
+    byte type = NONE;
+
+    Node(Node parent, String name) {
+      this.parent = parent;
+      this.name = name;
+    }
+  }
+}
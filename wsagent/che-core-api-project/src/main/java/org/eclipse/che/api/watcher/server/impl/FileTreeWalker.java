@@ -13,27 +13,38 @@ package org.eclipse.che.api.watcher.server.impl;
 
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.FileVisitResult.SKIP_SUBTREE;
-import static java.nio.file.Files.exists;
 import static java.nio.file.Files.walkFileTree;
-import static java.util.stream.Collectors.toSet;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.project.server.impl.RootDirPathProvider;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.schedule.ScheduleRate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +52,13 @@ import org.slf4j.LoggerFactory;
 /**
  * Walks a file system tree, register addition, update and removal of file system items. On events
  * runs corresponding consumers that can be registered in DI configuration modules.
+ *
+ * <p>By default the whole tree is walked every 10 seconds. When {@code
+ * che.fs.tree_walker.event_driven} is enabled, all the tree directories are registered in {@link
+ * FileWatcherService} and the changes are applied as they are reported by its events, while the
+ * tree walk is done only every {@code che.fs.tree_walker.reconciliation_period_s} seconds to catch
+ * the changes which were not reported, e.g. because of the events queue overflow. Directories are
+ * unregistered from the watcher service once they are deleted and when the walker is shut down.
  */
 @Singleton
 public class FileTreeWalker {
@@ -58,10 +76,48 @@ public class FileTreeWalker {
   private final Set<Consumer<Path>> fileDeleteConsumers;
   private final Set<PathMatcher> fileExcludes;
 
-  private final Map<Path, Long> files = new HashMap<>();
-  private final Map<Path, Long> directories = new HashMap<>();
+  private final FileTreeState tree;
+
+  private final FileWatcherService watcherService;
+  private final FileWatcherEventHandler eventHandler;
+  private final boolean eventDriven;
+  private final long reconciliationPeriodNanos;
+  private final Set<Path> watchedDirectories;
+  private final BiConsumer<Path, WatchEvent.Kind<?>> eventListener;
+  private ExecutorService eventExecutor;
 
   private boolean initialized;
+  private long lastWalkTime;
+
+  private volatile long lastScanDurationNanos;
+  private volatile long lastEventLagNanos;
+  private volatile long maxEventLagNanos;
+
+  public FileTreeWalker(
+      RootDirPathProvider pathProvider,
+      Set<Consumer<Path>> directoryUpdateConsumers,
+      Set<Consumer<Path>> directoryCreateConsumers,
+      Set<Consumer<Path>> directoryDeleteConsumers,
+      Set<PathMatcher> directoryExcludes,
+      Set<Consumer<Path>> fileUpdateConsumers,
+      Set<Consumer<Path>> fileCreateConsumers,
+      Set<Consumer<Path>> fileDeleteConsumers,
+      Set<PathMatcher> fileExcludes) {
+    this(
+        pathProvider,
+        directoryUpdateConsumers,
+        directoryCreateConsumers,
+        directoryDeleteConsumers,
+        directoryExcludes,
+        fileUpdateConsumers,
+        fileCreateConsumers,
+        fileDeleteConsumers,
+        fileExcludes,
+        null,
+        null,
+        false,
+        0);
+  }
 
   @Inject
   public FileTreeWalker(
@@ -73,7 +129,11 @@ public class FileTreeWalker {
       @Named("che.fs.file.update") Set<Consumer<Path>> fileUpdateConsumers,
       @Named("che.fs.file.create") Set<Consumer<Path>> fileCreateConsumers,
       @Named("che.fs.file.delete") Set<Consumer<Path>> fileDeleteConsumers,
-      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes) {
+      @Named("che.fs.file.excludes") Set<PathMatcher> fileExcludes,
+      FileWatcherService watcherService,
+      FileWatcherEventHandler eventHandler,
+      @Named("che.fs.tree_walker.event_driven") boolean eventDriven,
+      @Named("che.fs.tree_walker.reconciliation_period_s") long reconciliationPeriodSeconds) {
     this.root = Paths.get(pathProvider.get());
 
     this.directoryUpdateConsumers = directoryUpdateConsumers;
@@ -86,37 +146,53 @@ public class FileTreeWalker {
 
     this.directoryExcludes = directoryExcludes;
     this.fileExcludes = fileExcludes;
+
+    this.tree = new FileTreeState(root);
+
+    this.watcherService = watcherService;
+    this.eventHandler = eventHandler;
+    this.eventDriven = eventDriven && watcherService != null && eventHandler != null;
+    this.reconciliationPeriodNanos = SECONDS.toNanos(reconciliationPeriodSeconds);
+    this.watchedDirectories = new HashSet<>();
+    this.eventListener = this::onEvent;
   }
 
   @PostConstruct
-  void initialize() {
+  synchronized void initialize() {
+    long start = System.nanoTime();
+    if (eventDriven) {
+      eventExecutor =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder()
+                  .setNameFormat(FileTreeWalker.class.getSimpleName() + "-%d")
+                  .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                  .setDaemon(true)
+                  .build());
+      eventHandler.addListener(eventListener);
+    }
+
     try {
       walkFileTree(
           root,
           new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
+              if (isExcluded(directoryExcludes, dir)) {
+                return SKIP_SUBTREE;
               }
 
-              directories.put(dir, attrs.lastModifiedTime().toMillis());
+              tree.put(dir, true, attrs.lastModifiedTime().toMillis());
+              watch(dir);
 
               return CONTINUE;
             }
 
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
+              if (!isExcluded(fileExcludes, file)) {
+                tree.put(file, false, attrs.lastModifiedTime().toMillis());
               }
 
-              files.put(file, attrs.lastModifiedTime().toMillis());
-
               return CONTINUE;
             }
           });
@@ -124,86 +200,208 @@ public class FileTreeWalker {
       LOG.error("Error while walking file tree", e);
     }
 
+    lastWalkTime = System.nanoTime();
+    lastScanDurationNanos = lastWalkTime - start;
     initialized = true;
   }
 
+  @PreDestroy
+  void shutdown() {
+    if (eventExecutor != null) {
+      eventHandler.removeListener(eventListener);
+      eventExecutor.shutdownNow();
+    }
+    synchronized (this) {
+      watchedDirectories.forEach(watcherService::unRegister);
+      watchedDirectories.clear();
+    }
+  }
+
   @ScheduleRate(period = 10)
-  void walk() {
+  synchronized void walk() {
     if (!initialized) {
       return;
     }
+    if (eventDriven && System.nanoTime() - lastWalkTime < reconciliationPeriodNanos) {
+      return;
+    }
 
+    long start = System.nanoTime();
     try {
       LOG.debug("Tree walk started");
 
-      Set<Path> deletedFiles = files.keySet().stream().filter(it -> !exists(it)).collect(toSet());
-      fileDeleteConsumers.forEach(deletedFiles::forEach);
-      files.keySet().removeAll(deletedFiles);
+      tree.startGeneration();
+      walkFileTree(root, new UpdatingVisitor());
 
-      Set<Path> deletedDirectories =
-          directories.keySet().stream().filter(it -> !exists(it)).collect(toSet());
+      List<Path> deletedFiles = new ArrayList<>();
+      List<Path> deletedDirectories = new ArrayList<>();
+      tree.removeUnmarked(deletedFiles, deletedDirectories);
+      deletedDirectories.forEach(this::unwatch);
+      fileDeleteConsumers.forEach(deletedFiles::forEach);
       directoryDeleteConsumers.forEach(deletedDirectories::forEach);
-      directories.keySet().removeAll(deletedDirectories);
-
-      walkFileTree(
-          root,
-          new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
-                throws IOException {
-              for (PathMatcher matcher : directoryExcludes) {
-                if (matcher.matches(dir)) {
-                  return SKIP_SUBTREE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  directories, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
-
-              return CONTINUE;
-            }
-
-            @Override
-            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-              for (PathMatcher matcher : fileExcludes) {
-                if (matcher.matches(file)) {
-                  return CONTINUE;
-                }
-              }
-
-              updateFsTreeAndAcceptConsumables(
-                  files, fileUpdateConsumers, fileCreateConsumers, file, attrs);
 
-              return CONTINUE;
-            }
-          });
-      LOG.debug("Tree walk finished");
+      LOG.debug(
+          "Tree walk finished in {} ms, {} files and {} directories are tracked, "
+              + "max event lag {} ms",
+          NANOSECONDS.toMillis(System.nanoTime() - start),
+          tree.getFiles(),
+          tree.getDirectories(),
+          getMaxEventLagMillis());
     } catch (NoSuchFileException e) {
       LOG.debug(
           "Trying to process a file, however seems like it is already not present: {}",
           e.getMessage());
     } catch (Exception e) {
       LOG.error("Error while walking file tree", e);
+    } finally {
+      lastWalkTime = System.nanoTime();
+      lastScanDurationNanos = lastWalkTime - start;
+    }
+  }
+
+  /** Returns the duration of the last full tree walk in milliseconds. */
+  public long getLastScanDurationMillis() {
+    return NANOSECONDS.toMillis(lastScanDurationNanos);
+  }
+
+  /**
+   * Returns the time in milliseconds between receiving of the last processed file watcher event and
+   * its processing, always 0 if the walker is not event driven.
+   */
+  public long getLastEventLagMillis() {
+    return NANOSECONDS.toMillis(lastEventLagNanos);
+  }
+
+  /** Returns the longest observed lag of file watcher events processing in milliseconds. */
+  public long getMaxEventLagMillis() {
+    return NANOSECONDS.toMillis(maxEventLagNanos);
+  }
+
+  private void onEvent(Path path, WatchEvent.Kind<?> kind) {
+    long received = System.nanoTime();
+    eventExecutor.execute(() -> handleEvent(path, kind, received));
+  }
+
+  private synchronized void handleEvent(Path path, WatchEvent.Kind<?> kind, long received) {
+    if (!initialized || !path.startsWith(root)) {
+      return;
+    }
+    try {
+      if (kind == ENTRY_DELETE) {
+        remove(path);
+      } else {
+        update(path);
+      }
+      // creation or removal of an entry changes modification time of its directory
+      Path parent = path.getParent();
+      if (parent != null && tree.containsDirectory(parent)) {
+        update(parent);
+      }
+    } catch (Exception e) {
+      LOG.error("Error while processing file watcher event for '{}'", path, e);
+    } finally {
+      long lag = System.nanoTime() - received;
+      lastEventLagNanos = lag;
+      if (lag > maxEventLagNanos) {
+        maxEventLagNanos = lag;
+      }
+    }
+  }
+
+  private void update(Path path) throws IOException {
+    BasicFileAttributes attrs;
+    try {
+      attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    } catch (NoSuchFileException e) {
+      remove(path);
+      return;
+    }
+
+    if (attrs.isDirectory() && !tree.containsDirectory(path)) {
+      // the content may be created before the directory is watched
+      walkFileTree(path, new UpdatingVisitor());
+    } else if (attrs.isDirectory()) {
+      if (!isExcluded(directoryExcludes, path)) {
+        updateFsTreeAndAcceptConsumables(
+            true, directoryUpdateConsumers, directoryCreateConsumers, path, attrs);
+      }
+    } else if (!isExcluded(fileExcludes, path)) {
+      updateFsTreeAndAcceptConsumables(
+          false, fileUpdateConsumers, fileCreateConsumers, path, attrs);
     }
   }
 
+  private void remove(Path path) {
+    List<Path> deletedFiles = new ArrayList<>();
+    List<Path> deletedDirectories = new ArrayList<>();
+    tree.remove(path, deletedFiles, deletedDirectories);
+    deletedDirectories.forEach(this::unwatch);
+    fileDeleteConsumers.forEach(deletedFiles::forEach);
+    directoryDeleteConsumers.forEach(deletedDirectories::forEach);
+  }
+
+  private void watch(Path dir) {
+    if (eventDriven && watchedDirectories.add(dir)) {
+      watcherService.register(dir);
+    }
+  }
+
+  private void unwatch(Path dir) {
+    if (watchedDirectories.remove(dir)) {
+      watcherService.unRegister(dir);
+    }
+  }
+
+  private boolean isExcluded(Set<PathMatcher> excludes, Path path) {
+    for (PathMatcher matcher : excludes) {
+      if (matcher.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void updateFsTreeAndAcceptConsumables(
-      Map<Path, Long> items,
+      boolean directory,
       Set<Consumer<Path>> updateConsumer,
       Set<Consumer<Path>> createConsumer,
       Path path,
       BasicFileAttributes attrs) {
-    Long lastModifiedActual = attrs.lastModifiedTime().toMillis();
+    long lastModifiedActual = attrs.lastModifiedTime().toMillis();
 
-    if (items.containsKey(path)) {
-      Long lastModifiedStored = items.get(path);
-      if (!lastModifiedActual.equals(lastModifiedStored)) {
-        items.put(path, lastModifiedActual);
-        updateConsumer.forEach(it -> it.accept(path));
+    Long lastModifiedStored = tree.put(path, directory, lastModifiedActual);
+    if (lastModifiedStored == null) {
+      if (directory) {
+        watch(path);
       }
-    } else {
-      items.put(path, lastModifiedActual);
       createConsumer.forEach(it -> it.accept(path));
+    } else if (lastModifiedStored != lastModifiedActual) {
+      updateConsumer.forEach(it -> it.accept(path));
+    }
+  }
+
+  /** Stores visited items and runs create and update consumers for them. */
+  private class UpdatingVisitor extends SimpleFileVisitor<Path> {
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+      if (isExcluded(directoryExcludes, dir)) {
+        return SKIP_SUBTREE;
+      }
+
+      updateFsTreeAndAcceptConsumables(
+          true, directoryUpdateConsumers, directoryCreateConsumers, dir, attrs);
+
+      return CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+      if (!isExcluded(fileExcludes, file)) {
+        updateFsTreeAndAcceptConsumables(
+            false, fileUpdateConsumers, fileCreateConsumers, file, attrs);
+      }
+
+      return CONTINUE;
     }
   }
 }
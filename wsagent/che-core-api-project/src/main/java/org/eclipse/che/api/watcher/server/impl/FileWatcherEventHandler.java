@@ -25,6 +25,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import javax.inject.Inject;
@@ -41,6 +42,7 @@ public class FileWatcherEventHandler {
   private final AtomicInteger idCounter = new AtomicInteger();
 
   private final Map<Path, Set<FileWatcherOperation>> operations = new ConcurrentHashMap<>();
+  private final Set<BiConsumer<Path, WatchEvent.Kind<?>>> listeners = newConcurrentHashSet();
 
   private final Path root;
 
@@ -101,6 +103,25 @@ public class FileWatcherEventHandler {
     return dir;
   }
 
+  /**
+   * Registers a listener which is notified about events of all the watched directories regardless
+   * of the registered operations.
+   *
+   * @param listener consumer of the event path and kind
+   */
+  void addListener(BiConsumer<Path, WatchEvent.Kind<?>> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener registered with {@link #addListener(BiConsumer)}.
+   *
+   * @param listener consumer of the event path and kind
+   */
+  void removeListener(BiConsumer<Path, WatchEvent.Kind<?>> listener) {
+    listeners.remove(listener);
+  }
+
   /**
    * Handles event passed form file watcher system. Path parameter is expected to be passed in a
    * normal operation system file system form and is transformed into internal virtual file system
@@ -132,5 +153,7 @@ public class FileWatcherEventHandler {
           .map(Optional::get)
           .forEach(it -> it.accept(internalPath));
     }
+
+    listeners.forEach(it -> it.accept(path, kind));
   }
 }
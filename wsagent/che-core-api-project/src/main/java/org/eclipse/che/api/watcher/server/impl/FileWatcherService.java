@@ -33,12 +33,10 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Predicate;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -63,6 +61,8 @@ public class FileWatcherService {
   private final AtomicBoolean running = new AtomicBoolean();
 
   private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+  // reverse index of the keys, so registration doesn't scan all the watched directories
+  private final Map<Path, WatchKey> dirKeys = new ConcurrentHashMap<>();
   private final Map<Path, Integer> registrations = new ConcurrentHashMap<>();
 
   private final FileWatcherExcludePatternsRegistry excludePatternsRegistry;
@@ -142,6 +142,9 @@ public class FileWatcherService {
     try {
       LOG.debug("Cancelling watch keys");
       keys.keySet().forEach(WatchKey::cancel);
+      keys.clear();
+      dirKeys.clear();
+      registrations.clear();
       LOG.debug("Closing java watch service");
       service.close();
     } catch (IOException e) {
@@ -183,7 +186,7 @@ public class FileWatcherService {
       return;
     }
     LOG.debug("Registering directory '{}'", dir);
-    if (keys.values().contains(dir)) {
+    if (dirKeys.containsKey(dir)) {
       int previous = registrations.get(dir);
       LOG.debug(
           "Directory is already being watched, increasing watch counter, previous value: {}",
@@ -195,6 +198,7 @@ public class FileWatcherService {
         synchronized (keys) {
           WatchKey watchKey = dir.register(service, eventKinds, eventModifiers);
           keys.put(watchKey, dir);
+          dirKeys.put(dir, watchKey);
           registrations.put(dir, 1);
         }
       } catch (IOException e) {
@@ -217,15 +221,11 @@ public class FileWatcherService {
   void unRegister(Path dir) {
     LOG.debug("Canceling directory '{}' registration", dir);
 
-    Predicate<Entry<WatchKey, Path>> equalsDir = it -> it.getValue().equals(dir);
-
     if (!exists(dir)) {
       LOG.debug("Trying to unregister directory '{}' while it does not exist", dir);
 
       registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
+      cancel(dir);
 
       return;
     }
@@ -239,9 +239,7 @@ public class FileWatcherService {
     if (previous == 1) {
       LOG.debug("Stopping watching directory '{}'", dir);
       registrations.remove(dir);
-
-      keys.entrySet().stream().filter(equalsDir).map(Entry::getKey).forEach(WatchKey::cancel);
-      keys.entrySet().removeIf(equalsDir);
+      cancel(dir);
     } else {
       LOG.debug(
           "Directory is being watched by someone else, decreasing watch counter, previous value: {}",
@@ -250,6 +248,16 @@ public class FileWatcherService {
     }
   }
 
+  private void cancel(Path dir) {
+    synchronized (keys) {
+      WatchKey watchKey = dirKeys.remove(dir);
+      if (watchKey != null) {
+        watchKey.cancel();
+        keys.remove(watchKey);
+      }
+    }
+  }
+
   private void run() {
     suspended.compareAndSet(true, false);
     running.compareAndSet(false, true);
@@ -318,6 +326,7 @@ public class FileWatcherService {
     if (!watchKey.reset()) {
       if (dir != null) {
         registrations.remove(dir);
+        dirKeys.remove(dir, watchKey);
       }
       keys.remove(watchKey);
     }
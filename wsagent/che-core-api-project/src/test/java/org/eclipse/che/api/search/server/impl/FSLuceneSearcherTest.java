@@ -14,6 +14,7 @@ package org.eclipse.che.api.search.server.impl;
 import static com.google.common.collect.Lists.newArrayList;
 import static org.eclipse.che.api.search.SearcherTest.TEST_CONTENT;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import com.google.common.io.Files;
 import java.io.File;
@@ -75,6 +76,63 @@ public class FSLuceneSearcherTest {
     assertEquals(newArrayList("/folder/zzz.txt"), paths);
   }
 
+  @Test
+  public void shouldIndexOnlyChangedFilesAfterRestart() throws Exception {
+    // given
+    contentBuilder
+        .createFolder("folder")
+        .createFile("xxx.txt", TEST_CONTENT[2])
+        .createFile("yyy.txt", TEST_CONTENT[0])
+        .createFile("zzz.txt", TEST_CONTENT[1]);
+    searcher.initialize();
+    searcher.getInitialIndexingLatch().await();
+    searcher.shutdown();
+    contentBuilder.deleteFileInCurrentFolder("yyy.txt").createFile("zzz.txt", TEST_CONTENT[3]);
+
+    // when
+    searcher =
+        new LuceneSearcher(
+            excludePatterns, indexDirectory, new DummyProvider(workspaceStorage), pathTransformer);
+    searcher.initialize();
+    searcher.getInitialIndexingLatch().await();
+
+    // then
+    assertEquals(
+        searcher.search(new QueryExpression().setText("be")).getFilePaths(),
+        newArrayList("/folder/xxx.txt"));
+    assertEquals(
+        searcher.search(new QueryExpression().setText("nasa")).getFilePaths(),
+        newArrayList("/folder/zzz.txt"));
+    assertTrue(searcher.search(new QueryExpression().setText("think")).getFilePaths().isEmpty());
+    assertTrue(searcher.search(new QueryExpression().setText("apollo")).getFilePaths().isEmpty());
+  }
+
+  @Test
+  public void shouldLimitNumberOfPositionsPerFile() throws Exception {
+    // given
+    searcher =
+        new LuceneSearcher(
+            excludePatterns,
+            indexDirectory,
+            0,
+            2,
+            new DummyProvider(workspaceStorage),
+            pathTransformer,
+            null);
+    contentBuilder.createFolder("folder").createFile("xxx.txt", TEST_CONTENT[2]);
+    searcher.add(contentBuilder.getCurrentFolder());
+
+    // when
+    List<SearchResultEntry> results =
+        searcher
+            .search(new QueryExpression().setText("*to*").setIncludePositions(true))
+            .getResults();
+
+    // then
+    assertEquals(results.size(), 1);
+    assertEquals(results.get(0).getData().size(), 2);
+  }
+
   @Test
   public void shouldBeAbleToExcludesFilesFromIndexWithFilter() throws Exception {
     // given
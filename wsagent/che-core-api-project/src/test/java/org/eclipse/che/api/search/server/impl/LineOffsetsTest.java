@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.search.server.impl;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+public class LineOffsetsTest {
+
+  private static final String TEXT = "first line\r\nsecond\n\nfourth line";
+
+  @Test
+  public void shouldFindLineOfOffset() {
+    LineOffsets lineOffsets = LineOffsets.of(TEXT);
+
+    assertEquals(lineOffsets.lineNumber(0), 1);
+    assertEquals(lineOffsets.lineNumber(11), 1);
+    assertEquals(lineOffsets.lineNumber(12), 2);
+    assertEquals(lineOffsets.lineNumber(19), 3);
+    assertEquals(lineOffsets.lineNumber(TEXT.length() - 1), 4);
+  }
+
+  @Test
+  public void shouldReturnLineTextWithoutSeparator() {
+    LineOffsets lineOffsets = LineOffsets.of(TEXT);
+
+    assertEquals(lineOffsets.line(TEXT, 1), "first line");
+    assertEquals(lineOffsets.line(TEXT, 2), "second");
+    assertEquals(lineOffsets.line(TEXT, 3), "");
+    assertEquals(lineOffsets.line(TEXT, 4), "fourth line");
+  }
+
+  @Test
+  public void shouldRestoreEncodedOffsets() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      text.append(i).append(new String(new char[i])).append('\n');
+    }
+    LineOffsets lineOffsets = LineOffsets.of(text.toString());
+    byte[] encoded = lineOffsets.encode();
+
+    LineOffsets decoded = LineOffsets.decode(encoded, 0, encoded.length);
+
+    for (int offset = 0; offset < text.length(); offset += 97) {
+      assertEquals(decoded.lineNumber(offset), lineOffsets.lineNumber(offset));
+    }
+    assertEquals(decoded.line(text.toString(), 1000), lineOffsets.line(text.toString(), 1000));
+  }
+}
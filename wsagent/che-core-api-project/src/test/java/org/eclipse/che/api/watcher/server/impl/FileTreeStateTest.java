@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.watcher.server.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for {@link FileTreeState} */
+public class FileTreeStateTest {
+  Path root;
+  FileTreeState tree;
+
+  List<Path> removedFiles = new ArrayList<>();
+  List<Path> removedDirectories = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    root = Paths.get("/", "projects");
+    tree = new FileTreeState(root);
+  }
+
+  @Test
+  public void shouldReturnPreviousModificationTime() throws Exception {
+    Path file = root.resolve("che/pom.xml");
+
+    assertNull(tree.put(file, false, 1));
+    assertEquals(Long.valueOf(1), tree.put(file, false, 2));
+    assertEquals(1, tree.getFiles());
+  }
+
+  @Test
+  public void shouldTreatItemOfOtherKindAsNew() throws Exception {
+    Path path = root.resolve("che/src");
+    tree.put(path, false, 1);
+
+    assertNull(tree.put(path, true, 1));
+    assertTrue(tree.containsDirectory(path));
+    assertEquals(0, tree.getFiles());
+    assertEquals(1, tree.getDirectories());
+  }
+
+  @Test
+  public void shouldRemoveDirectoryWithContent() throws Exception {
+    Path dir = root.resolve("che");
+    tree.put(root, true, 1);
+    tree.put(dir, true, 1);
+    tree.put(dir.resolve("src"), true, 1);
+    tree.put(dir.resolve("src/Main.java"), false, 1);
+    tree.put(dir.resolve("pom.xml"), false, 1);
+    tree.put(root.resolve("README.md"), false, 1);
+
+    tree.remove(dir, removedFiles, removedDirectories);
+
+    assertEquals(
+        new HashSet<>(asList(dir.resolve("src/Main.java"), dir.resolve("pom.xml"))),
+        new HashSet<>(removedFiles));
+    assertEquals(
+        new HashSet<>(asList(dir, dir.resolve("src"))), new HashSet<>(removedDirectories));
+    assertFalse(tree.containsDirectory(dir));
+    assertTrue(tree.containsDirectory(root));
+    assertEquals(1, tree.getFiles());
+    assertEquals(1, tree.getDirectories());
+  }
+
+  @Test
+  public void shouldRemoveItemsNotStoredInCurrentGeneration() throws Exception {
+    Path dir = root.resolve("che");
+    tree.put(root, true, 1);
+    tree.put(dir, true, 1);
+    tree.put(dir.resolve("pom.xml"), false, 1);
+    tree.put(dir.resolve("README.md"), false, 1);
+
+    tree.startGeneration();
+    tree.put(root, true, 1);
+    tree.put(dir, true, 1);
+    tree.put(dir.resolve("pom.xml"), false, 1);
+    tree.removeUnmarked(removedFiles, removedDirectories);
+
+    assertEquals(singletonList(dir.resolve("README.md")), removedFiles);
+    assertTrue(removedDirectories.isEmpty());
+    assertEquals(1, tree.getFiles());
+    assertEquals(2, tree.getDirectories());
+  }
+
+  @Test
+  public void shouldIgnorePathsOutsideOfRoot() throws Exception {
+    Path path = Paths.get("/", "tmp", "file");
+
+    assertNull(tree.put(path, false, 1));
+    assertNull(tree.put(path, false, 1));
+    assertEquals(0, tree.getFiles());
+  }
+}
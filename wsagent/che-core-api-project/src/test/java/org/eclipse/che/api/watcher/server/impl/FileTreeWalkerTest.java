@@ -14,6 +14,8 @@ package org.eclipse.che.api.watcher.server.impl;
 import static java.io.File.createTempFile;
 import static java.lang.Thread.sleep;
 import static org.apache.commons.io.FileUtils.write;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -223,6 +225,38 @@ public class FileTreeWalkerTest {
     verify(fileCreatedConsumerMock, never()).accept(file.toPath());
   }
 
+  @Test
+  public void shouldUnregisterDeletedDirectoriesFromWatcherService() throws Exception {
+    FileWatcherService watcherService = mock(FileWatcherService.class);
+    FileWatcherEventHandler eventHandler = mock(FileWatcherEventHandler.class);
+    FileTreeWalker eventDrivenWalker =
+        new FileTreeWalker(
+            new DummyRootProvider(rootFolder.getRoot()),
+            directoryUpdateConsumers,
+            directoryCreateConsumers,
+            directoryDeleteConsumers,
+            directoryExcludes,
+            fileUpdateConsumers,
+            fileCreateConsumers,
+            fileDeleteConsumers,
+            fileExcludes,
+            watcherService,
+            eventHandler,
+            true,
+            0);
+    File folder = rootFolder.newFolder(TEST_FOLDER_NAME);
+    eventDrivenWalker.initialize();
+    verify(watcherService).register(folder.toPath());
+
+    folder.delete();
+    eventDrivenWalker.walk();
+    verify(watcherService).unRegister(folder.toPath());
+
+    eventDrivenWalker.shutdown();
+    verify(watcherService).unRegister(rootFolder.getRoot().toPath());
+    verify(eventHandler).removeListener(any());
+  }
+
   private static class DummyRootProvider extends RootDirPathProvider {
 
     public DummyRootProvider(File folder) {
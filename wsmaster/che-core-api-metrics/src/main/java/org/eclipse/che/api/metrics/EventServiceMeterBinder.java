@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.eclipse.che.api.core.notification.AsyncDeliveryStats;
+import org.eclipse.che.api.core.notification.EventService;
+
+/** Provides metrics of asynchronous event delivery of {@link EventService}. */
+@Singleton
+public class EventServiceMeterBinder implements MeterBinder {
+
+  private final AsyncDeliveryStats stats;
+
+  @Inject
+  public EventServiceMeterBinder(EventService eventService) {
+    this.stats = eventService.getAsyncDeliveryStats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("che.event.async.queue.size", stats, AsyncDeliveryStats::getQueueSize)
+        .description("The number of events waiting for delivery to asynchronous subscribers")
+        .register(registry);
+    FunctionCounter.builder("che.event.async.dropped", stats, AsyncDeliveryStats::getDroppedCount)
+        .description("The number of events dropped because of subscriber queue overflow")
+        .register(registry);
+    FunctionTimer.builder(
+            "che.event.async.dispatch",
+            stats,
+            AsyncDeliveryStats::getDispatchedCount,
+            s -> s.getTotalDispatchTime(TimeUnit.NANOSECONDS),
+            TimeUnit.NANOSECONDS)
+        .description("The time between publishing of events and their asynchronous processing")
+        .register(registry);
+  }
+}
@@ -11,44 +11,154 @@
  */
 package org.eclipse.che.api.metrics;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.eclipse.che.api.metrics.WorkspaceBinders.withStandardTags;
 import static org.eclipse.che.api.metrics.WorkspaceBinders.workspaceMetric;
 
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.workspace.activity.WorkspaceActivityManager;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.api.workspace.shared.event.WorkspaceCreatedEvent;
+import org.eclipse.che.api.workspace.shared.event.WorkspaceRemovedEvent;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-/** Provides metrics of workspace activity. */
+/**
+ * Provides metrics of workspace activity.
+ *
+ * <p>The numbers of workspaces in the statuses are kept in memory and maintained from the workspace
+ * events, so the metrics are scraped without querying the database. The numbers are periodically
+ * reconciled with the database, which also accounts for the changes made by the other Che server
+ * instances. The time spent by workspaces in the statuses other than stopped is recorded as a
+ * histogram.
+ */
 @Singleton
 public class WorkspaceActivityMeterBinder implements MeterBinder {
 
+  private static final Logger LOG = LoggerFactory.getLogger(WorkspaceActivityMeterBinder.class);
+
   private final WorkspaceActivityManager activityManager;
+  private final EventService eventService;
+  private final Map<WorkspaceStatus, AtomicLong> counts;
+  private final Map<WorkspaceStatus, Timer> statusTimers;
+  private final ConcurrentMap<String, StatusSince> statuses;
 
   @Inject
-  public WorkspaceActivityMeterBinder(WorkspaceActivityManager activityManager) {
+  public WorkspaceActivityMeterBinder(
+      WorkspaceActivityManager activityManager, EventService eventService) {
     this.activityManager = activityManager;
+    this.eventService = eventService;
+    this.counts = new EnumMap<>(WorkspaceStatus.class);
+    for (WorkspaceStatus s : WorkspaceStatus.values()) {
+      counts.put(s, new AtomicLong());
+    }
+    this.statusTimers = new EnumMap<>(WorkspaceStatus.class);
+    this.statuses = new ConcurrentHashMap<>();
   }
 
   @Override
   public void bindTo(MeterRegistry registry) {
+    reconcile();
+
     for (WorkspaceStatus s : WorkspaceStatus.values()) {
-      Gauge.builder(workspaceMetric("status"), () -> count(s))
+      AtomicLong count = counts.get(s);
+      Gauge.builder(workspaceMetric("status"), count::get)
           .tags(withStandardTags("status", s.name()))
           .description("The number of workspaces in a given status")
           .register(registry);
+
+      if (s != WorkspaceStatus.STOPPED) {
+        statusTimers.put(
+            s,
+            Timer.builder(workspaceMetric("status.time"))
+                .tags(withStandardTags("status", s.name()))
+                .description("The time spent by workspaces in a given status")
+                .publishPercentileHistogram()
+                .register(registry));
+      }
+    }
+
+    // only subscribe to the events once we have the meters ready
+    eventService.subscribe(this::statusChanged, WorkspaceStatusEvent.class);
+    eventService.subscribe(
+        event -> increment(WorkspaceStatus.STOPPED), WorkspaceCreatedEvent.class);
+    eventService.subscribe(
+        event -> {
+          statuses.remove(event.getWorkspace().getId());
+          decrement(WorkspaceStatus.STOPPED);
+        },
+        WorkspaceRemovedEvent.class);
+  }
+
+  /** Replaces the numbers of workspaces in the statuses with the ones stored in the database. */
+  @ScheduleDelay(
+      initialDelayParameterName = "che.metrics.workspace.status_reconciliation_period_s",
+      delayParameterName = "che.metrics.workspace.status_reconciliation_period_s")
+  void reconcile() {
+    for (WorkspaceStatus s : WorkspaceStatus.values()) {
+      try {
+        counts
+            .get(s)
+            .set(activityManager.countWorkspacesInStatus(s, System.currentTimeMillis()));
+      } catch (ServerException e) {
+        LOG.warn("Failed to count the workspaces in status {}", s, e);
+      }
+    }
+  }
+
+  private void statusChanged(WorkspaceStatusEvent event) {
+    WorkspaceStatus status = event.getStatus();
+    WorkspaceStatus prevStatus = event.getPrevStatus();
+    if (prevStatus != null) {
+      decrement(prevStatus);
+    }
+    increment(status);
+
+    long now = System.nanoTime();
+    StatusSince previous =
+        status == WorkspaceStatus.STOPPED
+            ? statuses.remove(event.getWorkspaceId())
+            : statuses.put(event.getWorkspaceId(), new StatusSince(status, now));
+    // workspaces which were already running on the server start are not timed until they change
+    // the status
+    if (previous != null && previous.status == prevStatus) {
+      Timer timer = statusTimers.get(prevStatus);
+      if (timer != null) {
+        timer.record(now - previous.since, NANOSECONDS);
+      }
     }
   }
 
-  private double count(WorkspaceStatus status) {
-    try {
-      return activityManager.countWorkspacesInStatus(status, System.currentTimeMillis());
-    } catch (ServerException e) {
-      return Double.NaN;
+  private void increment(WorkspaceStatus status) {
+    counts.get(status).incrementAndGet();
+  }
+
+  private void decrement(WorkspaceStatus status) {
+    // the count may be already reconciled with the database which doesn't count the workspace
+    counts.get(status).updateAndGet(c -> c > 0 ? c - 1 : 0);
+  }
+
+  private static class StatusSince {
+    final WorkspaceStatus status;
+    final long since;
+
+    StatusSince(WorkspaceStatus status, long since) {
+      this.status = status;
+      this.since = since;
     }
   }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.eclipse.che.api.metrics.WorkspaceBinders.withStandardTags;
+import static org.eclipse.che.api.metrics.WorkspaceBinders.workspaceMetric;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes.RecoveryPhase;
+
+/**
+ * Times the phases of the workspace runtimes recovery which happens on the server start. The timer
+ * IDs only differ in the "phase" tag, i.e. the loading of the workspace from the database, the
+ * creation of its internal environment and the preparation of the runtime by the infrastructure.
+ */
+@Singleton
+public class WorkspaceRecoveryMeterBinder implements MeterBinder {
+  private final WorkspaceRuntimes workspaceRuntimes;
+
+  @Inject
+  public WorkspaceRecoveryMeterBinder(WorkspaceRuntimes workspaceRuntimes) {
+    this.workspaceRuntimes = workspaceRuntimes;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (RecoveryPhase phase : RecoveryPhase.values()) {
+      FunctionTimer.builder(
+              workspaceMetric("recovery.phase"),
+              workspaceRuntimes,
+              runtimes -> runtimes.getRecoveryPhaseCount(phase),
+              runtimes -> runtimes.getRecoveryPhaseTime(phase, NANOSECONDS),
+              NANOSECONDS)
+          .tags(withStandardTags("phase", phase.name().toLowerCase()))
+          .description("The time spent in the phases of the workspace runtimes recovery")
+          .register(registry);
+    }
+  }
+}
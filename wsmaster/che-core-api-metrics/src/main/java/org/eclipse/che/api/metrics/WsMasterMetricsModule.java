@@ -28,5 +28,7 @@ public class WsMasterMetricsModule extends AbstractModule {
 
     meterMultibinder.addBinding().to(WorkspaceActivityMeterBinder.class);
     meterMultibinder.addBinding().to(WorkspaceFailureMeterBinder.class);
+    meterMultibinder.addBinding().to(EventServiceMeterBinder.class);
+    meterMultibinder.addBinding().to(WorkspaceRecoveryMeterBinder.class);
   }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import org.eclipse.che.api.core.notification.AsyncDeliveryOptions;
+import org.eclipse.che.api.core.notification.EventService;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class EventServiceMeterBinderTest {
+
+  private EventService eventService;
+  private MeterRegistry registry;
+
+  @BeforeMethod
+  public void setup() {
+    eventService = new EventService();
+    registry = new SimpleMeterRegistry();
+    new EventServiceMeterBinder(eventService).bindTo(registry);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    eventService.shutdown();
+  }
+
+  @Test
+  public void shouldReportDispatchedEvents() throws Exception {
+    CountDownLatch latch = new CountDownLatch(2);
+    eventService.subscribeAsync(
+        e -> latch.countDown(), String.class, AsyncDeliveryOptions.ordered());
+
+    eventService.publish("a");
+    eventService.publish("b");
+
+    assertTrue(latch.await(5, SECONDS));
+    assertEventually(() -> registry.get("che.event.async.dispatch").functionTimer().count() == 2);
+    assertEquals(registry.get("che.event.async.dropped").functionCounter().count(), 0D);
+  }
+
+  @Test
+  public void shouldReportQueueSizeAndDroppedEvents() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    eventService.subscribeAsync(
+        e -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+          }
+        },
+        String.class,
+        AsyncDeliveryOptions.<String>ordered()
+            .withQueueCapacity(1)
+            .withOverflowPolicy(AsyncDeliveryOptions.OverflowPolicy.DROP_NEWEST));
+
+    eventService.publish("a");
+    assertTrue(started.await(5, SECONDS));
+    eventService.publish("b");
+    eventService.publish("c");
+
+    assertEquals(registry.get("che.event.async.queue.size").gauge().value(), 1D);
+    assertEquals(registry.get("che.event.async.dropped").functionCounter().count(), 1D);
+    release.countDown();
+  }
+
+  private static void assertEventually(BooleanSupplier condition)
+      throws InterruptedException {
+    for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+      MILLISECONDS.sleep(100);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+}
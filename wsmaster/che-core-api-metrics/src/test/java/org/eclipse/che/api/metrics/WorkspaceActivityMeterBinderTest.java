@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.workspace.activity.WorkspaceActivityManager;
+import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class WorkspaceActivityMeterBinderTest {
+
+  private MeterRegistry registry;
+  private WorkspaceActivityManager activityManager;
+  private WorkspaceActivityMeterBinder meterBinder;
+  private EventSubscriber<WorkspaceStatusEvent> events;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    registry = new SimpleMeterRegistry();
+    activityManager = mock(WorkspaceActivityManager.class);
+    when(activityManager.countWorkspacesInStatus(eq(WorkspaceStatus.STOPPED), anyLong()))
+        .thenReturn(2L);
+    when(activityManager.countWorkspacesInStatus(eq(WorkspaceStatus.RUNNING), anyLong()))
+        .thenReturn(1L);
+
+    EventService eventService = mock(EventService.class);
+
+    meterBinder = new WorkspaceActivityMeterBinder(activityManager, eventService);
+
+    meterBinder.bindTo(registry);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<EventSubscriber<WorkspaceStatusEvent>> statusChangeEventCaptor =
+        ArgumentCaptor.forClass(EventSubscriber.class);
+
+    verify(eventService)
+        .subscribe(statusChangeEventCaptor.capture(), eq(WorkspaceStatusEvent.class));
+
+    events = statusChangeEventCaptor.getValue();
+  }
+
+  @Test
+  public void shouldNotQueryDatabaseWhenScraped() throws Exception {
+    assertEquals(gauge(WorkspaceStatus.STOPPED), 2d);
+    assertEquals(gauge(WorkspaceStatus.RUNNING), 1d);
+    assertEquals(gauge(WorkspaceStatus.STOPPED), 2d);
+
+    verify(activityManager, times(1))
+        .countWorkspacesInStatus(eq(WorkspaceStatus.STOPPED), anyLong());
+    verify(activityManager, times(1))
+        .countWorkspacesInStatus(eq(WorkspaceStatus.RUNNING), anyLong());
+  }
+
+  @Test
+  public void shouldMaintainCountsFromStatusEvents() {
+    statusChanged("1", WorkspaceStatus.STOPPED, WorkspaceStatus.STARTING);
+
+    assertEquals(gauge(WorkspaceStatus.STOPPED), 1d);
+    assertEquals(gauge(WorkspaceStatus.STARTING), 1d);
+    assertEquals(gauge(WorkspaceStatus.RUNNING), 1d);
+  }
+
+  @Test
+  public void shouldReplaceCountsOnReconciliation() throws Exception {
+    statusChanged("1", WorkspaceStatus.STOPPED, WorkspaceStatus.STARTING);
+
+    meterBinder.reconcile();
+
+    assertEquals(gauge(WorkspaceStatus.STOPPED), 2d);
+    assertEquals(gauge(WorkspaceStatus.STARTING), 0d);
+  }
+
+  @Test
+  public void shouldRecordTimeSpentInStatus() {
+    statusChanged("1", WorkspaceStatus.STOPPED, WorkspaceStatus.STARTING);
+    statusChanged("1", WorkspaceStatus.STARTING, WorkspaceStatus.RUNNING);
+    statusChanged("1", WorkspaceStatus.RUNNING, WorkspaceStatus.STOPPING);
+    statusChanged("1", WorkspaceStatus.STOPPING, WorkspaceStatus.STOPPED);
+
+    assertEquals(timerCount(WorkspaceStatus.STARTING), 1L);
+    assertEquals(timerCount(WorkspaceStatus.RUNNING), 1L);
+    assertEquals(timerCount(WorkspaceStatus.STOPPING), 1L);
+  }
+
+  @Test
+  public void shouldNotRecordTimeInStatusEnteredBeforeStart() {
+    statusChanged("1", WorkspaceStatus.RUNNING, WorkspaceStatus.STOPPING);
+
+    assertEquals(timerCount(WorkspaceStatus.RUNNING), 0L);
+  }
+
+  private void statusChanged(String workspaceId, WorkspaceStatus from, WorkspaceStatus to) {
+    events.onEvent(
+        DtoFactory.newDto(WorkspaceStatusEvent.class)
+            .withPrevStatus(from)
+            .withStatus(to)
+            .withWorkspaceId(workspaceId));
+  }
+
+  private double gauge(WorkspaceStatus status) {
+    return registry.get("che.workspace.status").tag("status", status.name()).gauge().value();
+  }
+
+  private long timerCount(WorkspaceStatus status) {
+    return registry.get("che.workspace.status.time").tag("status", status.name()).timer().count();
+  }
+}
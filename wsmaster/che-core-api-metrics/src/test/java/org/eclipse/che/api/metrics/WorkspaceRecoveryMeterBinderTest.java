@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.metrics;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes.RecoveryPhase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class WorkspaceRecoveryMeterBinderTest {
+
+  private WorkspaceRuntimes workspaceRuntimes;
+  private MeterRegistry registry;
+
+  @BeforeMethod
+  public void setup() {
+    workspaceRuntimes = mock(WorkspaceRuntimes.class);
+    registry = new SimpleMeterRegistry();
+
+    new WorkspaceRecoveryMeterBinder(workspaceRuntimes).bindTo(registry);
+  }
+
+  @Test
+  public void shouldTimeEachRecoveryPhase() {
+    when(workspaceRuntimes.getRecoveryPhaseCount(RecoveryPhase.PREPARE_RUNTIME)).thenReturn(4L);
+    when(workspaceRuntimes.getRecoveryPhaseTime(RecoveryPhase.PREPARE_RUNTIME, NANOSECONDS))
+        .thenReturn((double) MILLISECONDS.toNanos(2000));
+
+    FunctionTimer prepare =
+        registry
+            .find("che.workspace.recovery.phase")
+            .tag("phase", "prepare_runtime")
+            .functionTimer();
+    assertNotNull(prepare);
+    assertEquals(prepare.count(), 4D);
+    assertEquals(prepare.mean(MILLISECONDS), 500D);
+
+    assertEquals(registry.find("che.workspace.recovery.phase").functionTimers().size(), 3);
+  }
+}
@@ -13,8 +13,10 @@ package org.eclipse.che.api.workspace.activity;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.collect.Iterables;
 import com.google.inject.persist.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
@@ -35,6 +37,9 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 @Singleton
 public class JpaWorkspaceActivityDao implements WorkspaceActivityDao {
 
+  /** Maximum number of ids passed to a single IN query when expiration times are set at once. */
+  private static final int MAX_IDS_PER_QUERY = 500;
+
   @Inject private Provider<EntityManager> managerProvider;
 
   @Override
@@ -48,6 +53,33 @@ public class JpaWorkspaceActivityDao implements WorkspaceActivityDao {
     doUpdate(workspaceId, a -> a.setExpiration(expirationTime));
   }
 
+  @Override
+  @Transactional(rollbackOn = ServerException.class)
+  public void setExpirationTimes(Map<String, Long> expirationTimes) throws ServerException {
+    requireNonNull(expirationTimes, "Required non-null expiration times");
+    if (expirationTimes.isEmpty()) {
+      return;
+    }
+    try {
+      EntityManager em = managerProvider.get();
+      // records are not created here, the workspace might be already removed
+      for (List<String> ids : Iterables.partition(expirationTimes.keySet(), MAX_IDS_PER_QUERY)) {
+        List<WorkspaceActivity> activities =
+            em.createNamedQuery("WorkspaceActivity.getByIds", WorkspaceActivity.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        for (WorkspaceActivity activity : activities) {
+          activity.setExpiration(expirationTimes.get(activity.getWorkspaceId()));
+        }
+      }
+      // all the changes are written with a single flush, so they go to the database
+      // in as few statements as the configured batch writing allows
+      em.flush();
+    } catch (RuntimeException x) {
+      throw new ServerException(x.getLocalizedMessage(), x);
+    }
+  }
+
   @Override
   public void removeExpiration(String workspaceId) throws ServerException {
     requireNonNull(workspaceId, "Required non-null workspace id");
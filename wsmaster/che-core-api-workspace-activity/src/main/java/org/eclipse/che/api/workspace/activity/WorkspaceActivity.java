@@ -25,6 +25,9 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 @Entity
 @Table(name = "che_workspace_activity")
 @NamedQueries({
+  @NamedQuery(
+      name = "WorkspaceActivity.getByIds",
+      query = "SELECT a FROM WorkspaceActivity a WHERE a.workspaceId IN :ids"),
   @NamedQuery(
       name = "WorkspaceActivity.getExpired",
       query = "SELECT a FROM WorkspaceActivity a WHERE a.expiration < :expiration"),
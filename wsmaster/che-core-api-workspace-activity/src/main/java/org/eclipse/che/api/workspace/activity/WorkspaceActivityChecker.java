@@ -98,7 +98,18 @@ public class WorkspaceActivityChecker {
   }
 
   private void stopAllExpired() throws ServerException {
-    activityDao.findExpired(clock.millis()).forEach(this::stopExpired);
+    // the pending activity must be seen, otherwise active workspaces might be stopped
+    try {
+      workspaceActivityManager.flush();
+    } catch (ServerException e) {
+      LOG.error("Failed to store pending workspace activity", e);
+    }
+    for (String workspaceId : activityDao.findExpired(clock.millis())) {
+      // the workspaces which activity failed to be stored are checked next time
+      if (!workspaceActivityManager.hasPendingActivity(workspaceId)) {
+        stopExpired(workspaceId);
+      }
+    }
   }
 
   private void stopExpired(String workspaceId) {
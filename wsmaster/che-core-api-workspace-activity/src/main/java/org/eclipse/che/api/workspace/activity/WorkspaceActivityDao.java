@@ -12,6 +12,7 @@
 package org.eclipse.che.api.workspace.activity;
 
 import java.util.List;
+import java.util.Map;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.Page;
 import org.eclipse.che.api.core.ServerException;
@@ -45,6 +46,23 @@ public interface WorkspaceActivityDao {
    */
   void setExpirationTime(String workspaceId, long expirationTime) throws ServerException;
 
+  /**
+   * Sets expiration times of several workspaces at once. Unlike {@link #setExpirationTime(String,
+   * long)} it updates only the existing activity records, the times of the workspaces without
+   * records (e.g. removed ones) are skipped. Implementations should store all the times in a single
+   * operation, the default implementation just sets them one by one.
+   *
+   * @param expirationTimes the new expiration times mapped by the ids of the workspaces
+   * @throws ServerException when operation failed
+   */
+  default void setExpirationTimes(Map<String, Long> expirationTimes) throws ServerException {
+    for (Map.Entry<String, Long> entry : expirationTimes.entrySet()) {
+      if (findActivity(entry.getKey()) != null) {
+        setExpirationTime(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
   /**
    * Removes workspace expiration time (basically used on ws stop).
    *
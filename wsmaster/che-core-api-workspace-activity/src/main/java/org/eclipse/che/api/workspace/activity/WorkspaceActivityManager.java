@@ -15,8 +15,13 @@ import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOPPED_B
 
 import com.google.common.annotations.VisibleForTesting;
 import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -31,6 +36,7 @@ import org.eclipse.che.api.workspace.server.event.BeforeWorkspaceRemovedEvent;
 import org.eclipse.che.api.workspace.shared.Constants;
 import org.eclipse.che.api.workspace.shared.dto.event.WorkspaceStatusEvent;
 import org.eclipse.che.api.workspace.shared.event.WorkspaceCreatedEvent;
+import org.eclipse.che.commons.schedule.ScheduleDelay;
 import org.eclipse.che.core.db.cascade.CascadeEventSubscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +50,11 @@ import org.slf4j.LoggerFactory;
  * one minute rate. If workspace idle timeout is negative, then workspace would not be stopped
  * automatically.
  *
+ * <p>If {@code che.workspace.activity.flush_period_s} is positive, activity updates are not written
+ * to the storage immediately. Only the latest activity time of each workspace is kept in memory
+ * and the pending expiration times are written in a single batch once per the flush period. Use
+ * {@link #flush()} to write them before reading the expiration times from the storage.
+ *
  * @author Anton Korneta
  */
 @Singleton
@@ -54,6 +65,10 @@ public class WorkspaceActivityManager {
   private static final Logger LOG = LoggerFactory.getLogger(WorkspaceActivityManager.class);
 
   private final long defaultTimeout;
+  private final long flushPeriod;
+  private final ConcurrentMap<String, Long> pendingActivity;
+  // guards the pending activity which is being written against stopping of its workspace
+  private final Object flushLock = new Object();
   private final WorkspaceActivityDao activityDao;
   private final EventService eventService;
   private final EventSubscriber<WorkspaceStatusEvent> updateStatusChangedTimestampSubscriber;
@@ -69,9 +84,26 @@ public class WorkspaceActivityManager {
       WorkspaceManager workspaceManager,
       WorkspaceActivityDao activityDao,
       EventService eventService,
-      @Named("che.limits.workspace.idle.timeout") long timeout) {
+      @Named("che.limits.workspace.idle.timeout") long timeout,
+      @Named("che.workspace.activity.flush_period_s") long flushPeriod) {
+
+    this(
+        workspaceManager,
+        activityDao,
+        eventService,
+        timeout,
+        flushPeriod,
+        Clock.systemDefaultZone());
+  }
 
-    this(workspaceManager, activityDao, eventService, timeout, Clock.systemDefaultZone());
+  @VisibleForTesting
+  WorkspaceActivityManager(
+      WorkspaceManager workspaceManager,
+      WorkspaceActivityDao activityDao,
+      EventService eventService,
+      long timeout,
+      Clock clock) {
+    this(workspaceManager, activityDao, eventService, timeout, -1, clock);
   }
 
   @VisibleForTesting
@@ -80,11 +112,14 @@ public class WorkspaceActivityManager {
       WorkspaceActivityDao activityDao,
       EventService eventService,
       long timeout,
+      long flushPeriod,
       Clock clock) {
     this.workspaceManager = workspaceManager;
     this.eventService = eventService;
     this.activityDao = activityDao;
     this.defaultTimeout = timeout;
+    this.flushPeriod = flushPeriod;
+    this.pendingActivity = new ConcurrentHashMap<>();
     this.clock = clock;
     if (timeout > 0 && timeout < MINIMAL_TIMEOUT) {
       LOG.warn(
@@ -113,6 +148,8 @@ public class WorkspaceActivityManager {
         new CascadeEventSubscriber<BeforeWorkspaceRemovedEvent>() {
           @Override
           public void onCascadeEvent(BeforeWorkspaceRemovedEvent event) throws Exception {
+            // pending activity must not recreate the record of the removed workspace
+            pendingActivity.remove(event.getWorkspace().getId());
             activityDao.removeActivity(event.getWorkspace().getId());
           }
         };
@@ -135,6 +172,10 @@ public class WorkspaceActivityManager {
    * @param activityTime moment in which the activity occurred
    */
   public void update(String wsId, long activityTime) {
+    if (flushPeriod > 0) {
+      pendingActivity.merge(wsId, activityTime, Math::max);
+      return;
+    }
     try {
       long timeout = getIdleTimeout(wsId);
       if (timeout > 0) {
@@ -145,6 +186,71 @@ public class WorkspaceActivityManager {
     }
   }
 
+  /**
+   * Writes the expiration times of the workspaces with pending activity to the storage in a single
+   * batch. Does nothing if activity updates are written immediately.
+   *
+   * @throws ServerException when the expiration times could not be stored, the activity stays
+   *     pending then
+   */
+  public void flush() throws ServerException {
+    if (pendingActivity.isEmpty()) {
+      return;
+    }
+    synchronized (flushLock) {
+      Map<String, Long> activityTimes = new HashMap<>();
+      for (String wsId : pendingActivity.keySet()) {
+        Long activityTime = pendingActivity.remove(wsId);
+        if (activityTime != null) {
+          activityTimes.put(wsId, activityTime);
+        }
+      }
+
+      try {
+        Map<String, Long> expirationTimes = new HashMap<>();
+        for (Map.Entry<String, Long> entry : activityTimes.entrySet()) {
+          long timeout = getIdleTimeout(entry.getKey());
+          if (timeout > 0) {
+            expirationTimes.put(entry.getKey(), entry.getValue() + timeout);
+          }
+        }
+        activityDao.setExpirationTimes(expirationTimes);
+      } catch (ServerException | RuntimeException e) {
+        // keep the activity for the next attempt unless a newer one came meanwhile
+        activityTimes.forEach((wsId, time) -> pendingActivity.merge(wsId, time, Math::max));
+        throw e;
+      }
+    }
+  }
+
+  /** Returns the number of workspaces which activity is not written to the storage yet. */
+  public int getPendingActivityCount() {
+    return pendingActivity.size();
+  }
+
+  /** Returns true if the activity of the given workspace is not written to the storage yet. */
+  public boolean hasPendingActivity(String wsId) {
+    return pendingActivity.containsKey(wsId);
+  }
+
+  @ScheduleDelay(
+      initialDelayParameterName = "che.workspace.activity.flush_period_s",
+      delayParameterName = "che.workspace.activity.flush_period_s")
+  @VisibleForTesting
+  void flushPeriodically() {
+    try {
+      flush();
+    } catch (ServerException e) {
+      LOG.error("Failed to store workspace activity, retrying in the next flush", e);
+    }
+  }
+
+  @PreDestroy
+  @VisibleForTesting
+  void flushOnShutdown() {
+    flushPeriodically();
+  }
+
   /**
    * Finds workspaces that have been in the provided status since before the provided time.
    *
@@ -204,10 +310,14 @@ public class WorkspaceActivityManager {
           WorkspaceActivityManager.this.update(workspaceId, now);
           break;
         case STOPPED:
-          try {
-            activityDao.removeExpiration(workspaceId);
-          } catch (ServerException e) {
-            LOG.error(e.getLocalizedMessage(), e);
+          // waits for the running flush, so it can't write the expiration after it is removed
+          synchronized (flushLock) {
+            pendingActivity.remove(workspaceId);
+            try {
+              activityDao.removeExpiration(workspaceId);
+            } catch (ServerException e) {
+              LOG.error(e.getLocalizedMessage(), e);
+            }
           }
           break;
         default:
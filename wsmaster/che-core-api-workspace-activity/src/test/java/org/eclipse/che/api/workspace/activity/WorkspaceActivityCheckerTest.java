@@ -13,8 +13,11 @@ package org.eclipse.che.api.workspace.activity;
 
 import static java.util.Collections.singleton;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -29,6 +32,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.workspace.server.WorkspaceManager;
@@ -36,6 +40,7 @@ import org.eclipse.che.api.workspace.server.WorkspaceRuntimes;
 import org.eclipse.che.api.workspace.server.model.impl.WorkspaceImpl;
 import org.eclipse.che.api.workspace.shared.Constants;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -78,6 +83,41 @@ public class WorkspaceActivityCheckerTest {
     verify(workspaceActivityDao).removeExpiration(eq("3"));
   }
 
+  @Test
+  public void shouldWritePendingActivityBeforeFindingExpiredWorkspaces() throws Exception {
+    WorkspaceActivityManager activityManager = newWriteBehindActivityManager();
+    checker =
+        new WorkspaceActivityChecker(
+            workspaceActivityDao, workspaceManager, workspaceRuntimes, activityManager, clock);
+    activityManager.update("1", clock.millis());
+
+    checker.validate();
+
+    InOrder inOrder = inOrder(workspaceActivityDao);
+    inOrder
+        .verify(workspaceActivityDao)
+        .setExpirationTimes(ImmutableMap.of("1", clock.millis() + DEFAULT_TIMEOUT));
+    inOrder.verify(workspaceActivityDao).findExpired(anyLong());
+  }
+
+  @Test
+  public void shouldStopOnlyWorkspacesWithoutPendingActivityWhenItCannotBeWritten()
+      throws Exception {
+    WorkspaceActivityManager activityManager = newWriteBehindActivityManager();
+    checker =
+        new WorkspaceActivityChecker(
+            workspaceActivityDao, workspaceManager, workspaceRuntimes, activityManager, clock);
+    activityManager.update("1", clock.millis());
+    doThrow(new ServerException("test")).when(workspaceActivityDao).setExpirationTimes(anyMap());
+    when(workspaceActivityDao.findExpired(anyLong())).thenReturn(Arrays.asList("1", "2"));
+
+    checker.validate();
+
+    verify(workspaceActivityDao).removeExpiration(eq("2"));
+    verify(workspaceActivityDao, never()).removeExpiration(eq("1"));
+    assertEquals(1, activityManager.getPendingActivityCount());
+  }
+
   @Test
   public void shouldRecreateMissingActivityRecord() throws Exception {
     // given
@@ -215,6 +255,11 @@ public class WorkspaceActivityCheckerTest {
     verify(workspaceActivityDao, never()).setExpirationTime(anyString(), anyLong());
   }
 
+  private WorkspaceActivityManager newWriteBehindActivityManager() {
+    return new WorkspaceActivityManager(
+        workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT, 10, clock);
+  }
+
   private static final class ManualClock extends Clock {
 
     private Instant instant;
@@ -15,15 +15,26 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 
 import com.google.common.collect.ImmutableMap;
+import java.time.Clock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 import org.eclipse.che.account.shared.model.Account;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
@@ -68,7 +79,7 @@ public class WorkspaceActivityManagerTest {
   private void setUp() throws Exception {
     activityManager =
         new WorkspaceActivityManager(
-            workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT);
+            workspaceManager, workspaceActivityDao, eventService, DEFAULT_TIMEOUT, -1);
 
     lenient().when(account.getName()).thenReturn("accountName");
     lenient().when(account.getId()).thenReturn("account123");
@@ -88,6 +99,100 @@ public class WorkspaceActivityManagerTest {
         .setExpirationTime(eq(wsId), eq(activityTime + DEFAULT_TIMEOUT));
   }
 
+  @Test
+  public void shouldWriteOnlyLatestActivityOnFlush() throws Exception {
+    final String wsId = "testWsId";
+    activityManager = newWriteBehindActivityManager();
+
+    activityManager.update(wsId, 1000L);
+    activityManager.update(wsId, 3000L);
+    activityManager.update(wsId, 2000L);
+
+    verify(workspaceActivityDao, never()).setExpirationTime(anyString(), anyLong());
+    assertEquals(1, activityManager.getPendingActivityCount());
+
+    activityManager.flush();
+
+    verify(workspaceActivityDao).setExpirationTimes(ImmutableMap.of(wsId, 3000L + DEFAULT_TIMEOUT));
+    assertEquals(0, activityManager.getPendingActivityCount());
+  }
+
+  @Test
+  public void shouldKeepPendingActivityWhenFlushFails() throws Exception {
+    activityManager = newWriteBehindActivityManager();
+    activityManager.update("testWsId", 1000L);
+    doThrow(new ServerException("test"))
+        .when(workspaceActivityDao)
+        .setExpirationTimes(ImmutableMap.of("testWsId", 1000L + DEFAULT_TIMEOUT));
+
+    activityManager.flushPeriodically();
+
+    assertEquals(1, activityManager.getPendingActivityCount());
+  }
+
+  @Test
+  public void shouldDropPendingActivityAfterStopping() throws Exception {
+    final String wsId = "testWsId";
+    activityManager = newWriteBehindActivityManager();
+    activityManager.update(wsId, 1000L);
+    final EventSubscriber<WorkspaceStatusEvent> subscriber = subscribeAndGetStatusEventSubscriber();
+
+    subscriber.onEvent(
+        DtoFactory.newDto(WorkspaceStatusEvent.class)
+            .withStatus(WorkspaceStatus.STOPPED)
+            .withWorkspaceId(wsId));
+    activityManager.flush();
+
+    assertEquals(0, activityManager.getPendingActivityCount());
+    verify(workspaceActivityDao).removeExpiration(eq(wsId));
+    verify(workspaceActivityDao, never()).setExpirationTimes(any());
+  }
+
+  @Test
+  public void shouldRemoveExpirationAfterFlushWhenWorkspaceStopsDuringIt() throws Exception {
+    final String wsId = "testWsId";
+    activityManager = newWriteBehindActivityManager();
+    activityManager.update(wsId, 1000L);
+    final EventSubscriber<WorkspaceStatusEvent> subscriber = subscribeAndGetStatusEventSubscriber();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    AtomicBoolean flushing = new AtomicBoolean();
+    AtomicBoolean removedWhileFlushing = new AtomicBoolean();
+    Future<?>[] stopping = new Future<?>[1];
+    doAnswer(
+            invocation -> {
+              flushing.set(true);
+              stopping[0] =
+                  executor.submit(
+                      () ->
+                          subscriber.onEvent(
+                              DtoFactory.newDto(WorkspaceStatusEvent.class)
+                                  .withStatus(WorkspaceStatus.STOPPED)
+                                  .withWorkspaceId(wsId)));
+              Thread.sleep(100);
+              flushing.set(false);
+              return null;
+            })
+        .when(workspaceActivityDao)
+        .setExpirationTimes(ImmutableMap.of(wsId, 1000L + DEFAULT_TIMEOUT));
+    doAnswer(
+            invocation -> {
+              removedWhileFlushing.set(flushing.get());
+              return null;
+            })
+        .when(workspaceActivityDao)
+        .removeExpiration(wsId);
+
+    try {
+      activityManager.flush();
+      stopping[0].get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(workspaceActivityDao).removeExpiration(wsId);
+    assertFalse(removedWhileFlushing.get());
+  }
+
   @Test
   public void shouldAddWorkspaceForTrackActivityWhenWorkspaceRunning() throws Exception {
     final String wsId = "testWsId";
@@ -171,6 +276,16 @@ public class WorkspaceActivityManagerTest {
     assertEquals(15L, count);
   }
 
+  private WorkspaceActivityManager newWriteBehindActivityManager() {
+    return new WorkspaceActivityManager(
+        workspaceManager,
+        workspaceActivityDao,
+        eventService,
+        DEFAULT_TIMEOUT,
+        10,
+        Clock.systemDefaultZone());
+  }
+
   @DataProvider(name = "wsStatus")
   public Object[][] getWorkspaceStatus() {
     return Stream.of(WorkspaceStatus.values())
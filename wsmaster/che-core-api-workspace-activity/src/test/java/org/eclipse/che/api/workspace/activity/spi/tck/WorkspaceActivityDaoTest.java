@@ -149,6 +149,33 @@ public class WorkspaceActivityDaoTest {
     assertEquals(found, expected);
   }
 
+  @Test(dependsOnMethods = "shouldFindExpirationsByTimestamp")
+  public void shouldUpdateSeveralExpirationsAtOnce() throws Exception {
+    List<String> expected = asList(activities[2].getWorkspaceId(), activities[0].getWorkspaceId());
+
+    workspaceActivityDao.setExpirationTimes(
+        ImmutableMap.of(
+            activities[0].getWorkspaceId(), 1_750_000L,
+            activities[1].getWorkspaceId(), 3_000_000L,
+            activities[2].getWorkspaceId(), 1_500_000L));
+
+    List<String> found = workspaceActivityDao.findExpired(2_500_000);
+    assertEquals(found, expected);
+  }
+
+  @Test(dependsOnMethods = "shouldFindExpirationsByTimestamp")
+  public void shouldSkipExpirationsOfRemovedWorkspaces() throws Exception {
+    List<String> expected = asList(activities[0].getWorkspaceId(), activities[1].getWorkspaceId());
+
+    workspaceActivityDao.setExpirationTimes(
+        ImmutableMap.of(
+            activities[0].getWorkspaceId(), 1_500_000L,
+            "removedWorkspaceId", 1_000_000L));
+
+    List<String> found = workspaceActivityDao.findExpired(2_500_000);
+    assertEquals(found, expected);
+  }
+
   @Test
   public void shouldNotCareAboutCreatedAndStatusChangeOrder() throws Exception {
     Page<String> found =
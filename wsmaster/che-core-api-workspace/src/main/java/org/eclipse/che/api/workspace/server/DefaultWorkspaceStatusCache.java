@@ -12,8 +12,11 @@
 package org.eclipse.che.api.workspace.server;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 
 /**
@@ -24,6 +27,8 @@ import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 public class DefaultWorkspaceStatusCache implements WorkspaceStatusCache {
 
   private final ConcurrentHashMap<String, WorkspaceStatus> delegate = new ConcurrentHashMap<>();
+  private final List<BiConsumer<String, WorkspaceStatus>> listeners =
+      new CopyOnWriteArrayList<>();
 
   @Override
   public WorkspaceStatus get(String workspaceId) {
@@ -32,27 +37,59 @@ public class DefaultWorkspaceStatusCache implements WorkspaceStatusCache {
 
   @Override
   public WorkspaceStatus replace(String workspaceId, WorkspaceStatus newStatus) {
-    return delegate.replace(workspaceId, newStatus);
+    WorkspaceStatus previous = delegate.replace(workspaceId, newStatus);
+    if (previous != null && previous != newStatus) {
+      notifyListeners(workspaceId, newStatus);
+    }
+    return previous;
   }
 
   @Override
   public boolean replace(
       String workspaceId, WorkspaceStatus prevStatus, WorkspaceStatus newStatus) {
-    return delegate.replace(workspaceId, prevStatus, newStatus);
+    boolean replaced = delegate.replace(workspaceId, prevStatus, newStatus);
+    if (replaced && prevStatus != newStatus) {
+      notifyListeners(workspaceId, newStatus);
+    }
+    return replaced;
   }
 
   @Override
   public WorkspaceStatus remove(String workspaceId) {
-    return delegate.remove(workspaceId);
+    WorkspaceStatus previous = delegate.remove(workspaceId);
+    if (previous != null) {
+      notifyListeners(workspaceId, WorkspaceStatus.STOPPED);
+    }
+    return previous;
   }
 
   @Override
   public WorkspaceStatus putIfAbsent(String workspaceId, WorkspaceStatus status) {
-    return delegate.putIfAbsent(workspaceId, status);
+    WorkspaceStatus previous = delegate.putIfAbsent(workspaceId, status);
+    if (previous == null) {
+      notifyListeners(workspaceId, status);
+    }
+    return previous;
   }
 
   @Override
   public Map<String, WorkspaceStatus> asMap() {
     return new HashMap<>(delegate);
   }
+
+  @Override
+  public void addStatusListener(BiConsumer<String, WorkspaceStatus> listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeStatusListener(BiConsumer<String, WorkspaceStatus> listener) {
+    listeners.remove(listener);
+  }
+
+  private void notifyListeners(String workspaceId, WorkspaceStatus status) {
+    for (BiConsumer<String, WorkspaceStatus> listener : listeners) {
+      listener.accept(workspaceId, status);
+    }
+  }
 }
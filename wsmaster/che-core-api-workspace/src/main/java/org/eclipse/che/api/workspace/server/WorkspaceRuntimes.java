@@ -16,6 +16,7 @@ import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toSet;
 import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
@@ -26,6 +27,7 @@ import static org.eclipse.che.api.workspace.shared.Constants.ERROR_MESSAGE_ATTRI
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ABNORMALLY_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_RUNTIMES_ID_ATTRIBUTE;
+import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STATUS_CHANGED_METHOD;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOPPED_BY;
 import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STOP_REASON;
 
@@ -34,7 +36,12 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -43,11 +50,16 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -61,6 +73,7 @@ import org.eclipse.che.api.core.model.workspace.config.Environment;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionStorage;
 import org.eclipse.che.api.workspace.server.event.RuntimeAbnormalStoppedEvent;
 import org.eclipse.che.api.workspace.server.event.RuntimeAbnormalStoppingEvent;
 import org.eclipse.che.api.workspace.server.hc.probe.ProbeScheduler;
@@ -84,6 +97,7 @@ import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.commons.annotation.Traced;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.NameGenerator;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
 import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.eclipse.che.commons.lang.concurrent.Unlocker;
 import org.eclipse.che.commons.subject.Subject;
@@ -113,6 +127,11 @@ public class WorkspaceRuntimes {
   private final Map<String, InternalEnvironmentFactory> environmentFactories;
   private final RuntimeInfrastructure infrastructure;
   private final ProbeScheduler probeScheduler;
+  private final RemoteSubscriptionStorage subscriptionStorage;
+  private final int recoveryParallelism;
+  private final RateLimiter recoveryRateLimiter;
+  private final Map<RecoveryPhase, LongAdder> recoveryPhaseCounts;
+  private final Map<RecoveryPhase, LongAdder> recoveryPhaseNanos;
   // Unique identifier for this workspace runtimes
   private final String workspaceRuntimesId;
 
@@ -137,7 +156,10 @@ public class WorkspaceRuntimes {
         ignored,
         probeScheduler,
         statuses,
-        lockService);
+        lockService,
+        null,
+        1,
+        0);
     this.runtimes = runtimes;
   }
 
@@ -151,7 +173,10 @@ public class WorkspaceRuntimes {
       @SuppressWarnings("unused") DBInitializer ignored,
       ProbeScheduler probeScheduler,
       WorkspaceStatusCache statuses,
-      WorkspaceLockService lockService) {
+      WorkspaceLockService lockService,
+      @Nullable RemoteSubscriptionStorage subscriptionStorage,
+      @Named("che.workspace.recovery.parallelism") int recoveryParallelism,
+      @Named("che.workspace.recovery.max_rate_per_second") double recoveryMaxRate) {
     this.probeScheduler = probeScheduler;
     this.runtimes = new ConcurrentHashMap<>();
     this.statuses = statuses;
@@ -162,6 +187,15 @@ public class WorkspaceRuntimes {
     this.infrastructure = infra;
     this.environmentFactories = ImmutableMap.copyOf(envFactories);
     this.lockService = lockService;
+    this.subscriptionStorage = subscriptionStorage;
+    this.recoveryParallelism = Math.max(recoveryParallelism, 1);
+    this.recoveryRateLimiter = recoveryMaxRate > 0 ? RateLimiter.create(recoveryMaxRate) : null;
+    this.recoveryPhaseCounts = new EnumMap<>(RecoveryPhase.class);
+    this.recoveryPhaseNanos = new EnumMap<>(RecoveryPhase.class);
+    for (RecoveryPhase phase : RecoveryPhase.values()) {
+      recoveryPhaseCounts.put(phase, new LongAdder());
+      recoveryPhaseNanos.put(phase, new LongAdder());
+    }
     LOG.info("Configured factories for environments: '{}'", envFactories.keySet());
     LOG.info("Registered infrastructure '{}'", infra.getName());
     SetView<String> notSupportedByInfra =
@@ -602,6 +636,36 @@ public class WorkspaceRuntimes {
     sharedPool.execute(new RecoverRuntimesTask(identities));
   }
 
+  /** Returns the number of executions of the given phase of the workspace runtimes recovery. */
+  public long getRecoveryPhaseCount(RecoveryPhase phase) {
+    return recoveryPhaseCounts.get(phase).sum();
+  }
+
+  /** Returns the total time spent in the given phase of the workspace runtimes recovery. */
+  public double getRecoveryPhaseTime(RecoveryPhase phase, TimeUnit unit) {
+    return (double) recoveryPhaseNanos.get(phase).sum() / unit.toNanos(1);
+  }
+
+  private void recordRecoveryPhase(RecoveryPhase phase, long startNanos) {
+    recoveryPhaseNanos.get(phase).add(System.nanoTime() - startNanos);
+    recoveryPhaseCounts.get(phase).increment();
+  }
+
+  /** Phases of a single workspace runtime recovery which are timed separately. */
+  public enum RecoveryPhase {
+    /** Loading of the workspace from the database. */
+    LOAD_WORKSPACE,
+    /** Creation of the internal environment from the workspace configuration. */
+    CREATE_ENVIRONMENT,
+    /** Preparation of the runtime by the infrastructure. */
+    PREPARE_RUNTIME
+  }
+
+  /**
+   * Recovers the runtimes using up to {@code che.workspace.recovery.parallelism} threads, the
+   * runtimes of the workspaces which have clients subscribed to their status changes go first.
+   * Returns when all the runtimes are recovered.
+   */
   @VisibleForTesting
   class RecoverRuntimesTask implements Runnable {
 
@@ -616,15 +680,29 @@ public class WorkspaceRuntimes {
       long startTime = System.currentTimeMillis();
       LOG.info("Recovering of runtimes is started.");
 
-      for (RuntimeIdentity identity : identities) {
+      List<RuntimeIdentity> ordered = prioritize(identities);
+      if (recoveryParallelism == 1 || ordered.size() == 1) {
+        ordered.forEach(this::recover);
+      } else {
+        ExecutorService executor =
+            Executors.newFixedThreadPool(
+                Math.min(recoveryParallelism, ordered.size()),
+                new ThreadFactoryBuilder()
+                    .setNameFormat("RuntimesRecoverer-%d")
+                    .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+                    .setDaemon(true)
+                    .build());
+        ordered.forEach(identity -> executor.execute(() -> recover(identity)));
+        executor.shutdown();
         try {
-          recoverOne(infrastructure, identity);
-        } catch (ServerException | ConflictException e) {
-          LOG.error(
-              "An error occurred while attempting to recover runtime '{}' using infrastructure '{}'. Reason: '{}'",
-              identity.getWorkspaceId(),
-              infrastructure.getName(),
-              e.getMessage());
+          while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            LOG.info("Waiting for runtimes recovering to complete.");
+          }
+        } catch (InterruptedException e) {
+          executor.shutdownNow();
+          Thread.currentThread().interrupt();
+          LOG.warn("Recovering of runtimes is interrupted.");
+          return;
         }
       }
 
@@ -633,6 +711,50 @@ public class WorkspaceRuntimes {
           "All runtimes have been recovered in {} seconds.",
           TimeUnit.MILLISECONDS.toSeconds(finishTime - startTime));
     }
+
+    private void recover(RuntimeIdentity identity) {
+      if (recoveryRateLimiter != null) {
+        recoveryRateLimiter.acquire();
+      }
+      try {
+        recoverOne(infrastructure, identity);
+      } catch (ServerException | ConflictException e) {
+        LOG.error(
+            "An error occurred while attempting to recover runtime '{}' using infrastructure '{}'. Reason: '{}'",
+            identity.getWorkspaceId(),
+            infrastructure.getName(),
+            e.getMessage());
+      }
+    }
+
+    /** Puts the identities of the workspaces which are watched by clients first. */
+    private List<RuntimeIdentity> prioritize(Set<RuntimeIdentity> identities) {
+      Set<String> watched = new HashSet<>();
+      for (RuntimeIdentity identity : identities) {
+        if (isWatched(identity.getWorkspaceId())) {
+          watched.add(identity.getWorkspaceId());
+        }
+      }
+      List<RuntimeIdentity> ordered = new ArrayList<>(identities);
+      ordered.sort(comparing(identity -> !watched.contains(identity.getWorkspaceId())));
+      return ordered;
+    }
+
+    private boolean isWatched(String workspaceId) {
+      if (subscriptionStorage == null) {
+        return false;
+      }
+      try {
+        return subscriptionStorage.hasSubscribers(
+            WORKSPACE_STATUS_CHANGED_METHOD, "workspaceId", workspaceId);
+      } catch (RuntimeException e) {
+        LOG.warn(
+            "Couldn't check subscriptions of workspace '{}' to prioritize recovery",
+            workspaceId,
+            e);
+        return false;
+      }
+    }
   }
 
   @VisibleForTesting
@@ -646,6 +768,7 @@ public class WorkspaceRuntimes {
               identity.getWorkspaceId()));
     }
     Workspace workspace;
+    long phaseStart = System.nanoTime();
     try {
       workspace = workspaceDao.get(identity.getWorkspaceId());
     } catch (NotFoundException x) {
@@ -653,6 +776,8 @@ public class WorkspaceRuntimes {
           format(
               "Workspace configuration is missing for the runtime '%s:%s'. Runtime won't be recovered",
               identity.getWorkspaceId(), identity.getEnvName()));
+    } finally {
+      recordRecoveryPhase(RecoveryPhase.LOAD_WORKSPACE, phaseStart);
     }
 
     Environment environment = null;
@@ -669,10 +794,21 @@ public class WorkspaceRuntimes {
 
     InternalRuntime runtime;
     try {
-      InternalEnvironment internalEnv =
-          createInternalEnvironment(
-              environment, workspaceConfig.getAttributes(), workspaceConfig.getCommands());
-      runtime = infra.prepare(identity, internalEnv).getRuntime();
+      InternalEnvironment internalEnv;
+      phaseStart = System.nanoTime();
+      try {
+        internalEnv =
+            createInternalEnvironment(
+                environment, workspaceConfig.getAttributes(), workspaceConfig.getCommands());
+      } finally {
+        recordRecoveryPhase(RecoveryPhase.CREATE_ENVIRONMENT, phaseStart);
+      }
+      phaseStart = System.nanoTime();
+      try {
+        runtime = infra.prepare(identity, internalEnv).getRuntime();
+      } finally {
+        recordRecoveryPhase(RecoveryPhase.PREPARE_RUNTIME, phaseStart);
+      }
       WorkspaceStatus runtimeStatus = runtime.getStatus();
       try (Unlocker ignored = lockService.writeLock(workspace.getId())) {
         statuses.replace(identity.getWorkspaceId(), runtimeStatus);
@@ -752,6 +888,21 @@ public class WorkspaceRuntimes {
     return ImmutableSet.copyOf(statuses.asMap().keySet());
   }
 
+  /**
+   * Registers the listener of the workspace status transitions. Transitions made by other members
+   * of the cluster are reported as well when the status cache is distributed.
+   *
+   * @see WorkspaceStatusCache#addStatusListener(BiConsumer)
+   */
+  public void addStatusListener(BiConsumer<String, WorkspaceStatus> listener) {
+    statuses.addStatusListener(listener);
+  }
+
+  /** Unregisters the listener of the workspace status transitions. */
+  public void removeStatusListener(BiConsumer<String, WorkspaceStatus> listener) {
+    statuses.removeStatusListener(listener);
+  }
+
   /**
    * Returns true if there is at least one workspace active(it's status is different from {@link
    * WorkspaceStatus#STOPPED}), otherwise returns false.
@@ -16,11 +16,11 @@ import static org.eclipse.che.api.system.server.DtoConverter.asDto;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import javax.inject.Inject;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
@@ -215,38 +215,28 @@ public class WorkspaceServiceTermination implements ServiceTermination {
   }
 
   private void waitAllWorkspacesStopped() throws InterruptedException {
-    Timer timer = new Timer("RuntimesStoppedTracker", false);
-    CountDownLatch latch = new CountDownLatch(1);
-    timer.schedule(
-        new TimerTask() {
-          @Override
-          public void run() {
-            if (!runtimes.isAnyActive()) {
-              timer.cancel();
-              latch.countDown();
-            }
-          }
-        },
-        0,
-        DEFAULT_PULL_RUNTIMES_PERIOD_MS);
-    latch.await();
+    waitUntil(() -> !runtimes.isAnyActive());
   }
 
   private void waitAllWorkspacesRunningOrStopped() throws InterruptedException {
-    Timer timer = new Timer("RuntimesStoppedTracker", false);
-    CountDownLatch latch = new CountDownLatch(1);
-    timer.schedule(
-        new TimerTask() {
-          @Override
-          public void run() {
-            if (!runtimes.isAnyInProgress()) {
-              timer.cancel();
-              latch.countDown();
-            }
-          }
-        },
-        0,
-        DEFAULT_PULL_RUNTIMES_PERIOD_MS);
-    latch.await();
+    waitUntil(() -> !runtimes.isAnyInProgress());
+  }
+
+  /**
+   * Checks the condition on each workspace status transition instead of polling the runtimes, the
+   * periodic check is kept as a safety net.
+   */
+  private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    Semaphore transitions = new Semaphore(0);
+    BiConsumer<String, WorkspaceStatus> listener = (id, status) -> transitions.release();
+    runtimes.addStatusListener(listener);
+    try {
+      while (!condition.getAsBoolean()) {
+        transitions.tryAcquire(DEFAULT_PULL_RUNTIMES_PERIOD_MS, TimeUnit.MILLISECONDS);
+        transitions.drainPermits();
+      }
+    } finally {
+      runtimes.removeStatusListener(listener);
+    }
   }
 }
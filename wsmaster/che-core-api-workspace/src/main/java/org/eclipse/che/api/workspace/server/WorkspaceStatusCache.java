@@ -12,6 +12,7 @@
 package org.eclipse.che.api.workspace.server;
 
 import java.util.Map;
+import java.util.function.BiConsumer;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
 
 /**
@@ -70,4 +71,20 @@ public interface WorkspaceStatusCache {
 
   /** Returns copy of this cache as map. */
   Map<String, WorkspaceStatus> asMap();
+
+  /**
+   * Registers the listener of the workspace status changes. The listener is called with the
+   * workspace id and its new status after the change is applied to this cache, removal of the
+   * status is reported as {@link WorkspaceStatus#STOPPED}.
+   *
+   * @param listener listener of the status changes
+   */
+  void addStatusListener(BiConsumer<String, WorkspaceStatus> listener);
+
+  /**
+   * Unregisters the listener previously registered with {@link #addStatusListener(BiConsumer)}.
+   *
+   * @param listener listener of the status changes
+   */
+  void removeStatusListener(BiConsumer<String, WorkspaceStatus> listener);
 }
@@ -14,7 +14,6 @@ package org.eclipse.che.api.workspace.server.event;
 import static org.eclipse.che.api.workspace.shared.Constants.MACHINE_LOG_METHOD;
 import static org.eclipse.che.api.workspace.shared.Constants.RUNTIME_LOG_METHOD;
 
-import java.util.Map;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -39,17 +38,15 @@ public class RuntimeLogJsonRpcMessenger {
 
   @PostConstruct
   private void postConstruct() {
-    subscriptionManager.register(RUNTIME_LOG_METHOD, RuntimeLogEvent.class, this::predicate);
-    subscriptionManager.register(
-        MACHINE_LOG_METHOD, RuntimeLogEvent.class, this::predicateMachineLog);
-  }
-
-  private boolean predicate(RuntimeLogEvent event, Map<String, String> scope) {
-    return event.getRuntimeId().getWorkspaceId().equals(scope.get("workspaceId"));
-  }
-
-  private boolean predicateMachineLog(RuntimeLogEvent event, Map<String, String> scope) {
-    return event.getMachineName() != null
-        && event.getRuntimeId().getWorkspaceId().equals(scope.get("workspaceId"));
+    subscriptionManager.registerBatched(
+        RUNTIME_LOG_METHOD,
+        RuntimeLogEvent.class,
+        "workspaceId",
+        event -> event.getRuntimeId().getWorkspaceId());
+    subscriptionManager.registerBatched(
+        MACHINE_LOG_METHOD,
+        RuntimeLogEvent.class,
+        "workspaceId",
+        event -> event.getMachineName() != null ? event.getRuntimeId().getWorkspaceId() : null);
   }
 }
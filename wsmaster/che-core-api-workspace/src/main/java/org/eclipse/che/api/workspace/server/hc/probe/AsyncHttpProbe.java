@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Probes a HTTP URL for a response with code >=200 and <400 using the non-blocking {@link
+ * HttpProbeClient}.
+ */
+public class AsyncHttpProbe extends AsyncProbe {
+
+  private final HttpProbeClient client;
+  private final String host;
+  private final int port;
+  private final String path;
+  private final Map<String, String> headers;
+
+  public AsyncHttpProbe(
+      HttpProbeClient client, String host, int port, String path, Map<String, String> headers) {
+    this.client = client;
+    this.host = host;
+    this.port = port;
+    this.path = path;
+    this.headers = headers;
+  }
+
+  @Override
+  protected CompletableFuture<Boolean> doProbeAsync() {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    InetSocketAddress address = new InetSocketAddress(host, port);
+    if (address.isUnresolved()) {
+      result.complete(false);
+      return result;
+    }
+    CompletableFuture<Integer> response = client.get(address, path, headers);
+    response.whenComplete(
+        (status, error) -> result.complete(error == null && status >= 200 && status < 400));
+    // aborts the request when the probe is cancelled
+    result.whenComplete((success, error) -> response.cancel(true));
+    return result;
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Probe which is checked without blocking a thread, so a slow server doesn't hold a thread of the
+ * probes scheduler while the check is in progress. Still can be checked synchronously with {@link
+ * #probe()}.
+ */
+public abstract class AsyncProbe extends Probe {
+
+  private CompletableFuture<Boolean> result;
+
+  /**
+   * Starts the check of the probe. Note that it must not be called more than one time.
+   *
+   * @return future completed with true if probe finishes successfully, false otherwise
+   * @throws IllegalStateException if called second time
+   */
+  final synchronized CompletableFuture<Boolean> probeAsync() {
+    if (result != null) {
+      throw new IllegalStateException(
+          "This probe can be used only once, but second usage is detected!");
+    }
+    result = doProbeAsync();
+    return result;
+  }
+
+  /**
+   * Starts the check and returns the future of its result. Cancellation of the future must abort
+   * the check.
+   */
+  protected abstract CompletableFuture<Boolean> doProbeAsync();
+
+  @Override
+  protected boolean doProbe() {
+    try {
+      return probeAsync().get();
+    } catch (InterruptedException e) {
+      cancel();
+      return false;
+    } catch (ExecutionException | CancellationException e) {
+      return false;
+    }
+  }
+
+  /** Aborts the check, the probe is considered failed then. */
+  @Override
+  public void cancel() {
+    CompletableFuture<Boolean> result;
+    synchronized (this) {
+      result = this.result;
+    }
+    if (result != null) {
+      result.cancel(true);
+    }
+  }
+}
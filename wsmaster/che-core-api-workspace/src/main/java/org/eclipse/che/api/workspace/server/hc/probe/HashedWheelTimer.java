@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs timeout tasks on a single thread with the precision of a tick. The tasks are put into the
+ * buckets of a wheel by their deadline, so scheduling and cancellation take constant time
+ * regardless of the number of the pending timeouts, and only the tasks of the current bucket are
+ * looked at on each tick. Tasks must be quick, e.g. cancel a probe, since they run on the wheel
+ * thread.
+ */
+class HashedWheelTimer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+  private final long tickNanos;
+  private final Queue<Timeout>[] wheel;
+  private final int mask;
+  private final Queue<Timeout> scheduled;
+  private final Thread worker;
+  private final long startTime;
+
+  private volatile boolean stopped;
+
+  /**
+   * Creates and starts the timer.
+   *
+   * @param threadName name of the timer thread
+   * @param tickDuration duration of a tick, the timeouts are run up to a tick later than scheduled
+   * @param unit unit of the tick duration
+   * @param ticksPerWheel number of buckets of the wheel, rounded up to a power of two
+   */
+  @SuppressWarnings("unchecked")
+  HashedWheelTimer(String threadName, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+    this.tickNanos = Math.max(unit.toNanos(tickDuration), MILLISECONDS.toNanos(1));
+    int size = Integer.highestOneBit(Math.max(ticksPerWheel, 1) * 2 - 1);
+    this.wheel = new Queue[size];
+    for (int i = 0; i < size; i++) {
+      wheel[i] = new ArrayDeque<>();
+    }
+    this.mask = size - 1;
+    this.scheduled = new ConcurrentLinkedQueue<>();
+    this.startTime = System.nanoTime();
+    this.worker =
+        new ThreadFactoryBuilder()
+            .setNameFormat(threadName)
+            .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+            .setDaemon(true)
+            .build()
+            .newThread(this::run);
+    worker.start();
+  }
+
+  /**
+   * Schedules the task to be run once after the delay.
+   *
+   * @return handle which allows to cancel the task
+   */
+  Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+    Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay));
+    scheduled.offer(timeout);
+    return timeout;
+  }
+
+  /** Stops the timer thread, the pending timeouts are not run. */
+  void stop() {
+    stopped = true;
+    worker.interrupt();
+  }
+
+  private void run() {
+    long tick = 0;
+    while (!stopped) {
+      long deadline = tickNanos * (tick + 1);
+      long sleepNanos = deadline - (System.nanoTime() - startTime);
+      if (sleepNanos > 0) {
+        try {
+          Thread.sleep(TimeUnit.NANOSECONDS.toMillis(sleepNanos) + 1);
+        } catch (InterruptedException e) {
+          if (stopped) {
+            return;
+          }
+        }
+        continue;
+      }
+      transferScheduled(tick);
+      expire(wheel[(int) (tick & mask)], deadline);
+      tick++;
+    }
+  }
+
+  /** Moves the newly scheduled timeouts into the buckets of the wheel. */
+  private void transferScheduled(long currentTick) {
+    Timeout timeout;
+    while ((timeout = scheduled.poll()) != null) {
+      if (timeout.isCancelled()) {
+        continue;
+      }
+      long ticks = Math.max(timeout.deadline / tickNanos, currentTick);
+      timeout.remainingRounds = (ticks - currentTick) / wheel.length;
+      wheel[(int) (ticks & mask)].add(timeout);
+    }
+  }
+
+  private void expire(Queue<Timeout> bucket, long deadline) {
+    for (Iterator<Timeout> it = bucket.iterator(); it.hasNext(); ) {
+      Timeout timeout = it.next();
+      if (timeout.isCancelled()) {
+        it.remove();
+      } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+        it.remove();
+        timeout.expire();
+      } else {
+        timeout.remainingRounds--;
+      }
+    }
+  }
+
+  /** Handle of a scheduled task. */
+  static class Timeout {
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicBoolean done;
+
+    /** Number of full wheel turns left before the deadline, accessed by the timer thread only. */
+    private long remainingRounds;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+      this.done = new AtomicBoolean();
+    }
+
+    /** Prevents the task from being run, returns false if it has been already run. */
+    boolean cancel() {
+      return done.compareAndSet(false, true);
+    }
+
+    boolean isCancelled() {
+      return done.get();
+    }
+
+    private void expire() {
+      if (done.compareAndSet(false, true)) {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          LOG.error("Timeout task failed", e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import static java.nio.channels.SelectionKey.OP_CONNECT;
+import static java.nio.channels.SelectionKey.OP_READ;
+import static java.nio.channels.SelectionKey.OP_WRITE;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import org.eclipse.che.commons.lang.concurrent.LoggingUncaughtExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Non-blocking HTTP/1.1 client of the servers liveness probes. Connections of all the probes are
+ * served by a single selector thread which is started on the first request. Connections to a
+ * server are kept alive and reused by the following probes. The number of connections to a single
+ * server is limited by {@code che.workspace.probe.max_connections_per_host}, requests exceeding
+ * the limit wait for a free connection.
+ *
+ * <p>Only the status of the response matters for the probes, so the request is completed as soon
+ * as the response headers are read. The connection is reused only if the response body has a known
+ * length, the body is skipped then. Otherwise the connection is closed.
+ */
+@Singleton
+public class HttpProbeClient {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HttpProbeClient.class);
+
+  private static final long IDLE_TIMEOUT_NANOS = SECONDS.toNanos(60);
+  private static final int MAX_HEADERS_LENGTH = 64 * 1024;
+
+  private final int maxConnectionsPerHost;
+  private final Queue<Runnable> commands;
+  private final ByteBuffer readBuffer;
+
+  /** Servers mapped by their addresses, accessed by the selector thread only. */
+  private final Map<InetSocketAddress, Host> hosts;
+
+  private volatile Selector selector;
+  private volatile boolean closed;
+  private long lastIdleCheck;
+
+  @Inject
+  public HttpProbeClient(
+      @Named("che.workspace.probe.max_connections_per_host") int maxConnectionsPerHost) {
+    this.maxConnectionsPerHost = Math.max(maxConnectionsPerHost, 1);
+    this.commands = new ConcurrentLinkedQueue<>();
+    this.readBuffer = ByteBuffer.allocate(8192);
+    this.hosts = new HashMap<>();
+  }
+
+  /**
+   * Sends GET request to the server.
+   *
+   * @param address resolved address of the server
+   * @param path path of the request
+   * @param headers additional headers of the request
+   * @return future completed with the response status code or exceptionally if the request fails.
+   *     Cancellation of the future aborts the request. The future is completed on the selector
+   *     thread, so the dependent actions must be quick
+   */
+  public CompletableFuture<Integer> get(
+      InetSocketAddress address, String path, Map<String, String> headers) {
+    StringBuilder request =
+        new StringBuilder("GET ")
+            .append(path == null || path.isEmpty() ? "/" : path)
+            .append(" HTTP/1.1\r\nHost: ")
+            .append(address.getHostString())
+            .append(':')
+            .append(address.getPort())
+            .append("\r\n");
+    headers.forEach(
+        (name, value) -> request.append(name).append(": ").append(value).append("\r\n"));
+    request.append("\r\n");
+
+    Exchange exchange = new Exchange(address, request.toString().getBytes(ISO_8859_1));
+    exchange.result.whenComplete(
+        (status, error) -> {
+          if (error instanceof CancellationException) {
+            execute(() -> aborted(exchange));
+          }
+        });
+    try {
+      ensureStarted();
+      execute(() -> dispatch(exchange));
+    } catch (IOException e) {
+      exchange.result.completeExceptionally(e);
+    }
+    return exchange.result;
+  }
+
+  /** Closes all the connections and fails the pending requests. */
+  @PreDestroy
+  public void shutdown() {
+    closed = true;
+    synchronized (this) {
+      if (selector != null) {
+        selector.wakeup();
+      }
+    }
+  }
+
+  private synchronized void ensureStarted() throws IOException {
+    if (closed) {
+      throw new IOException("Probe client is shut down");
+    }
+    if (selector == null) {
+      selector = Selector.open();
+      new ThreadFactoryBuilder()
+          .setNameFormat("ServerProbesIO")
+          .setUncaughtExceptionHandler(LoggingUncaughtExceptionHandler.getInstance())
+          .setDaemon(true)
+          .build()
+          .newThread(this::run)
+          .start();
+    }
+  }
+
+  private void execute(Runnable command) {
+    commands.offer(command);
+    selector.wakeup();
+  }
+
+  private void run() {
+    try {
+      while (!closed) {
+        selector.select(1000);
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+          command.run();
+        }
+        for (SelectionKey key : selector.selectedKeys()) {
+          Connection connection = (Connection) key.attachment();
+          try {
+            if (key.isValid() && key.isConnectable()) {
+              connection.finishConnect();
+            }
+            if (key.isValid() && key.isWritable()) {
+              connection.write();
+            }
+            if (key.isValid() && key.isReadable()) {
+              connection.read();
+            }
+          } catch (IOException e) {
+            failed(connection, e);
+          }
+        }
+        selector.selectedKeys().clear();
+        closeIdleConnections();
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.error("Server probes client failed", e);
+    } finally {
+      closed = true;
+      closeAll();
+    }
+  }
+
+  private void dispatch(Exchange exchange) {
+    if (exchange.result.isDone()) {
+      return;
+    }
+    Host host = hosts.computeIfAbsent(exchange.address, Host::new);
+    Connection connection = host.idle.pollFirst();
+    if (connection != null) {
+      connection.send(exchange);
+    } else if (host.connections < maxConnectionsPerHost) {
+      connect(host, exchange);
+    } else {
+      host.waiting.add(exchange);
+    }
+  }
+
+  private void connect(Host host, Exchange exchange) {
+    SocketChannel channel = null;
+    try {
+      channel = SocketChannel.open();
+      channel.configureBlocking(false);
+      boolean connected = channel.connect(host.address);
+      Connection connection = new Connection(host, channel);
+      connection.key = channel.register(selector, connected ? OP_READ : OP_CONNECT, connection);
+      host.connections++;
+      connection.send(exchange);
+    } catch (IOException e) {
+      if (channel != null) {
+        closeQuietly(channel);
+      }
+      exchange.result.completeExceptionally(e);
+    }
+  }
+
+  private void aborted(Exchange exchange) {
+    Connection connection = exchange.connection;
+    if (connection != null && connection.exchange == exchange) {
+      close(connection);
+    } else {
+      Host host = hosts.get(exchange.address);
+      if (host != null) {
+        host.waiting.remove(exchange);
+      }
+    }
+  }
+
+  private void failed(Connection connection, IOException e) {
+    Exchange exchange = connection.exchange;
+    close(connection);
+    if (exchange == null) {
+      return;
+    }
+    if (connection.reused && !connection.responseStarted && !exchange.retried) {
+      // the server might have closed the kept alive connection before it received the request
+      exchange.retried = true;
+      dispatch(exchange);
+    } else {
+      exchange.result.completeExceptionally(e);
+    }
+  }
+
+  private void close(Connection connection) {
+    if (connection.closed) {
+      return;
+    }
+    connection.closed = true;
+    connection.exchange = null;
+    connection.key.cancel();
+    closeQuietly(connection.channel);
+    Host host = connection.host;
+    host.idle.remove(connection);
+    host.connections--;
+    Exchange waiting;
+    while (host.connections < maxConnectionsPerHost && (waiting = host.waiting.poll()) != null) {
+      if (!waiting.result.isDone()) {
+        connect(host, waiting);
+      }
+    }
+  }
+
+  private void release(Connection connection) {
+    connection.exchange = null;
+    Exchange waiting;
+    while ((waiting = connection.host.waiting.poll()) != null) {
+      if (!waiting.result.isDone()) {
+        connection.send(waiting);
+        return;
+      }
+    }
+    connection.idleSince = System.nanoTime();
+    connection.host.idle.addFirst(connection);
+  }
+
+  private void closeIdleConnections() {
+    long now = System.nanoTime();
+    if (now - lastIdleCheck < SECONDS.toNanos(10)) {
+      return;
+    }
+    lastIdleCheck = now;
+    for (Iterator<Host> it = hosts.values().iterator(); it.hasNext(); ) {
+      Host host = it.next();
+      for (Connection connection : new ArrayList<>(host.idle)) {
+        if (now - connection.idleSince > IDLE_TIMEOUT_NANOS) {
+          close(connection);
+        }
+      }
+      if (host.connections == 0 && host.waiting.isEmpty()) {
+        it.remove();
+      }
+    }
+  }
+
+  private void closeAll() {
+    Runnable command;
+    while ((command = commands.poll()) != null) {
+      command.run();
+    }
+    IOException error = new IOException("Probe client is shut down");
+    List<Exchange> pending = new ArrayList<>();
+    for (SelectionKey key : selector.keys()) {
+      Connection connection = (Connection) key.attachment();
+      if (connection.exchange != null) {
+        pending.add(connection.exchange);
+      }
+      closeQuietly(connection.channel);
+    }
+    hosts.values().forEach(host -> pending.addAll(host.waiting));
+    hosts.clear();
+    pending.forEach(exchange -> exchange.result.completeExceptionally(error));
+    try {
+      selector.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to close the selector of server probes client", e);
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to close the connection of server probe", e);
+    }
+  }
+
+  /** Request to a server and its result. */
+  private static class Exchange {
+    final InetSocketAddress address;
+    final byte[] request;
+    final CompletableFuture<Integer> result;
+
+    /** Connection which the request is sent over, accessed by the selector thread only. */
+    Connection connection;
+
+    boolean retried;
+
+    Exchange(InetSocketAddress address, byte[] request) {
+      this.address = address;
+      this.request = request;
+      this.result = new CompletableFuture<>();
+    }
+  }
+
+  /** Connections to a server. */
+  private static class Host {
+    final InetSocketAddress address;
+    final Deque<Connection> idle = new ArrayDeque<>();
+    final Queue<Exchange> waiting = new ArrayDeque<>();
+
+    /** Number of the open connections, both idle and busy. */
+    int connections;
+
+    Host(InetSocketAddress address) {
+      this.address = address;
+    }
+  }
+
+  /** Connection to a server, accessed by the selector thread only. */
+  private class Connection {
+    final Host host;
+    final SocketChannel channel;
+    final StringBuilder headers = new StringBuilder();
+
+    SelectionKey key;
+    Exchange exchange;
+    ByteBuffer out;
+    int requests;
+    boolean reused;
+    boolean responseStarted;
+    boolean closed;
+    long idleSince;
+
+    /** Number of the response body bytes to skip, negative while the headers are being read. */
+    long bodyRemaining;
+
+    Connection(Host host, SocketChannel channel) {
+      this.host = host;
+      this.channel = channel;
+    }
+
+    void send(Exchange exchange) {
+      reused = ++requests > 1;
+      this.exchange = exchange;
+      exchange.connection = this;
+      out = ByteBuffer.wrap(exchange.request);
+      headers.setLength(0);
+      responseStarted = false;
+      bodyRemaining = -1;
+      if (channel.isConnected()) {
+        key.interestOps(OP_READ | OP_WRITE);
+      }
+    }
+
+    void finishConnect() throws IOException {
+      if (channel.finishConnect()) {
+        key.interestOps(OP_READ | OP_WRITE);
+      }
+    }
+
+    void write() throws IOException {
+      channel.write(out);
+      if (!out.hasRemaining()) {
+        key.interestOps(OP_READ);
+      }
+    }
+
+    void read() throws IOException {
+      readBuffer.clear();
+      int read = channel.read(readBuffer);
+      if (read < 0) {
+        if (exchange == null) {
+          // kept alive connection is closed by the server
+          close(this);
+          return;
+        }
+        throw new EOFException("Connection is closed by the server");
+      }
+      if (exchange == null) {
+        // nothing is expected on an idle connection
+        close(this);
+        return;
+      }
+      readBuffer.flip();
+      if (read > 0) {
+        responseStarted = true;
+      }
+      while (readBuffer.hasRemaining()) {
+        if (bodyRemaining < 0) {
+          char c = (char) (readBuffer.get() & 0xFF);
+          headers.append(c);
+          if (headers.length() > MAX_HEADERS_LENGTH) {
+            throw new IOException("Response headers are too long");
+          }
+          if (c == '\n' && endsWithHeadersEnd()) {
+            if (!readHeaders()) {
+              close(this);
+              return;
+            }
+          }
+        } else {
+          int skip = (int) Math.min(readBuffer.remaining(), bodyRemaining);
+          readBuffer.position(readBuffer.position() + skip);
+          bodyRemaining -= skip;
+        }
+        if (bodyRemaining == 0) {
+          if (readBuffer.hasRemaining()) {
+            // more data than the response
+            close(this);
+          } else {
+            release(this);
+          }
+          return;
+        }
+      }
+    }
+
+    private boolean endsWithHeadersEnd() {
+      int length = headers.length();
+      return length >= 4 && headers.lastIndexOf("\r\n\r\n") == length - 4;
+    }
+
+    /** Completes the request with the response status, returns whether connection is reusable. */
+    private boolean readHeaders() throws IOException {
+      String[] lines = headers.toString().split("\r\n");
+      String[] statusLine = lines[0].split(" ", 3);
+      int status;
+      try {
+        status = Integer.parseInt(statusLine[1]);
+      } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+        throw new IOException("Malformed response status line: " + lines[0]);
+      }
+      boolean keepAlive = !statusLine[0].equals("HTTP/1.0");
+      boolean chunked = false;
+      long contentLength = -1;
+      for (int i = 1; i < lines.length; i++) {
+        int colon = lines[i].indexOf(':');
+        if (colon < 0) {
+          continue;
+        }
+        String name = lines[i].substring(0, colon).trim();
+        String value = lines[i].substring(colon + 1).trim();
+        if (name.equalsIgnoreCase("Content-Length")) {
+          try {
+            contentLength = Long.parseLong(value);
+          } catch (NumberFormatException e) {
+            contentLength = -1;
+          }
+        } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+          chunked = true;
+        } else if (name.equalsIgnoreCase("Connection")) {
+          keepAlive =
+              !value.equalsIgnoreCase("close")
+                  && (keepAlive || value.equalsIgnoreCase("keep-alive"));
+        }
+      }
+      exchange.result.complete(status);
+      if (!keepAlive || chunked || contentLength < 0) {
+        return false;
+      }
+      bodyRemaining = contentLength;
+      return true;
+    }
+  }
+}
@@ -15,9 +15,11 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import org.eclipse.che.commons.annotation.Nullable;
 
 /**
- * Produces {@link HttpProbe} instances
+ * Produces {@link HttpProbe} instances, or {@link AsyncHttpProbe} instances for HTTP servers when
+ * the non-blocking client is provided
  *
  * @see ProbeFactory
  * @author Alexander Garagatyi
@@ -27,10 +29,27 @@ public class HttpProbeFactory extends ProbeFactory {
   private final int timeout;
   private final Map<String, String> headers;
   private final HttpProbeConfig probeConfig;
+  private final HttpProbeClient client;
 
   public HttpProbeFactory(
       String workspaceId, String machineName, String serverName, HttpProbeConfig probeConfig)
       throws MalformedURLException {
+    this(workspaceId, machineName, serverName, probeConfig, null);
+  }
+
+  /**
+   * Creates the factory of probes.
+   *
+   * @param client non-blocking client used by the probes of HTTP servers, blocking connections are
+   *     used if it is null
+   */
+  public HttpProbeFactory(
+      String workspaceId,
+      String machineName,
+      String serverName,
+      HttpProbeConfig probeConfig,
+      @Nullable HttpProbeClient client)
+      throws MalformedURLException {
     super(workspaceId, machineName, serverName, probeConfig);
     url =
         new URL(
@@ -41,6 +60,8 @@ public class HttpProbeFactory extends ProbeFactory {
     timeout = (int) TimeUnit.SECONDS.toMillis(probeConfig.getTimeoutSeconds());
     headers = probeConfig.getHeaders();
     this.probeConfig = probeConfig;
+    // TLS is not supported by the non-blocking client
+    this.client = "http".equals(probeConfig.getScheme()) ? client : null;
   }
 
   @Override
@@ -49,7 +70,11 @@ public class HttpProbeFactory extends ProbeFactory {
   }
 
   @Override
-  public HttpProbe get() {
+  public Probe get() {
+    if (client != null) {
+      return new AsyncHttpProbe(
+          client, probeConfig.getHost(), probeConfig.getPort(), probeConfig.getPath(), headers);
+    }
     return new HttpProbe(url, timeout, headers);
   }
 }
@@ -15,8 +15,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
@@ -29,6 +28,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.eclipse.che.api.workspace.server.hc.probe.HashedWheelTimer.Timeout;
 import org.eclipse.che.api.workspace.server.hc.probe.ProbeResult.ProbeStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +36,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Schedules workspace servers probes checks asynchronously.
  *
+ * <p>Checks of {@link AsyncProbe}s don't occupy the scheduler threads while waiting for the
+ * servers, the threads are used only to start the checks and to process their results. A check of
+ * such a probe is skipped if the previous check of the same probe is still in progress.
+ *
  * @author Alexander Garagatyi
  * @author Sergii Leshchenko
  */
@@ -48,9 +52,10 @@ public class ProbeScheduler {
    * Use single thread for a scheduling of tasks interruption by timeout. Single thread can be used
    * since it is supposed that interruption is a very quick call. Separate thread is needed to
    * prevent a situation when executor is full of jobs and current ones are hanging but we need to
-   * time them out.
+   * time them out. Hashed wheel keeps scheduling and cancellation of the timeouts cheap when there
+   * are thousands of probes.
    */
-  private final Timer timeouts;
+  private final HashedWheelTimer timeouts;
   /** Mapping of workspaceId to a list of futures with probes of a workspace. */
   private final Map<String, List<ScheduledFuture>> probesFutures;
 
@@ -60,7 +65,7 @@ public class ProbeScheduler {
         new ScheduledThreadPoolExecutor(
             probeSchedulerPoolSize,
             new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ServerProbes-%s").build());
-    timeouts = new Timer("ServerProbesTimeouts", true);
+    timeouts = new HashedWheelTimer("ServerProbesTimeouts", 100, TimeUnit.MILLISECONDS, 512);
     probesFutures = new ConcurrentHashMap<>();
   }
 
@@ -137,6 +142,7 @@ public class ProbeScheduler {
   /** Denies starting of new probes and terminates active one if scheduler not terminated yet. */
   public void shutdown() {
     if (!probesExecutor.isShutdown()) {
+      timeouts.stop();
       probesExecutor.shutdown();
       try {
         LOG.info("Shutdown probe scheduler, wait 30s to stop normally");
@@ -182,6 +188,7 @@ public class ProbeScheduler {
             });
     // check whether workspace probes were cancelled concurrently which led to removal of the value
     // in the map
+    task.future = scheduledFuture;
     if (workspaceProbes == null) {
       scheduledFuture.cancel(true);
       task.cancel();
@@ -196,6 +203,8 @@ public class ProbeScheduler {
     private int failures = 0;
     private int successes = 0;
     private AtomicBoolean cancelled = new AtomicBoolean(false);
+    private AtomicBoolean asyncCheckInProgress = new AtomicBoolean(false);
+    private volatile ScheduledFuture<?> future;
 
     public Task(ProbeFactory probeFactory, Consumer<ProbeResult> probeResultConsumer) {
       this.probeFactory = probeFactory;
@@ -209,11 +218,48 @@ public class ProbeScheduler {
         return;
       }
       Probe probe = probeFactory.get();
-      TimeoutProbeTask timeoutProbeTask = new TimeoutProbeTask(probe);
-      timeouts.schedule(
-          timeoutProbeTask, TimeUnit.SECONDS.toMillis(probeConfig.getTimeoutSeconds()));
+      if (probe instanceof AsyncProbe) {
+        runAsync((AsyncProbe) probe);
+        return;
+      }
+      Timeout timeout =
+          timeouts.schedule(probe::cancel, probeConfig.getTimeoutSeconds(), TimeUnit.SECONDS);
       boolean success = probe.probe();
-      timeoutProbeTask.cancel();
+      timeout.cancel();
+      handleResult(success);
+    }
+
+    private void runAsync(AsyncProbe probe) {
+      if (!asyncCheckInProgress.compareAndSet(false, true)) {
+        // the server doesn't respond in time, the previous check is failed by timeout soon
+        return;
+      }
+      CompletableFuture<Boolean> result = probe.probeAsync();
+      Timeout timeout =
+          timeouts.schedule(probe::cancel, probeConfig.getTimeoutSeconds(), TimeUnit.SECONDS);
+      result.whenComplete(
+          (success, error) -> {
+            timeout.cancel();
+            try {
+              // result is processed on the scheduler threads, not on the thread of the check
+              probesExecutor.execute(
+                  () -> {
+                    try {
+                      ScheduledFuture<?> future = this.future;
+                      if (future == null || !future.isCancelled()) {
+                        handleResult(error == null && success);
+                      }
+                    } finally {
+                      asyncCheckInProgress.set(false);
+                    }
+                  });
+            } catch (RejectedExecutionException e) {
+              asyncCheckInProgress.set(false);
+            }
+          });
+    }
+
+    private void handleResult(boolean success) {
       if (success) {
         // current success increases successes count and clears failures count
         successes++;
@@ -301,17 +347,4 @@ public class ProbeScheduler {
       }
     }
   }
-
-  private class TimeoutProbeTask extends TimerTask {
-    private final Probe probe;
-
-    public TimeoutProbeTask(Probe probe) {
-      this.probe = probe;
-    }
-
-    @Override
-    public void run() {
-      probe.cancel();
-    }
-  }
 }
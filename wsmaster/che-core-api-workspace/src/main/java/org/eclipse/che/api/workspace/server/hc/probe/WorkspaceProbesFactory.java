@@ -42,11 +42,15 @@ public class WorkspaceProbesFactory {
   // Is used to define servers which will be checked by this server checker class.
   // It is also a workaround to set correct paths for servers readiness checks.
   private final Map<String, HttpProbeConfigFactory> probeConfigFactories;
+  private final HttpProbeClient probeClient;
 
   @Inject
   public WorkspaceProbesFactory(
       MachineTokenProvider machineTokenProvider,
-      @Named("che.workspace.server.ping_success_threshold") int serverPingSuccessThreshold) {
+      @Named("che.workspace.server.ping_success_threshold") int serverPingSuccessThreshold,
+      @Named("che.workspace.probe.async") boolean asyncProbes,
+      HttpProbeClient probeClient) {
+    this.probeClient = asyncProbes ? probeClient : null;
     probeConfigFactories =
         ImmutableMap.of(
             Constants.SERVER_WS_AGENT_HTTP_REFERENCE,
@@ -136,6 +140,7 @@ public class WorkspaceProbesFactory {
       return null;
     }
     final HttpProbeConfig httpProbeConfig = configFactory.get(userId, workspaceId, server);
-    return new HttpProbeFactory(workspaceId, machineName, serverRef, httpProbeConfig);
+    return new HttpProbeFactory(
+        workspaceId, machineName, serverRef, httpProbeConfig, probeClient);
   }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server;
+
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.RUNNING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STARTING;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPED;
+import static org.eclipse.che.api.core.model.workspace.WorkspaceStatus.STOPPING;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.eclipse.che.api.core.model.workspace.WorkspaceStatus;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests {@link DefaultWorkspaceStatusCache}. */
+public class DefaultWorkspaceStatusCacheTest {
+
+  private DefaultWorkspaceStatusCache cache;
+  private List<String> transitions;
+  private BiConsumer<String, WorkspaceStatus> listener;
+
+  @BeforeMethod
+  public void setUp() {
+    cache = new DefaultWorkspaceStatusCache();
+    transitions = new ArrayList<>();
+    listener = (workspaceId, status) -> transitions.add(workspaceId + ':' + status);
+    cache.addStatusListener(listener);
+  }
+
+  @Test
+  public void notifiesListenersAboutStatusTransitions() {
+    cache.putIfAbsent("ws1", STARTING);
+    cache.putIfAbsent("ws1", RUNNING);
+    cache.replace("ws1", RUNNING);
+    cache.replace("ws1", RUNNING, STOPPING);
+    cache.replace("ws1", RUNNING, STOPPED);
+    cache.remove("ws1");
+    cache.remove("ws1");
+
+    assertEquals(transitions.size(), 4);
+    assertEquals(transitions.get(0), "ws1:STARTING");
+    assertEquals(transitions.get(1), "ws1:RUNNING");
+    assertEquals(transitions.get(2), "ws1:STOPPING");
+    assertEquals(transitions.get(3), "ws1:STOPPED");
+  }
+
+  @Test
+  public void doesNotNotifyRemovedListeners() {
+    cache.removeStatusListener(listener);
+
+    cache.putIfAbsent("ws1", STARTING);
+
+    assertTrue(transitions.isEmpty());
+  }
+}
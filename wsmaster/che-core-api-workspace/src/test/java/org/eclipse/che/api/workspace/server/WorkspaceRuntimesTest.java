@@ -20,12 +20,14 @@ import static org.eclipse.che.api.workspace.shared.Constants.ERROR_MESSAGE_ATTRI
 import static org.eclipse.che.api.workspace.shared.Constants.NO_ENVIRONMENT_RECIPE_TYPE;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ABNORMALLY_ATTRIBUTE_NAME;
 import static org.eclipse.che.api.workspace.shared.Constants.STOPPED_ATTRIBUTE_NAME;
+import static org.eclipse.che.api.workspace.shared.Constants.WORKSPACE_STATUS_CHANGED_METHOD;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -57,6 +59,8 @@ import org.eclipse.che.api.core.model.workspace.runtime.Machine;
 import org.eclipse.che.api.core.model.workspace.runtime.MachineStatus;
 import org.eclipse.che.api.core.model.workspace.runtime.RuntimeIdentity;
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.RemoteSubscriptionStorage;
+import org.eclipse.che.api.workspace.server.WorkspaceRuntimes.RecoveryPhase;
 import org.eclipse.che.api.workspace.server.event.RuntimeAbnormalStoppedEvent;
 import org.eclipse.che.api.workspace.server.event.RuntimeAbnormalStoppingEvent;
 import org.eclipse.che.api.workspace.server.hc.probe.ProbeScheduler;
@@ -81,6 +85,7 @@ import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.core.db.DBInitializer;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.testng.MockitoTestNGListener;
 import org.testng.annotations.BeforeMethod;
@@ -127,7 +132,10 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            null,
+            1,
+            0);
   }
 
   @Test
@@ -145,7 +153,10 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            null,
+            1,
+            0);
     InternalEnvironment expectedEnvironment = mock(InternalEnvironment.class);
     when(noEnvFactory.create(eq(null))).thenReturn(expectedEnvironment);
 
@@ -306,6 +317,115 @@ public class WorkspaceRuntimesTest {
     assertEquals(workspace3.getStatus(), WorkspaceStatus.STARTING);
   }
 
+  @Test
+  public void runtimesOfWorkspacesWithSubscribedClientsAreRecoveredFirst() throws Exception {
+    // Given
+    RuntimeIdentityImpl identity1 = new RuntimeIdentityImpl("workspace1", "env1", "owner1");
+    RuntimeIdentityImpl identity2 = new RuntimeIdentityImpl("workspace2", "env2", "owner2");
+    Set<RuntimeIdentity> identities =
+        ImmutableSet.<RuntimeIdentity>builder().add(identity1).add(identity2).build();
+
+    mockWorkspace(identity1);
+    mockWorkspace(identity2);
+
+    RuntimeContext context1 = mockContext(identity1);
+    when(context1.getRuntime())
+        .thenReturn(new TestInternalRuntime(context1, emptyMap(), WorkspaceStatus.RUNNING));
+    doReturn(context1).when(infrastructure).prepare(eq(identity1), any());
+    RuntimeContext context2 = mockContext(identity2);
+    when(context2.getRuntime())
+        .thenReturn(new TestInternalRuntime(context2, emptyMap(), WorkspaceStatus.RUNNING));
+    doReturn(context2).when(infrastructure).prepare(eq(identity2), any());
+
+    InternalEnvironment internalEnvironment = mock(InternalEnvironment.class);
+    doReturn(internalEnvironment).when(testEnvFactory).create(any(Environment.class));
+
+    RemoteSubscriptionStorage subscriptionStorage = mock(RemoteSubscriptionStorage.class);
+    when(subscriptionStorage.hasSubscribers(
+            eq(WORKSPACE_STATUS_CHANGED_METHOD), eq("workspaceId"), anyString()))
+        .thenAnswer(invocation -> "workspace2".equals(invocation.getArgument(2)));
+
+    runtimes =
+        new WorkspaceRuntimes(
+            eventService,
+            ImmutableMap.of(TEST_ENVIRONMENT_TYPE, testEnvFactory),
+            infrastructure,
+            sharedPool,
+            workspaceDao,
+            dbInitializer,
+            probeScheduler,
+            statuses,
+            lockService,
+            subscriptionStorage,
+            1,
+            0);
+
+    // When
+    runtimes.new RecoverRuntimesTask(identities).run();
+
+    // Then
+    InOrder inOrder = inOrder(infrastructure);
+    inOrder.verify(infrastructure).prepare(identity2, internalEnvironment);
+    inOrder.verify(infrastructure).prepare(identity1, internalEnvironment);
+  }
+
+  @Test
+  public void runtimesAreRecoveredConcurrently() throws Exception {
+    // Given
+    RuntimeIdentityImpl identity1 = new RuntimeIdentityImpl("workspace1", "env1", "owner1");
+    RuntimeIdentityImpl identity2 = new RuntimeIdentityImpl("workspace2", "env2", "owner2");
+    RuntimeIdentityImpl identity3 = new RuntimeIdentityImpl("workspace3", "env3", "owner3");
+    Set<RuntimeIdentity> identities =
+        ImmutableSet.<RuntimeIdentity>builder()
+            .add(identity1)
+            .add(identity2)
+            .add(identity3)
+            .build();
+
+    mockWorkspace(identity1);
+    mockWorkspace(identity2);
+    mockWorkspace(identity3);
+    when(statuses.get(anyString())).thenReturn(WorkspaceStatus.RUNNING);
+
+    for (RuntimeIdentity identity : identities) {
+      RuntimeContext context = mockContext(identity);
+      when(context.getRuntime())
+          .thenReturn(new TestInternalRuntime(context, emptyMap(), WorkspaceStatus.RUNNING));
+      doReturn(context).when(infrastructure).prepare(eq(identity), any());
+    }
+
+    InternalEnvironment internalEnvironment = mock(InternalEnvironment.class);
+    doReturn(internalEnvironment).when(testEnvFactory).create(any(Environment.class));
+
+    runtimes =
+        new WorkspaceRuntimes(
+            eventService,
+            ImmutableMap.of(TEST_ENVIRONMENT_TYPE, testEnvFactory),
+            infrastructure,
+            sharedPool,
+            workspaceDao,
+            dbInitializer,
+            probeScheduler,
+            statuses,
+            lockService,
+            null,
+            3,
+            100);
+
+    // When
+    runtimes.new RecoverRuntimesTask(identities).run();
+
+    // Then
+    for (RuntimeIdentity identity : identities) {
+      WorkspaceImpl workspace = new WorkspaceImpl(identity.getWorkspaceId(), null, null);
+      runtimes.injectRuntime(workspace);
+      assertNotNull(workspace.getRuntime());
+    }
+    for (RecoveryPhase phase : RecoveryPhase.values()) {
+      assertEquals(runtimes.getRecoveryPhaseCount(phase), 3);
+    }
+  }
+
   @Test
   public void attributesIsSetWhenRuntimeAbnormallyStopped() throws Exception {
     String error = "Some kind of error happened";
@@ -320,7 +440,10 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            null,
+            1,
+            0);
     localRuntimes.init();
     RuntimeIdentityDto identity =
         DtoFactory.newDto(RuntimeIdentityDto.class)
@@ -361,7 +484,10 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            null,
+            1,
+            0);
     localRuntimes.init();
     RuntimeIdentityDto identity =
         DtoFactory.newDto(RuntimeIdentityDto.class)
@@ -411,7 +537,10 @@ public class WorkspaceRuntimesTest {
             dbInitializer,
             probeScheduler,
             statuses,
-            lockService);
+            lockService,
+            null,
+            1,
+            0);
 
     // when
     localRuntimes.injectRuntime(workspace);
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.api.workspace.server.hc.probe;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.Collections.emptyMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests {@link HttpProbeClient} against a plain socket server. */
+public class HttpProbeClientTest {
+
+  private ServerSocket serverSocket;
+  private AtomicInteger connections;
+  private volatile boolean respond;
+  private HttpProbeClient client;
+
+  @BeforeMethod
+  public void setUp() throws Exception {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    connections = new AtomicInteger();
+    respond = true;
+    Thread acceptor = new Thread(this::accept);
+    acceptor.setDaemon(true);
+    acceptor.start();
+    client = new HttpProbeClient(2);
+  }
+
+  @AfterMethod
+  public void tearDown() throws Exception {
+    client.shutdown();
+    serverSocket.close();
+  }
+
+  @Test
+  public void shouldReuseKeptAliveConnections() throws Exception {
+    List<CompletableFuture<Integer>> responses = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      responses.add(client.get(address(), i % 2 == 0 ? "/ok" : "/fail", emptyMap()));
+    }
+
+    for (int i = 0; i < 20; i++) {
+      assertEquals(responses.get(i).get(5, SECONDS).intValue(), i % 2 == 0 ? 200 : 500);
+    }
+    assertTrue(connections.get() <= 2);
+  }
+
+  @Test
+  public void shouldAbortRequestAndFreeConnectionWhenCancelled() throws Exception {
+    respond = false;
+    CompletableFuture<Integer> first = client.get(address(), "/ok", emptyMap());
+    CompletableFuture<Integer> second = client.get(address(), "/ok", emptyMap());
+    CompletableFuture<Integer> waiting = client.get(address(), "/ok", emptyMap());
+
+    first.cancel(true);
+    respond = true;
+    second.cancel(true);
+
+    assertEquals(waiting.get(5, SECONDS).intValue(), 200);
+  }
+
+  @Test
+  public void shouldFailProbeWhenServerIsNotAvailable() throws Exception {
+    int port = serverSocket.getLocalPort();
+    serverSocket.close();
+
+    AsyncHttpProbe probe = new AsyncHttpProbe(client, "127.0.0.1", port, "/ok", emptyMap());
+
+    assertFalse(probe.probeAsync().get(5, SECONDS));
+  }
+
+  private InetSocketAddress address() {
+    return new InetSocketAddress(serverSocket.getInetAddress(), serverSocket.getLocalPort());
+  }
+
+  private void accept() {
+    try {
+      while (true) {
+        Socket socket = serverSocket.accept();
+        connections.incrementAndGet();
+        Thread handler = new Thread(() -> serve(socket));
+        handler.setDaemon(true);
+        handler.start();
+      }
+    } catch (IOException ignored) {
+      // server is closed
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (Socket s = socket) {
+      BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), ISO_8859_1));
+      OutputStream out = s.getOutputStream();
+      String requestLine;
+      while ((requestLine = in.readLine()) != null) {
+        String line;
+        do {
+          line = in.readLine();
+        } while (line != null && !line.isEmpty());
+        if (!respond) {
+          // hangs until the client closes the connection
+          while (in.read() != -1) {}
+          return;
+        }
+        String status = requestLine.contains("/ok") ? "200 OK" : "500 Internal Server Error";
+        out.write(
+            ("HTTP/1.1 " + status + "\r\nContent-Length: 2\r\n\r\nok").getBytes(ISO_8859_1));
+        out.flush();
+      }
+    } catch (IOException ignored) {
+      // connection is closed
+    }
+  }
+}
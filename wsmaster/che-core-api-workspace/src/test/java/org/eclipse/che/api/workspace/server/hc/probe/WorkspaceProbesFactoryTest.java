@@ -54,7 +54,8 @@ public class WorkspaceProbesFactoryTest {
   public void setUp() throws Exception {
     lenient().when(tokenProvider.getToken(IDENTITY.getOwnerId(), WORKSPACE_ID)).thenReturn(TOKEN);
 
-    probesFactory = new WorkspaceProbesFactory(tokenProvider, SERVER_PING_SUCCESS_THRESHOLD);
+    probesFactory =
+        new WorkspaceProbesFactory(tokenProvider, SERVER_PING_SUCCESS_THRESHOLD, false, null);
   }
 
   @Test
@@ -208,6 +208,9 @@ public class CascadeRemovalTest {
                 bind(Long.class)
                     .annotatedWith(Names.named("che.limits.workspace.idle.timeout"))
                     .toInstance(100000L);
+                bind(Long.class)
+                    .annotatedWith(Names.named("che.workspace.activity.flush_period_s"))
+                    .toInstance(-1L);
                 bind(UserManager.class);
                 bind(AccountManager.class);
 
@@ -217,6 +220,9 @@ public class CascadeRemovalTest {
                 install(new WorkspaceJpaModule());
                 install(new WorkspaceActivityModule());
                 install(new JpaKubernetesRuntimeCacheModule());
+                bind(Long.class)
+                    .annotatedWith(Names.named("che.infra.kubernetes.runtime_cache.flush_period_ms"))
+                    .toInstance(-1L);
                 bind(WorkspaceManager.class);
 
                 RuntimeInfrastructure infra = mock(RuntimeInfrastructure.class);
@@ -234,7 +240,10 @@ public class CascadeRemovalTest {
                             mock(DBInitializer.class),
                             mock(ProbeScheduler.class),
                             new DefaultWorkspaceStatusCache(),
-                            new DefaultWorkspaceLockService()));
+                            new DefaultWorkspaceLockService(),
+                            null,
+                            1,
+                            0));
                 when(wR.hasRuntime(anyString())).thenReturn(false);
                 bind(WorkspaceRuntimes.class).toInstance(wR);
                 bind(AccountManager.class);